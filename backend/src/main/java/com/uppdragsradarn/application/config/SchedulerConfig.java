@@ -11,15 +11,17 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 public class SchedulerConfig {
 
   /**
-   * Creates a thread pool task scheduler for background jobs
+   * Creates a thread pool task scheduler for timed triggers. The crawl jobs themselves run on the
+   * {@link com.uppdragsradarn.infrastructure.crawler.CrawlExecutor}, so this pool only needs to be
+   * large enough for the scheduled methods.
    *
-   * @return ThreadPoolTaskScheduler configured for assignment crawling tasks
+   * @return ThreadPoolTaskScheduler configured for scheduled triggers
    */
   @Bean
   public ThreadPoolTaskScheduler taskScheduler() {
     ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
     scheduler.setPoolSize(5); // Configurable based on needs
-    scheduler.setThreadNamePrefix("assignment-crawler-");
+    scheduler.setThreadNamePrefix("scheduler-");
     scheduler.setAwaitTerminationSeconds(60);
     scheduler.setWaitForTasksToCompleteOnShutdown(true);
     scheduler.setErrorHandler(
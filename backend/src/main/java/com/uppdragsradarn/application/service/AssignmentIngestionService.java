@@ -0,0 +1,90 @@
+package com.uppdragsradarn.application.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.ExistingAssignment;
+
+/** Service interface for writing crawled assignments to the database in batches */
+public interface AssignmentIngestionService {
+
+  /**
+   * Load the identity of every assignment already stored for a source in a single query
+   *
+   * @param source The source being crawled
+   * @return Stored assignments keyed by external ID
+   */
+  Map<String, ExistingAssignment> loadExisting(Source source);
+
+  /**
+   * Write a batch of crawled assignments. The batch is split into inserts, updates and unchanged
+   * assignments using the existing index and each assignment's content fingerprint, which the
+   * crawler computes before handing the assignment over and which is only read here. Unchanged
+   * assignments are not written at all, inserts and updates are written with JDBC batching. The
+   * index is not modified, the index entries of what was written are returned instead and should
+   * only be applied once the call has returned, so a batch that fails at flush or commit leaves the
+   * index as it was.
+   *
+   * @param source The source the assignments were crawled from
+   * @param batch The crawled assignments
+   * @param existing Stored assignments keyed by external ID, as returned by {@link
+   *     #loadExisting(Source)}
+   * @return The number of created, updated and unchanged assignments
+   */
+  IngestionResult ingest(
+      Source source, List<Assignment> batch, Map<String, ExistingAssignment> existing);
+
+  /**
+   * Record that a crawl found the given assignments at their source, with one set-based update
+   *
+   * @param source The crawled source
+   * @param externalIds External IDs the crawl found
+   * @param seenAt When the crawl found them
+   */
+  void markSeen(Source source, Collection<String> externalIds, LocalDateTime seenAt);
+
+  /**
+   * Deactivate the active assignments of a source that a complete crawl did not find, with one
+   * set-based update. Nothing is deactivated when the crawl found too few of the assignments that
+   * are active, which points at a partially failed crawl, and assignments found within the grace
+   * period are always kept.
+   *
+   * @param source The crawled source
+   * @param seenExternalIds Every external ID the crawl found
+   * @return The number of deactivated assignments, or why the sweep was skipped
+   */
+  SweepResult deactivateMissing(Source source, Set<String> seenExternalIds);
+
+  /**
+   * Outcome of ingesting a batch
+   *
+   * @param created Number of assignments inserted
+   * @param updated Number of existing assignments updated
+   * @param unchanged Number of existing assignments skipped because their content had not changed
+   * @param indexed Index entries of the inserted and updated assignments, keyed by external ID
+   */
+  record IngestionResult(
+      int created, int updated, int unchanged, Map<String, ExistingAssignment> indexed) {}
+
+  /**
+   * Outcome of a deactivation sweep
+   *
+   * @param deactivated Number of assignments deactivated
+   * @param skippedReason Why the sweep did not run, null if it ran
+   */
+  record SweepResult(int deactivated, String skippedReason) {
+
+    public static SweepResult skipped(String reason) {
+      return new SweepResult(0, reason);
+    }
+
+    public boolean isSkipped() {
+      return skippedReason != null;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.uppdragsradarn.domain.model.CrawlTrigger;
 import com.uppdragsradarn.domain.model.CrawlerJobExecution;
 
 /** Service interface for managing crawler operations */
@@ -17,6 +18,16 @@ public interface CrawlerService {
    */
   CrawlerJobExecution startCrawlerJob(UUID sourceId);
 
+  /**
+   * Start a crawler job for a specific source. Scheduled jobs let providers trade latency for cost,
+   * for instance by extracting pages through the OpenAI Batch API.
+   *
+   * @param sourceId The ID of the source to crawl
+   * @param trigger What started the job
+   * @return Details of the initiated job
+   */
+  CrawlerJobExecution startCrawlerJob(UUID sourceId, CrawlTrigger trigger);
+
   /**
    * Get the status of a specific crawler job
    *
@@ -42,7 +53,18 @@ public interface CrawlerService {
    */
   List<CrawlerJobExecution> getSourceCrawlerJobs(UUID sourceId, int limit);
 
-  /** Start scheduled crawler jobs for all active sources */
+  /**
+   * Get the external IDs of the assignments processed by a crawler job
+   *
+   * @param jobId The ID of the job
+   * @return External IDs in processing order
+   */
+  List<String> getProcessedAssignmentIds(String jobId);
+
+  /**
+   * Start crawler jobs for all active sources right away. Regular crawls are started per source by
+   * the adaptive crawl scheduler.
+   */
   void startScheduledCrawlerJobs();
 
   /**
@@ -0,0 +1,252 @@
+package com.uppdragsradarn.application.service.impl;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.uppdragsradarn.application.service.AssignmentIngestionService;
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.AssignmentRepository;
+import com.uppdragsradarn.domain.repository.ExistingAssignment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/** Implementation of the AssignmentIngestionService interface */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AssignmentIngestionServiceImpl implements AssignmentIngestionService {
+
+  private final AssignmentRepository assignmentRepository;
+  private final JdbcTemplate jdbcTemplate;
+
+  // Whether complete crawls deactivate the assignments they no longer find
+  @Value("${app.crawler.deactivation.enabled:true}")
+  private boolean deactivationEnabled;
+
+  // How long an assignment must have been missing from its source before it is deactivated
+  @Value("${app.crawler.deactivation.grace-period:48h}")
+  private String deactivationGracePeriod;
+
+  // Share of the currently active assignments a crawl has to find for the sweep to run
+  @Value("${app.crawler.deactivation.min-coverage:0.7}")
+  private double deactivationMinCoverage;
+
+  @Override
+  @Transactional(readOnly = true)
+  public Map<String, ExistingAssignment> loadExisting(Source source) {
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    for (ExistingAssignment assignment : assignmentRepository.findExistingBySource(source)) {
+      existing.put(assignment.externalId(), assignment);
+    }
+    log.debug("Loaded {} existing assignments for source {}", existing.size(), source.getName());
+    return existing;
+  }
+
+  @Override
+  @Transactional
+  public IngestionResult ingest(
+      Source source, List<Assignment> batch, Map<String, ExistingAssignment> existing) {
+    LocalDateTime now = LocalDateTime.now();
+
+    // Split the batch, the last occurrence wins if a source lists the same job twice
+    List<Assignment> inserts = new ArrayList<>();
+    Map<String, Assignment> insertsByExternalId = new LinkedHashMap<>();
+    Map<UUID, Assignment> updatesById = new LinkedHashMap<>();
+    int unchanged = 0;
+    // Index entries for what this batch writes, the caller applies them once it has committed
+    Map<String, ExistingAssignment> indexed = new HashMap<>();
+    for (Assignment assignment : batch) {
+      assignment.setSource(source);
+      String externalId = assignment.getExternalId();
+      ExistingAssignment stored = externalId != null ? existing.get(externalId) : null;
+      if (stored != null
+          && stored.active()
+          && assignment.getContentHash() != null
+          && assignment.getContentHash().equals(stored.contentHash())) {
+        // Same content as the last crawl, nothing to write
+        updatesById.remove(stored.id());
+        unchanged++;
+      } else if (stored != null) {
+        updatesById.put(stored.id(), assignment);
+      } else if (externalId != null) {
+        insertsByExternalId.put(externalId, assignment);
+      } else {
+        inserts.add(assignment);
+      }
+    }
+    inserts.addAll(insertsByExternalId.values());
+
+    // Updates: load the stored rows in one query and copy the crawled fields onto them
+    int updated = 0;
+    if (!updatesById.isEmpty()) {
+      List<Assignment> storedAssignments = assignmentRepository.findAllById(updatesById.keySet());
+      for (Assignment stored : storedAssignments) {
+        updateAssignmentFields(stored, updatesById.get(stored.getId()));
+        stored.setUpdatedAt(now);
+        setOriginalLocationText(stored);
+        indexed.put(
+            stored.getExternalId(),
+            new ExistingAssignment(
+                stored.getExternalId(),
+                stored.getId(),
+                stored.getContentHash(),
+                stored.isActive()));
+      }
+      assignmentRepository.saveAll(storedAssignments);
+      updated = storedAssignments.size();
+    }
+
+    // Inserts: ids are generated client side so Hibernate can batch the statements
+    if (!inserts.isEmpty()) {
+      for (Assignment assignment : inserts) {
+        if (assignment.getCreatedAt() == null) {
+          assignment.setCreatedAt(now);
+        }
+        assignment.setUpdatedAt(now);
+        setOriginalLocationText(assignment);
+      }
+      for (Assignment saved : assignmentRepository.saveAll(inserts)) {
+        if (saved.getExternalId() != null) {
+          indexed.put(
+              saved.getExternalId(),
+              new ExistingAssignment(
+                  saved.getExternalId(), saved.getId(), saved.getContentHash(), saved.isActive()));
+        }
+      }
+    }
+
+    log.debug(
+        "Ingested batch of {} for source {}: {} created, {} updated, {} unchanged",
+        batch.size(),
+        source.getName(),
+        inserts.size(),
+        updated,
+        unchanged);
+    return new IngestionResult(inserts.size(), updated, unchanged, indexed);
+  }
+
+  @Override
+  @Transactional
+  public void markSeen(Source source, Collection<String> externalIds, LocalDateTime seenAt) {
+    if (externalIds.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.update(
+        "UPDATE assignments SET last_seen_at = ? WHERE source_id = ? AND external_id = ANY(?)",
+        ps -> {
+          ps.setTimestamp(1, Timestamp.valueOf(seenAt));
+          ps.setObject(2, source.getId());
+          ps.setArray(3, ps.getConnection().createArrayOf("varchar", externalIds.toArray()));
+        });
+  }
+
+  @Override
+  @Transactional
+  public SweepResult deactivateMissing(Source source, Set<String> seenExternalIds) {
+    if (!deactivationEnabled) {
+      return SweepResult.skipped("deactivation is disabled");
+    }
+    long active = assignmentRepository.countBySourceAndActiveTrue(source);
+    if (active == 0) {
+      return new SweepResult(0, null);
+    }
+    // Only assignments that are already active count, new ones do not make up for missing ones
+    long found = countActiveAmong(source, seenExternalIds);
+    if (found < deactivationMinCoverage * active) {
+      log.warn(
+          "Crawl of {} found {} of {} active assignments, below the minimum coverage of {},"
+              + " skipping deactivation",
+          source.getName(),
+          found,
+          active,
+          deactivationMinCoverage);
+      return SweepResult.skipped(
+          String.format(
+              "found %d of %d active assignments, below minimum coverage", found, active));
+    }
+
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime cutoff = now.minus(DurationStyle.detectAndParse(deactivationGracePeriod));
+    int deactivated =
+        jdbcTemplate.update(
+            "UPDATE assignments SET active = FALSE, updated_at = ?"
+                + " WHERE source_id = ? AND active = TRUE AND external_id IS NOT NULL"
+                + " AND external_id <> ALL(?) AND COALESCE(last_seen_at, updated_at) < ?",
+            ps -> {
+              ps.setTimestamp(1, Timestamp.valueOf(now));
+              ps.setObject(2, source.getId());
+              ps.setArray(
+                  3, ps.getConnection().createArrayOf("varchar", seenExternalIds.toArray()));
+              ps.setTimestamp(4, Timestamp.valueOf(cutoff));
+            });
+    log.info("Deactivated {} assignments no longer listed by {}", deactivated, source.getName());
+    return new SweepResult(deactivated, null);
+  }
+
+  private long countActiveAmong(Source source, Set<String> externalIds) {
+    if (externalIds.isEmpty()) {
+      return 0;
+    }
+    Long count =
+        jdbcTemplate.query(
+            "SELECT COUNT(*) FROM assignments"
+                + " WHERE source_id = ? AND active = TRUE AND external_id = ANY(?)",
+            ps -> {
+              ps.setObject(1, source.getId());
+              ps.setArray(2, ps.getConnection().createArrayOf("varchar", externalIds.toArray()));
+            },
+            rs -> rs.next() ? rs.getLong(1) : 0L);
+    return count != null ? count : 0;
+  }
+
+  /** Set the originalLocationText field for compatibility with old code */
+  private void setOriginalLocationText(Assignment assignment) {
+    if (assignment.getAssignmentLocations() != null
+        && !assignment.getAssignmentLocations().isEmpty()) {
+      assignment.setOriginalLocationText(assignment.getFormattedLocation());
+    }
+  }
+
+  /**
+   * Update assignment fields from a new assignment
+   *
+   * @param existing The existing assignment to update
+   * @param newAssignment The new assignment with updated fields
+   */
+  private void updateAssignmentFields(Assignment existing, Assignment newAssignment) {
+    existing.setTitle(newAssignment.getTitle());
+    existing.setDescription(newAssignment.getDescription());
+    existing.setCompanyName(newAssignment.getCompanyName());
+    existing.setRemotePercentage(newAssignment.getRemotePercentage());
+    existing.setDurationMonths(newAssignment.getDurationMonths());
+    existing.setStartDate(newAssignment.getStartDate());
+    existing.setHourlyRateMin(newAssignment.getHourlyRateMin());
+    existing.setHourlyRateMax(newAssignment.getHourlyRateMax());
+    existing.setCurrency(newAssignment.getCurrency());
+    existing.setHoursPerWeek(newAssignment.getHoursPerWeek());
+    existing.setApplicationDeadline(newAssignment.getApplicationDeadline());
+    existing.setApplicationUrl(newAssignment.getApplicationUrl());
+    existing.setActive(newAssignment.isActive());
+    existing.setStatus(newAssignment.getStatus());
+    existing.setContentHash(newAssignment.getContentHash());
+
+    // Skills and locations are managed through AssignmentSkill and AssignmentLocation entities
+    // and are not touched by crawl updates
+  }
+}
@@ -1,30 +1,46 @@
 package com.uppdragsradarn.application.service.impl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.scheduling.annotation.Scheduled;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.uppdragsradarn.application.service.AssignmentService;
+import com.uppdragsradarn.application.service.AssignmentIngestionService;
+import com.uppdragsradarn.application.service.AssignmentIngestionService.IngestionResult;
+import com.uppdragsradarn.application.service.AssignmentIngestionService.SweepResult;
 import com.uppdragsradarn.application.service.CrawlerService;
-import com.uppdragsradarn.application.service.LocationService;
+import com.uppdragsradarn.domain.exception.CrawlInProgressException;
+import com.uppdragsradarn.domain.exception.SourceCircuitOpenException;
 import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.AssignmentFingerprint;
+import com.uppdragsradarn.domain.model.CrawlMode;
+import com.uppdragsradarn.domain.model.CrawlTrigger;
 import com.uppdragsradarn.domain.model.CrawlerException;
 import com.uppdragsradarn.domain.model.CrawlerJobExecution;
 import com.uppdragsradarn.domain.model.Source;
 import com.uppdragsradarn.domain.model.StatusType;
-import com.uppdragsradarn.domain.repository.AssignmentRepository;
+import com.uppdragsradarn.domain.repository.CrawlerJobProcessedAssignmentRepository;
 import com.uppdragsradarn.domain.repository.CrawlerJobRepository;
+import com.uppdragsradarn.domain.repository.ExistingAssignment;
 import com.uppdragsradarn.domain.repository.SourceRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
 import com.uppdragsradarn.domain.service.AssignmentCrawler;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.crawler.AssignmentPipeline;
+import com.uppdragsradarn.infrastructure.crawler.CrawlExecutor;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgress;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgressRegistry;
 import com.uppdragsradarn.infrastructure.crawler.SimpleCrawlerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.lease.CrawlLease;
+import com.uppdragsradarn.infrastructure.crawler.lease.CrawlLeaseManager;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,20 +52,47 @@ import lombok.extern.slf4j.Slf4j;
 public class CrawlerServiceImpl implements CrawlerService {
 
   private final SourceRepository sourceRepository;
-  private final AssignmentRepository assignmentRepository;
-  private final AssignmentService assignmentService;
-  private final LocationService locationService;
-  private final ThreadPoolTaskScheduler taskScheduler;
+  private final AssignmentIngestionService ingestionService;
+  private final CrawlExecutor crawlExecutor;
+  private final CrawlProgressRegistry progressRegistry;
+  private final CrawlLeaseManager crawlLeaseManager;
+  private final SourceCircuitBreakerRegistry circuitBreakers;
   private final CrawlerJobRepository crawlerJobRepository;
+  private final CrawlerJobProcessedAssignmentRepository processedAssignmentRepository;
   private final SimpleCrawlerRegistry crawlerRegistry;
   private final StatusTypeRepository statusTypeRepository;
 
-  // In-memory tracking of currently running jobs
-  private final Map<String, Future<?>> runningJobs = new ConcurrentHashMap<>();
+  // Number of crawled assignments that may wait for persistence before the provider is paused
+  @Value("${app.crawler.pipeline.buffer-size:16}")
+  private int pipelineBufferSize;
+
+  // Number of crawled assignments written together in one ingestion call
+  @Value("${app.crawler.pipeline.ingest-batch-size:50}")
+  private int ingestBatchSize;
+
+  // Whether crawls may stop early once they reach pages that were already seen
+  @Value("${app.crawler.incremental.enabled:true}")
+  private boolean incrementalEnabled;
+
+  // Maximum time between full crawls of a source, which catch edits on older listings
+  @Value("${app.crawler.incremental.full-crawl-interval:24h}")
+  private String fullCrawlInterval;
+
+  // Jobs running on this instance together with the lease that keeps their source to themselves
+  private final Map<String, RunningJob> runningJobs = new ConcurrentHashMap<>();
+
+  // Jobs on this instance that have given up their lease and wait for deferred deliveries
+  private final Map<String, Future<?>> waitingJobs = new ConcurrentHashMap<>();
 
   @Override
   @Transactional
   public CrawlerJobExecution startCrawlerJob(UUID sourceId) {
+    return startCrawlerJob(sourceId, CrawlTrigger.MANUAL);
+  }
+
+  @Override
+  @Transactional
+  public CrawlerJobExecution startCrawlerJob(UUID sourceId, CrawlTrigger trigger) {
     Source source =
         sourceRepository
             .findById(sourceId)
@@ -59,13 +102,31 @@ public class CrawlerServiceImpl implements CrawlerService {
     // Create a unique job ID
     String jobId = UUID.randomUUID().toString();
 
+    // Only one job may crawl a source at a time, on any instance
+    CrawlLease lease =
+        crawlLeaseManager
+            .tryAcquire(sourceId, jobId)
+            .orElseThrow(
+                () ->
+                    new CrawlInProgressException(
+                        "Source is already being crawled: " + source.getName()));
+
+    // Sources that keep failing are skipped until their breaker lets a probe crawl through
+    if (!circuitBreakers.tryAcquire(sourceId)) {
+      releaseLease(lease);
+      throw new SourceCircuitOpenException(
+          "Source is skipped after repeated failures: " + source.getName());
+    }
+
     // Create the job execution record
+    CrawlMode crawlMode = chooseCrawlMode(source);
     CrawlerJobExecution jobExecution =
         CrawlerJobExecution.builder()
             .id(jobId)
             .source(source)
             .sourceName(source.getName())
             .startTime(LocalDateTime.now())
+            .crawlMode(crawlMode)
             .status(getStatusType("RUNNING"))
             .build();
 
@@ -75,6 +136,8 @@ public class CrawlerServiceImpl implements CrawlerService {
     // Find a suitable crawler using the registry
     AssignmentCrawler crawler = crawlerRegistry.findCrawler(source);
     if (crawler == null) {
+      circuitBreakers.release(sourceId);
+      releaseLease(lease);
       updateJobStatus(
           jobId,
           getStatusType("FAILED"),
@@ -82,11 +145,14 @@ public class CrawlerServiceImpl implements CrawlerService {
       return jobExecution;
     }
 
-    // Schedule the crawler job
-    Future<?> future = taskScheduler.submit(() -> executeCrawlerJob(jobId, source, crawler));
-    runningJobs.put(jobId, future);
+    // Hand the job to the crawl executor, it starts once the concurrency limits allow it
+    Future<?> future =
+        crawlExecutor.submit(
+            source, () -> executeCrawlerJob(jobId, source, crawler, lease, crawlMode, trigger));
+    runningJobs.put(jobId, new RunningJob(future, lease));
 
-    log.info("Started crawler job {} for source: {}", jobId, source.getName());
+    log.info(
+        "Started {} {} crawler job {} for source: {}", trigger, crawlMode, jobId, source.getName());
     return jobExecution;
   }
 
@@ -111,7 +177,12 @@ public class CrawlerServiceImpl implements CrawlerService {
   }
 
   @Override
-  @Scheduled(cron = "${app.crawler.schedule:0 0 */6 * * *}") // Default: every 6 hours
+  @Transactional(readOnly = true)
+  public List<String> getProcessedAssignmentIds(String jobId) {
+    return processedAssignmentRepository.findExternalIdsByJobId(jobId);
+  }
+
+  @Override
   public void startScheduledCrawlerJobs() {
     log.info("Starting scheduled crawler jobs");
     List<Source> activeSources = sourceRepository.findByActiveTrue();
@@ -119,6 +190,9 @@ public class CrawlerServiceImpl implements CrawlerService {
     for (Source source : activeSources) {
       try {
         startCrawlerJob(source.getId());
+      } catch (CrawlInProgressException | SourceCircuitOpenException e) {
+        // Every replica fires the schedule, the one holding the lease does the crawl
+        log.debug("Skipping scheduled crawl of {}: {}", source.getName(), e.getMessage());
       } catch (Exception e) {
         log.error(
             "Error scheduling crawler job for source {}: {}", source.getName(), e.getMessage(), e);
@@ -128,171 +202,495 @@ public class CrawlerServiceImpl implements CrawlerService {
 
   @Override
   public boolean cancelCrawlerJob(String jobId) {
-    Future<?> job = runningJobs.get(jobId);
-    if (job != null && !job.isDone() && !job.isCancelled()) {
-      boolean cancelled = job.cancel(true);
+    Future<?> waiting = waitingJobs.remove(jobId);
+    if (waiting != null && waiting.cancel(true)) {
+      updateJobStatus(jobId, getStatusType("CANCELLED"), null);
+      progressRegistry.complete(jobId, "CANCELLED");
+      return true;
+    }
+
+    RunningJob job = runningJobs.get(jobId);
+    if (job != null) {
+      if (job.future().isDone()) {
+        return false;
+      }
+      boolean cancelled = job.future().cancel(true);
       if (cancelled) {
         updateJobStatus(jobId, getStatusType("CANCELLED"), null);
         runningJobs.remove(jobId);
+        // A job cancelled while queued never started, so nothing else releases its lease
+        releaseLease(job.lease());
+        circuitBreakers.release(job.lease().sourceId());
+        progressRegistry.complete(jobId, "CANCELLED");
       }
       return cancelled;
     }
+
+    // The job may be running on another instance, which picks the request up on its next renewal
+    if (crawlLeaseManager.requestCancel(jobId)) {
+      updateJobStatus(jobId, getStatusType("CANCELLED"), null);
+      log.info("Requested cancellation of crawler job {} running on another instance", jobId);
+      return true;
+    }
     return false;
   }
 
+  /**
+   * Renew the leases of the jobs running on this instance and stop the jobs whose lease was lost or
+   * whose cancellation was requested elsewhere.
+   */
+  @Scheduled(fixedDelayString = "${app.crawler.lease.heartbeat-interval-ms:15000}")
+  public void renewCrawlLeases() {
+    // Waiting jobs hold no lease, they only need forgetting once they are done
+    waitingJobs.values().removeIf(Future::isDone);
+    runningJobs.forEach(
+        (jobId, job) -> {
+          if (job.future().isDone()) {
+            runningJobs.remove(jobId, job);
+            return;
+          }
+          CrawlLeaseManager.LeaseState state;
+          try {
+            state = crawlLeaseManager.renew(job.lease());
+          } catch (Exception e) {
+            // Keep crawling, the lease survives a few missed renewals
+            log.warn("Error renewing crawl lease of job {}: {}", jobId, e.getMessage());
+            return;
+          }
+          switch (state) {
+            case HELD -> {}
+            case CANCEL_REQUESTED -> {
+              log.info("Cancelling crawler job {} on request from another instance", jobId);
+              stopJob(jobId, job);
+            }
+            case LOST -> {
+              log.warn("Crawler job {} lost its crawl lease, stopping it", jobId);
+              stopJob(jobId, job);
+              updateJobStatus(jobId, getStatusType("FAILED"), "Crawl lease expired");
+            }
+          }
+        });
+  }
+
+  private void stopJob(String jobId, RunningJob job) {
+    job.future().cancel(true);
+    runningJobs.remove(jobId, job);
+    releaseLease(job.lease());
+    circuitBreakers.release(job.lease().sourceId());
+    progressRegistry.complete(jobId, "CANCELLED");
+  }
+
   /**
    * Execute a crawler job for a specific source
    *
    * @param jobId The job ID
    * @param source The source to crawl
    * @param crawler The crawler to use
+   * @param lease The crawl lease held for the source
+   * @param crawlMode Whether the crawl may stop early on pages that were already seen
+   * @param trigger What started the job
    */
-  private void executeCrawlerJob(String jobId, Source source, AssignmentCrawler crawler) {
+  private void executeCrawlerJob(
+      String jobId,
+      Source source,
+      AssignmentCrawler crawler,
+      CrawlLease lease,
+      CrawlMode crawlMode,
+      CrawlTrigger trigger) {
     log.info(
         "Executing crawler job {} for source: {} using crawler: {}",
         jobId,
         source.getName(),
         crawler.getName());
 
+    CrawlProgress progress = progressRegistry.start(jobId, source.getName());
+    long startNanos = System.nanoTime();
     try {
-      // Process and save the assignments with immediate persistence
-      AtomicInteger created = new AtomicInteger(0);
-      AtomicInteger updated = new AtomicInteger(0);
-      List<String> processedIds = new ArrayList<>();
-
-      // Track found assignments count (we'll process them one by one)
-      AtomicInteger foundCount = new AtomicInteger(0);
-
-      try {
-        // Fetch and process assignments from the source
-        List<Assignment> assignments = crawler.fetchAssignments(source);
-        foundCount.set(assignments.size());
-
-        for (Assignment assignment : assignments) {
-          try {
-            // Set the source before saving
-            assignment.setSource(source);
+      // Load what is already stored for the source once, instead of a lookup per item
+      CrawlRun run = new CrawlRun(source, ingestionService.loadExisting(source), progress);
+
+      CrawlerException fetchError = null;
+      try (AssignmentPipeline pipeline =
+          new AssignmentPipeline(pipelineBufferSize, persister(run), "crawl-persist-" + jobId)) {
+        AssignmentSink sink =
+            producerSink(
+                run,
+                pipeline,
+                crawlMode == CrawlMode.INCREMENTAL,
+                trigger == CrawlTrigger.SCHEDULED);
+        try {
+          // Fetch assignments from the source, they are handed off as soon as they are parsed
+          crawler.fetchAssignments(source, sink);
+        } catch (CrawlerException e) {
+          // Keep what was already handed off, the pipeline still has to drain it
+          fetchError = e;
+        }
+        pipeline.complete();
+      }
 
-            // Process this individual assignment
-            processAssignment(assignment, source, created, updated);
+      // Write whatever is left in the last, partial batch
+      ingestBatch(run);
 
-            // Add to processed list
-            processedIds.add(assignment.getExternalId());
+      // Remember when the crawl last found each assignment, the sweep's grace period depends on it
+      ingestionService.markSeen(source, run.seen, LocalDateTime.now());
 
-            // Update job progress periodically (every 10 assignments)
-            if ((created.get() + updated.get()) % 10 == 0) {
-              updateJobProgress(
-                  jobId, foundCount.get(), created.get(), updated.get(), processedIds);
-            }
-          } catch (Exception e) {
-            log.error("Error processing individual assignment: {}", e.getMessage(), e);
-            // Continue with next assignment despite error
-          }
-        }
-      } catch (CrawlerException e) {
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+      if (fetchError != null) {
+        circuitBreakers.recordFailure(source.getId(), elapsed);
         // Log the error but don't fail the job if we have processed some assignments
         log.error(
-            "Error fetching assignments from source {}: {}", source.getName(), e.getMessage(), e);
-        if (created.get() == 0 && updated.get() == 0) {
+            "Error fetching assignments from source {}: {}",
+            source.getName(),
+            fetchError.getMessage(),
+            fetchError);
+        if (progress.getProcessed() == 0 && run.deferred.isEmpty()) {
           // Rethrow the exception if we haven't processed any assignments
-          throw e;
+          throw fetchError;
         }
+        progress.addEvent("FETCH_ERROR", fetchError.getMessage());
+      } else {
+        circuitBreakers.recordSuccess(source.getId(), elapsed);
       }
 
-      // Update the job status in the database
-      updateJobProgress(jobId, foundCount.get(), created.get(), updated.get(), processedIds);
+      if (!run.deferred.isEmpty()) {
+        // Deferred deliveries such as LLM batches may take hours. Returning here gives the
+        // executor permits and the crawl lease to the next crawl while a waiter finishes the job
+        progress.addEvent(
+            "WAITING", String.format("%d deferred deliveries pending", run.deferred.size()));
+        boolean sweep = fetchError == null;
+        waitingJobs.put(
+            jobId,
+            crawlExecutor.submitWaiting(
+                () -> finishDeferredCrawlerJob(jobId, run, crawlMode, trigger, sweep)));
+        log.info("Crawler job {} is waiting for deferred deliveries", jobId);
+        return;
+      }
 
-      updateJobStatus(jobId, getStatusType("SUCCESS"), null);
-      log.info(
-          "Crawler job {} completed successfully. Found: {}, Created: {}, Updated: {}",
-          jobId,
-          foundCount.get(),
-          created,
-          updated);
+      finishCrawlerJob(jobId, run, crawlMode, fetchError == null);
 
+    } catch (InterruptedException e) {
+      // The job was cancelled, cancelCrawlerJob has already recorded the status. The final flush
+      // runs before the interrupt flag is restored so it can still reach the database
+      log.info("Crawler job {} was interrupted", jobId);
+      progressRegistry.complete(jobId, "CANCELLED");
+      Thread.currentThread().interrupt();
     } catch (Exception e) {
       log.error("Unexpected error in crawler job {}: {}", jobId, e.getMessage(), e);
       updateJobStatus(jobId, getStatusType("FAILED"), "Unexpected error: " + e.getMessage());
+      progressRegistry.complete(jobId, "FAILED");
     } finally {
       runningJobs.remove(jobId);
+      releaseLease(lease);
+      // Frees a half-open probe that ended without an outcome, a no-op otherwise
+      circuitBreakers.release(source.getId());
     }
   }
 
   /**
-   * Process and save a single assignment
+   * Run the deliveries a crawler job left for later and finish the job. This runs on a waiter
+   * thread after the crawl has returned its executor permits and lease, so the source and its host
+   * can be crawled again in the meantime.
    *
-   * @param assignment The assignment to process
-   * @param source The source
-   * @param created Counter for created assignments
-   * @param updated Counter for updated assignments
+   * @param jobId The job ID
+   * @param run The crawl run whose deliveries are pending
+   * @param crawlMode The mode the crawl ran in
+   * @param trigger What started the job
+   * @param sweep Whether the crawl fetched the whole listing, so missing assignments may be swept
    */
-  @Transactional
-  protected void processAssignment(
-      Assignment assignment, Source source, AtomicInteger created, AtomicInteger updated) {
-    // Try to find an existing assignment with the same external ID
-    Optional<Assignment> existingOpt =
-        assignmentRepository.findBySourceAndExternalId(source, assignment.getExternalId());
-
-    if (existingOpt.isPresent()) {
-      // Update existing assignment
-      Assignment existing = existingOpt.get();
-      // Copy relevant fields from new assignment to existing one
-      updateAssignmentFields(existing, assignment);
-      assignmentService.updateAssignment(existing);
-      updated.incrementAndGet();
-
-      // Log update of description
-      if (existing.getDescription() != null) {
-        log.debug(
-            "Updated assignment with description (length: {}): {}",
-            existing.getDescription().length(),
-            existing.getExternalId());
-      } else {
-        log.warn("Updated assignment but description is null: {}", existing.getExternalId());
+  private void finishDeferredCrawlerJob(
+      String jobId, CrawlRun run, CrawlMode crawlMode, CrawlTrigger trigger, boolean sweep) {
+    try {
+      // The deliveries arrive all at once when their batch is done, so they are persisted right
+      // here instead of through a pipeline
+      AssignmentSink persister = persister(run);
+      AssignmentSink downstream =
+          new AssignmentSink() {
+            private boolean reloaded;
+
+            @Override
+            public void accept(Assignment assignment) {
+              if (!reloaded) {
+                // Another crawl of the source may have written to it during the wait, so the
+                // deliveries are matched against what is stored now
+                run.existing.clear();
+                run.existing.putAll(ingestionService.loadExisting(run.source));
+                reloaded = true;
+              }
+              persister.accept(assignment);
+            }
+          };
+      AssignmentSink sink = producerSink(run, downstream, false, trigger == CrawlTrigger.SCHEDULED);
+      for (AssignmentSink.Deferred deferred : run.deferred) {
+        deferred.deliver(sink);
       }
-    } else {
-      // Create new assignment
-      Assignment created_assignment = assignmentService.createAssignment(assignment);
-      created.incrementAndGet();
-
-      // Location normalization will now be handled through AssignmentLocation entities
-      // Any location information in the assignment will be processed through locationService
-
-      // Log creation with description
-      if (created_assignment.getDescription() != null) {
-        log.debug(
-            "Created assignment with description (length: {}): {}",
-            created_assignment.getDescription().length(),
-            created_assignment.getExternalId());
-      } else {
-        log.warn(
-            "Created assignment but description is null: {}", created_assignment.getExternalId());
+      ingestBatch(run);
+      ingestionService.markSeen(run.source, run.seen, LocalDateTime.now());
+      finishCrawlerJob(jobId, run, crawlMode, sweep);
+    } catch (InterruptedException e) {
+      log.info("Crawler job {} was interrupted while waiting for deferred deliveries", jobId);
+      progressRegistry.complete(jobId, "CANCELLED");
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.error("Unexpected error in crawler job {}: {}", jobId, e.getMessage(), e);
+      updateJobStatus(jobId, getStatusType("FAILED"), "Unexpected error: " + e.getMessage());
+      progressRegistry.complete(jobId, "FAILED");
+    }
+  }
+
+  /**
+   * Finish a crawler job once everything it found has been ingested and marked as seen: sweep what
+   * a full crawl no longer found and mark the job successful.
+   *
+   * @param jobId The job ID
+   * @param run The finished crawl run
+   * @param crawlMode The mode the crawl ran in
+   * @param sweep Whether the crawl fetched the whole listing, so missing assignments may be swept
+   */
+  private void finishCrawlerJob(String jobId, CrawlRun run, CrawlMode crawlMode, boolean sweep) {
+    CrawlProgress progress = run.progress;
+
+    if (sweep && crawlMode == CrawlMode.FULL && run.incompleteReason != null) {
+      log.warn(
+          "Crawl of {} was incomplete, skipping deactivation: {}",
+          run.source.getName(),
+          run.incompleteReason);
+      progress.addEvent("DEACTIVATION_SKIPPED", run.incompleteReason);
+    } else if (sweep && crawlMode == CrawlMode.FULL) {
+      // Only a complete listing tells which assignments have disappeared from the source
+      deactivateMissing(jobId, run);
+    }
+
+    // Update the job status in the database
+    updateJobStatus(jobId, getStatusType("SUCCESS"), null);
+    progressRegistry.complete(jobId, "SUCCESS");
+    log.info(
+        "Crawler job {} completed successfully. Found: {}, Created: {}, Updated: {}, Unchanged: {}",
+        jobId,
+        progress.getFound(),
+        progress.getCreated(),
+        progress.getUpdated(),
+        progress.getUnchanged());
+  }
+
+  /**
+   * Create the sink that writes a run's assignments in batches. During the crawl it runs on the
+   * pipeline's consumer thread while the provider keeps fetching, and only the consumer touches the
+   * run until the pipeline has been joined.
+   */
+  private AssignmentSink persister(CrawlRun run) {
+    return assignment -> {
+      run.batch.add(assignment);
+      if (run.batch.size() >= ingestBatchSize) {
+        ingestBatch(run);
       }
+    };
+  }
+
+  /**
+   * Create the sink the crawler hands its assignments to. In incremental mode it also tells the
+   * crawler to stop paginating once a page holds only assignments whose fingerprint matches the
+   * stored one.
+   *
+   * @param run The crawl run
+   * @param downstream Where the accepted assignments go, during the crawl the pipeline to the
+   *     persisting consumer
+   * @param incremental Whether the crawl may stop early
+   * @param scheduled Whether the crawl was started by the scheduler
+   * @return The sink for the crawler
+   */
+  private AssignmentSink producerSink(
+      CrawlRun run, AssignmentSink downstream, boolean incremental, boolean scheduled) {
+    // The consumer updates run.existing while the crawler runs, so take a private copy
+    Set<String> activeIds = new HashSet<>();
+    run.existing.values().stream()
+        .filter(ExistingAssignment::active)
+        .forEach(known -> activeIds.add(known.externalId()));
+    Map<String, String> knownHashes = new HashMap<>();
+    if (incremental) {
+      run.existing
+          .values()
+          .forEach(
+              known -> {
+                if (known.contentHash() != null) {
+                  knownHashes.put(known.externalId(), known.contentHash());
+                }
+              });
     }
+
+    return new AssignmentSink() {
+      @Override
+      public void accept(Assignment assignment) {
+        run.progress.assignmentFound();
+        if (assignment.getExternalId() != null) {
+          run.seen.add(assignment.getExternalId());
+        }
+        // Fingerprinted once, before the ingestion thread sees it, which only reads the hash
+        assignment.setContentHash(AssignmentFingerprint.compute(assignment));
+        downstream.accept(assignment);
+      }
+
+      @Override
+      public boolean shouldStopPaging(List<Assignment> page) {
+        if (knownHashes.isEmpty() || page.isEmpty()) {
+          return false;
+        }
+        for (Assignment assignment : page) {
+          String knownHash = knownHashes.get(assignment.getExternalId());
+          if (knownHash == null || !knownHash.equals(assignment.getContentHash())) {
+            return false;
+          }
+        }
+        run.progress.addEvent("INCREMENTAL_STOP", "Reached a page of known assignments");
+        return true;
+      }
+
+      @Override
+      public boolean acceptUnchanged(String externalId) {
+        // Only active stored assignments can be skipped, anything else still has to be ingested
+        if (externalId == null || !activeIds.contains(externalId)) {
+          return false;
+        }
+        run.seen.add(externalId);
+        run.progress.assignmentNotModified(externalId);
+        return true;
+      }
+
+      @Override
+      public boolean isScheduled() {
+        return scheduled;
+      }
+
+      @Override
+      public void reportIncomplete(String reason) {
+        run.incompleteReason = reason;
+        run.progress.addEvent("INCOMPLETE", reason);
+      }
+
+      @Override
+      public void acceptLater(Deferred deferred) {
+        run.deferred.add(deferred);
+      }
+    };
   }
 
   /**
-   * Update job progress in the database
+   * Deactivate the assignments a complete crawl no longer found at the source
    *
    * @param jobId The job ID
-   * @param foundCount Total assignments found
-   * @param createdCount Assignments created
-   * @param updatedCount Assignments updated
-   * @param processedIds IDs of processed assignments
+   * @param run The finished crawl run
    */
-  @Transactional
-  protected void updateJobProgress(
-      String jobId, int foundCount, int createdCount, int updatedCount, List<String> processedIds) {
-    crawlerJobRepository
-        .findById(jobId)
-        .ifPresent(
-            updatedJob -> {
-              updatedJob.setAssignmentsFound(foundCount);
-              updatedJob.setAssignmentsCreated(createdCount);
-              updatedJob.setAssignmentsUpdated(updatedCount);
-              updatedJob.setProcessedAssignmentIds(String.join(",", processedIds));
-              crawlerJobRepository.save(updatedJob);
-            });
+  private void deactivateMissing(String jobId, CrawlRun run) {
+    SweepResult sweep = ingestionService.deactivateMissing(run.source, run.seen);
+    if (sweep.isSkipped()) {
+      run.progress.addEvent("DEACTIVATION_SKIPPED", sweep.skippedReason());
+      return;
+    }
+    run.progress.addEvent(
+        "DEACTIVATED", String.format("%d assignments no longer listed", sweep.deactivated()));
+    crawlerJobRepository.updateDeactivated(jobId, sweep.deactivated());
+  }
+
+  /**
+   * Choose between a full and an incremental crawl. Sources get a full crawl when the last
+   * successful one is older than the configured full crawl interval.
+   *
+   * @param source The source to crawl
+   * @return The crawl mode for the next job
+   */
+  private CrawlMode chooseCrawlMode(Source source) {
+    if (!incrementalEnabled) {
+      return CrawlMode.FULL;
+    }
+    LocalDateTime lastFullCrawl =
+        crawlerJobRepository.findLastSuccessfulStart(source.getId(), CrawlMode.FULL);
+    Duration interval = DurationStyle.detectAndParse(fullCrawlInterval);
+    if (lastFullCrawl == null || lastFullCrawl.isBefore(LocalDateTime.now().minus(interval))) {
+      return CrawlMode.FULL;
+    }
+    return CrawlMode.INCREMENTAL;
+  }
+
+  /**
+   * Release a crawl lease. A pending interrupt is cleared for the duration of the call so a
+   * cancelled job can still reach the lease store; a failed release just lets the lease expire.
+   */
+  private void releaseLease(CrawlLease lease) {
+    boolean interrupted = Thread.interrupted();
+    try {
+      crawlLeaseManager.release(lease);
+    } catch (Exception e) {
+      log.warn("Error releasing crawl lease of job {}: {}", lease.jobId(), e.getMessage());
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Write the buffered assignments of a run with one bulk ingestion call. If the batch fails as a
+   * whole, its assignments are retried one by one so a single bad item cannot drop the others. The
+   * run's index of stored assignments only takes in what was committed.
+   *
+   * @param run The crawl run whose batch should be written
+   */
+  private void ingestBatch(CrawlRun run) {
+    if (run.batch.isEmpty()) {
+      return;
+    }
+    try {
+      record(run, ingestionService.ingest(run.source, run.batch, run.existing), run.batch);
+    } catch (Exception e) {
+      log.warn(
+          "Error ingesting batch of {} assignments, retrying individually: {}",
+          run.batch.size(),
+          e.getMessage());
+      // The rolled back batch may have left generated ids and hashes on its assignments, which
+      // would make the retry merge rows that were never written
+      run.batch.forEach(CrawlerServiceImpl::resetIdentity);
+      for (Assignment assignment : run.batch) {
+        try {
+          record(
+              run,
+              ingestionService.ingest(run.source, List.of(assignment), run.existing),
+              List.of(assignment));
+        } catch (Exception itemError) {
+          run.progress.assignmentFailed(assignment.getExternalId(), itemError.getMessage());
+          log.error(
+              "Error processing individual assignment {}: {}",
+              assignment.getExternalId(),
+              itemError.getMessage(),
+              itemError);
+          // Continue with next assignment despite error
+        }
+      }
+    } finally {
+      run.batch.clear();
+    }
+  }
+
+  /**
+   * Clear what a failed ingestion may have set on a crawled assignment, the content hash was
+   * computed by the crawler and stays
+   */
+  private static void resetIdentity(Assignment assignment) {
+    assignment.setId(null);
+    if (assignment.getAssignmentLocations() != null) {
+      assignment.getAssignmentLocations().forEach(location -> location.setId(null));
+    }
+  }
+
+  /**
+   * Record an ingested batch in memory, the progress registry writes it out periodically, and add
+   * what it wrote to the run's index
+   */
+  private void record(CrawlRun run, IngestionResult result, List<Assignment> assignments) {
+    run.existing.putAll(result.indexed());
+    run.progress.batchIngested(
+        result.created(),
+        result.updated(),
+        result.unchanged(),
+        assignments.stream().map(Assignment::getExternalId).filter(Objects::nonNull).toList());
   }
 
   /**
@@ -320,12 +718,6 @@ public class CrawlerServiceImpl implements CrawlerService {
             });
   }
 
-  /**
-   * Update assignment fields from a new assignment
-   *
-   * @param existing The existing assignment to update
-   * @param newAssignment The new assignment with updated fields
-   */
   /**
    * Get a StatusType by name with entity type CRAWLER_JOB
    *
@@ -342,27 +734,28 @@ public class CrawlerServiceImpl implements CrawlerService {
                     "StatusType with name " + name + " and entityType CRAWLER_JOB not found"));
   }
 
-  private void updateAssignmentFields(Assignment existing, Assignment newAssignment) {
-    // Update all relevant fields
-    existing.setTitle(newAssignment.getTitle());
-    existing.setDescription(newAssignment.getDescription());
-    existing.setCompanyName(newAssignment.getCompanyName());
-    existing.setRemotePercentage(newAssignment.getRemotePercentage());
-    existing.setDurationMonths(newAssignment.getDurationMonths());
-    existing.setStartDate(newAssignment.getStartDate());
-    existing.setHourlyRateMin(newAssignment.getHourlyRateMin());
-    existing.setHourlyRateMax(newAssignment.getHourlyRateMax());
-    existing.setCurrency(newAssignment.getCurrency());
-    existing.setHoursPerWeek(newAssignment.getHoursPerWeek());
-    existing.setApplicationDeadline(newAssignment.getApplicationDeadline());
-    existing.setApplicationUrl(newAssignment.getApplicationUrl());
-    existing.setActive(newAssignment.isActive());
-    existing.setStatus(newAssignment.getStatus());
-
-    // Note: Skills are now managed through AssignmentSkill entities
-    // We'll need to handle this in the AssignmentService
-
-    // Location normalization will now be handled through AssignmentLocation entities
-    // Any location information needs to be processed through specific AssignmentLocation entities
+  /** A job running on this instance */
+  private record RunningJob(Future<?> future, CrawlLease lease) {}
+
+  /** State of a single crawl job, shared between the provider and the persisting consumer */
+  private static final class CrawlRun {
+    private final Source source;
+    private final Map<String, ExistingAssignment> existing;
+    private final List<Assignment> batch = new ArrayList<>();
+    // External IDs the provider handed off, read once the provider has finished
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    // Deliveries the provider left to run after it has returned, handed from the job to its waiter
+    private final List<AssignmentSink.Deferred> deferred = new ArrayList<>();
+    // Why the provider did not get to every listed assignment, null if it did
+    private volatile String incompleteReason;
+    // Updated by both the provider thread and the consumer, CrawlProgress is thread safe
+    private final CrawlProgress progress;
+
+    private CrawlRun(
+        Source source, Map<String, ExistingAssignment> existing, CrawlProgress progress) {
+      this.source = source;
+      this.existing = existing;
+      this.progress = progress;
+    }
   }
 }
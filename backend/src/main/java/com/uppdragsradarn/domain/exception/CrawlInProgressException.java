@@ -0,0 +1,13 @@
+package com.uppdragsradarn.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Thrown when a crawl is requested for a source that is already being crawled somewhere */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CrawlInProgressException extends RuntimeException {
+
+  public CrawlInProgressException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,13 @@
+package com.uppdragsradarn.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** Thrown when a crawl is requested for a source that is skipped after repeated failures */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SourceCircuitOpenException extends RuntimeException {
+
+  public SourceCircuitOpenException(String message) {
+    super(message);
+  }
+}
@@ -90,6 +90,14 @@ public class Assignment {
   @Column(name = "pii_detected", columnDefinition = "TEXT")
   private String piiDetected;
 
+  // Fingerprint of the content as last crawled, see AssignmentFingerprint
+  @Column(name = "content_hash", length = 64)
+  private String contentHash;
+
+  // When a crawl last found the assignment at its source, used by the deactivation sweep
+  @Column(name = "last_seen_at")
+  private LocalDateTime lastSeenAt;
+
   // Transitional field for migration - not mapped to the database
   @Transient private String originalLocationText;
 
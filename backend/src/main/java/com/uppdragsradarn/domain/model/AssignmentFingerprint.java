@@ -0,0 +1,97 @@
+package com.uppdragsradarn.domain.model;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Computes a stable fingerprint of the crawled content of an assignment.
+ *
+ * <p>The fingerprint is a SHA-256 hash over every field a crawl writes: title, description,
+ * company, rates, dates, terms, location text and skills. Collections are sorted and rates are
+ * normalized so the same content always produces the same hash, regardless of the order a source
+ * lists skills in or the scale a rate is parsed with. Comparing it with the stored hash lets a
+ * crawl skip assignments that have not changed.
+ */
+public final class AssignmentFingerprint {
+
+  private static final char FIELD_SEPARATOR = '\u001F';
+  private static final String NULL_MARKER = "\u0000";
+
+  private AssignmentFingerprint() {}
+
+  /**
+   * Compute the fingerprint of an assignment
+   *
+   * @param assignment The assignment, as produced by a provider
+   * @return Hex encoded SHA-256 hash
+   */
+  public static String compute(Assignment assignment) {
+    StringBuilder content = new StringBuilder(256);
+    append(content, assignment.getTitle());
+    append(content, assignment.getDescription());
+    append(content, assignment.getCompanyName());
+    append(content, assignment.getRemotePercentage());
+    append(content, assignment.getDurationMonths());
+    append(content, assignment.getStartDate());
+    append(content, normalize(assignment.getHourlyRateMin()));
+    append(content, normalize(assignment.getHourlyRateMax()));
+    append(content, assignment.getCurrency() != null ? assignment.getCurrency().getCode() : null);
+    append(content, assignment.getHoursPerWeek());
+    append(content, assignment.getApplicationDeadline());
+    append(content, assignment.getApplicationUrl());
+    append(content, assignment.getStatus() != null ? assignment.getStatus().getName() : null);
+    append(content, assignment.isActive());
+    append(content, locationText(assignment));
+    append(content, skills(assignment));
+    return sha256(content.toString());
+  }
+
+  private static String locationText(Assignment assignment) {
+    if (assignment.getAssignmentLocations() != null
+        && !assignment.getAssignmentLocations().isEmpty()) {
+      return assignment.getAssignmentLocations().stream()
+          .map(location -> location.getOriginalText() + (location.isPrimary() ? "*" : ""))
+          .sorted()
+          .collect(Collectors.joining("|"));
+    }
+    return assignment.getOriginalLocationText();
+  }
+
+  private static String skills(Assignment assignment) {
+    if (assignment.getAssignmentSkills() == null) {
+      return null;
+    }
+    return assignment.getAssignmentSkills().stream()
+        .map(AssignmentSkill::getSkill)
+        .filter(Objects::nonNull)
+        .map(Skill::getName)
+        .filter(Objects::nonNull)
+        .map(name -> name.toLowerCase(Locale.ROOT))
+        .sorted()
+        .distinct()
+        .collect(Collectors.joining("|"));
+  }
+
+  private static String normalize(BigDecimal rate) {
+    return rate != null ? rate.stripTrailingZeros().toPlainString() : null;
+  }
+
+  private static void append(StringBuilder content, Object value) {
+    content.append(value != null ? value.toString() : NULL_MARKER).append(FIELD_SEPARATOR);
+  }
+
+  private static String sha256(String content) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.uppdragsradarn.domain.model;
+
+/** How much of a source a crawler job fetches */
+public enum CrawlMode {
+  /** Fetch every listing the source exposes */
+  FULL,
+  /**
+   * Fetch listings newest first and stop once a whole page holds nothing new or changed. Edits on
+   * older listings and removals are only picked up by the next full crawl.
+   */
+  INCREMENTAL
+}
@@ -0,0 +1,9 @@
+package com.uppdragsradarn.domain.model;
+
+/** What started a crawler job */
+public enum CrawlTrigger {
+  /** Started by the crawl scheduler, nobody waits for the result */
+  SCHEDULED,
+  /** Started on demand, by an administrator or on startup */
+  MANUAL
+}
@@ -38,6 +38,10 @@ public class CrawlerJobExecution {
   @JoinColumn(name = "status_id")
   private StatusType status;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "crawl_mode", length = 20)
+  private CrawlMode crawlMode;
+
   @Column(name = "assignments_found")
   private Integer assignmentsFound;
 
@@ -47,9 +51,16 @@ public class CrawlerJobExecution {
   @Column(name = "assignments_updated")
   private Integer assignmentsUpdated;
 
+  @Column(name = "assignments_unchanged")
+  private Integer assignmentsUnchanged;
+
+  @Column(name = "assignments_deactivated")
+  private Integer assignmentsDeactivated;
+
   @Column(name = "error_message")
   private String errorMessage;
 
+  // Only set by jobs that ran before processed IDs moved to crawler_job_processed_assignments
   @Column(name = "processed_assignment_ids")
   private String processedAssignmentIds;
 
@@ -0,0 +1,36 @@
+package com.uppdragsradarn.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing one assignment processed by a crawler job. Rows are only ever appended while
+ * the job runs, so progress writes stay constant in size however large the job grows.
+ */
+@Entity
+@Table(name = "crawler_job_processed_assignments")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CrawlerJobProcessedAssignment {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.UUID)
+  private UUID id;
+
+  @Column(name = "job_id", nullable = false, length = 50)
+  private String jobId;
+
+  @Column(name = "external_id")
+  private String externalId;
+
+  @Column(name = "processed_at", nullable = false)
+  private LocalDateTime processedAt;
+}
@@ -28,6 +28,16 @@ public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
   /** Find an assignment by source and external ID */
   Optional<Assignment> findBySourceAndExternalId(Source source, String externalId);
 
+  /**
+   * Find the external ID, database ID, content hash and active flag of every assignment stored for
+   * a source
+   */
+  @Query(
+      "SELECT new com.uppdragsradarn.domain.repository.ExistingAssignment("
+          + "a.externalId, a.id, a.contentHash, a.active) "
+          + "FROM Assignment a WHERE a.source = :source AND a.externalId IS NOT NULL")
+  List<ExistingAssignment> findExistingBySource(@Param("source") Source source);
+
   /** Find assignments by title (case insensitive) */
   Page<Assignment> findByActiveTrueAndNeedsManualReviewFalseAndTitleContainingIgnoreCase(
       String title, Pageable pageable);
@@ -46,6 +56,9 @@ public interface AssignmentRepository extends JpaRepository<Assignment, UUID> {
   /** Count assignments for a specific source */
   long countBySource(Source source);
 
+  /** Count active assignments for a specific source */
+  long countBySourceAndActiveTrue(Source source);
+
   /**
    * Find all active assignments with time gating applied for free users (assignments created more
    * than 72 hours ago)
@@ -0,0 +1,28 @@
+package com.uppdragsradarn.domain.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.uppdragsradarn.domain.model.CrawlerJobProcessedAssignment;
+
+/** Repository for the assignments processed by crawler jobs */
+@Repository
+public interface CrawlerJobProcessedAssignmentRepository
+    extends JpaRepository<CrawlerJobProcessedAssignment, UUID> {
+
+  /**
+   * Find the external IDs processed by a crawler job, in processing order
+   *
+   * @param jobId The job ID
+   * @return External IDs of the processed assignments
+   */
+  @Query(
+      "SELECT p.externalId FROM CrawlerJobProcessedAssignment p WHERE p.jobId = :jobId"
+          + " ORDER BY p.processedAt")
+  List<String> findExternalIdsByJobId(@Param("jobId") String jobId);
+}
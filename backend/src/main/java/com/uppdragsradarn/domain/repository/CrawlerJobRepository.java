@@ -1,13 +1,18 @@
 package com.uppdragsradarn.domain.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.uppdragsradarn.domain.model.CrawlMode;
 import com.uppdragsradarn.domain.model.CrawlerJobExecution;
 
 /** Repository for crawler job executions */
@@ -33,4 +38,53 @@ public interface CrawlerJobRepository extends JpaRepository<CrawlerJobExecution,
   @Query(
       "SELECT c FROM CrawlerJobExecution c WHERE c.source.id = :sourceId ORDER BY c.startTime DESC")
   List<CrawlerJobExecution> findBySourceId(UUID sourceId, Pageable pageable);
+
+  /**
+   * Find when the last successful crawl of a source in the given mode started
+   *
+   * @param sourceId The source ID
+   * @param crawlMode The crawl mode
+   * @return Start time of the crawl, or null if there is none
+   */
+  @Query(
+      "SELECT MAX(c.startTime) FROM CrawlerJobExecution c WHERE c.source.id = :sourceId"
+          + " AND c.crawlMode = :crawlMode AND c.status.name = 'SUCCESS'")
+  LocalDateTime findLastSuccessfulStart(
+      @Param("sourceId") UUID sourceId, @Param("crawlMode") CrawlMode crawlMode);
+
+  /**
+   * Write the progress counters of a running job without loading the row
+   *
+   * @param jobId The job ID
+   * @param found Assignments found so far
+   * @param created Assignments created so far
+   * @param updated Assignments updated so far
+   * @param unchanged Assignments skipped as unchanged so far
+   * @return Number of updated rows
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE CrawlerJobExecution c SET c.assignmentsFound = :found,"
+          + " c.assignmentsCreated = :created, c.assignmentsUpdated = :updated,"
+          + " c.assignmentsUnchanged = :unchanged WHERE c.id = :jobId")
+  int updateProgress(
+      @Param("jobId") String jobId,
+      @Param("found") int found,
+      @Param("created") int created,
+      @Param("updated") int updated,
+      @Param("unchanged") int unchanged);
+
+  /**
+   * Record how many assignments the deactivation sweep at the end of a job deactivated
+   *
+   * @param jobId The job ID
+   * @param deactivated Number of deactivated assignments
+   * @return Number of updated rows
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      "UPDATE CrawlerJobExecution c SET c.assignmentsDeactivated = :deactivated WHERE c.id = :jobId")
+  int updateDeactivated(@Param("jobId") String jobId, @Param("deactivated") int deactivated);
 }
@@ -0,0 +1,16 @@
+package com.uppdragsradarn.domain.repository;
+
+import java.util.UUID;
+
+/**
+ * Identity of an assignment already stored for a source, loaded in bulk so a crawl can tell inserts
+ * from updates without a query per item
+ *
+ * @param externalId The ID the assignment has at its source
+ * @param id The database ID of the stored assignment
+ * @param contentHash Fingerprint of the content as last crawled, null for rows written before
+ *     fingerprints were introduced
+ * @param active Whether the stored assignment is active; an inactive one that shows up again has to
+ *     be written even if its content is unchanged
+ */
+public record ExistingAssignment(String externalId, UUID id, String contentHash, boolean active) {}
@@ -23,9 +23,20 @@ public interface AssignmentCrawler {
    *
    * @param source The source to fetch assignments from
    * @return List of fetched assignments
+   * @throws com.uppdragsradarn.domain.model.CrawlerException if the source could not be fetched
    */
   List<Assignment> fetchAssignments(Source source);
 
+  /**
+   * Fetches assignments from the given source, handing each one to the sink as it is produced
+   *
+   * @param source The source to fetch assignments from
+   * @param sink The sink receiving the fetched assignments
+   */
+  default void fetchAssignments(Source source, AssignmentSink sink) {
+    fetchAssignments(source).forEach(sink::accept);
+  }
+
   /**
    * Gets the name of this crawler
    *
@@ -0,0 +1,89 @@
+package com.uppdragsradarn.domain.service;
+
+import java.util.List;
+
+import com.uppdragsradarn.domain.model.Assignment;
+
+/**
+ * Receives assignments one at a time while a provider is still crawling. Implementations may block
+ * when downstream processing falls behind, which slows the provider down to the same pace.
+ */
+@FunctionalInterface
+public interface AssignmentSink {
+
+  /**
+   * Accept an assignment produced by a provider
+   *
+   * @param assignment The produced assignment
+   */
+  void accept(Assignment assignment);
+
+  /**
+   * Ask whether a provider may stop paginating. Providers that list newest first call this after
+   * handing off each page; once a whole page holds only known, unchanged assignments, the older
+   * pages behind it are not worth fetching.
+   *
+   * @param page The assignments of the page just handed off
+   * @return true if the provider should not fetch any further pages
+   */
+  default boolean shouldStopPaging(List<Assignment> page) {
+    return false;
+  }
+
+  /**
+   * Offer an assignment whose pages the server reported as not modified since the last crawl.
+   * Providers call this instead of parsing or extracting the assignment again; if the sink already
+   * holds it, it counts as found and unchanged and the provider skips it.
+   *
+   * @param externalId External ID of the assignment
+   * @return true if the sink already holds the assignment, false if the provider has to produce it
+   */
+  default boolean acceptUnchanged(String externalId) {
+    return false;
+  }
+
+  /**
+   * Ask whether the crawl was started by the scheduler. Nobody waits for a scheduled crawl, so
+   * providers may make it slower to make it cheaper, for instance by batching LLM extractions.
+   *
+   * @return true for scheduled crawls, false for crawls someone is waiting for
+   */
+  default boolean isScheduled() {
+    return false;
+  }
+
+  /**
+   * Report that the crawl did not get to every assignment the source lists, for instance because
+   * its LLM budget ran out. Assignments missing from an incomplete crawl may still be listed, so
+   * they must not be taken as gone.
+   *
+   * @param reason Why the crawl is incomplete
+   */
+  default void reportIncomplete(String reason) {}
+
+  /**
+   * Hand over assignments that only become available after a long wait, such as the answers of an
+   * LLM batch. The crawl may run the delivery once the provider has returned, outside the
+   * provider's transaction, instead of keeping the provider waiting. The delivery may then hand its
+   * assignments to a different sink than this one. By default it is run right away.
+   *
+   * @param deferred Waits for the assignments and hands them to the sink it is given
+   * @throws InterruptedException if interrupted while running the delivery
+   */
+  default void acceptLater(Deferred deferred) throws InterruptedException {
+    deferred.deliver(this);
+  }
+
+  /** Assignments a provider hands over later, see {@link #acceptLater(Deferred)} */
+  @FunctionalInterface
+  interface Deferred {
+
+    /**
+     * Wait for the assignments and hand them to the sink
+     *
+     * @param sink The sink to hand the assignments to
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void deliver(AssignmentSink sink) throws InterruptedException;
+  }
+}
@@ -21,6 +21,18 @@ public interface ContentProvider {
    */
   List<Assignment> getAssignments(Source source) throws CrawlerException;
 
+  /**
+   * Fetch and parse assignments from a source, handing each one to the sink as soon as it is ready.
+   * Providers that only build complete lists are adapted by this default implementation.
+   *
+   * @param source The source to fetch assignments from
+   * @param sink The sink receiving the parsed assignments
+   * @throws CrawlerException if there's an error fetching or parsing assignments
+   */
+  default void streamAssignments(Source source, AssignmentSink sink) throws CrawlerException {
+    getAssignments(source).forEach(sink::accept);
+  }
+
   /**
    * Check if this provider supports the given source
    *
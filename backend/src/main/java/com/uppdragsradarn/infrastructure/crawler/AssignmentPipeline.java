@@ -0,0 +1,100 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded hand-off between a provider producing assignments and a consumer persisting them.
+ *
+ * <p>The consumer runs on its own virtual thread so fetching the next page overlaps with writing
+ * the previous one. The buffer is bounded: when the consumer falls behind, {@link
+ * #accept(Assignment)} blocks the provider, so the number of assignments held in memory never
+ * exceeds the buffer capacity plus the item each side is working on.
+ */
+@Slf4j
+public class AssignmentPipeline implements AssignmentSink, AutoCloseable {
+
+  private static final Assignment END_OF_STREAM = new Assignment();
+
+  private final BlockingQueue<Assignment> buffer;
+  private final Thread consumer;
+  private volatile Throwable consumerFailure;
+
+  /**
+   * Create a pipeline and start its consumer
+   *
+   * @param capacity Maximum number of assignments waiting for the consumer
+   * @param downstream The sink that processes each assignment on the consumer thread
+   * @param name Name of the consumer thread
+   */
+  public AssignmentPipeline(int capacity, AssignmentSink downstream, String name) {
+    this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    this.consumer = Thread.ofVirtual().name(name).start(() -> drain(downstream));
+  }
+
+  @Override
+  public void accept(Assignment assignment) {
+    failIfConsumerDied();
+    try {
+      buffer.put(assignment);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CrawlerException("Interrupted while handing off assignment", e);
+    }
+  }
+
+  /**
+   * Signal that the provider is done and wait until every buffered assignment has been processed
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public void complete() throws InterruptedException {
+    buffer.put(END_OF_STREAM);
+    consumer.join();
+    failIfConsumerDied();
+  }
+
+  /** Stop the consumer if it is still running, dropping anything left in the buffer */
+  @Override
+  public void close() {
+    if (consumer.isAlive()) {
+      consumer.interrupt();
+    }
+  }
+
+  private void drain(AssignmentSink downstream) {
+    try {
+      while (true) {
+        Assignment assignment = buffer.take();
+        if (assignment == END_OF_STREAM) {
+          return;
+        }
+        if (consumerFailure == null) {
+          try {
+            downstream.accept(assignment);
+          } catch (RuntimeException | Error e) {
+            // Keep draining so the producer never blocks on a full buffer, and fail it on its
+            // next hand-off instead
+            log.error("Assignment pipeline consumer failed: {}", e.getMessage(), e);
+            consumerFailure = e;
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void failIfConsumerDied() {
+    if (consumerFailure != null) {
+      throw new CrawlerException(
+          "Assignment processing failed: " + consumerFailure.getMessage(), consumerFailure);
+    }
+  }
+}
@@ -0,0 +1,231 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uppdragsradarn.domain.model.Source;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs crawl jobs on virtual threads.
+ *
+ * <p>Crawl jobs spend nearly all of their time waiting on the network, so each job gets its own
+ * virtual thread instead of occupying one of the few scheduler threads. Concurrency is bounded by
+ * semaphores instead of pool size: a global limit, a limit per source and a limit per target host,
+ * so a slow or rate limited site cannot starve the others. Jobs waiting for a permit are counted as
+ * queued.
+ *
+ * <p>Jobs that are only left waiting on work done elsewhere, such as an LLM batch, are handed to
+ * {@link #submitWaiting(Runnable)} and give their permits to the next crawl.
+ */
+@Component
+@Slf4j
+public class CrawlExecutor {
+
+  private final int maxConcurrentJobs;
+  private final int maxConcurrentPerSource;
+  private final int maxConcurrentPerHost;
+
+  private final ExecutorService executor =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("crawl-job-", 0).factory());
+  private final ExecutorService waiters =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("crawl-wait-", 0).factory());
+
+  private final Semaphore globalPermits;
+  private final Map<UUID, Semaphore> sourcePermits = new ConcurrentHashMap<>();
+  private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+  private final AtomicInteger queuedJobs = new AtomicInteger();
+  private final AtomicInteger activeJobs = new AtomicInteger();
+  private final AtomicInteger waitingJobs = new AtomicInteger();
+
+  public CrawlExecutor(
+      @Value("${app.crawler.executor.max-concurrent-jobs:16}") int maxConcurrentJobs,
+      @Value("${app.crawler.executor.max-concurrent-per-source:1}") int maxConcurrentPerSource,
+      @Value("${app.crawler.executor.max-concurrent-per-host:2}") int maxConcurrentPerHost,
+      MeterRegistry meterRegistry) {
+    this.maxConcurrentJobs = maxConcurrentJobs;
+    this.maxConcurrentPerSource = maxConcurrentPerSource;
+    this.maxConcurrentPerHost = maxConcurrentPerHost;
+    this.globalPermits = new Semaphore(maxConcurrentJobs, true);
+
+    Gauge.builder("crawler.executor.jobs.queued", queuedJobs, AtomicInteger::get)
+        .description("Crawl jobs waiting for a concurrency permit")
+        .register(meterRegistry);
+    Gauge.builder("crawler.executor.jobs.active", activeJobs, AtomicInteger::get)
+        .description("Crawl jobs currently running")
+        .register(meterRegistry);
+    Gauge.builder("crawler.executor.jobs.waiting", waitingJobs, AtomicInteger::get)
+        .description("Crawl jobs waiting on deferred work without holding a permit")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Submit a crawl job for a source. The job starts on its own virtual thread as soon as the
+   * global, source and host limits allow it.
+   *
+   * @param source The source being crawled
+   * @param job The crawl job to run
+   * @return A future that can be used to cancel the job, queued or running
+   */
+  public Future<?> submit(Source source, Runnable job) {
+    AtomicBoolean dequeued = new AtomicBoolean();
+    Runnable leaveQueue =
+        () -> {
+          if (dequeued.compareAndSet(false, true)) {
+            queuedJobs.decrementAndGet();
+          }
+        };
+    // done() also covers jobs cancelled before their thread got to run them
+    FutureTask<Void> task =
+        new FutureTask<>(() -> runWithPermits(source, job, leaveQueue), null) {
+          @Override
+          protected void done() {
+            leaveQueue.run();
+          }
+        };
+    queuedJobs.incrementAndGet();
+    executor.execute(task);
+    return task;
+  }
+
+  /**
+   * Submit the rest of a crawl job that only waits on work done elsewhere, such as an LLM batch. It
+   * runs on its own virtual thread right away, outside the concurrency limits, so the wait does not
+   * keep other crawls of the same source or host from starting.
+   *
+   * @param job The remainder of the crawl job
+   * @return A future that can be used to cancel the job
+   */
+  public Future<?> submitWaiting(Runnable job) {
+    FutureTask<Void> task =
+        new FutureTask<>(job, null) {
+          @Override
+          protected void done() {
+            waitingJobs.decrementAndGet();
+          }
+        };
+    waitingJobs.incrementAndGet();
+    waiters.execute(task);
+    return task;
+  }
+
+  /**
+   * Get a snapshot of the executor load
+   *
+   * @return Current queue depth, active jobs and configured limits
+   */
+  public CrawlExecutorStats getStats() {
+    return new CrawlExecutorStats(
+        queuedJobs.get(),
+        activeJobs.get(),
+        maxConcurrentJobs,
+        maxConcurrentPerSource,
+        maxConcurrentPerHost);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    // Waiting jobs may wait for hours, there is nothing to finish
+    waiters.shutdownNow();
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+        log.warn("Crawl jobs still running after 60 seconds, interrupting them");
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void runWithPermits(Source source, Runnable job, Runnable leaveQueue) {
+    Semaphore sourceSemaphore =
+        source.getId() != null
+            ? sourcePermits.computeIfAbsent(
+                source.getId(), id -> new Semaphore(maxConcurrentPerSource, true))
+            : null;
+    String host = hostOf(source.getBaseUrl());
+    Semaphore hostSemaphore =
+        host != null
+            ? hostPermits.computeIfAbsent(host, h -> new Semaphore(maxConcurrentPerHost, true))
+            : null;
+
+    // Always acquire in the same order (source, host, global) so jobs cannot deadlock
+    boolean sourceAcquired = false;
+    boolean hostAcquired = false;
+    boolean globalAcquired = false;
+    try {
+      if (sourceSemaphore != null) {
+        sourceSemaphore.acquire();
+        sourceAcquired = true;
+      }
+      if (hostSemaphore != null) {
+        hostSemaphore.acquire();
+        hostAcquired = true;
+      }
+      globalPermits.acquire();
+      globalAcquired = true;
+
+      leaveQueue.run();
+      activeJobs.incrementAndGet();
+      try {
+        job.run();
+      } finally {
+        activeJobs.decrementAndGet();
+      }
+    } catch (InterruptedException e) {
+      log.info("Crawl job for source {} was cancelled while queued", source.getName());
+      Thread.currentThread().interrupt();
+    } finally {
+      if (globalAcquired) {
+        globalPermits.release();
+      }
+      if (hostAcquired) {
+        hostSemaphore.release();
+      }
+      if (sourceAcquired) {
+        sourceSemaphore.release();
+      }
+    }
+  }
+
+  private static String hostOf(String baseUrl) {
+    if (baseUrl == null || baseUrl.isBlank()) {
+      return null;
+    }
+    try {
+      String host = URI.create(baseUrl.trim()).getHost();
+      return host != null ? host.toLowerCase(Locale.ROOT) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /** Snapshot of crawl executor load */
+  public record CrawlExecutorStats(
+      int queuedJobs,
+      int activeJobs,
+      int maxConcurrentJobs,
+      int maxConcurrentPerSource,
+      int maxConcurrentPerHost) {}
+}
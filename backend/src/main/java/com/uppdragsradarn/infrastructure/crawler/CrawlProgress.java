@@ -0,0 +1,242 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+
+/**
+ * Live progress of a single crawl job.
+ *
+ * <p>Counters are updated by the provider and the persisting consumer without touching the
+ * database. Processed external IDs wait in a queue until the next flush appends them, and the most
+ * recent events are kept in a fixed size ring buffer for live viewers.
+ */
+public class CrawlProgress {
+
+  private final String jobId;
+  private final String sourceName;
+  private final LocalDateTime startTime = LocalDateTime.now();
+  private final int eventCapacity;
+
+  private final AtomicInteger found = new AtomicInteger();
+  private final AtomicInteger created = new AtomicInteger();
+  private final AtomicInteger updated = new AtomicInteger();
+  private final AtomicInteger unchanged = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+
+  private final Queue<String> pendingProcessedIds = new ConcurrentLinkedQueue<>();
+  private final Deque<ProgressEvent> recentEvents;
+  private final AtomicBoolean dirty = new AtomicBoolean();
+
+  private volatile String status = "RUNNING";
+  private volatile LocalDateTime lastUpdated = startTime;
+
+  public CrawlProgress(String jobId, String sourceName, int eventCapacity) {
+    this.jobId = jobId;
+    this.sourceName = sourceName;
+    this.eventCapacity = Math.max(1, eventCapacity);
+    this.recentEvents = new ArrayDeque<>(this.eventCapacity);
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public int getFound() {
+    return found.get();
+  }
+
+  public int getCreated() {
+    return created.get();
+  }
+
+  public int getUpdated() {
+    return updated.get();
+  }
+
+  public int getUnchanged() {
+    return unchanged.get();
+  }
+
+  /** Number of assignments that made it through ingestion, written or skipped as unchanged */
+  public int getProcessed() {
+    return created.get() + updated.get() + unchanged.get();
+  }
+
+  /** Record an assignment handed off by the provider */
+  public void assignmentFound() {
+    found.incrementAndGet();
+    touch();
+  }
+
+  /**
+   * Record an assignment the provider skipped because its pages were not modified
+   *
+   * @param externalId External ID of the assignment
+   */
+  public void assignmentNotModified(String externalId) {
+    found.incrementAndGet();
+    unchanged.incrementAndGet();
+    pendingProcessedIds.add(externalId);
+    touch();
+  }
+
+  /**
+   * Record a successfully ingested batch
+   *
+   * @param createdCount Assignments created by the batch
+   * @param updatedCount Assignments updated by the batch
+   * @param unchangedCount Assignments skipped as unchanged
+   * @param externalIds External IDs of the batch's assignments
+   */
+  public void batchIngested(
+      int createdCount, int updatedCount, int unchangedCount, List<String> externalIds) {
+    created.addAndGet(createdCount);
+    updated.addAndGet(updatedCount);
+    unchanged.addAndGet(unchangedCount);
+    pendingProcessedIds.addAll(externalIds);
+    addEvent(
+        "BATCH",
+        String.format(
+            "%d created, %d updated, %d unchanged", createdCount, updatedCount, unchangedCount));
+  }
+
+  /**
+   * Record an assignment that could not be ingested
+   *
+   * @param externalId External ID of the assignment
+   * @param message The error message
+   */
+  public void assignmentFailed(String externalId, String message) {
+    failed.incrementAndGet();
+    addEvent("ERROR", externalId + ": " + message);
+  }
+
+  /**
+   * Add an event to the ring buffer, dropping the oldest one once it is full
+   *
+   * @param type The event type
+   * @param message A human readable description
+   */
+  public void addEvent(String type, String message) {
+    synchronized (recentEvents) {
+      if (recentEvents.size() == eventCapacity) {
+        recentEvents.removeFirst();
+      }
+      recentEvents.addLast(new ProgressEvent(LocalDateTime.now(), type, message));
+    }
+    touch();
+  }
+
+  void setStatus(String status) {
+    this.status = status;
+    touch();
+  }
+
+  /** The processed IDs that have not been written yet, oldest first */
+  List<String> pendingProcessedIds() {
+    return new ArrayList<>(pendingProcessedIds);
+  }
+
+  /**
+   * Forget the oldest pending processed IDs once they are written. Only the flush removes IDs, so
+   * they are the ones it took.
+   *
+   * @param count Number of IDs written
+   */
+  void removeProcessedIds(int count) {
+    for (int i = 0; i < count; i++) {
+      pendingProcessedIds.poll();
+    }
+  }
+
+  /** Clear the changed flag, returning whether anything changed since the last call */
+  boolean clearDirty() {
+    return dirty.getAndSet(false);
+  }
+
+  /** Set the changed flag again after the progress could not be written */
+  void markDirty() {
+    dirty.set(true);
+  }
+
+  /**
+   * Take a consistent enough copy of the progress for serialization
+   *
+   * @return The current progress
+   */
+  public CrawlProgressSnapshot snapshot() {
+    List<ProgressEvent> events;
+    synchronized (recentEvents) {
+      events = List.copyOf(recentEvents);
+    }
+    return new CrawlProgressSnapshot(
+        jobId,
+        sourceName,
+        status,
+        startTime,
+        lastUpdated,
+        found.get(),
+        created.get(),
+        updated.get(),
+        unchanged.get(),
+        failed.get(),
+        events);
+  }
+
+  private void touch() {
+    lastUpdated = LocalDateTime.now();
+    dirty.set(true);
+  }
+
+  /** A single entry in the recent events buffer */
+  public record ProgressEvent(LocalDateTime time, String type, String message) {}
+
+  /** Serializable view of a job's progress */
+  public record CrawlProgressSnapshot(
+      String jobId,
+      String sourceName,
+      String status,
+      LocalDateTime startTime,
+      LocalDateTime lastUpdated,
+      int found,
+      int created,
+      int updated,
+      int unchanged,
+      int failed,
+      List<ProgressEvent> recentEvents) {
+
+    /**
+     * Build a snapshot of a job that is no longer tracked in memory
+     *
+     * @param job The stored job execution
+     * @return The job's final progress, without events
+     */
+    public static CrawlProgressSnapshot of(CrawlerJobExecution job) {
+      return new CrawlProgressSnapshot(
+          job.getId(),
+          job.getSourceName(),
+          job.getStatus() != null ? job.getStatus().getName() : null,
+          job.getStartTime(),
+          job.getEndTime() != null ? job.getEndTime() : job.getStartTime(),
+          valueOf(job.getAssignmentsFound()),
+          valueOf(job.getAssignmentsCreated()),
+          valueOf(job.getAssignmentsUpdated()),
+          valueOf(job.getAssignmentsUnchanged()),
+          0,
+          List.of());
+    }
+
+    private static int valueOf(Integer value) {
+      return value != null ? value : 0;
+    }
+  }
+}
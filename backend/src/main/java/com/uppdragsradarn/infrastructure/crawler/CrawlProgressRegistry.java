@@ -0,0 +1,238 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+import com.uppdragsradarn.domain.model.CrawlerJobProcessedAssignment;
+import com.uppdragsradarn.domain.repository.CrawlerJobProcessedAssignmentRepository;
+import com.uppdragsradarn.domain.repository.CrawlerJobRepository;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgress.CrawlProgressSnapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the progress of running crawl jobs in memory.
+ *
+ * <p>Jobs update their {@link CrawlProgress} on every item, but the database only sees a counter
+ * update and an append of the newly processed IDs per flush interval, plus a final flush when the
+ * job completes. Admin clients can subscribe to a Server-Sent Events stream per job instead of
+ * polling the job row.
+ */
+@Component
+@Slf4j
+public class CrawlProgressRegistry {
+
+  private final CrawlerJobRepository crawlerJobRepository;
+  private final CrawlerJobProcessedAssignmentRepository processedAssignmentRepository;
+  private final int recentEventCapacity;
+  private final long streamTimeoutMs;
+
+  private final Map<String, CrawlProgress> activeJobs = new ConcurrentHashMap<>();
+  private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+  public CrawlProgressRegistry(
+      CrawlerJobRepository crawlerJobRepository,
+      CrawlerJobProcessedAssignmentRepository processedAssignmentRepository,
+      @Value("${app.crawler.progress.recent-events:50}") int recentEventCapacity,
+      @Value("${app.crawler.progress.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+    this.crawlerJobRepository = crawlerJobRepository;
+    this.processedAssignmentRepository = processedAssignmentRepository;
+    this.recentEventCapacity = recentEventCapacity;
+    this.streamTimeoutMs = streamTimeoutMs;
+  }
+
+  /**
+   * Start tracking a job
+   *
+   * @param jobId The job ID
+   * @param sourceName Name of the crawled source
+   * @return The progress the job should update
+   */
+  public CrawlProgress start(String jobId, String sourceName) {
+    CrawlProgress progress = new CrawlProgress(jobId, sourceName, recentEventCapacity);
+    progress.addEvent("STARTED", "Crawling " + sourceName);
+    activeJobs.put(jobId, progress);
+    return progress;
+  }
+
+  /**
+   * Get the live progress of a running job
+   *
+   * @param jobId The job ID
+   * @return The progress, or empty if the job is not running on this instance
+   */
+  public Optional<CrawlProgress> get(String jobId) {
+    return Optional.ofNullable(activeJobs.get(jobId));
+  }
+
+  /**
+   * Write the final progress of a job, notify its subscribers and stop tracking it
+   *
+   * @param jobId The job ID
+   * @param status Name of the job's final status
+   */
+  public void complete(String jobId, String status) {
+    CrawlProgress progress = activeJobs.get(jobId);
+    if (progress == null) {
+      return;
+    }
+    progress.setStatus(status);
+    progress.addEvent(status, "Job finished");
+    try {
+      flush(progress);
+    } catch (Exception e) {
+      log.error("Error writing final progress of crawler job {}: {}", jobId, e.getMessage(), e);
+    }
+    activeJobs.remove(jobId);
+
+    List<SseEmitter> emitters = subscribers.remove(jobId);
+    if (emitters != null) {
+      CrawlProgressSnapshot snapshot = progress.snapshot();
+      for (SseEmitter emitter : emitters) {
+        sendFinal(emitter, snapshot);
+      }
+    }
+  }
+
+  /**
+   * Subscribe to the live progress of a running job. The current progress is sent right away,
+   * followed by periodic updates and a final "complete" event.
+   *
+   * @param jobId The job ID
+   * @return An emitter streaming the job's progress, or empty if the job is not running here
+   */
+  public Optional<SseEmitter> subscribe(String jobId) {
+    CrawlProgress progress = activeJobs.get(jobId);
+    if (progress == null) {
+      return Optional.empty();
+    }
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+    List<SseEmitter> emitters =
+        subscribers.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+    emitters.add(emitter);
+    emitter.onCompletion(() -> emitters.remove(emitter));
+    emitter.onTimeout(() -> emitters.remove(emitter));
+    emitter.onError(e -> emitters.remove(emitter));
+
+    if (!activeJobs.containsKey(jobId)) {
+      // The job completed while subscribing and the final event may have been missed
+      emitters.remove(emitter);
+      sendFinal(emitter, progress.snapshot());
+    } else if (!send(emitter, progress.snapshot())) {
+      emitters.remove(emitter);
+    }
+    return Optional.of(emitter);
+  }
+
+  /**
+   * Create a stream for a job that is no longer running. It carries a single "complete" event with
+   * the stored result.
+   *
+   * @param job The stored job execution
+   * @return An emitter that completes after the final event
+   */
+  public SseEmitter replay(CrawlerJobExecution job) {
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+    sendFinal(emitter, CrawlProgressSnapshot.of(job));
+    return emitter;
+  }
+
+  /** Write the progress of all running jobs that changed since the previous flush */
+  @Scheduled(fixedDelayString = "${app.crawler.progress.flush-interval-ms:5000}")
+  public void flushAll() {
+    for (CrawlProgress progress : activeJobs.values()) {
+      try {
+        flush(progress);
+      } catch (Exception e) {
+        log.warn(
+            "Error flushing progress of crawler job {}: {}", progress.getJobId(), e.getMessage());
+      }
+    }
+  }
+
+  /** Push the current progress of running jobs to their subscribers */
+  @Scheduled(fixedDelayString = "${app.crawler.progress.stream-interval-ms:1000}")
+  public void broadcast() {
+    subscribers.forEach(
+        (jobId, emitters) -> {
+          CrawlProgress progress = activeJobs.get(jobId);
+          if (progress == null || emitters.isEmpty()) {
+            return;
+          }
+          CrawlProgressSnapshot snapshot = progress.snapshot();
+          for (SseEmitter emitter : emitters) {
+            if (!send(emitter, snapshot)) {
+              emitters.remove(emitter);
+            }
+          }
+        });
+  }
+
+  /**
+   * Append the newly processed IDs of a job and write its counters. Synchronized per job so the
+   * scheduled flush and the final flush cannot write counters out of order. IDs and counters that
+   * could not be written stay pending for the next flush.
+   */
+  void flush(CrawlProgress progress) {
+    synchronized (progress) {
+      List<String> processedIds = progress.pendingProcessedIds();
+      if (!processedIds.isEmpty()) {
+        LocalDateTime now = LocalDateTime.now();
+        processedAssignmentRepository.saveAll(
+            processedIds.stream()
+                .map(
+                    externalId ->
+                        CrawlerJobProcessedAssignment.builder()
+                            .jobId(progress.getJobId())
+                            .externalId(externalId)
+                            .processedAt(now)
+                            .build())
+                .toList());
+        progress.removeProcessedIds(processedIds.size());
+      }
+      if (progress.clearDirty()) {
+        try {
+          crawlerJobRepository.updateProgress(
+              progress.getJobId(),
+              progress.getFound(),
+              progress.getCreated(),
+              progress.getUpdated(),
+              progress.getUnchanged());
+        } catch (RuntimeException e) {
+          progress.markDirty();
+          throw e;
+        }
+      }
+    }
+  }
+
+  private boolean send(SseEmitter emitter, CrawlProgressSnapshot snapshot) {
+    try {
+      emitter.send(SseEmitter.event().name("progress").data(snapshot));
+      return true;
+    } catch (IOException | IllegalStateException e) {
+      // The client went away, the emitter's callbacks take care of the rest
+      return false;
+    }
+  }
+
+  private void sendFinal(SseEmitter emitter, CrawlProgressSnapshot snapshot) {
+    try {
+      emitter.send(SseEmitter.event().name("complete").data(snapshot));
+      emitter.complete();
+    } catch (IOException | IllegalStateException e) {
+      emitter.completeWithError(e);
+    }
+  }
+}
@@ -1,27 +1,42 @@
 package com.uppdragsradarn.infrastructure.crawler;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.uppdragsradarn.domain.model.Assignment;
-import com.uppdragsradarn.domain.model.CrawlerException;
 import com.uppdragsradarn.domain.model.Source;
 import com.uppdragsradarn.domain.service.AssignmentCrawler;
+import com.uppdragsradarn.domain.service.AssignmentSink;
 import com.uppdragsradarn.domain.service.ContentProvider;
 
-/** Simple registry that finds appropriate content providers for sources */
+/**
+ * Simple registry that finds appropriate content providers for sources.
+ *
+ * <p>Each provider is wrapped in one adapter at startup, and the provider chosen for a source is
+ * remembered together with the source's last modification time, so {@code supports()} only runs
+ * across all providers again once the source has been edited. Every edit moves {@code updated_at},
+ * whether it is saved through JPA or by a changeset, so no caller has to invalidate a binding. The
+ * binding of a deleted source is never looked up again, and there are only as many as sources.
+ */
 @Component
 public class SimpleCrawlerRegistry {
 
   private static final Logger logger = LoggerFactory.getLogger(SimpleCrawlerRegistry.class);
 
-  private final List<ContentProvider> providers;
+  private final Map<ContentProvider, ProviderAdapter> adapters = new LinkedHashMap<>();
+  private final Map<UUID, Binding> bindings = new ConcurrentHashMap<>();
 
   public SimpleCrawlerRegistry(List<ContentProvider> providers) {
-    this.providers = providers;
+    providers.forEach(provider -> adapters.put(provider, new ProviderAdapter(provider)));
     logger.info("Initialized SimpleCrawlerRegistry with {} providers", providers.size());
   }
 
@@ -32,20 +47,34 @@ public class SimpleCrawlerRegistry {
    * @return The crawler for the source, or null if no crawler is found
    */
   public AssignmentCrawler findCrawler(Source source) {
+    // Reuse the binding while the source is unchanged since it was made
+    Binding binding = source.getId() != null ? bindings.get(source.getId()) : null;
+    if (binding != null && Objects.equals(binding.sourceUpdatedAt(), source.getUpdatedAt())) {
+      return binding.crawler();
+    }
+
     logger.debug("Finding crawler for source: {}", source.getName());
 
     // Find provider that supports this source
-    return providers.stream()
-        .filter(provider -> provider.supports(source))
-        .findFirst()
-        .map(
-            provider -> {
-              logger.info("Using {} for source {}", provider.getName(), source.getName());
-              return new ProviderAdapter(provider);
-            })
-        .orElse(null);
+    ProviderAdapter crawler =
+        adapters.entrySet().stream()
+            .filter(entry -> entry.getKey().supports(source))
+            .findFirst()
+            .map(Map.Entry::getValue)
+            .orElse(null);
+    if (crawler == null) {
+      return null;
+    }
+    logger.info("Using {} for source {}", crawler.getName(), source.getName());
+    if (source.getId() != null && source.getUpdatedAt() != null) {
+      bindings.put(source.getId(), new Binding(source.getUpdatedAt(), crawler));
+    }
+    return crawler;
   }
 
+  /** Provider chosen for a source, valid while the source's modification time is unchanged */
+  private record Binding(LocalDateTime sourceUpdatedAt, AssignmentCrawler crawler) {}
+
   /** Adapter that converts ContentProvider to AssignmentCrawler */
   private static class ProviderAdapter implements AssignmentCrawler {
 
@@ -62,11 +91,13 @@ public class SimpleCrawlerRegistry {
 
     @Override
     public List<Assignment> fetchAssignments(Source source) {
-      try {
-        return provider.getAssignments(source);
-      } catch (CrawlerException e) {
-        return List.of();
-      }
+      // Failures propagate so callers can tell a broken source from an empty one
+      return provider.getAssignments(source);
+    }
+
+    @Override
+    public void fetchAssignments(Source source, AssignmentSink sink) {
+      provider.streamAssignments(source, sink);
     }
 
     @Override
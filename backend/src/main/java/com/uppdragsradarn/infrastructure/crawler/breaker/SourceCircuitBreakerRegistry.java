@@ -0,0 +1,291 @@
+package com.uppdragsradarn.infrastructure.crawler.breaker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breakers that keep failing sources from being crawled on every scheduled run.
+ *
+ * <p>Each source gets a breaker over its most recent crawls. It opens once enough of them failed,
+ * or were so slow that the source is effectively down, and the source is skipped until the open
+ * period has passed. The breaker then turns half-open and lets a single probe crawl through: a
+ * successful probe closes it again, a failed one reopens it for twice as long, up to a maximum.
+ * Breakers live in the memory of each instance.
+ */
+@Component
+@Slf4j
+public class SourceCircuitBreakerRegistry {
+
+  /** Breaker states */
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final Map<UUID, Breaker> breakers = new ConcurrentHashMap<>();
+  private final Settings settings;
+  private final Clock clock;
+
+  @Autowired
+  public SourceCircuitBreakerRegistry(
+      @Value("${app.crawler.circuit-breaker.enabled:true}") boolean enabled,
+      @Value("${app.crawler.circuit-breaker.window-size:10}") int windowSize,
+      @Value("${app.crawler.circuit-breaker.minimum-crawls:3}") int minimumCrawls,
+      @Value("${app.crawler.circuit-breaker.failure-ratio:0.5}") double failureRatio,
+      @Value("${app.crawler.circuit-breaker.slow-crawl-duration:30m}") String slowCrawlDuration,
+      @Value("${app.crawler.circuit-breaker.slow-crawl-ratio:0.8}") double slowCrawlRatio,
+      @Value("${app.crawler.circuit-breaker.open-duration:30m}") String openDuration,
+      @Value("${app.crawler.circuit-breaker.max-open-duration:24h}") String maxOpenDuration) {
+    this(
+        new Settings(
+            enabled,
+            Math.max(1, windowSize),
+            Math.max(1, minimumCrawls),
+            failureRatio,
+            DurationStyle.detectAndParse(slowCrawlDuration),
+            slowCrawlRatio,
+            DurationStyle.detectAndParse(openDuration),
+            DurationStyle.detectAndParse(maxOpenDuration)),
+        Clock.systemUTC());
+  }
+
+  SourceCircuitBreakerRegistry(Settings settings, Clock clock) {
+    this.settings = settings;
+    this.clock = clock;
+  }
+
+  /**
+   * Ask whether a source may be crawled now. A half-open breaker grants a single probe, which has
+   * to be followed by {@link #recordSuccess}, {@link #recordFailure} or {@link #release}.
+   *
+   * @param sourceId The source ID
+   * @return true if the crawl may go ahead
+   */
+  public boolean tryAcquire(UUID sourceId) {
+    if (!settings.enabled()) {
+      return true;
+    }
+    return breakerFor(sourceId).tryAcquire(clock.instant());
+  }
+
+  /**
+   * Record a crawl that fetched the source without errors
+   *
+   * @param sourceId The source ID
+   * @param duration How long the crawl took
+   */
+  public void recordSuccess(UUID sourceId, Duration duration) {
+    if (settings.enabled()) {
+      breakerFor(sourceId).record(false, duration, clock.instant());
+    }
+  }
+
+  /**
+   * Record a crawl that failed to fetch the source
+   *
+   * @param sourceId The source ID
+   * @param duration How long the crawl ran before failing
+   */
+  public void recordFailure(UUID sourceId, Duration duration) {
+    if (settings.enabled()) {
+      breakerFor(sourceId).record(true, duration, clock.instant());
+    }
+  }
+
+  /**
+   * Give back a permit without an outcome, for crawls that were cancelled or failed for reasons
+   * that say nothing about the source
+   *
+   * @param sourceId The source ID
+   */
+  public void release(UUID sourceId) {
+    Breaker breaker = breakers.get(sourceId);
+    if (breaker != null) {
+      breaker.release();
+    }
+  }
+
+  /**
+   * Close a source's breaker and forget its history
+   *
+   * @param sourceId The source ID
+   * @return true if the source had a breaker
+   */
+  public boolean reset(UUID sourceId) {
+    boolean existed = breakers.remove(sourceId) != null;
+    if (existed) {
+      log.info("Circuit breaker of source {} was reset", sourceId);
+    }
+    return existed;
+  }
+
+  /**
+   * Get the state of every breaker, open ones first
+   *
+   * @return One snapshot per source that has been crawled since startup
+   */
+  public List<BreakerSnapshot> getSnapshots() {
+    Instant now = clock.instant();
+    return breakers.values().stream()
+        .map(breaker -> breaker.snapshot(now))
+        .sorted(
+            Comparator.comparing((BreakerSnapshot snapshot) -> snapshot.state() == State.CLOSED)
+                .thenComparing(BreakerSnapshot::failureRatio, Comparator.reverseOrder()))
+        .toList();
+  }
+
+  private Breaker breakerFor(UUID sourceId) {
+    return breakers.computeIfAbsent(sourceId, id -> new Breaker(id, settings));
+  }
+
+  /** Breaker configuration */
+  record Settings(
+      boolean enabled,
+      int windowSize,
+      int minimumCrawls,
+      double failureRatio,
+      Duration slowCrawlDuration,
+      double slowCrawlRatio,
+      Duration openDuration,
+      Duration maxOpenDuration) {}
+
+  /** Serializable view of a source's breaker */
+  public record BreakerSnapshot(
+      UUID sourceId,
+      State state,
+      int recentCrawls,
+      double failureRatio,
+      double slowCrawlRatio,
+      Instant openUntil,
+      boolean probeInFlight) {}
+
+  /** Breaker of a single source, every method is guarded by the instance lock */
+  private static final class Breaker {
+
+    private final UUID sourceId;
+    private final Settings settings;
+    private final Deque<Outcome> window = new ArrayDeque<>();
+    private State state = State.CLOSED;
+    private Instant openUntil;
+    private Duration currentOpenDuration;
+    private boolean probeInFlight;
+
+    private Breaker(UUID sourceId, Settings settings) {
+      this.sourceId = sourceId;
+      this.settings = settings;
+      this.currentOpenDuration = settings.openDuration();
+    }
+
+    synchronized boolean tryAcquire(Instant now) {
+      if (state == State.OPEN && !now.isBefore(openUntil)) {
+        state = State.HALF_OPEN;
+        probeInFlight = false;
+      }
+      return switch (state) {
+        case CLOSED -> true;
+        case OPEN -> false;
+        case HALF_OPEN -> {
+          if (probeInFlight) {
+            yield false;
+          }
+          probeInFlight = true;
+          yield true;
+        }
+      };
+    }
+
+    synchronized void record(boolean failed, Duration duration, Instant now) {
+      boolean slow = duration.compareTo(settings.slowCrawlDuration()) >= 0;
+      if (state == State.HALF_OPEN) {
+        probeInFlight = false;
+        if (failed || slow) {
+          // The probe failed, back off for longer before the next one
+          currentOpenDuration = min(currentOpenDuration.multipliedBy(2));
+          open(now);
+        } else {
+          state = State.CLOSED;
+          currentOpenDuration = settings.openDuration();
+          window.clear();
+          window.addLast(new Outcome(false, false));
+        }
+        return;
+      }
+
+      if (window.size() == settings.windowSize()) {
+        window.removeFirst();
+      }
+      window.addLast(new Outcome(failed, slow));
+      if (state == State.CLOSED
+          && window.size() >= settings.minimumCrawls()
+          && (failureRatio() >= settings.failureRatio()
+              || slowRatio() >= settings.slowCrawlRatio())) {
+        open(now);
+      }
+    }
+
+    synchronized void release() {
+      probeInFlight = false;
+    }
+
+    synchronized BreakerSnapshot snapshot(Instant now) {
+      State current = state == State.OPEN && !now.isBefore(openUntil) ? State.HALF_OPEN : state;
+      return new BreakerSnapshot(
+          sourceId,
+          current,
+          window.size(),
+          failureRatio(),
+          slowRatio(),
+          current == State.OPEN ? openUntil : null,
+          probeInFlight);
+    }
+
+    private void open(Instant now) {
+      state = State.OPEN;
+      openUntil = now.plus(currentOpenDuration);
+      log.warn(
+          "Circuit breaker of source {} opened after {} failed and {} slow of {} recent crawls,"
+              + " skipping it until {}",
+          sourceId,
+          window.stream().filter(Outcome::failed).count(),
+          window.stream().filter(Outcome::slow).count(),
+          window.size(),
+          openUntil);
+    }
+
+    private double failureRatio() {
+      return window.isEmpty()
+          ? 0
+          : (double) window.stream().filter(Outcome::failed).count() / window.size();
+    }
+
+    private double slowRatio() {
+      return window.isEmpty()
+          ? 0
+          : (double) window.stream().filter(Outcome::slow).count() / window.size();
+    }
+
+    private Duration min(Duration duration) {
+      return duration.compareTo(settings.maxOpenDuration()) > 0
+          ? settings.maxOpenDuration()
+          : duration;
+    }
+  }
+
+  private record Outcome(boolean failed, boolean slow) {}
+}
@@ -0,0 +1,319 @@
+package com.uppdragsradarn.infrastructure.crawler.browser;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import com.microsoft.playwright.Route;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long-lived headless browsers shared by the Playwright-based providers.
+ *
+ * <p>Playwright objects may only be used from the thread that created them, so the pool is made of
+ * workers that each own a thread, a Chromium instance launched once and a reusable browser context.
+ * A task borrows a worker, runs on its thread with a fresh page and hands the worker back; with
+ * several workers, pages load in parallel. Contexts block images, fonts, media and analytics
+ * requests, and are replaced after a number of pages so cookies and memory do not pile up. A worker
+ * whose browser has crashed or disconnected is relaunched before its next task.
+ */
+@Component
+@Slf4j
+public class BrowserPool {
+
+  private static final Set<String> BLOCKED_RESOURCE_TYPES = Set.of("image", "font", "media");
+
+  private final int recycleAfterPages;
+  private final boolean blockResources;
+  private final List<String> blockedHosts;
+  private final String userAgent;
+  private final String locale;
+
+  private final BlockingQueue<Worker> idle;
+  private final List<Worker> workers;
+  // Waits for a worker on behalf of asynchronous callers
+  private final ExecutorService dispatcher =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("browser-task-", 0).factory());
+
+  public BrowserPool(
+      @Value("${app.crawler.browser.pool-size:2}") int poolSize,
+      @Value("${app.crawler.browser.recycle-after-pages:50}") int recycleAfterPages,
+      @Value("${app.crawler.browser.block-resources:true}") boolean blockResources,
+      @Value(
+              "${app.crawler.browser.blocked-hosts:google-analytics.com,googletagmanager.com,"
+                  + "doubleclick.net,facebook.net,hotjar.com,clarity.ms,linkedin.com}")
+          List<String> blockedHosts,
+      @Value(
+              "${app.crawler.browser.user-agent:Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36"
+                  + " (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36}")
+          String userAgent,
+      @Value("${app.crawler.browser.locale:sv-SE}") String locale) {
+    this.recycleAfterPages = Math.max(recycleAfterPages, 1);
+    this.blockResources = blockResources;
+    this.blockedHosts =
+        blockedHosts.stream().map(String::trim).filter(host -> !host.isEmpty()).toList();
+    this.userAgent = userAgent;
+    this.locale = locale;
+
+    int size = Math.max(poolSize, 1);
+    this.idle = new ArrayBlockingQueue<>(size);
+    this.workers = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Worker worker = new Worker(i);
+      workers.add(worker);
+      idle.add(worker);
+    }
+  }
+
+  /**
+   * Run a task with a fresh page, waiting for a free worker
+   *
+   * @param task The task, run on the thread of the worker
+   * @return The result of the task
+   * @throws InterruptedException if interrupted while waiting
+   * @throws Exception anything thrown by the task or the browser
+   */
+  public <T> T withPage(PageTask<T> task) throws Exception {
+    Worker worker = idle.take();
+    try {
+      return worker.run(task);
+    } finally {
+      idle.add(worker);
+    }
+  }
+
+  /**
+   * Run a task with a fresh page once a worker is free, without waiting for it
+   *
+   * @param task The task, run on the thread of the worker
+   * @return The result of the task
+   */
+  public <T> CompletableFuture<T> submit(PageTask<T> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Future<?> dispatch =
+        dispatcher.submit(
+            () -> {
+              try {
+                result.complete(withPage(task));
+              } catch (Exception e) {
+                result.completeExceptionally(e);
+              }
+            });
+    // Cancelling the result stops waiting for a worker, a running task finishes
+    result.whenComplete(
+        (value, error) -> {
+          if (result.isCancelled()) {
+            dispatch.cancel(true);
+          }
+        });
+    return result;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    dispatcher.shutdownNow();
+    for (Worker worker : workers) {
+      worker.shutdown();
+    }
+  }
+
+  /**
+   * Find out whether a request of a page should be blocked
+   *
+   * @param resourceType The Playwright resource type of the request
+   * @param url The requested URL
+   * @return true for images, fonts, media and requests to blocked hosts
+   */
+  boolean shouldBlock(String resourceType, String url) {
+    if (BLOCKED_RESOURCE_TYPES.contains(resourceType)) {
+      return true;
+    }
+    String host;
+    try {
+      host = URI.create(url).getHost();
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    if (host == null) {
+      return false;
+    }
+    host = host.toLowerCase(Locale.ROOT);
+    for (String blocked : blockedHosts) {
+      if (host.equals(blocked) || host.endsWith("." + blocked)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Work done with a page of the pool */
+  @FunctionalInterface
+  public interface PageTask<T> {
+
+    /**
+     * Use the page, which is closed afterwards
+     *
+     * @param page A new page in a pooled browser context
+     * @return The result
+     * @throws Exception anything the task or the browser throws
+     */
+    T apply(Page page) throws Exception;
+  }
+
+  /** One browser with its context, only touched from its own thread */
+  private final class Worker {
+
+    private final int index;
+    private final ExecutorService thread;
+    private Playwright playwright;
+    private Browser browser;
+    private BrowserContext context;
+    private int contextPages;
+
+    private Worker(int index) {
+      this.index = index;
+      this.thread =
+          Executors.newSingleThreadExecutor(
+              Thread.ofPlatform().name("browser-worker-" + index).daemon().factory());
+    }
+
+    private <T> T run(PageTask<T> task) throws Exception {
+      Future<T> future = thread.submit(() -> runOnThread(task));
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        // The page closes once the task notices or times out, the worker stays usable
+        future.cancel(false);
+        throw e;
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof Exception cause) {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+
+    private <T> T runOnThread(PageTask<T> task) throws Exception {
+      ensureHealthy();
+      Page page = context.newPage();
+      try {
+        return task.apply(page);
+      } catch (PlaywrightException e) {
+        if (!browser.isConnected()) {
+          log.warn("Browser of worker {} disconnected, relaunching it: {}", index, e.getMessage());
+          closeBrowser();
+        }
+        throw e;
+      } finally {
+        if (browser != null) {
+          closeQuietly(page);
+          if (++contextPages >= recycleAfterPages) {
+            closeContext();
+          }
+        }
+      }
+    }
+
+    private void ensureHealthy() {
+      if (browser != null && !browser.isConnected()) {
+        log.warn("Browser of worker {} is no longer connected, relaunching it", index);
+        closeBrowser();
+      }
+      if (browser == null) {
+        playwright = Playwright.create();
+        browser =
+            playwright
+                .chromium()
+                .launch(new BrowserType.LaunchOptions().setHeadless(true).setTimeout(60000));
+        log.info("Launched browser {} ({})", index, browser.version());
+      }
+      if (context == null) {
+        context =
+            browser.newContext(
+                new Browser.NewContextOptions().setUserAgent(userAgent).setLocale(locale));
+        if (blockResources) {
+          context.route("**/*", this::filter);
+        }
+        contextPages = 0;
+      }
+    }
+
+    private void filter(Route route) {
+      if (shouldBlock(route.request().resourceType(), route.request().url())) {
+        route.abort();
+      } else {
+        route.resume();
+      }
+    }
+
+    private void closeContext() {
+      if (context != null) {
+        try {
+          context.close();
+        } catch (PlaywrightException e) {
+          log.debug("Error closing browser context of worker {}: {}", index, e.getMessage());
+        }
+        context = null;
+      }
+    }
+
+    private void closeBrowser() {
+      closeContext();
+      try {
+        if (browser != null) {
+          browser.close();
+        }
+      } catch (PlaywrightException e) {
+        log.debug("Error closing browser of worker {}: {}", index, e.getMessage());
+      }
+      try {
+        if (playwright != null) {
+          playwright.close();
+        }
+      } catch (PlaywrightException e) {
+        log.debug("Error closing Playwright of worker {}: {}", index, e.getMessage());
+      }
+      browser = null;
+      playwright = null;
+    }
+
+    private void closeQuietly(Page page) {
+      try {
+        page.close();
+      } catch (PlaywrightException e) {
+        log.debug("Error closing page of worker {}: {}", index, e.getMessage());
+      }
+    }
+
+    private void shutdown() {
+      try {
+        thread.submit(this::closeBrowser).get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException e) {
+        log.debug("Error shutting down browser worker {}: {}", index, e.getMessage());
+      }
+      thread.shutdownNow();
+    }
+  }
+}
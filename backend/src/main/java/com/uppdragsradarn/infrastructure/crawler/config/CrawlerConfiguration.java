@@ -24,15 +24,27 @@ public class CrawlerConfiguration {
   private Integer retryDelayMs;
   private String crawlInterval;
 
+  // Scheduling, unset limits fall back to the global app.crawler.scheduling settings
+  private String minCrawlInterval;
+  private String maxCrawlInterval;
+  private Boolean adaptiveSchedule;
+
   // Scraping settings
   private Integer maxPages;
+  // Whether list pages are sorted newest first, which allows incremental crawls
+  private Boolean newestFirst;
   private Integer pageSize;
   private Boolean detailRequired;
   private Boolean usePlaywright;
 
-  // Rate limiting
+  // Rate limiting per host, unset limits fall back to the global app.crawler.politeness settings
+  private Double requestsPerSecond;
   private Integer requestsPerMinute;
   private Integer burstLimit;
+  private Integer maxConcurrentRequests;
+
+  // LLM tokens the source may spend per day, unset falls back to app.openai.budget
+  private Integer dailyTokenBudget;
 
   // Authentication (if needed)
   private String authType; // none, apiKey, oauth, basic
@@ -70,8 +82,6 @@ public class CrawlerConfiguration {
         .pageSize(50)
         .detailRequired(false)
         .usePlaywright(false)
-        .requestsPerMinute(60)
-        .burstLimit(10)
         .authType("none")
         .enableJavaScript(false)
         .followRedirects(true)
@@ -91,13 +101,28 @@ public class CrawlerConfiguration {
         .maxRetries(other.maxRetries != null ? other.maxRetries : this.maxRetries)
         .retryDelayMs(other.retryDelayMs != null ? other.retryDelayMs : this.retryDelayMs)
         .crawlInterval(other.crawlInterval != null ? other.crawlInterval : this.crawlInterval)
+        .minCrawlInterval(
+            other.minCrawlInterval != null ? other.minCrawlInterval : this.minCrawlInterval)
+        .maxCrawlInterval(
+            other.maxCrawlInterval != null ? other.maxCrawlInterval : this.maxCrawlInterval)
+        .adaptiveSchedule(
+            other.adaptiveSchedule != null ? other.adaptiveSchedule : this.adaptiveSchedule)
         .maxPages(other.maxPages != null ? other.maxPages : this.maxPages)
+        .newestFirst(other.newestFirst != null ? other.newestFirst : this.newestFirst)
         .pageSize(other.pageSize != null ? other.pageSize : this.pageSize)
         .detailRequired(other.detailRequired != null ? other.detailRequired : this.detailRequired)
         .usePlaywright(other.usePlaywright != null ? other.usePlaywright : this.usePlaywright)
+        .requestsPerSecond(
+            other.requestsPerSecond != null ? other.requestsPerSecond : this.requestsPerSecond)
         .requestsPerMinute(
             other.requestsPerMinute != null ? other.requestsPerMinute : this.requestsPerMinute)
         .burstLimit(other.burstLimit != null ? other.burstLimit : this.burstLimit)
+        .maxConcurrentRequests(
+            other.maxConcurrentRequests != null
+                ? other.maxConcurrentRequests
+                : this.maxConcurrentRequests)
+        .dailyTokenBudget(
+            other.dailyTokenBudget != null ? other.dailyTokenBudget : this.dailyTokenBudget)
         .authType(other.authType != null ? other.authType : this.authType)
         .apiKey(other.apiKey != null ? other.apiKey : this.apiKey)
         .username(other.username != null ? other.username : this.username)
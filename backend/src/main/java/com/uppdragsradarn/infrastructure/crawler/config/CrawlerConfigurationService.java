@@ -87,6 +87,37 @@ public class CrawlerConfigurationService {
     if (configMap.containsKey("crawlInterval")) {
       builder.crawlInterval((String) configMap.get("crawlInterval"));
     }
+    if (configMap.containsKey("minCrawlInterval")) {
+      builder.minCrawlInterval((String) configMap.get("minCrawlInterval"));
+    }
+    if (configMap.containsKey("maxCrawlInterval")) {
+      builder.maxCrawlInterval((String) configMap.get("maxCrawlInterval"));
+    }
+    if (configMap.containsKey("newestFirst")) {
+      builder.newestFirst(parseBoolean(configMap.get("newestFirst")));
+    }
+    if (configMap.containsKey("adaptiveSchedule")) {
+      builder.adaptiveSchedule(parseBoolean(configMap.get("adaptiveSchedule")));
+    }
+
+    // Rate limiting
+    if (configMap.containsKey("requestsPerSecond")) {
+      builder.requestsPerSecond(parseDouble(configMap.get("requestsPerSecond")));
+    }
+    if (configMap.containsKey("requestsPerMinute")) {
+      builder.requestsPerMinute(parseInteger(configMap.get("requestsPerMinute")));
+    }
+    if (configMap.containsKey("burstLimit")) {
+      builder.burstLimit(parseInteger(configMap.get("burstLimit")));
+    }
+    if (configMap.containsKey("maxConcurrentRequests")) {
+      builder.maxConcurrentRequests(parseInteger(configMap.get("maxConcurrentRequests")));
+    }
+
+    // LLM extraction
+    if (configMap.containsKey("dailyTokenBudget")) {
+      builder.dailyTokenBudget(parseInteger(configMap.get("dailyTokenBudget")));
+    }
 
     // API settings
     if (configMap.containsKey("apiUrl")) {
@@ -127,6 +158,9 @@ public class CrawlerConfigurationService {
         case "pageSize":
           builder.pageSize(parseInteger(value));
           break;
+        case "newestFirst":
+          builder.newestFirst(parseBoolean(value));
+          break;
         case "detailRequired":
           builder.detailRequired(parseBoolean(value));
           break;
@@ -142,6 +176,21 @@ public class CrawlerConfigurationService {
         case "apiEndpoint":
           builder.apiEndpoint(value);
           break;
+        case "requestsPerSecond":
+          builder.requestsPerSecond(parseDouble(value));
+          break;
+        case "requestsPerMinute":
+          builder.requestsPerMinute(parseInteger(value));
+          break;
+        case "burstLimit":
+          builder.burstLimit(parseInteger(value));
+          break;
+        case "maxConcurrentRequests":
+          builder.maxConcurrentRequests(parseInteger(value));
+          break;
+        case "dailyTokenBudget":
+          builder.dailyTokenBudget(parseInteger(value));
+          break;
         default:
           // Collect selectors and other parameters
           if (key.endsWith("Selector") || key.contains(".")) {
@@ -166,12 +215,18 @@ public class CrawlerConfigurationService {
             .maxRetries(config.getMaxRetries())
             .retryDelayMs(config.getRetryDelayMs())
             .crawlInterval(config.getCrawlInterval())
+            .minCrawlInterval(config.getMinCrawlInterval())
+            .maxCrawlInterval(config.getMaxCrawlInterval())
+            .adaptiveSchedule(config.getAdaptiveSchedule())
             .maxPages(config.getMaxPages())
+            .newestFirst(config.getNewestFirst())
             .pageSize(config.getPageSize())
             .detailRequired(config.getDetailRequired())
             .usePlaywright(config.getUsePlaywright())
+            .requestsPerSecond(config.getRequestsPerSecond())
             .requestsPerMinute(config.getRequestsPerMinute())
             .burstLimit(config.getBurstLimit())
+            .maxConcurrentRequests(config.getMaxConcurrentRequests())
             .authType(config.getAuthType())
             .apiKey(config.getApiKey())
             .username(config.getUsername())
@@ -234,6 +289,22 @@ public class CrawlerConfigurationService {
     }
   }
 
+  /** Safely parses a double from an object. */
+  private Double parseDouble(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    try {
+      return Double.parseDouble(value.toString());
+    } catch (NumberFormatException e) {
+      logger.warn("Failed to parse double from value: {}", value);
+      return null;
+    }
+  }
+
   /** Safely parses a boolean from an object. */
   private Boolean parseBoolean(Object value) {
     if (value == null) {
@@ -0,0 +1,12 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import java.util.UUID;
+
+/**
+ * Exclusive right to crawl a source, held by one job on one instance
+ *
+ * @param sourceId The leased source
+ * @param jobId The job holding the lease
+ * @param owner Identifier of the instance running the job
+ */
+public record CrawlLease(UUID sourceId, String jobId, String owner) {}
@@ -0,0 +1,57 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Guarantees that a source is crawled by at most one job at a time, across all instances sharing
+ * the same lease store.
+ *
+ * <p>Leases expire unless the holder renews them, so a crashed instance cannot block a source
+ * forever. Cancellation requests are recorded on the lease and picked up by the holder on its next
+ * renewal, which lets any instance cancel a job running on another one.
+ */
+public interface CrawlLeaseManager {
+
+  /**
+   * Try to take the lease of a source for a job
+   *
+   * @param sourceId The source to crawl
+   * @param jobId The job that will crawl it
+   * @return The lease, or empty if another job holds an unexpired lease on the source
+   */
+  Optional<CrawlLease> tryAcquire(UUID sourceId, String jobId);
+
+  /**
+   * Extend a lease held by this instance
+   *
+   * @param lease The lease to extend
+   * @return Whether the lease is still held and whether its job should be cancelled
+   */
+  LeaseState renew(CrawlLease lease);
+
+  /**
+   * Give up a lease. Releasing a lease that has already expired or been taken over does nothing.
+   *
+   * @param lease The lease to release
+   */
+  void release(CrawlLease lease);
+
+  /**
+   * Ask the holder of a job's lease to cancel the job
+   *
+   * @param jobId The job to cancel
+   * @return true if the job holds an unexpired lease, false otherwise
+   */
+  boolean requestCancel(String jobId);
+
+  /** State of a lease as seen by its holder when renewing it */
+  enum LeaseState {
+    /** The lease is still held */
+    HELD,
+    /** The lease is held but cancellation of its job was requested */
+    CANCEL_REQUESTED,
+    /** The lease expired or was taken over, the job must stop */
+    LOST
+  }
+}
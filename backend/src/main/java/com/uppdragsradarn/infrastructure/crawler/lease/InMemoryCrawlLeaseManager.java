@@ -0,0 +1,99 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crawl leases kept in the memory of a single instance. Only suitable for running one replica, or
+ * for development and tests.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.crawler.lease.type",
+    havingValue = "memory",
+    matchIfMissing = true)
+public class InMemoryCrawlLeaseManager implements CrawlLeaseManager {
+
+  private final Map<UUID, LeaseEntry> leases = new ConcurrentHashMap<>();
+  private final Duration ttl;
+  private final Clock clock;
+
+  @Autowired
+  public InMemoryCrawlLeaseManager(@Value("${app.crawler.lease.ttl-seconds:60}") long ttlSeconds) {
+    this(Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+  }
+
+  InMemoryCrawlLeaseManager(Duration ttl, Clock clock) {
+    this.ttl = ttl;
+    this.clock = clock;
+  }
+
+  @Override
+  public Optional<CrawlLease> tryAcquire(UUID sourceId, String jobId) {
+    Instant now = clock.instant();
+    AtomicBoolean acquired = new AtomicBoolean();
+    leases.compute(
+        sourceId,
+        (id, current) -> {
+          if (current != null && current.expiresAt().isAfter(now)) {
+            return current;
+          }
+          acquired.set(true);
+          return new LeaseEntry(jobId, now.plus(ttl), false);
+        });
+    return acquired.get()
+        ? Optional.of(new CrawlLease(sourceId, jobId, "local"))
+        : Optional.empty();
+  }
+
+  @Override
+  public LeaseState renew(CrawlLease lease) {
+    Instant now = clock.instant();
+    AtomicReference<LeaseState> state = new AtomicReference<>(LeaseState.LOST);
+    leases.computeIfPresent(
+        lease.sourceId(),
+        (id, current) -> {
+          if (!current.jobId().equals(lease.jobId())) {
+            return current;
+          }
+          state.set(current.cancelRequested() ? LeaseState.CANCEL_REQUESTED : LeaseState.HELD);
+          return new LeaseEntry(current.jobId(), now.plus(ttl), current.cancelRequested());
+        });
+    return state.get();
+  }
+
+  @Override
+  public void release(CrawlLease lease) {
+    leases.computeIfPresent(
+        lease.sourceId(), (id, current) -> current.jobId().equals(lease.jobId()) ? null : current);
+  }
+
+  @Override
+  public boolean requestCancel(String jobId) {
+    Instant now = clock.instant();
+    AtomicBoolean found = new AtomicBoolean();
+    leases.replaceAll(
+        (id, current) -> {
+          if (current.jobId().equals(jobId) && current.expiresAt().isAfter(now)) {
+            found.set(true);
+            return new LeaseEntry(current.jobId(), current.expiresAt(), true);
+          }
+          return current;
+        });
+    return found.get();
+  }
+
+  private record LeaseEntry(String jobId, Instant expiresAt, boolean cancelRequested) {}
+}
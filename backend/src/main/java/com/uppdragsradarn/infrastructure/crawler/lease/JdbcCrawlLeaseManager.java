@@ -0,0 +1,140 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crawl leases stored in the {@code crawl_leases} table, shared by all replicas using the same
+ * database.
+ *
+ * <p>There is one row per leased source. A lease is taken either by inserting the row or by
+ * overwriting a row whose lease has expired; both are single statements, so two instances racing
+ * for the same source cannot both win. The holder renews the lease well before the TTL runs out and
+ * deletes the row when the job ends. Every call commits on its own, so a lease is visible to other
+ * instances even while the caller's transaction is still open.
+ */
+@Component
+@ConditionalOnProperty(name = "app.crawler.lease.type", havingValue = "jdbc")
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+@Slf4j
+public class JdbcCrawlLeaseManager implements CrawlLeaseManager {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration ttl;
+  private final String owner;
+  private final Clock clock;
+
+  @Autowired
+  public JdbcCrawlLeaseManager(
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.crawler.lease.ttl-seconds:60}") long ttlSeconds,
+      @Value("${app.crawler.lease.owner:${HOSTNAME:}}") String owner) {
+    this(
+        jdbcTemplate,
+        Duration.ofSeconds(ttlSeconds),
+        owner == null || owner.isBlank() ? UUID.randomUUID().toString() : owner,
+        Clock.systemUTC());
+  }
+
+  JdbcCrawlLeaseManager(JdbcTemplate jdbcTemplate, Duration ttl, String owner, Clock clock) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttl = ttl;
+    this.owner = owner;
+    this.clock = clock;
+  }
+
+  @Override
+  public Optional<CrawlLease> tryAcquire(UUID sourceId, String jobId) {
+    Instant now = clock.instant();
+    Timestamp nowTs = Timestamp.from(now);
+    Timestamp expiresAt = Timestamp.from(now.plus(ttl));
+
+    // Take over an expired lease; the row lock makes a concurrent takeover re-check the expiry
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE crawl_leases SET job_id = ?, owner = ?, acquired_at = ?, expires_at = ?,"
+                + " cancel_requested = FALSE WHERE source_id = ? AND expires_at < ?",
+            jobId,
+            owner,
+            nowTs,
+            expiresAt,
+            sourceId,
+            nowTs);
+    if (updated == 0) {
+      try {
+        jdbcTemplate.update(
+            "INSERT INTO crawl_leases (source_id, job_id, owner, acquired_at, expires_at,"
+                + " cancel_requested) VALUES (?, ?, ?, ?, ?, FALSE)",
+            sourceId,
+            jobId,
+            owner,
+            nowTs,
+            expiresAt);
+      } catch (DuplicateKeyException e) {
+        // Another job holds an unexpired lease on the source
+        return Optional.empty();
+      }
+    }
+    log.debug("Job {} acquired crawl lease for source {} on {}", jobId, sourceId, owner);
+    return Optional.of(new CrawlLease(sourceId, jobId, owner));
+  }
+
+  @Override
+  public LeaseState renew(CrawlLease lease) {
+    Timestamp expiresAt = Timestamp.from(clock.instant().plus(ttl));
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE crawl_leases SET expires_at = ? WHERE source_id = ? AND job_id = ?",
+            expiresAt,
+            lease.sourceId(),
+            lease.jobId());
+    if (updated == 0) {
+      return LeaseState.LOST;
+    }
+    List<Boolean> cancelRequested =
+        jdbcTemplate.queryForList(
+            "SELECT cancel_requested FROM crawl_leases WHERE source_id = ? AND job_id = ?",
+            Boolean.class,
+            lease.sourceId(),
+            lease.jobId());
+    if (cancelRequested.isEmpty()) {
+      return LeaseState.LOST;
+    }
+    return Boolean.TRUE.equals(cancelRequested.get(0))
+        ? LeaseState.CANCEL_REQUESTED
+        : LeaseState.HELD;
+  }
+
+  @Override
+  public void release(CrawlLease lease) {
+    jdbcTemplate.update(
+        "DELETE FROM crawl_leases WHERE source_id = ? AND job_id = ?",
+        lease.sourceId(),
+        lease.jobId());
+  }
+
+  @Override
+  public boolean requestCancel(String jobId) {
+    return jdbcTemplate.update(
+            "UPDATE crawl_leases SET cancel_requested = TRUE WHERE job_id = ? AND expires_at >= ?",
+            jobId,
+            Timestamp.from(clock.instant()))
+        > 0;
+  }
+}
@@ -0,0 +1,349 @@
+package com.uppdragsradarn.infrastructure.crawler.politeness;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.TokensInheritanceStrategy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Politeness limits for the hosts being crawled.
+ *
+ * <p>Every host gets a token bucket, refilled at the allowed requests per second and holding up to
+ * the burst size, and a cap on the requests in flight at once. A request first waits for a free
+ * slot and then for a token; waiting is done on a scheduler, so asynchronous callers hold no thread
+ * meanwhile. Hosts are limited independently of each other and can be crawled in parallel. The
+ * limits of a host come from the configuration of the source crawling it, falling back to the
+ * {@code app.crawler.politeness} defaults.
+ */
+@Component
+@Slf4j
+public class HostRateLimiter {
+
+  private final boolean enabled;
+  private final Limits defaults;
+  private final CrawlerConfigurationService configurationService;
+
+  private final Map<String, HostGate> gates = new ConcurrentHashMap<>();
+  private final Map<UUID, CachedLimits> sourceLimits = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("host-rate-limiter").daemon().factory());
+
+  @Autowired
+  public HostRateLimiter(
+      @Value("${app.crawler.politeness.enabled:true}") boolean enabled,
+      @Value("${app.crawler.politeness.requests-per-second:2}") double requestsPerSecond,
+      @Value("${app.crawler.politeness.burst:4}") int burst,
+      @Value("${app.crawler.politeness.max-concurrent:2}") int maxConcurrent,
+      CrawlerConfigurationService configurationService) {
+    this(enabled, new Limits(requestsPerSecond, burst, maxConcurrent), configurationService);
+  }
+
+  HostRateLimiter(
+      boolean enabled, Limits defaults, CrawlerConfigurationService configurationService) {
+    this.enabled = enabled;
+    this.defaults = defaults;
+    this.configurationService = configurationService;
+  }
+
+  /**
+   * Get the limits a source asks for, falling back to the defaults for anything it leaves unset
+   *
+   * @param source The source
+   * @return The limits for the hosts the source crawls
+   */
+  public Limits limitsFor(Source source) {
+    if (source.getId() == null) {
+      return resolveLimits(source);
+    }
+    // Parsing the source configuration for every request would be wasteful, it rarely changes
+    CachedLimits cached = sourceLimits.get(source.getId());
+    if (cached == null || !Objects.equals(cached.updatedAt(), source.getUpdatedAt())) {
+      cached = new CachedLimits(source.getUpdatedAt(), resolveLimits(source));
+      sourceLimits.put(source.getId(), cached);
+    }
+    return cached.limits();
+  }
+
+  /**
+   * Apply the limits of a source to the host of its base URL, before crawling it
+   *
+   * @param source The source about to be crawled
+   */
+  public void configure(Source source) {
+    String host = host(source.getBaseUrl());
+    if (enabled && host != null) {
+      gate(host, limitsFor(source));
+    }
+  }
+
+  /**
+   * Wait for permission to send a request, under the limits of the source it is sent for
+   *
+   * @param source The source the request is sent for
+   * @param url The URL about to be requested
+   * @return The permit, to be closed once the response has been received
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Permit acquire(Source source, String url) throws InterruptedException {
+    return await(acquireAsync(source, url));
+  }
+
+  /**
+   * Wait for permission to send a request, under the limits last configured for its host
+   *
+   * @param url The URL about to be requested
+   * @return The permit, to be closed once the response has been received
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Permit acquire(String url) throws InterruptedException {
+    return await(acquireAsync(url));
+  }
+
+  /**
+   * Ask for permission to send a request, under the limits of the source it is sent for
+   *
+   * @param source The source the request is sent for
+   * @param url The URL about to be requested
+   * @return The permit once granted, to be closed once the response has been received
+   */
+  public CompletableFuture<Permit> acquireAsync(Source source, String url) {
+    String host = host(url);
+    if (!enabled || host == null) {
+      return CompletableFuture.completedFuture(Permit.NONE);
+    }
+    return gate(host, limitsFor(source)).enter();
+  }
+
+  /**
+   * Ask for permission to send a request, under the limits last configured for its host
+   *
+   * @param url The URL about to be requested
+   * @return The permit once granted, to be closed once the response has been received
+   */
+  public CompletableFuture<Permit> acquireAsync(String url) {
+    String host = host(url);
+    if (!enabled || host == null) {
+      return CompletableFuture.completedFuture(Permit.NONE);
+    }
+    return gate(host, null).enter();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private Limits resolveLimits(Source source) {
+    CrawlerConfiguration config = configurationService.getConfiguration(source);
+    double requestsPerSecond = defaults.requestsPerSecond();
+    if (config.getRequestsPerSecond() != null) {
+      requestsPerSecond = config.getRequestsPerSecond();
+    } else if (config.getRequestsPerMinute() != null) {
+      requestsPerSecond = config.getRequestsPerMinute() / 60.0;
+    }
+    return new Limits(
+        requestsPerSecond,
+        config.getBurstLimit() != null ? config.getBurstLimit() : defaults.burst(),
+        config.getMaxConcurrentRequests() != null
+            ? config.getMaxConcurrentRequests()
+            : defaults.maxConcurrent());
+  }
+
+  private HostGate gate(String host, Limits limits) {
+    HostGate gate =
+        gates.computeIfAbsent(
+            host,
+            key -> {
+              Limits effective = limits != null ? limits : defaults;
+              log.debug("Limiting requests to {} to {}", host, effective);
+              return new HostGate(effective);
+            });
+    if (limits != null && gate.update(limits)) {
+      log.debug("Limiting requests to {} to {}", host, limits);
+    }
+    return gate;
+  }
+
+  private static Permit await(CompletableFuture<Permit> permit) throws InterruptedException {
+    try {
+      return permit.get();
+    } catch (InterruptedException e) {
+      if (!permit.cancel(false)) {
+        // Granted in the meantime, hand it back
+        permit.thenAccept(Permit::close);
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Rate limiter failed", e.getCause());
+    }
+  }
+
+  private static String host(String url) {
+    if (url == null || url.isBlank()) {
+      return null;
+    }
+    try {
+      String host = URI.create(url.trim()).getHost();
+      return host != null ? host.toLowerCase() : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Limits of a host
+   *
+   * @param requestsPerSecond Sustained request rate
+   * @param burst Requests that may be sent at once after an idle period
+   * @param maxConcurrent Requests that may be in flight at once
+   */
+  public record Limits(double requestsPerSecond, int burst, int maxConcurrent) {
+
+    public Limits {
+      requestsPerSecond = requestsPerSecond > 0 ? requestsPerSecond : 1;
+      burst = Math.max(burst, 1);
+      maxConcurrent = Math.max(maxConcurrent, 1);
+    }
+  }
+
+  /** Permission to send one request, handed back by closing it */
+  public static final class Permit implements AutoCloseable {
+
+    static final Permit NONE = new Permit(null);
+
+    private final HostGate gate;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Permit(HostGate gate) {
+      this.gate = gate;
+    }
+
+    @Override
+    public void close() {
+      if (gate != null && closed.compareAndSet(false, true)) {
+        gate.leave();
+      }
+    }
+  }
+
+  private record CachedLimits(LocalDateTime updatedAt, Limits limits) {}
+
+  /**
+   * Token bucket and concurrency cap of one host. Sources sharing a host share its gate, when they
+   * ask for other limits the gate takes them over in place, keeping its tokens and the requests in
+   * flight, so switching limits never hands out a fresh burst or extra slots.
+   */
+  private final class HostGate {
+
+    private final Bucket bucket;
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private Limits limits;
+    private int inFlight;
+
+    private HostGate(Limits limits) {
+      this.limits = limits;
+      this.bucket = Bucket.builder().addLimit(bandwidth(limits)).build();
+    }
+
+    /**
+     * Apply other limits to the host
+     *
+     * @return true if the limits changed
+     */
+    private boolean update(Limits newLimits) {
+      List<CompletableFuture<Void>> admitted = new ArrayList<>();
+      synchronized (this) {
+        if (limits.equals(newLimits)) {
+          return false;
+        }
+        limits = newLimits;
+        bucket.replaceConfiguration(
+            BucketConfiguration.builder().addLimit(bandwidth(newLimits)).build(),
+            TokensInheritanceStrategy.AS_IS);
+        // A higher cap lets waiting requests in right away
+        while (inFlight < limits.maxConcurrent() && !waiting.isEmpty()) {
+          inFlight++;
+          admitted.add(waiting.poll());
+        }
+      }
+      admitted.forEach(slot -> slot.complete(null));
+      return true;
+    }
+
+    private static Bandwidth bandwidth(Limits limits) {
+      Duration refillPeriod =
+          Duration.ofNanos((long) (Duration.ofSeconds(1).toNanos() / limits.requestsPerSecond()));
+      return Bandwidth.classic(limits.burst(), Refill.greedy(1, refillPeriod));
+    }
+
+    private CompletableFuture<Permit> enter() {
+      CompletableFuture<Void> slot;
+      synchronized (this) {
+        if (inFlight < limits.maxConcurrent()) {
+          inFlight++;
+          slot = CompletableFuture.completedFuture(null);
+        } else {
+          slot = new CompletableFuture<>();
+          waiting.add(slot);
+        }
+      }
+      CompletableFuture<Permit> permit = new CompletableFuture<>();
+      slot.thenCompose(ignored -> bucket.asScheduler().consume(1, scheduler))
+          .whenComplete(
+              (ignored, error) -> {
+                Permit granted = new Permit(this);
+                if (error != null) {
+                  granted.close();
+                  permit.completeExceptionally(error);
+                } else if (!permit.complete(granted)) {
+                  // Cancelled by the caller while waiting for a token
+                  granted.close();
+                }
+              });
+      return permit;
+    }
+
+    private void leave() {
+      CompletableFuture<Void> next;
+      synchronized (this) {
+        // After the cap was lowered, slots are given up until the requests in flight fit under it
+        next = inFlight > limits.maxConcurrent() ? null : waiting.poll();
+        if (next == null) {
+          inFlight--;
+          return;
+        }
+      }
+      // The slot passes straight to the next waiting request
+      next.complete(null);
+    }
+  }
+}
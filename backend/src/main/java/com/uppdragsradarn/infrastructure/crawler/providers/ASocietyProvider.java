@@ -4,8 +4,9 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
 import org.jsoup.Jsoup;
@@ -14,7 +15,7 @@ import org.jsoup.select.Elements;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.microsoft.playwright.*;
+import com.microsoft.playwright.Page;
 import com.microsoft.playwright.options.LoadState;
 import com.uppdragsradarn.application.service.LocationService;
 import com.uppdragsradarn.domain.model.Assignment;
@@ -26,6 +27,8 @@ import com.uppdragsradarn.domain.model.StatusType;
 import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.crawler.browser.BrowserPool;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -51,16 +54,22 @@ public class ASocietyProvider extends AbstractProvider {
   @Value("${app.crawler.asocietygroup.use-direct-fetcher:false}")
   private boolean useDirectFetcher;
 
+  private final SharedHttpClients httpClients;
+  private final BrowserPool browserPool;
   private final LocationService locationService;
   private final SkillRepository skillRepository;
   private final CurrencyRepository currencyRepository;
   private final StatusTypeRepository statusTypeRepository;
 
   public ASocietyProvider(
+      SharedHttpClients httpClients,
+      BrowserPool browserPool,
       LocationService locationService,
       SkillRepository skillRepository,
       CurrencyRepository currencyRepository,
       StatusTypeRepository statusTypeRepository) {
+    this.httpClients = httpClients;
+    this.browserPool = browserPool;
     this.locationService = locationService;
     this.skillRepository = skillRepository;
     this.currencyRepository = currencyRepository;
@@ -94,37 +103,18 @@ public class ASocietyProvider extends AbstractProvider {
     }
   }
 
-  /** Fetch assignments using Playwright browser automation */
+  /** Fetch assignments using the pooled Playwright browsers, loading detail pages in parallel */
   private List<Assignment> fetchWithPlaywright(Source source) throws CrawlerException {
     List<Assignment> assignments = new ArrayList<>();
-    Playwright playwright = null;
-    Browser browser = null;
+    List<CompletableFuture<String>> detailPages = new ArrayList<>();
 
     try {
-      // Initialize Playwright
-      playwright = Playwright.create();
-      browser =
-          playwright
-              .chromium()
-              .launch(new BrowserType.LaunchOptions().setHeadless(true).setTimeout(60000));
-
-      // Create context
-      BrowserContext context =
-          browser.newContext(
-              new Browser.NewContextOptions().setUserAgent(USER_AGENT).setLocale("sv-SE"));
-
-      // Create page
-      Page page = context.newPage();
-
       // Navigate to job listings page
       logger.info("Navigating to {}", LIST_URL);
-      page.navigate(LIST_URL);
-      page.waitForLoadState(
-          LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(30000));
+      String pageContent = browserPool.withPage(page -> loadPage(page, LIST_URL, 30000));
 
       // Look for job cards or links
       List<String> jobUrls = new ArrayList<>();
-      String pageContent = page.content();
       java.util.regex.Matcher matcher = JOB_LINK_PATTERN.matcher(pageContent);
 
       while (matcher.find()) {
@@ -139,46 +129,48 @@ public class ASocietyProvider extends AbstractProvider {
 
       logger.info("Found {} job links", jobUrls.size());
 
-      // Process each job detail page
+      // Detail pages load on as many pooled pages as are free, results are taken in order
       for (String jobUrl : jobUrls) {
+        logger.debug("Processing job detail page: {}", jobUrl);
+        detailPages.add(browserPool.submit(page -> loadPage(page, jobUrl, 20000)));
+      }
+      for (int i = 0; i < jobUrls.size(); i++) {
+        String jobUrl = jobUrls.get(i);
         try {
-          Assignment assignment = processDetailPage(page, jobUrl, source);
+          Assignment assignment = processDetailPage(jobUrl, detailPages.get(i).get(), source);
           if (assignment != null) {
             assignments.add(assignment);
           }
-        } catch (Exception e) {
-          logger.warn("Error processing job detail page {}: {}", jobUrl, e.getMessage());
+        } catch (ExecutionException e) {
+          logger.warn("Error processing job detail page {}: {}", jobUrl, e.getCause().getMessage());
         }
       }
 
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CrawlerException("Interrupted while fetching assignments with Playwright", e);
     } catch (Exception e) {
       logger.error("Error fetching assignments with Playwright: {}", e.getMessage(), e);
       throw new CrawlerException("Error fetching assignments with Playwright", e);
     } finally {
-      if (browser != null) {
-        browser.close();
-      }
-      if (playwright != null) {
-        playwright.close();
-      }
+      // Pages not loaded yet are not needed anymore when the crawl failed or was cancelled
+      detailPages.forEach(detailPage -> detailPage.cancel(true));
     }
 
     return assignments;
   }
 
-  /** Process a job detail page and extract an assignment */
-  private Assignment processDetailPage(Page page, String url, Source source) {
-    try {
-      logger.debug("Processing job detail page: {}", url);
-
-      // Navigate to job detail page
-      page.navigate(url);
-      page.waitForLoadState(
-          LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(20000));
-
-      // Get page content
-      String pageContent = page.content();
+  /** Load a page and wait until its network is idle */
+  private static String loadPage(Page page, String url, double timeoutMs) {
+    page.navigate(url);
+    page.waitForLoadState(
+        LoadState.NETWORKIDLE, new Page.WaitForLoadStateOptions().setTimeout(timeoutMs));
+    return page.content();
+  }
 
+  /** Process a loaded job detail page and extract an assignment */
+  private Assignment processDetailPage(String url, String pageContent, Source source) {
+    try {
       // Basic data extraction - detailed extraction should use LLM service
       String title = "Job from A Society Group"; // Will be extracted by LLM
       String description = "[To be extracted by LLM]"; // Placeholder
@@ -221,12 +213,7 @@ public class ASocietyProvider extends AbstractProvider {
     List<Assignment> assignments = new ArrayList<>();
 
     try {
-      // Create HTTP client with appropriate timeouts
-      HttpClient client =
-          HttpClient.newBuilder()
-              .connectTimeout(Duration.ofSeconds(30))
-              .followRedirects(HttpClient.Redirect.NORMAL)
-              .build();
+      HttpClient client = httpClients.http();
 
       // Fetch job listing page
       HttpRequest request =
@@ -5,26 +5,56 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
 
 import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter.Permit;
+import com.uppdragsradarn.infrastructure.http.BoundedBodyHandlers;
+import com.uppdragsradarn.infrastructure.http.CrawlTrafficMetrics;
+import com.uppdragsradarn.infrastructure.http.FetchedPage;
+import com.uppdragsradarn.infrastructure.http.HttpResponseCache;
+import com.uppdragsradarn.infrastructure.http.ResponseTooLargeException;
+import com.uppdragsradarn.infrastructure.http.RetryAfter;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 import jakarta.annotation.PostConstruct;
 
 /**
  * Abstract base class for HTTP-based content providers. Provides common functionality like HTTP
- * client management, request building, and retries.
+ * client management, request building, and retries. Requests go through the application's {@link
+ * SharedHttpClients}, so connections are pooled across providers and crawls, and are conditional on
+ * the {@link HttpResponseCache} so unchanged pages are not downloaded again. Fetches are
+ * asynchronous underneath: retries wait on a scheduler rather than a sleeping thread, so many
+ * requests can be in flight at once, each host within the limits of its {@link HostRateLimiter}.
  */
 public abstract class AbstractHttpProvider extends AbstractProvider {
 
   protected static final int DEFAULT_TIMEOUT_SECONDS = 30;
   protected static final int DEFAULT_MAX_RETRIES = 3;
   protected static final int DEFAULT_RETRY_DELAY_MS = 1000;
+  protected static final int DEFAULT_REQUEST_DEADLINE_SECONDS = 120;
+  protected static final String DEFAULT_MAX_BODY_SIZE = "5MB";
+  protected static final int DEFAULT_DETAIL_CONCURRENCY = 4;
   protected static final String DEFAULT_USER_AGENT =
       "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
 
@@ -37,9 +67,30 @@ public abstract class AbstractHttpProvider extends AbstractProvider {
   @Value("${app.crawler.retry-delay:1000}")
   protected int retryDelayMs;
 
+  @Value("${app.crawler.request-deadline:120}")
+  protected int requestDeadlineSeconds;
+
+  @Value("${app.crawler.http.max-body-size:" + DEFAULT_MAX_BODY_SIZE + "}")
+  protected String maxBodySize;
+
   @Value("${app.crawler.user-agent:" + DEFAULT_USER_AGENT + "}")
   protected String userAgent;
 
+  @Value("${app.crawler.detail-concurrency:" + DEFAULT_DETAIL_CONCURRENCY + "}")
+  protected int detailConcurrency;
+
+  @Autowired(required = false)
+  private SharedHttpClients sharedHttpClients;
+
+  @Autowired(required = false)
+  private HttpResponseCache responseCache;
+
+  @Autowired(required = false)
+  private HostRateLimiter rateLimiter;
+
+  @Autowired(required = false)
+  private CrawlTrafficMetrics trafficMetrics;
+
   private HttpClient httpClient;
 
   protected AbstractHttpProvider() {
@@ -58,18 +109,40 @@ public abstract class AbstractHttpProvider extends AbstractProvider {
     if (retryDelayMs <= 0) {
       retryDelayMs = DEFAULT_RETRY_DELAY_MS;
     }
+    if (requestDeadlineSeconds <= 0) {
+      requestDeadlineSeconds = DEFAULT_REQUEST_DEADLINE_SECONDS;
+    }
+    if (maxBodySize == null || maxBodySize.isEmpty()) {
+      maxBodySize = DEFAULT_MAX_BODY_SIZE;
+    }
     if (userAgent == null || userAgent.isEmpty()) {
       userAgent = DEFAULT_USER_AGENT;
     }
+    if (detailConcurrency <= 0) {
+      detailConcurrency = DEFAULT_DETAIL_CONCURRENCY;
+    }
+  }
+
+  @Override
+  protected void beforeCrawl(Source source) {
+    if (rateLimiter != null) {
+      rateLimiter.configure(source);
+    }
+    if (trafficMetrics != null) {
+      trafficMetrics.bindHost(source.getBaseUrl(), source.getName());
+    }
   }
 
   /**
-   * Gets the HTTP client instance, creating it if necessary. This method ensures the client is
-   * created after Spring injection.
+   * Gets the HTTP client instance. This is the shared client when running in the application,
+   * providers created outside Spring get their own client, created on first use.
    *
    * @return HttpClient instance
    */
   protected HttpClient getHttpClient() {
+    if (sharedHttpClients != null) {
+      return sharedHttpClients.http();
+    }
     if (httpClient == null) {
       httpClient = createHttpClient();
     }
@@ -114,62 +187,312 @@ public abstract class AbstractHttpProvider extends AbstractProvider {
    * @throws CrawlerException if fetching fails after retries
    */
   protected String fetchWithRetry(String url, Map<String, String> headers) throws CrawlerException {
-    Exception lastException = null;
-
-    for (int attempt = 1; attempt <= maxRetries; attempt++) {
-      try {
-        logger.debug("Fetching URL (attempt {}/{}): {}", attempt, maxRetries, url);
-
-        HttpRequest.Builder requestBuilder =
-            HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .timeout(Duration.ofSeconds(timeoutSeconds))
-                .header("User-Agent", userAgent)
-                .GET();
-
-        // Add custom headers
-        headers.forEach(requestBuilder::header);
-
-        HttpRequest request = requestBuilder.build();
-        HttpResponse<String> response =
-            getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-
-        if (response.statusCode() >= 200 && response.statusCode() < 300) {
-          return response.body();
-        } else if (response.statusCode() == 429) {
-          // Rate limited - wait longer
-          long delayMs = calculateRateLimitDelay(attempt);
-          logger.warn(
-              "Rate limited (429) on attempt {}. Waiting {} ms before retry", attempt, delayMs);
-          Thread.sleep(delayMs);
-        } else {
-          logger.warn("HTTP error {} for URL: {}", response.statusCode(), url);
-          lastException = new CrawlerException("HTTP error: " + response.statusCode());
-        }
+    return fetchPage(url, headers).body();
+  }
 
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-        throw new CrawlerException("Interrupted while fetching URL: " + url, e);
-      } catch (Exception e) {
-        lastException = e;
-        logger.warn("Error fetching URL on attempt {}: {}", attempt, e.getMessage());
+  /**
+   * Fetches a page with retry logic, telling whether it changed since the last crawl.
+   *
+   * @param url URL to fetch
+   * @return the page, flagged as not modified when served from the response cache
+   * @throws CrawlerException if fetching fails after retries
+   */
+  protected FetchedPage fetchPage(String url) throws CrawlerException {
+    return fetchPage(url, Map.of());
+  }
+
+  /**
+   * Fetches a page with retry logic and custom headers. When the page is in the response cache the
+   * request is conditional, and a 304 answer is served from the cache.
+   *
+   * @param url URL to fetch
+   * @param headers custom headers to include in the request
+   * @return the page, flagged as not modified when served from the response cache
+   * @throws CrawlerException if fetching fails after retries
+   */
+  protected FetchedPage fetchPage(String url, Map<String, String> headers) throws CrawlerException {
+    CompletableFuture<FetchedPage> page = fetchPageAsync(url, headers, requestDeadline());
+    try {
+      return page.get();
+    } catch (InterruptedException e) {
+      page.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new CrawlerException("Interrupted while fetching URL: " + url, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CrawlerException crawlerException) {
+        throw crawlerException;
       }
+      throw new CrawlerException("Failed to fetch URL: " + url, e.getCause());
+    }
+  }
+
+  /**
+   * Fetches content from a URL without blocking the calling thread.
+   *
+   * @param url URL to fetch
+   * @return the HTML content, failing with a {@link CrawlerException} when all retries failed
+   */
+  protected CompletableFuture<String> fetchAsync(String url) {
+    return fetchPageAsync(url, Map.of(), requestDeadline()).thenApply(FetchedPage::body);
+  }
 
-      // Wait before retry (except on last attempt)
-      if (attempt < maxRetries) {
+  /**
+   * Fetches and parses a URL without blocking the calling thread.
+   *
+   * @param url URL to fetch and parse
+   * @return the parsed Document, failing with a {@link CrawlerException} when all retries failed
+   */
+  protected CompletableFuture<Document> fetchDocumentAsync(String url) {
+    return fetchAsync(url).thenApply(this::parseHtml);
+  }
+
+  /**
+   * Fetches a page without blocking the calling thread. Failed attempts are retried with
+   * exponential backoff on a scheduler instead of a sleeping thread; 429 and 503 answers wait as
+   * long as their {@code Retry-After} header asks. Once the deadline has passed, or would pass
+   * before the next attempt, the fetch fails instead of waiting any longer. Pages larger than
+   * {@code app.crawler.http.max-body-size} are cut off while downloading and fail at once.
+   * Compressed responses are requested and decoded transparently.
+   *
+   * @param url URL to fetch
+   * @param headers custom headers to include in the request
+   * @param deadline time the fetch may take including all retries
+   * @return the page, failing with a {@link CrawlerException} when all retries failed
+   */
+  protected CompletableFuture<FetchedPage> fetchPageAsync(
+      String url, Map<String, String> headers, Duration deadline) {
+    Fetch fetch = new Fetch(url, headers, Instant.now().plus(deadline));
+    attempt(fetch, 1, responseCache != null, null);
+    return fetch.result;
+  }
+
+  private void attempt(Fetch fetch, int attempt, boolean conditional, Throwable lastError) {
+    if (fetch.result.isDone()) {
+      // Cancelled by the caller
+      return;
+    }
+    Duration remaining = Duration.between(Instant.now(), fetch.expiresAt);
+    if (remaining.isNegative() || remaining.isZero()) {
+      fetch.result.completeExceptionally(
+          new CrawlerException("Deadline exceeded fetching URL: " + fetch.url, lastError));
+      return;
+    }
+
+    logger.debug("Fetching URL (attempt {}/{}): {}", attempt, maxRetries, fetch.url);
+    HttpRequest request;
+    try {
+      Duration timeout = Duration.ofSeconds(timeoutSeconds);
+      HttpRequest.Builder requestBuilder =
+          HttpRequest.newBuilder()
+              .uri(URI.create(fetch.url))
+              .timeout(remaining.compareTo(timeout) < 0 ? remaining : timeout)
+              .header("User-Agent", userAgent)
+              .header("Accept-Encoding", BoundedBodyHandlers.ACCEPT_ENCODING)
+              .GET();
+
+      // Add custom headers
+      fetch.headers.forEach(requestBuilder::header);
+      if (conditional) {
+        responseCache.validators(fetch.url).forEach(requestBuilder::header);
+      }
+      request = requestBuilder.build();
+    } catch (IllegalArgumentException e) {
+      fetch.result.completeExceptionally(new CrawlerException("Invalid URL: " + fetch.url, e));
+      return;
+    }
+
+    // Wait for the host's rate limit without holding a thread, the permit is returned on response
+    CompletableFuture<Permit> permit =
+        rateLimiter != null
+            ? rateLimiter.acquireAsync(fetch.url)
+            : CompletableFuture.completedFuture(null);
+    permit
+        .thenCompose(
+            granted ->
+                getHttpClient()
+                    .sendAsync(
+                        request,
+                        BoundedBodyHandlers.ofString(
+                            maxBodyBytes(),
+                            trafficMetrics != null ? trafficMetrics.forUrl(fetch.url) : null))
+                    .whenComplete(
+                        (response, error) -> {
+                          if (granted != null) {
+                            granted.close();
+                          }
+                        }))
+        .whenComplete(
+            (response, error) -> {
+              try {
+                handleResponse(fetch, attempt, conditional, response, error);
+              } catch (RuntimeException e) {
+                fetch.result.completeExceptionally(e);
+              }
+            });
+  }
+
+  private void handleResponse(
+      Fetch fetch,
+      int attempt,
+      boolean conditional,
+      HttpResponse<String> response,
+      Throwable error) {
+    if (error != null) {
+      ResponseTooLargeException tooLarge = BoundedBodyHandlers.tooLarge(error);
+      if (tooLarge != null) {
+        // The page will not shrink on a retry
+        fetch.result.completeExceptionally(
+            new CrawlerException("Refusing oversized page " + fetch.url, tooLarge));
+        return;
+      }
+      Throwable cause =
+          error instanceof CompletionException && error.getCause() != null
+              ? error.getCause()
+              : error;
+      logger.warn("Error fetching URL on attempt {}: {}", attempt, cause.getMessage());
+      retry(fetch, attempt, conditional, cause, calculateRetryDelay(attempt));
+      return;
+    }
+
+    int status = response.statusCode();
+    if (status >= 200 && status < 300) {
+      if (responseCache != null) {
+        responseCache.store(
+            fetch.url,
+            response.headers().firstValue("ETag").orElse(null),
+            response.headers().firstValue("Last-Modified").orElse(null),
+            response.body());
+      }
+      fetch.result.complete(new FetchedPage(response.body(), false));
+    } else if (status == 304 && conditional) {
+      Optional<String> cached = responseCache.cachedBody(fetch.url);
+      if (cached.isPresent()) {
+        logger.debug("Not modified, serving cached copy of {}", fetch.url);
+        fetch.result.complete(new FetchedPage(cached.get(), true));
+        return;
+      }
+      // Evicted since the request was sent, ask again for the full page right away
+      attempt(
+          fetch,
+          attempt,
+          false,
+          new CrawlerException("Not modified, but no cached copy of " + fetch.url));
+    } else if (status == 429 || status == 503) {
+      // Rate limited or overloaded - wait as long as the server asks, or longer than usual
+      String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+      long delayMs =
+          RetryAfter.parse(retryAfter, Instant.now())
+              .map(Duration::toMillis)
+              .orElseGet(
+                  () ->
+                      status == 429
+                          ? calculateRateLimitDelay(attempt)
+                          : calculateRetryDelay(attempt));
+      logger.warn(
+          "HTTP {} on attempt {}. Waiting {} ms before retry of {}",
+          status,
+          attempt,
+          delayMs,
+          fetch.url);
+      retry(fetch, attempt, conditional, new CrawlerException("HTTP error: " + status), delayMs);
+    } else {
+      logger.warn("HTTP error {} for URL: {}", status, fetch.url);
+      retry(
+          fetch,
+          attempt,
+          conditional,
+          new CrawlerException("HTTP error: " + status),
+          calculateRetryDelay(attempt));
+    }
+  }
+
+  private void retry(
+      Fetch fetch, int attempt, boolean conditional, Throwable lastError, long delayMs) {
+    if (attempt >= maxRetries) {
+      fetch.result.completeExceptionally(
+          new CrawlerException(
+              "Failed to fetch URL after " + maxRetries + " attempts: " + fetch.url, lastError));
+      return;
+    }
+    if (Instant.now().plusMillis(delayMs).isAfter(fetch.expiresAt)) {
+      fetch.result.completeExceptionally(
+          new CrawlerException(
+              "Deadline would pass waiting " + delayMs + " ms to retry URL: " + fetch.url,
+              lastError));
+      return;
+    }
+    logger.debug("Waiting {} ms before retry", delayMs);
+    Runnable next = () -> attempt(fetch, attempt + 1, conditional, lastError);
+    if (sharedHttpClients != null) {
+      sharedHttpClients.retryScheduler().schedule(next, delayMs, TimeUnit.MILLISECONDS);
+    } else {
+      CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(next);
+    }
+  }
+
+  /**
+   * Fetches the detail pages of listed items concurrently and hands each item with its page to the
+   * handler, in listing order. Up to {@code app.crawler.detail-concurrency} pages are fetched ahead
+   * of the item being handled, within the limits of the host's {@link HostRateLimiter}, so a
+   * listing takes about as many round trips as pages divided by the concurrency. The handler runs
+   * on the calling thread. A failed fetch only affects its own item: the handler gets a null page
+   * for it, as for items without a detail URL, and an item whose handler throws is dropped.
+   *
+   * @param items listed items, in listing order
+   * @param detailUrl URL of the detail page of an item, null if it has none
+   * @param handler turns an item and its detail page into a result, null to drop the item
+   * @return the results in listing order
+   * @throws CrawlerException if interrupted while waiting for a page
+   */
+  protected <T, R> List<R> processDetailPages(
+      List<T> items, Function<? super T, String> detailUrl, DetailPageHandler<T, R> handler)
+      throws CrawlerException {
+    int window = detailConcurrency > 0 ? detailConcurrency : DEFAULT_DETAIL_CONCURRENCY;
+    List<String> urls = items.stream().map(detailUrl).toList();
+    Deque<CompletableFuture<FetchedPage>> inFlight = new ArrayDeque<>();
+    List<R> results = new ArrayList<>(items.size());
+    int next = 0;
+    try {
+      for (int i = 0; i < items.size(); i++) {
+        while (next < items.size() && next < i + window) {
+          String url = urls.get(next++);
+          inFlight.add(
+              url != null
+                  ? fetchPageAsync(url, Map.of(), requestDeadline())
+                  : CompletableFuture.completedFuture(null));
+        }
+        T item = items.get(i);
+        FetchedPage detail = null;
+        try {
+          detail = inFlight.removeFirst().get();
+        } catch (ExecutionException e) {
+          logger.warn("Error fetching detail page {}: {}", urls.get(i), e.getCause().getMessage());
+        }
         try {
-          long delayMs = calculateRetryDelay(attempt);
-          logger.debug("Waiting {} ms before retry", delayMs);
-          Thread.sleep(delayMs);
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-          throw new CrawlerException("Interrupted during retry delay", e);
+          R result = handler.handle(item, detail);
+          if (result != null) {
+            results.add(result);
+          }
+        } catch (Exception e) {
+          logger.warn("Error processing detail page {}: {}", urls.get(i), e.getMessage());
         }
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CrawlerException("Interrupted while fetching detail pages", e);
+    } finally {
+      // Left over when interrupted, nobody waits for them anymore
+      inFlight.forEach(page -> page.cancel(true));
     }
+    return results;
+  }
+
+  private long maxBodyBytes() {
+    return DataSize.parse(maxBodySize != null ? maxBodySize : DEFAULT_MAX_BODY_SIZE).toBytes();
+  }
 
-    throw new CrawlerException(
-        "Failed to fetch URL after " + maxRetries + " attempts: " + url, lastException);
+  private Duration requestDeadline() {
+    return Duration.ofSeconds(requestDeadlineSeconds);
   }
 
   /**
@@ -242,4 +565,38 @@ public abstract class AbstractHttpProvider extends AbstractProvider {
     var element = doc.selectFirst(selector);
     return element != null ? element.attr(attribute).trim() : null;
   }
+
+  /**
+   * Turns a listed item and its detail page into a result.
+   *
+   * @param <T> listed item
+   * @param <R> result
+   */
+  @FunctionalInterface
+  protected interface DetailPageHandler<T, R> {
+
+    /**
+     * Handles one item.
+     *
+     * @param item the listed item
+     * @param detail its detail page, null if it has none or fetching it failed
+     * @return the result, null to drop the item
+     * @throws Exception if the page cannot be processed, which drops the item
+     */
+    R handle(T item, FetchedPage detail) throws Exception;
+  }
+
+  /** State of one asynchronous fetch across its attempts */
+  private static final class Fetch {
+    private final String url;
+    private final Map<String, String> headers;
+    private final Instant expiresAt;
+    private final CompletableFuture<FetchedPage> result = new CompletableFuture<>();
+
+    private Fetch(String url, Map<String, String> headers, Instant expiresAt) {
+      this.url = url;
+      this.headers = headers;
+      this.expiresAt = expiresAt;
+    }
+  }
 }
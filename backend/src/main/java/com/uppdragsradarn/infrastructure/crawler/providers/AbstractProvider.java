@@ -1,16 +1,26 @@
 package com.uppdragsradarn.infrastructure.crawler.providers;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.uppdragsradarn.domain.model.Assignment;
 import com.uppdragsradarn.domain.model.CrawlerException;
 import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.service.AssignmentSink;
 import com.uppdragsradarn.domain.service.ContentProvider;
 import com.uppdragsradarn.parser.DescriptionParser;
 import com.uppdragsradarn.parser.model.ParseResult;
@@ -21,14 +31,16 @@ public abstract class AbstractProvider implements ContentProvider {
   protected final Logger logger = LoggerFactory.getLogger(getClass());
   private final DescriptionParser descriptionParser = new DescriptionParser();
 
+  @Value("${app.crawler.prefetch-pages:1}")
+  protected int prefetchPages;
+
   @Override
   @Transactional
   public List<Assignment> getAssignments(Source source) throws CrawlerException {
     logger.info("Starting provider: {} for source: {}", getName(), source.getName());
 
     try {
-      // Pre-load assignments to avoid lazy loading issues
-      source.getAssignments().size();
+      beforeCrawl(source);
 
       // Fetch and parse assignments
       List<Assignment> assignments = fetchAndParse(source);
@@ -36,59 +48,171 @@ public abstract class AbstractProvider implements ContentProvider {
           "Successfully fetched {} assignments from {}", assignments.size(), source.getName());
 
       // Set source, timestamps, and convert HTML to clean text for all assignments
-      assignments.forEach(
-          assignment -> {
-            // Set source
-            assignment.setSource(source);
-
-            // Set timestamps if not already set
-            if (assignment.getCreatedAt() == null) {
-              assignment.setCreatedAt(LocalDateTime.now());
-            }
-            if (assignment.getUpdatedAt() == null) {
-              assignment.setUpdatedAt(LocalDateTime.now());
-            }
-
-            // Parse description into clean Markdown and detect PII
-            if (assignment.getDescription() != null && !assignment.getDescription().isEmpty()) {
-              ParseResult parseResult =
-                  descriptionParser.parseWithPIIDetection(assignment.getDescription());
-
-              // Set the parsed description
-              assignment.setDescription(parseResult.getParsedContent());
-
-              // Set PII detection flags
-              assignment.setNeedsManualReview(parseResult.isNeedsManualReview());
-
-              // If PII was detected, store the details
-              if (parseResult.getPiiDetectionResult() != null
-                  && parseResult.getPiiDetectionResult().containsPII()) {
-                // Store a summary of detected PII types
-                StringBuilder piiSummary = new StringBuilder();
-                parseResult
-                    .getPiiDetectionResult()
-                    .getMatches()
-                    .forEach(
-                        match -> {
-                          if (piiSummary.length() > 0) {
-                            piiSummary.append(", ");
-                          }
-                          piiSummary.append(match.getType()).append(": ").append(match.getValue());
-                        });
-                assignment.setPiiDetected(piiSummary.toString());
-
-                logger.warn("PII detected in assignment {}: {}", assignment.getTitle(), piiSummary);
-              }
-            }
-          });
+      assignments.forEach(assignment -> prepareAssignment(assignment, source));
 
       return assignments;
+    } catch (CrawlerException e) {
+      logger.error("Error in {} for source {}: {}", getName(), source.getName(), e.getMessage(), e);
+      throw e;
     } catch (Exception e) {
       logger.error("Error in {} for source {}: {}", getName(), source.getName(), e.getMessage(), e);
-      return Collections.emptyList();
+      throw new CrawlerException("Error in " + getName() + ": " + e.getMessage(), e);
     }
   }
 
+  @Override
+  @Transactional
+  public void streamAssignments(Source source, AssignmentSink sink) throws CrawlerException {
+    logger.info("Starting streaming provider: {} for source: {}", getName(), source.getName());
+
+    AtomicInteger count = new AtomicInteger();
+    try {
+      beforeCrawl(source);
+      fetchAndStream(source, preparingSink(source, sink, count));
+      logger.info("Successfully streamed {} assignments from {}", count.get(), source.getName());
+    } catch (CrawlerException e) {
+      logger.error("Error in {} for source {}: {}", getName(), source.getName(), e.getMessage(), e);
+      throw e;
+    } catch (Exception e) {
+      logger.error("Error in {} for source {}: {}", getName(), source.getName(), e.getMessage(), e);
+      throw new CrawlerException("Error in " + getName() + ": " + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Wrap a sink so the assignments handed to it are prepared first and counted
+   *
+   * @param source The source being crawled
+   * @param sink The sink to hand the prepared assignments to
+   * @param count Counter of the assignments handed over
+   * @return The wrapping sink
+   */
+  private AssignmentSink preparingSink(Source source, AssignmentSink sink, AtomicInteger count) {
+    return new AssignmentSink() {
+      @Override
+      public void accept(Assignment assignment) {
+        prepareAssignment(assignment, source);
+        sink.accept(assignment);
+        count.incrementAndGet();
+      }
+
+      @Override
+      public boolean shouldStopPaging(List<Assignment> page) {
+        return sink.shouldStopPaging(page);
+      }
+
+      @Override
+      public boolean acceptUnchanged(String externalId) {
+        if (!sink.acceptUnchanged(externalId)) {
+          return false;
+        }
+        count.incrementAndGet();
+        return true;
+      }
+
+      @Override
+      public boolean isScheduled() {
+        return sink.isScheduled();
+      }
+
+      @Override
+      public void reportIncomplete(String reason) {
+        sink.reportIncomplete(reason);
+      }
+
+      @Override
+      public void acceptLater(Deferred deferred) throws InterruptedException {
+        // Prepared like the others, but handed to the sink that runs the delivery
+        sink.acceptLater(target -> deferred.deliver(preparingSink(source, target, count)));
+      }
+    };
+  }
+
+  /**
+   * Set source, timestamps, and convert the HTML description to clean Markdown
+   *
+   * @param assignment The assignment to prepare
+   * @param source The source the assignment was fetched from
+   */
+  private void prepareAssignment(Assignment assignment, Source source) {
+    // Set source
+    assignment.setSource(source);
+
+    // Set timestamps if not already set
+    if (assignment.getCreatedAt() == null) {
+      assignment.setCreatedAt(LocalDateTime.now());
+    }
+    if (assignment.getUpdatedAt() == null) {
+      assignment.setUpdatedAt(LocalDateTime.now());
+    }
+
+    // Parse description into clean Markdown and detect PII
+    if (assignment.getDescription() != null && !assignment.getDescription().isEmpty()) {
+      ParseResult parseResult =
+          descriptionParser.parseWithPIIDetection(assignment.getDescription());
+
+      // Set the parsed description
+      assignment.setDescription(parseResult.getParsedContent());
+
+      // Set PII detection flags
+      assignment.setNeedsManualReview(parseResult.isNeedsManualReview());
+
+      // If PII was detected, store the details
+      if (parseResult.getPiiDetectionResult() != null
+          && parseResult.getPiiDetectionResult().containsPII()) {
+        // Store a summary of detected PII types
+        StringBuilder piiSummary = new StringBuilder();
+        parseResult
+            .getPiiDetectionResult()
+            .getMatches()
+            .forEach(
+                match -> {
+                  if (piiSummary.length() > 0) {
+                    piiSummary.append(", ");
+                  }
+                  piiSummary.append(match.getType()).append(": ").append(match.getValue());
+                });
+        assignment.setPiiDetected(piiSummary.toString());
+
+        logger.warn("PII detected in assignment {}: {}", assignment.getTitle(), piiSummary);
+      }
+    }
+  }
+
+  /**
+   * Hook run before each crawl of a source, for providers that set up per-source state
+   *
+   * @param source The source about to be crawled
+   */
+  protected void beforeCrawl(Source source) {}
+
+  /**
+   * Implementation-specific fetching that hands each assignment to the sink as soon as it is
+   * parsed. The default adapts {@link #fetchAndParse(Source)}, providers that page through large
+   * result sets should override it so assignments do not have to be held until the end of the run.
+   *
+   * @param source The source to fetch assignments from
+   * @param sink The sink receiving the parsed assignments
+   * @throws CrawlerException if there's an error during fetching or parsing
+   */
+  protected void fetchAndStream(Source source, AssignmentSink sink) throws CrawlerException {
+    fetchAndParse(source).forEach(sink::accept);
+  }
+
+  /**
+   * Collect everything a streaming provider produces into a list, for providers that implement
+   * {@link #fetchAndStream(Source, AssignmentSink)} and still need to offer the list contract.
+   *
+   * @param source The source to fetch assignments from
+   * @return List of fetched and parsed assignments
+   * @throws CrawlerException if there's an error during fetching or parsing
+   */
+  protected List<Assignment> collectAssignments(Source source) throws CrawlerException {
+    List<Assignment> assignments = new ArrayList<>();
+    fetchAndStream(source, assignments::add);
+    return assignments;
+  }
+
   /**
    * Implementation-specific fetching and parsing logic
    *
@@ -97,4 +221,109 @@ public abstract class AbstractProvider implements ContentProvider {
    * @throws CrawlerException if there's an error during fetching or parsing
    */
   protected abstract List<Assignment> fetchAndParse(Source source) throws CrawlerException;
+
+  /**
+   * Stream a paged listing to the sink, downloading the next pages while the current one is
+   * converted. Pages are converted in order on the calling thread, paging stops at the first empty
+   * page, once {@code maxAssignments} have been streamed or when the sink has seen enough, and
+   * downloads still pending then are cancelled.
+   *
+   * @param firstPage Number of the first page, as counted by the API
+   * @param maxAssignments Maximum number of assignments to stream
+   * @param executor Executor running the downloads
+   * @param fetcher Downloads a page by its number
+   * @param converter Turns a downloaded page into assignments
+   * @param sink The sink receiving the assignments
+   * @return The number of assignments streamed
+   * @throws CrawlerException if a page cannot be downloaded or converted
+   */
+  protected <P> int streamPages(
+      int firstPage,
+      int maxAssignments,
+      Executor executor,
+      PageFetcher<P> fetcher,
+      PageConverter<P> converter,
+      AssignmentSink sink)
+      throws CrawlerException {
+    Deque<CompletableFuture<P>> pending = new ArrayDeque<>();
+    int nextPage = firstPage;
+    int fetched = 0;
+    try {
+      for (int page = firstPage; fetched < maxAssignments; page++) {
+        // The current page plus the ones downloading while it is converted
+        while (pending.size() <= Math.max(prefetchPages, 0)) {
+          int number = nextPage++;
+          pending.add(
+              CompletableFuture.supplyAsync(
+                  () -> {
+                    try {
+                      return fetcher.fetch(number);
+                    } catch (CrawlerException e) {
+                      throw new CompletionException(e);
+                    }
+                  },
+                  executor));
+        }
+
+        List<Assignment> assignments = converter.convert(awaitPage(pending.removeFirst(), page));
+        if (assignments.isEmpty()) {
+          break;
+        }
+        assignments.forEach(sink::accept);
+        fetched += assignments.size();
+
+        // Listings are newest first, older pages hold nothing new
+        if (sink.shouldStopPaging(assignments)) {
+          logger.info("Page {} only held known assignments, stopping early", page);
+          break;
+        }
+      }
+    } finally {
+      pending.forEach(download -> download.cancel(true));
+    }
+    return fetched;
+  }
+
+  private <P> P awaitPage(Future<P> download, int page) throws CrawlerException {
+    try {
+      return download.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CrawlerException("Interrupted while fetching page " + page, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof CrawlerException cause) {
+        throw cause;
+      }
+      throw new CrawlerException(
+          "Error fetching page " + page + ": " + e.getCause().getMessage(), e.getCause());
+    }
+  }
+
+  /** Downloads one page of a paged listing, off the crawl thread */
+  @FunctionalInterface
+  protected interface PageFetcher<P> {
+
+    /**
+     * Download a page
+     *
+     * @param page The number of the page
+     * @return The page as received, or null when there is nothing to convert
+     * @throws CrawlerException if the page cannot be downloaded
+     */
+    P fetch(int page) throws CrawlerException;
+  }
+
+  /** Converts a downloaded page into assignments, on the crawl thread */
+  @FunctionalInterface
+  protected interface PageConverter<P> {
+
+    /**
+     * Convert a page
+     *
+     * @param page The page as downloaded, may be null
+     * @return The assignments of the page, empty at the end of the listing
+     * @throws CrawlerException if the page cannot be converted
+     */
+    List<Assignment> convert(P page) throws CrawlerException;
+  }
 }
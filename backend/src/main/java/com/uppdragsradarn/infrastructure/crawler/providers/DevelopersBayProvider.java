@@ -85,39 +85,48 @@ public class DevelopersBayProvider extends AbstractHttpProvider {
 
       logger.debug("Found {} potential job articles", articles.size());
 
+      List<Assignment> listed = new ArrayList<>();
       for (Element article : articles) {
         try {
           Assignment assignment = extractAssignmentFromArticle(article, source);
           if (assignment != null) {
-            // Fetch additional details from the detail page
-            if (assignment.getApplicationUrl() != null) {
-              enrichAssignmentFromDetailPage(assignment);
-            }
-            assignments.add(assignment);
+            listed.add(assignment);
           }
         } catch (Exception e) {
           logger.warn("Error extracting assignment from article: {}", e.getMessage());
         }
       }
 
+      // Fetch additional details from the detail pages, several at a time
+      assignments.addAll(
+          processDetailPages(
+              listed,
+              Assignment::getApplicationUrl,
+              (assignment, detail) -> {
+                if (detail != null) {
+                  enrichAssignmentFromDetailPage(assignment, parseHtml(detail.body()));
+                }
+                return assignment;
+              }));
+
       // Also check for links that might be job postings
       if (assignments.isEmpty()) {
         Elements jobLinks = doc.select("a[href*='/20'][href*='developersbay.se']");
         Pattern jobUrlPattern = Pattern.compile(".*/\\d{4}/\\d{2}/\\d{2}/[^/]+/?$");
 
-        for (Element link : jobLinks) {
-          String href = link.attr("abs:href");
-          if (jobUrlPattern.matcher(href).matches()) {
-            try {
-              Assignment assignment = fetchAndExtractFromUrl(href, source);
-              if (assignment != null) {
-                assignments.add(assignment);
-              }
-            } catch (Exception e) {
-              logger.warn("Error extracting assignment from URL {}: {}", href, e.getMessage());
-            }
-          }
-        }
+        List<String> jobUrls =
+            jobLinks.stream()
+                .map(link -> link.attr("abs:href"))
+                .filter(href -> jobUrlPattern.matcher(href).matches())
+                .toList();
+        assignments.addAll(
+            processDetailPages(
+                jobUrls,
+                href -> href,
+                (href, detail) ->
+                    detail != null
+                        ? extractFromDetailPage(href, parseHtml(detail.body()), source)
+                        : null));
       }
 
       logger.info("Extracted {} assignments from Developers Bay", assignments.size());
@@ -182,10 +191,8 @@ public class DevelopersBayProvider extends AbstractHttpProvider {
     return assignment;
   }
 
-  private Assignment fetchAndExtractFromUrl(String url, Source source) {
+  private Assignment extractFromDetailPage(String url, Document doc, Source source) {
     try {
-      Document doc = fetchAndParseDocument(url);
-
       Assignment assignment = new Assignment();
       assignment.setSource(source);
       assignment.setActive(true);
@@ -225,15 +232,13 @@ public class DevelopersBayProvider extends AbstractHttpProvider {
       return assignment;
 
     } catch (Exception e) {
-      logger.warn("Failed to fetch assignment from URL {}: {}", url, e.getMessage());
+      logger.warn("Failed to extract assignment from URL {}: {}", url, e.getMessage());
       return null;
     }
   }
 
-  private void enrichAssignmentFromDetailPage(Assignment assignment) {
+  private void enrichAssignmentFromDetailPage(Assignment assignment, Document doc) {
     try {
-      Document doc = fetchAndParseDocument(assignment.getApplicationUrl());
-
       // Update description with full content
       Element contentElement =
           doc.selectFirst(".entry-content, .elementor-widget-theme-post-content");
@@ -7,15 +7,11 @@ import java.util.List;
 import java.util.Set;
 
 import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.config.RequestConfig;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
-import org.apache.hc.core5.util.Timeout;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -34,6 +30,7 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,11 +47,11 @@ public class EmagineProvider extends AbstractProvider {
 
   // Deprecated regex patterns removed - now using LLM extraction
 
-  private final int timeoutSeconds;
   private final String userAgent;
   private final int maxAssignments;
   private final String baseUrl;
 
+  private final SharedHttpClients httpClients;
   private final LocationService locationService;
   private final SkillRepository skillRepository;
   private final CurrencyRepository currencyRepository;
@@ -63,21 +60,21 @@ public class EmagineProvider extends AbstractProvider {
 
   // Primary constructor
   public EmagineProvider(
-      @Value("${app.crawler.timeout:30}") int timeoutSeconds,
       @Value(
               "${app.crawler.user-agent:Mozilla/5.0 (compatible; UppdragsRadarn/1.0; +https://uppdragsradarn.se/bot)}")
           String userAgent,
       @Value("${app.crawler.max-assignments:200}") int maxAssignments,
       @Value("${app.crawler.emagine.url:https://emagine-consulting.se}") String baseUrl,
+      SharedHttpClients httpClients,
       LocationService locationService,
       SkillRepository skillRepository,
       CurrencyRepository currencyRepository,
       SourceTypeRepository sourceTypeRepository,
       StatusTypeRepository statusTypeRepository) {
-    this.timeoutSeconds = timeoutSeconds;
     this.userAgent = userAgent;
     this.maxAssignments = maxAssignments;
     this.baseUrl = baseUrl;
+    this.httpClients = httpClients;
     this.locationService = locationService;
     this.skillRepository = skillRepository;
     this.currencyRepository = currencyRepository;
@@ -101,7 +98,7 @@ public class EmagineProvider extends AbstractProvider {
   protected List<Assignment> fetchAndParse(Source source) throws CrawlerException {
     logger.info("Fetching assignments from Emagine: {}", baseUrl);
 
-    try (CloseableHttpClient httpClient = createHttpClient()) {
+    try {
       // Construct AJAX URL
       String ajaxUrl = baseUrl + AJAX_ENDPOINT;
       logger.debug("Making POST request to AJAX endpoint: {}", ajaxUrl);
@@ -119,7 +116,7 @@ public class EmagineProvider extends AbstractProvider {
           new StringEntity(DEFAULT_AJAX_DATA, ContentType.APPLICATION_FORM_URLENCODED));
 
       // Execute request
-      try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+      try (CloseableHttpResponse response = httpClients.pooled().execute(httpPost)) {
         int statusCode = response.getCode();
         if (statusCode != 200) {
           logger.warn("Failed to fetch assignments: Status code: {}", statusCode);
@@ -143,17 +140,6 @@ public class EmagineProvider extends AbstractProvider {
     }
   }
 
-  /** Creates and configures an HTTP client with appropriate timeouts */
-  private CloseableHttpClient createHttpClient() {
-    RequestConfig config =
-        RequestConfig.custom()
-            .setConnectTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .setResponseTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .build();
-
-    return HttpClients.custom().setDefaultRequestConfig(config).build();
-  }
-
   /** Parses the HTML response containing job listings */
   private List<Assignment> parseJobListings(String html, Source source) throws CrawlerException {
     try {
@@ -6,13 +6,10 @@ import java.time.LocalDate;
 import java.util.*;
 
 import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
-import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -29,6 +26,8 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,12 +40,12 @@ public class EworkProvider extends AbstractProvider {
   private static final String JOB_DETAIL_URL = "https://app.verama.com/en/job-requests/";
 
   private final ObjectMapper objectMapper;
-  private final int timeoutSeconds;
   private final String userAgent;
   private final int maxAssignments;
   private final String baseUrl;
   private final int pageSize;
 
+  private final SharedHttpClients httpClients;
   private final LocationService locationService;
   private final SkillRepository skillRepository;
   private final CurrencyRepository currencyRepository;
@@ -55,13 +54,13 @@ public class EworkProvider extends AbstractProvider {
 
   /** Default constructor for Spring dependency injection. */
   public EworkProvider(
-      @Value("${app.crawler.timeout:30}") int timeoutSeconds,
       @Value(
               "${app.crawler.user-agent:Mozilla/5.0 (compatible; UppdragsRadarn/1.0; +https://uppdragsradarn.se/bot)}")
           String userAgent,
       @Value("${app.crawler.max-assignments:200}") int maxAssignments,
       @Value("${app.crawler.ework.url:https://app.verama.com}") String baseUrl,
       @Value("${app.crawler.ework.page-size:50}") int pageSize,
+      SharedHttpClients httpClients,
       LocationService locationService,
       SkillRepository skillRepository,
       CurrencyRepository currencyRepository,
@@ -69,11 +68,11 @@ public class EworkProvider extends AbstractProvider {
       StatusTypeRepository statusTypeRepository) {
 
     this.objectMapper = new ObjectMapper();
-    this.timeoutSeconds = timeoutSeconds;
     this.userAgent = userAgent;
     this.maxAssignments = maxAssignments;
     this.baseUrl = baseUrl;
     this.pageSize = pageSize;
+    this.httpClients = httpClients;
     this.locationService = locationService;
     this.skillRepository = skillRepository;
     this.currencyRepository = currencyRepository;
@@ -95,48 +94,37 @@ public class EworkProvider extends AbstractProvider {
 
   @Override
   protected List<Assignment> fetchAndParse(Source source) throws CrawlerException {
-    logger.info("Fetching assignments from Ework API: {}", baseUrl);
-
-    List<Assignment> allAssignments = new ArrayList<>();
-    int page = 0;
-    boolean hasMore = true;
-
-    try (CloseableHttpClient httpClient = createHttpClient()) {
-      while (hasMore && allAssignments.size() < maxAssignments) {
-        // Get assignments for current page
-        List<Assignment> pageAssignments = fetchAssignmentsForPage(httpClient, page, source);
-
-        if (pageAssignments.isEmpty()) {
-          hasMore = false;
-        } else {
-          allAssignments.addAll(pageAssignments);
-          page++;
-        }
-      }
+    return collectAssignments(source);
+  }
 
-      logger.info("Successfully fetched {} assignments from Ework", allAssignments.size());
-      return allAssignments;
+  @Override
+  protected void fetchAndStream(Source source, AssignmentSink sink) throws CrawlerException {
+    logger.info("Fetching assignments from Ework API: {}", baseUrl);
 
+    CloseableHttpClient httpClient = httpClients.pooled();
+    try {
+      // The next page downloads while the current one is converted
+      int fetched =
+          streamPages(
+              0,
+              maxAssignments,
+              httpClients.executor(),
+              page -> fetchPageJson(httpClient, page),
+              json -> json != null ? parseJobListings(json, source) : Collections.emptyList(),
+              sink);
+
+      logger.info("Successfully fetched {} assignments from Ework", fetched);
+
+    } catch (CrawlerException e) {
+      throw e;
     } catch (Exception e) {
       logger.error("Error fetching assignments from Ework: {}", e.getMessage(), e);
       throw new CrawlerException("Error fetching assignments from Ework", e);
     }
   }
 
-  /** Creates and configures an HTTP client with appropriate timeouts */
-  private CloseableHttpClient createHttpClient() {
-    RequestConfig config =
-        RequestConfig.custom()
-            .setConnectTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .setResponseTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .build();
-
-    return HttpClients.custom().setDefaultRequestConfig(config).build();
-  }
-
-  /** Fetches a page of assignments from the API */
-  private List<Assignment> fetchAssignmentsForPage(
-      CloseableHttpClient httpClient, int page, Source source) throws CrawlerException {
+  /** Fetches the JSON of a page of assignments from the API */
+  private String fetchPageJson(CloseableHttpClient httpClient, int page) throws CrawlerException {
     // Build URL with parameters
     String apiUrl = String.format("%s%s?page=%d&size=%d", baseUrl, API_ENDPOINT, page, pageSize);
     logger.debug("Fetching page {} with URL: {}", page, apiUrl);
@@ -154,11 +142,10 @@ public class EworkProvider extends AbstractProvider {
 
       HttpEntity entity = response.getEntity();
       if (entity != null) {
-        String jsonResponse = EntityUtils.toString(entity);
-        return parseJobListings(jsonResponse, source);
+        return EntityUtils.toString(entity);
       } else {
         logger.warn("Empty response from Ework API");
-        return Collections.emptyList();
+        return null;
       }
     } catch (Exception e) {
       logger.error("Error fetching page {} from Ework: {}", page, e.getMessage(), e);
@@ -3,15 +3,12 @@ package com.uppdragsradarn.infrastructure.crawler.providers;
 import java.util.*;
 
 import org.apache.hc.client5.http.classic.methods.HttpPost;
-import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
-import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -29,6 +26,8 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -42,12 +41,12 @@ public class ExperisProvider extends AbstractProvider {
 
   private final ObjectMapper objectMapper = new ObjectMapper();
 
-  private final int timeoutSeconds;
   private final String userAgent;
   private final int maxAssignments;
   private final String baseUrl;
   private final int pageSize;
 
+  private final SharedHttpClients httpClients;
   private final LocationService locationService;
   private final SkillRepository skillRepository;
   private final CurrencyRepository currencyRepository;
@@ -60,23 +59,23 @@ public class ExperisProvider extends AbstractProvider {
   }
 
   public ExperisProvider(
-      @Value("${app.crawler.timeout:30}") int timeoutSeconds,
       @Value(
               "${app.crawler.user-agent:Mozilla/5.0 (compatible; UppdragsRadarn/1.0; +https://uppdragsradarn.se/bot)}")
           String userAgent,
       @Value("${app.crawler.max-assignments:200}") int maxAssignments,
       @Value("${app.crawler.experis.url:https://www.experis.se}") String baseUrl,
       @Value("${app.crawler.experis.page-size:20}") int pageSize,
+      SharedHttpClients httpClients,
       LocationService locationService,
       SkillRepository skillRepository,
       CurrencyRepository currencyRepository,
       SourceTypeRepository sourceTypeRepository,
       StatusTypeRepository statusTypeRepository) {
-    this.timeoutSeconds = timeoutSeconds;
     this.userAgent = userAgent;
     this.maxAssignments = maxAssignments;
     this.baseUrl = baseUrl;
     this.pageSize = pageSize;
+    this.httpClients = httpClients;
     this.locationService = locationService;
     this.skillRepository = skillRepository;
     this.currencyRepository = currencyRepository;
@@ -95,47 +94,34 @@ public class ExperisProvider extends AbstractProvider {
 
   @Override
   protected List<Assignment> fetchAndParse(Source source) throws CrawlerException {
-    logger.info("Fetching assignments from Experis API: {}", baseUrl);
-
-    List<Assignment> allAssignments = new ArrayList<>();
-    int page = 1;
-    boolean hasMore = true;
+    return collectAssignments(source);
+  }
 
-    try (CloseableHttpClient httpClient = createHttpClient()) {
-      while (hasMore && allAssignments.size() < maxAssignments) {
-        try {
-          // Get assignments for current page
-          List<Assignment> pageAssignments = fetchAssignmentsForPage(httpClient, page, source);
-
-          if (pageAssignments.isEmpty()) {
-            hasMore = false;
-          } else {
-            allAssignments.addAll(pageAssignments);
-            page++;
-          }
-        } catch (CrawlerException e) {
-          // If this is a 500 error on the first page, the API is likely down
-          if (page == 1 && e.getMessage().contains("Status code: 500")) {
-            logger.warn("Experis API appears to be down (500 error). Skipping this crawl cycle.");
-            return Collections.emptyList(); // Return empty list instead of failing
-          } else {
-            // For other errors or later pages, propagate the exception
-            throw e;
-          }
-        }
-      }
+  @Override
+  protected void fetchAndStream(Source source, AssignmentSink sink) throws CrawlerException {
+    logger.info("Fetching assignments from Experis API: {}", baseUrl);
 
-      logger.info("Successfully fetched {} assignments from Experis", allAssignments.size());
-      return allAssignments;
+    CloseableHttpClient httpClient = httpClients.pooled();
+    try {
+      // The next page downloads while the current one is converted
+      int fetched =
+          streamPages(
+              1,
+              maxAssignments,
+              httpClients.executor(),
+              page -> fetchPageJson(httpClient, page),
+              json -> json != null ? parseJobListings(json, source) : Collections.emptyList(),
+              sink);
+
+      logger.info("Successfully fetched {} assignments from Experis", fetched);
     } catch (Exception e) {
       logger.error("Error fetching assignments from Experis: {}", e.getMessage(), e);
       throw new CrawlerException("Error fetching assignments: " + e.getMessage(), e);
     }
   }
 
-  /** Fetches a page of assignments from the Experis API */
-  private List<Assignment> fetchAssignmentsForPage(
-      CloseableHttpClient httpClient, int page, Source source) throws CrawlerException {
+  /** Fetches the JSON of a page of assignments from the Experis API */
+  private String fetchPageJson(CloseableHttpClient httpClient, int page) throws CrawlerException {
     try {
       // Build URL with query parameters
       String apiUrl = baseUrl + API_ENDPOINT;
@@ -165,6 +151,11 @@ public class ExperisProvider extends AbstractProvider {
       // Execute request
       try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
         int statusCode = response.getCode();
+        // A 500 on the first page means the API is likely down
+        if (page == 1 && statusCode == 500) {
+          logger.warn("Experis API appears to be down (500 error). Skipping this crawl cycle.");
+          return null; // Produce nothing instead of failing
+        }
         if (statusCode != 200) {
           // Try to get error details from response body
           String errorDetails = "";
@@ -189,14 +180,12 @@ public class ExperisProvider extends AbstractProvider {
                   + (errorDetails.isEmpty() ? "" : ", Error: " + errorDetails));
         }
 
-        // Parse response
         HttpEntity entity = response.getEntity();
         if (entity != null) {
-          String jsonResponse = EntityUtils.toString(entity);
-          return parseJobListings(jsonResponse, source);
+          return EntityUtils.toString(entity);
         } else {
           logger.warn("Empty response from Experis API");
-          return Collections.emptyList();
+          return null;
         }
       }
     } catch (Exception e) {
@@ -206,17 +195,6 @@ public class ExperisProvider extends AbstractProvider {
     }
   }
 
-  /** Creates an HTTP client with timeouts configured */
-  private CloseableHttpClient createHttpClient() {
-    RequestConfig config =
-        RequestConfig.custom()
-            .setConnectTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .setResponseTimeout(Timeout.ofSeconds(timeoutSeconds))
-            .build();
-
-    return HttpClients.custom().setDefaultRequestConfig(config).build();
-  }
-
   /** Parses JSON response from API into Assignment objects */
   private List<Assignment> parseJobListings(String jsonResponse, Source source)
       throws CrawlerException {
@@ -91,21 +91,30 @@ public class InterimSearchProvider extends AbstractHttpProvider {
 
       logger.debug("Found {} job elements", jobElements.size());
 
+      List<Assignment> listed = new ArrayList<>();
       for (Element jobElement : jobElements) {
         try {
           Assignment assignment = extractAssignment(jobElement, source);
           if (assignment != null) {
-            // Try to enrich from detail page if URL is available
-            if (assignment.getApplicationUrl() != null) {
-              enrichFromDetailPage(assignment);
-            }
-            assignments.add(assignment);
+            listed.add(assignment);
           }
         } catch (Exception e) {
           logger.warn("Error extracting assignment: {}", e.getMessage());
         }
       }
 
+      // Try to enrich from the detail pages where a URL is available, several at a time
+      assignments.addAll(
+          processDetailPages(
+              listed,
+              Assignment::getApplicationUrl,
+              (assignment, detail) -> {
+                if (detail != null) {
+                  enrichFromDetailPage(assignment, parseHtml(detail.body()));
+                }
+                return assignment;
+              }));
+
       // Handle dynamic loading - check for "Visa fler" button
       Element loadMoreButton = doc.selectFirst("a:contains(Visa fler), button:contains(Visa fler)");
       if (loadMoreButton != null) {
@@ -189,10 +198,8 @@ public class InterimSearchProvider extends AbstractHttpProvider {
     return assignment;
   }
 
-  private void enrichFromDetailPage(Assignment assignment) {
+  private void enrichFromDetailPage(Assignment assignment, Document doc) {
     try {
-      Document doc = fetchAndParseDocument(assignment.getApplicationUrl());
-
       // Extract full description
       Element contentElement =
           doc.selectFirst(".entry-content, .job-description, article .content");
@@ -79,19 +79,30 @@ public class KonsultfabrikenProvider extends AbstractHttpProvider {
 
       logger.debug("Found {} job links", jobLinks.size());
 
+      List<Assignment> listed = new ArrayList<>();
       for (Element jobLink : jobLinks) {
         try {
           Assignment assignment = extractAssignmentFromLink(jobLink, source);
           if (assignment != null) {
-            // Fetch additional details from job page
-            enrichFromDetailPage(assignment);
-            assignments.add(assignment);
+            listed.add(assignment);
           }
         } catch (Exception e) {
           logger.warn("Error extracting assignment: {}", e.getMessage());
         }
       }
 
+      // Fetch additional details from the job pages, several at a time
+      assignments.addAll(
+          processDetailPages(
+              listed,
+              Assignment::getApplicationUrl,
+              (assignment, detail) -> {
+                if (detail != null) {
+                  enrichFromDetailPage(assignment, parseHtml(detail.body()));
+                }
+                return assignment;
+              }));
+
       logger.info("Extracted {} assignments from Konsultfabriken", assignments.size());
       return assignments;
 
@@ -141,10 +152,8 @@ public class KonsultfabrikenProvider extends AbstractHttpProvider {
     return assignment;
   }
 
-  private void enrichFromDetailPage(Assignment assignment) {
+  private void enrichFromDetailPage(Assignment assignment, Document doc) {
     try {
-      Document doc = fetchAndParseDocument(assignment.getApplicationUrl());
-
       // Extract full content
       String content = extractJobContent(doc);
       if (content != null && !content.isEmpty()) {
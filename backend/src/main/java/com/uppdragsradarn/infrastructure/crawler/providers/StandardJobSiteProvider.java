@@ -24,8 +24,11 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
 import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
 import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+import com.uppdragsradarn.infrastructure.http.FetchedPage;
+import com.uppdragsradarn.infrastructure.http.StreamingHtml;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -105,6 +108,11 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
 
   @Override
   protected List<Assignment> fetchAndParse(Source source) throws CrawlerException {
+    return collectAssignments(source);
+  }
+
+  @Override
+  protected void fetchAndStream(Source source, AssignmentSink sink) throws CrawlerException {
     // Get configuration for this source
     CrawlerConfiguration crawlerConfig = configurationService.getConfiguration(source);
     Map<String, String> config = crawlerConfig.getSelectors();
@@ -126,7 +134,7 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
       throw new CrawlerException("No list URL configured for source: " + source.getName());
     }
 
-    List<Assignment> assignments = new ArrayList<>();
+    int extracted = 0;
     int maxPages = crawlerConfig.getMaxPages() != null ? crawlerConfig.getMaxPages() : 1;
 
     // Process each page
@@ -134,18 +142,21 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
       String pageUrl = buildPageUrl(listUrl, page);
       logger.info("Fetching page {} from: {}", page, pageUrl);
 
+      List<Assignment> pageAssignments;
+      boolean hasNextPage;
       try {
-        Document doc = fetchAndParseDocument(pageUrl);
-        List<Assignment> pageAssignments =
-            extractAssignmentsFromPage(doc, source, config, crawlerConfig);
-        assignments.addAll(pageAssignments);
-
-        // Check if there's a next page
-        if (!hasNextPage(doc, config)) {
-          logger.info("No more pages found, stopping at page {}", page);
-          break;
-        }
-
+        FetchedPage listing = fetchPage(pageUrl);
+        pageAssignments = new ArrayList<>();
+        Document doc =
+            extractAssignmentsFromPage(
+                listing.body(),
+                pageUrl,
+                source,
+                config,
+                crawlerConfig,
+                listing.notModified() ? sink : null,
+                pageAssignments);
+        hasNextPage = hasNextPage(doc, config);
       } catch (Exception e) {
         logger.error("Error processing page {}: {}", page, e.getMessage());
         if (page == 1) {
@@ -155,40 +166,81 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
         // Otherwise, continue with what we have
         break;
       }
+
+      // Hand the page downstream before fetching the next one
+      pageAssignments.forEach(sink::accept);
+      extracted += pageAssignments.size();
+
+      // Only sites configured as listing newest first can skip their older pages
+      if (Boolean.TRUE.equals(crawlerConfig.getNewestFirst())
+          && sink.shouldStopPaging(pageAssignments)) {
+        logger.info("Page {} only held known assignments, stopping early", page);
+        break;
+      }
+
+      // Check if there's a next page
+      if (!hasNextPage) {
+        logger.info("No more pages found, stopping at page {}", page);
+        break;
+      }
     }
 
-    logger.info("Extracted {} assignments from {}", assignments.size(), source.getName());
-    return assignments;
+    logger.info("Extracted {} assignments from {}", extracted, source.getName());
   }
 
-  /** Extracts assignments from a single page. */
-  private List<Assignment> extractAssignmentsFromPage(
-      Document doc, Source source, Map<String, String> config, CrawlerConfiguration crawlerConfig) {
+  /**
+   * Extracts assignments from a single page. Job elements are handled as soon as they are parsed
+   * and dropped from the tree afterwards, so the full listing is never held in memory. Detail pages
+   * are then fetched concurrently, keeping the listing order. When the listing page was not
+   * modified, the sink is passed along so assignments whose detail page is unchanged too can be
+   * skipped.
+   *
+   * @return The rest of the page, without the job elements
+   */
+  private Document extractAssignmentsFromPage(
+      String html,
+      String pageUrl,
+      Source source,
+      Map<String, String> config,
+      CrawlerConfiguration crawlerConfig,
+      AssignmentSink unchangedSink,
+      List<Assignment> assignments)
+      throws CrawlerException {
     String jobSelector = config.get(CONFIG_JOB_SELECTOR);
-    Elements jobElements = doc.select(jobSelector);
-
-    logger.debug("Found {} job elements using selector: {}", jobElements.size(), jobSelector);
-
-    List<Assignment> assignments = new ArrayList<>();
     boolean detailRequired =
         crawlerConfig.getDetailRequired() != null ? crawlerConfig.getDetailRequired() : false;
 
-    for (Element jobElement : jobElements) {
-      try {
-        Assignment assignment = extractAssignmentFromElement(jobElement, source, config);
-
-        // If detail page is required, fetch additional information
-        if (detailRequired && assignment.getApplicationUrl() != null) {
-          enrichAssignmentFromDetail(assignment, config);
-        }
+    List<Assignment> listed = new ArrayList<>();
+    Document rest =
+        StreamingHtml.forEachMatch(
+            html,
+            pageUrl,
+            jobSelector,
+            jobElement -> {
+              try {
+                listed.add(extractAssignmentFromElement(jobElement, source, config));
+              } catch (Exception e) {
+                logger.warn("Error extracting assignment: {}", e.getMessage());
+              }
+            });
 
-        assignments.add(assignment);
-      } catch (Exception e) {
-        logger.warn("Error extracting assignment: {}", e.getMessage());
-      }
+    if (detailRequired) {
+      // If detail page is required, fetch additional information
+      assignments.addAll(
+          processDetailPages(
+              listed,
+              Assignment::getApplicationUrl,
+              (assignment, detail) ->
+                  detail == null
+                          || enrichAssignmentFromDetail(assignment, detail, config, unchangedSink)
+                      ? assignment
+                      : null));
+    } else {
+      assignments.addAll(listed);
     }
 
-    return assignments;
+    logger.debug("Found {} assignments using selector: {}", assignments.size(), jobSelector);
+    return rest;
   }
 
   /** Extracts assignment data from a job element. */
@@ -260,13 +312,35 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
     return assignment;
   }
 
-  /** Enriches assignment with data from detail page. */
-  private void enrichAssignmentFromDetail(Assignment assignment, Map<String, String> config) {
+  /**
+   * Enriches assignment with data from detail page.
+   *
+   * @return false if the detail page was not modified and the sink already holds the assignment
+   */
+  private boolean enrichAssignmentFromDetail(
+      Assignment assignment,
+      FetchedPage detail,
+      Map<String, String> config,
+      AssignmentSink unchangedSink) {
     try {
-      Document detailDoc = fetchAndParseDocument(assignment.getApplicationUrl());
+      if (detail.notModified()
+          && unchangedSink != null
+          && unchangedSink.acceptUnchanged(assignment.getExternalId())) {
+        // Listing and detail page are both unchanged, skip parsing and description cleanup
+        return false;
+      }
+      String detailDescSelector = config.get(CONFIG_DESCRIPTION_SELECTOR + ".detail");
+      String rateSelector = config.get(CONFIG_RATE_SELECTOR + ".detail");
+      String skillsSelector = config.get(CONFIG_SKILLS_SELECTOR + ".detail");
+
+      // Stop parsing once everything configured for the detail page has been found
+      Document detailDoc =
+          StreamingHtml.parseUntilFound(
+              detail.body(),
+              assignment.getApplicationUrl(),
+              Arrays.asList(detailDescSelector, rateSelector, skillsSelector));
 
       // Update description if better one is available on detail page
-      String detailDescSelector = config.get(CONFIG_DESCRIPTION_SELECTOR + ".detail");
       if (detailDescSelector != null) {
         String rawDescription = extractText(detailDoc, detailDescSelector);
         if (rawDescription != null && !rawDescription.isEmpty()) {
@@ -277,7 +351,6 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
       }
 
       // Extract additional fields from detail page
-      String rateSelector = config.get(CONFIG_RATE_SELECTOR + ".detail");
       if (rateSelector != null) {
         String rate = extractText(detailDoc, rateSelector);
         if (rate != null) {
@@ -286,15 +359,15 @@ public class StandardJobSiteProvider extends AbstractHttpProvider {
       }
 
       // Extract skills from detail page
-      String skillsSelector = config.get(CONFIG_SKILLS_SELECTOR + ".detail");
       if (skillsSelector != null) {
         Set<String> skillNames = extractSkillNames(detailDoc, skillsSelector);
         procesSkills(assignment, skillNames);
       }
 
     } catch (Exception e) {
-      logger.warn("Error fetching detail page for {}: {}", assignment.getTitle(), e.getMessage());
+      logger.warn("Error parsing detail page for {}: {}", assignment.getTitle(), e.getMessage());
     }
+    return true;
   }
 
   /** Extracts text from element using selector. */
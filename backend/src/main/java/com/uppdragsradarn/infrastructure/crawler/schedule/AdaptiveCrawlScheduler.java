@@ -0,0 +1,168 @@
+package com.uppdragsradarn.infrastructure.crawler.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.uppdragsradarn.application.service.CrawlerService;
+import com.uppdragsradarn.domain.exception.CrawlInProgressException;
+import com.uppdragsradarn.domain.exception.SourceCircuitOpenException;
+import com.uppdragsradarn.domain.model.CrawlTrigger;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.CrawlerJobRepository;
+import com.uppdragsradarn.domain.repository.SourceRepository;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+import com.uppdragsradarn.infrastructure.crawler.schedule.CrawlIntervalCalculator.CrawlSchedule;
+import com.uppdragsradarn.infrastructure.crawler.schedule.CrawlIntervalCalculator.ScheduleBounds;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts crawls per source when they are due instead of crawling every source on one global cron.
+ *
+ * <p>Each tick computes every active source's next crawl time from its job history with {@link
+ * CrawlIntervalCalculator} and starts the sources that are due. The history lives in the database,
+ * so every replica reaches the same decision and the crawl lease makes sure only one of them acts
+ * on it. Sources can override the limits with {@code minCrawlInterval}, {@code maxCrawlInterval},
+ * {@code crawlInterval} and {@code adaptiveSchedule} in their configuration.
+ */
+@Component
+@Slf4j
+public class AdaptiveCrawlScheduler {
+
+  private final SourceRepository sourceRepository;
+  private final CrawlerJobRepository crawlerJobRepository;
+  private final CrawlerConfigurationService configurationService;
+  private final CrawlerService crawlerService;
+  private final CrawlIntervalCalculator calculator;
+  private final Duration minInterval;
+  private final Duration maxInterval;
+  private final int historySize;
+  private final boolean enabled;
+
+  public AdaptiveCrawlScheduler(
+      SourceRepository sourceRepository,
+      CrawlerJobRepository crawlerJobRepository,
+      CrawlerConfigurationService configurationService,
+      CrawlerService crawlerService,
+      @Value("${app.crawler.scheduling.min-interval:30m}") String minInterval,
+      @Value("${app.crawler.scheduling.max-interval:24h}") String maxInterval,
+      @Value("${app.crawler.scheduling.history-size:20}") int historySize,
+      @Value("${app.crawler.scheduling.saturation-ratio:0.2}") double saturationRatio,
+      @Value("${app.crawler.scheduling.min-hour-samples:8}") int minHourSamples,
+      @Value("${app.crawler.scheduling.enabled:true}") boolean enabled) {
+    this.sourceRepository = sourceRepository;
+    this.crawlerJobRepository = crawlerJobRepository;
+    this.configurationService = configurationService;
+    this.crawlerService = crawlerService;
+    this.minInterval = DurationStyle.detectAndParse(minInterval);
+    this.maxInterval = DurationStyle.detectAndParse(maxInterval);
+    this.historySize = historySize;
+    this.calculator = new CrawlIntervalCalculator(saturationRatio, minHourSamples);
+    this.enabled = enabled;
+  }
+
+  /** Start crawls for the active sources that are due */
+  @Scheduled(
+      fixedDelayString = "${app.crawler.scheduling.tick-interval-ms:60000}",
+      initialDelayString = "${app.crawler.scheduling.tick-interval-ms:60000}")
+  public void startDueCrawlerJobs() {
+    if (!enabled) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    for (Source source : sourceRepository.findByActiveTrue()) {
+      try {
+        CrawlSchedule schedule = scheduleFor(source);
+        if (!schedule.isDue(now)) {
+          continue;
+        }
+        log.info(
+            "Crawl of {} is due (interval {}, change ratio {})",
+            source.getName(),
+            schedule.interval(),
+            schedule.changeRatio());
+        crawlerService.startCrawlerJob(source.getId(), CrawlTrigger.SCHEDULED);
+      } catch (CrawlInProgressException e) {
+        // Already running here or on another replica
+        log.debug("Skipping due crawl of {}: {}", source.getName(), e.getMessage());
+      } catch (SourceCircuitOpenException e) {
+        // Failing source, its breaker lets the next probe through once the open period is over
+        log.debug("Skipping due crawl of {}: {}", source.getName(), e.getMessage());
+      } catch (Exception e) {
+        log.error(
+            "Error scheduling crawler job for source {}: {}", source.getName(), e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Get the current schedule of all active sources
+   *
+   * @return One entry per active source
+   */
+  public List<SourceSchedule> getSchedules() {
+    List<SourceSchedule> schedules = new ArrayList<>();
+    for (Source source : sourceRepository.findByActiveTrue()) {
+      CrawlSchedule schedule = scheduleFor(source);
+      schedules.add(
+          new SourceSchedule(
+              source.getId(),
+              source.getName(),
+              schedule.interval().toMinutes(),
+              schedule.changeRatio(),
+              schedule.lastCrawl(),
+              schedule.nextCrawl()));
+    }
+    return schedules;
+  }
+
+  private CrawlSchedule scheduleFor(Source source) {
+    return calculator.calculate(
+        crawlerJobRepository.findBySourceId(source.getId(), PageRequest.of(0, historySize)),
+        boundsFor(source));
+  }
+
+  private ScheduleBounds boundsFor(Source source) {
+    CrawlerConfiguration config = configurationService.getConfiguration(source);
+    Duration min = parseOrDefault(config.getMinCrawlInterval(), minInterval, source);
+    Duration max = parseOrDefault(config.getMaxCrawlInterval(), maxInterval, source);
+    if (max.compareTo(min) < 0) {
+      max = min;
+    }
+    Duration defaultInterval = parseOrDefault(config.getCrawlInterval(), max, source);
+    boolean adaptive = !Boolean.FALSE.equals(config.getAdaptiveSchedule());
+    return new ScheduleBounds(min, max, defaultInterval, adaptive);
+  }
+
+  private Duration parseOrDefault(String value, Duration fallback, Source source) {
+    if (value == null || value.isBlank()) {
+      return fallback;
+    }
+    try {
+      return DurationStyle.detectAndParse(value.trim());
+    } catch (IllegalArgumentException e) {
+      log.warn(
+          "Invalid crawl interval '{}' for source {}, using {}", value, source.getName(), fallback);
+      return fallback;
+    }
+  }
+
+  /** Crawl schedule of a source as shown to admins */
+  public record SourceSchedule(
+      UUID sourceId,
+      String sourceName,
+      long intervalMinutes,
+      Double changeRatio,
+      LocalDateTime lastCrawl,
+      LocalDateTime nextCrawl) {}
+}
@@ -0,0 +1,166 @@
+package com.uppdragsradarn.infrastructure.crawler.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+
+/**
+ * Computes when a source should be crawled next from its crawl history.
+ *
+ * <p>The base interval follows the share of found assignments that were new or changed in recent
+ * successful runs, weighted towards the most recent ones, on a logarithmic scale between the
+ * minimum and maximum interval: a source where every run finds changes is crawled at the minimum
+ * interval, one where nothing ever changes at the maximum. The interval is then stretched or
+ * shortened by how many changes past runs starting at the same hour of day found compared to the
+ * average, so crawls cluster around the hours a site is actually updated.
+ */
+public class CrawlIntervalCalculator {
+
+  // Weight of each older run relative to the next more recent one
+  private static final double HISTORY_DECAY = 0.7;
+  // Limits of the hour-of-day adjustment
+  private static final double MIN_HOUR_FACTOR = 0.5;
+  private static final double MAX_HOUR_FACTOR = 2.0;
+
+  private final double saturationRatio;
+  private final int minHourSamples;
+
+  /**
+   * @param saturationRatio Change ratio at and above which the minimum interval is used
+   * @param minHourSamples Successful runs needed before hour-of-day patterns are applied
+   */
+  public CrawlIntervalCalculator(double saturationRatio, int minHourSamples) {
+    this.saturationRatio = saturationRatio;
+    this.minHourSamples = minHourSamples;
+  }
+
+  /**
+   * Compute the schedule of a source
+   *
+   * @param history Recent jobs of the source, most recent first
+   * @param bounds Interval limits for the source
+   * @return The interval to use and the time of the next crawl
+   */
+  public CrawlSchedule calculate(List<CrawlerJobExecution> history, ScheduleBounds bounds) {
+    LocalDateTime lastCrawl =
+        history.stream()
+            .map(CrawlerJobExecution::getStartTime)
+            .filter(start -> start != null)
+            .findFirst()
+            .orElse(null);
+
+    if (!bounds.adaptive()) {
+      Duration interval = bounds.defaultInterval();
+      return new CrawlSchedule(interval, null, lastCrawl, nextCrawl(lastCrawl, interval));
+    }
+
+    List<CrawlerJobExecution> samples =
+        history.stream()
+            .filter(job -> job.getStatus() != null && "SUCCESS".equals(job.getStatus().getName()))
+            .filter(job -> job.getStartTime() != null && value(job.getAssignmentsFound()) > 0)
+            .toList();
+    if (samples.isEmpty()) {
+      Duration interval = bounds.clamp(bounds.defaultInterval());
+      return new CrawlSchedule(interval, null, lastCrawl, nextCrawl(lastCrawl, interval));
+    }
+
+    double changeRatio = weightedChangeRatio(samples);
+    double saturation = Math.min(1.0, changeRatio / saturationRatio);
+    double minSeconds = bounds.minInterval().toSeconds();
+    double maxSeconds = bounds.maxInterval().toSeconds();
+    double baseSeconds = minSeconds * Math.pow(maxSeconds / minSeconds, 1.0 - saturation);
+
+    double hourFactor =
+        lastCrawl != null
+            ? hourFactor(samples, lastCrawl.plusSeconds((long) baseSeconds).getHour())
+            : 1.0;
+    Duration interval = bounds.clamp(Duration.ofSeconds(Math.round(baseSeconds * hourFactor)));
+    return new CrawlSchedule(interval, changeRatio, lastCrawl, nextCrawl(lastCrawl, interval));
+  }
+
+  private double weightedChangeRatio(List<CrawlerJobExecution> samples) {
+    double weight = 1.0;
+    double weightedSum = 0;
+    double totalWeight = 0;
+    for (CrawlerJobExecution job : samples) {
+      weightedSum += weight * Math.min(1.0, (double) changes(job) / job.getAssignmentsFound());
+      totalWeight += weight;
+      weight *= HISTORY_DECAY;
+    }
+    return weightedSum / totalWeight;
+  }
+
+  /**
+   * Compare the changes found by runs starting at the given hour with the average run. Hours with
+   * few samples are pulled towards the average so a single busy run does not dominate.
+   */
+  private double hourFactor(List<CrawlerJobExecution> samples, int hour) {
+    if (samples.size() < minHourSamples) {
+      return 1.0;
+    }
+    double average = samples.stream().mapToInt(this::changes).average().orElse(0);
+    if (average == 0) {
+      return 1.0;
+    }
+    int hourRuns = 0;
+    int hourChanges = 0;
+    for (CrawlerJobExecution job : samples) {
+      if (job.getStartTime().getHour() == hour) {
+        hourRuns++;
+        hourChanges += changes(job);
+      }
+    }
+    double hourAverage = (hourChanges + average) / (hourRuns + 1);
+    double factor = hourAverage > 0 ? average / hourAverage : MAX_HOUR_FACTOR;
+    return Math.max(MIN_HOUR_FACTOR, Math.min(MAX_HOUR_FACTOR, factor));
+  }
+
+  private int changes(CrawlerJobExecution job) {
+    return value(job.getAssignmentsCreated()) + value(job.getAssignmentsUpdated());
+  }
+
+  private static int value(Integer value) {
+    return value != null ? value : 0;
+  }
+
+  private static LocalDateTime nextCrawl(LocalDateTime lastCrawl, Duration interval) {
+    return lastCrawl != null ? lastCrawl.plus(interval) : null;
+  }
+
+  /**
+   * Interval limits for one source
+   *
+   * @param minInterval Shortest allowed interval
+   * @param maxInterval Longest allowed interval
+   * @param defaultInterval Interval used without history, or always when not adaptive
+   * @param adaptive Whether the interval follows the observed change rate
+   */
+  public record ScheduleBounds(
+      Duration minInterval, Duration maxInterval, Duration defaultInterval, boolean adaptive) {
+
+    Duration clamp(Duration interval) {
+      if (interval.compareTo(minInterval) < 0) {
+        return minInterval;
+      }
+      return interval.compareTo(maxInterval) > 0 ? maxInterval : interval;
+    }
+  }
+
+  /**
+   * Schedule of one source
+   *
+   * @param interval Interval between crawls
+   * @param changeRatio Weighted share of changed assignments, null without usable history
+   * @param lastCrawl Start of the most recent crawl, null if never crawled
+   * @param nextCrawl When the next crawl is due, null if the source should be crawled right away
+   */
+  public record CrawlSchedule(
+      Duration interval, Double changeRatio, LocalDateTime lastCrawl, LocalDateTime nextCrawl) {
+
+    public boolean isDue(LocalDateTime now) {
+      return nextCrawl == null || !nextCrawl.isAfter(now);
+    }
+  }
+}
@@ -0,0 +1,296 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+
+/**
+ * {@link HttpClient} that records the exchanges of the client it wraps into a {@link CrawlArchive},
+ * or answers from the archive without sending anything. Responses are handed to the caller's body
+ * handler as received on the wire, so decoding and size limits apply to replayed bodies as well.
+ */
+class ArchiveHttpClient extends HttpClient {
+
+  private final HttpClient delegate;
+  private final CrawlArchive archive;
+  private final Executor replayExecutor;
+
+  ArchiveHttpClient(HttpClient delegate, CrawlArchive archive, Executor executor) {
+    this.delegate = delegate;
+    this.archive = archive;
+    this.replayExecutor =
+        CompletableFuture.delayedExecutor(
+            archive.latency().toNanos(), TimeUnit.NANOSECONDS, executor);
+  }
+
+  @Override
+  public <T> HttpResponse<T> send(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+      throws IOException, InterruptedException {
+    try {
+      return sendAsync(request, responseBodyHandler).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw new IOException(e.getCause());
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+    return sendAsync(request, responseBodyHandler, null);
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request,
+      HttpResponse.BodyHandler<T> responseBodyHandler,
+      HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+    byte[] requestBody;
+    try {
+      requestBody = requestBody(request);
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    String method = request.method();
+    String uri = request.uri().toString();
+
+    if (archive.mode() == CrawlArchive.Mode.REPLAY) {
+      return CompletableFuture.supplyAsync(
+              () -> {
+                try {
+                  CrawlArchive.Exchange exchange = archive.replay(method, uri, requestBody);
+                  if (exchange == null) {
+                    throw new IOException("Not in crawl archive: " + method + " " + uri);
+                  }
+                  return exchange;
+                } catch (IOException e) {
+                  throw new CompletionException(e);
+                }
+              },
+              replayExecutor)
+          .thenCompose(exchange -> respond(request, exchange, responseBodyHandler));
+    }
+
+    return delegate
+        .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+        .thenCompose(
+            response -> {
+              CrawlArchive.Exchange exchange =
+                  new CrawlArchive.Exchange(
+                      method,
+                      uri,
+                      requestBody,
+                      response.statusCode(),
+                      response.headers().map(),
+                      response.body());
+              try {
+                archive.record(exchange);
+              } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+              }
+              return respond(request, exchange, responseBodyHandler);
+            });
+  }
+
+  /** Feed a recorded body to the caller's handler as if it had just been received */
+  private static <T> CompletableFuture<HttpResponse<T>> respond(
+      HttpRequest request,
+      CrawlArchive.Exchange exchange,
+      HttpResponse.BodyHandler<T> responseBodyHandler) {
+    HttpHeaders headers = HttpHeaders.of(exchange.headers(), (name, value) -> true);
+    HttpResponse.ResponseInfo info =
+        new HttpResponse.ResponseInfo() {
+          @Override
+          public int statusCode() {
+            return exchange.status();
+          }
+
+          @Override
+          public HttpHeaders headers() {
+            return headers;
+          }
+
+          @Override
+          public Version version() {
+            return Version.HTTP_1_1;
+          }
+        };
+
+    HttpResponse.BodySubscriber<T> subscriber = responseBodyHandler.apply(info);
+    subscriber.onSubscribe(
+        new Flow.Subscription() {
+          private boolean done;
+
+          @Override
+          public void request(long n) {
+            if (done) {
+              return;
+            }
+            done = true;
+            if (exchange.body().length > 0) {
+              subscriber.onNext(List.of(ByteBuffer.wrap(exchange.body())));
+            }
+            subscriber.onComplete();
+          }
+
+          @Override
+          public void cancel() {
+            done = true;
+          }
+        });
+    return subscriber
+        .getBody()
+        .toCompletableFuture()
+        .thenApply(body -> new ArchivedResponse<>(exchange.status(), request, headers, body));
+  }
+
+  private static byte[] requestBody(HttpRequest request) throws IOException {
+    Optional<HttpRequest.BodyPublisher> publisher = request.bodyPublisher();
+    if (publisher.isEmpty() || publisher.get().contentLength() == 0) {
+      return new byte[0];
+    }
+    CompletableFuture<byte[]> body = new CompletableFuture<>();
+    publisher
+        .get()
+        .subscribe(
+            new Flow.Subscriber<>() {
+              private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+              @Override
+              public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+              }
+
+              @Override
+              public void onNext(ByteBuffer item) {
+                byte[] chunk = new byte[item.remaining()];
+                item.get(chunk);
+                bytes.writeBytes(chunk);
+              }
+
+              @Override
+              public void onError(Throwable throwable) {
+                body.completeExceptionally(throwable);
+              }
+
+              @Override
+              public void onComplete() {
+                body.complete(bytes.toByteArray());
+              }
+            });
+    try {
+      return body.join();
+    } catch (CompletionException | CancellationException e) {
+      throw new IOException("Could not read the request body", e.getCause());
+    }
+  }
+
+  private record ArchivedResponse<T>(
+      int statusCode, HttpRequest request, HttpHeaders headers, T body) implements HttpResponse<T> {
+
+    @Override
+    public Optional<HttpResponse<T>> previousResponse() {
+      return Optional.empty();
+    }
+
+    @Override
+    public Optional<SSLSession> sslSession() {
+      return Optional.empty();
+    }
+
+    @Override
+    public URI uri() {
+      return request.uri();
+    }
+
+    @Override
+    public Version version() {
+      return Version.HTTP_1_1;
+    }
+  }
+
+  @Override
+  public Optional<CookieHandler> cookieHandler() {
+    return delegate.cookieHandler();
+  }
+
+  @Override
+  public Optional<Duration> connectTimeout() {
+    return delegate.connectTimeout();
+  }
+
+  @Override
+  public Redirect followRedirects() {
+    return delegate.followRedirects();
+  }
+
+  @Override
+  public Optional<ProxySelector> proxy() {
+    return delegate.proxy();
+  }
+
+  @Override
+  public SSLContext sslContext() {
+    return delegate.sslContext();
+  }
+
+  @Override
+  public SSLParameters sslParameters() {
+    return delegate.sslParameters();
+  }
+
+  @Override
+  public Optional<Authenticator> authenticator() {
+    return delegate.authenticator();
+  }
+
+  @Override
+  public Version version() {
+    return delegate.version();
+  }
+
+  @Override
+  public Optional<Executor> executor() {
+    return delegate.executor();
+  }
+
+  @Override
+  public void shutdown() {
+    // Shared client, shut down by its owner
+  }
+
+  @Override
+  public void shutdownNow() {
+    // Shared client, shut down by its owner
+  }
+
+  @Override
+  public void close() {
+    // Shared client, closed by its owner
+  }
+}
@@ -0,0 +1,416 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.brotli.dec.BrotliInputStream;
+
+/**
+ * Body handlers that decode compressed responses and refuse bodies larger than a maximum size.
+ *
+ * <p>Requests advertising {@link #ACCEPT_ENCODING} get gzip, deflate or brotli bodies, which are
+ * decoded while they are received. The limit applies to the bytes on the wire as well as to the
+ * decoded body: a body announced as too large by its {@code Content-Length} is not downloaded at
+ * all, one without a length is cut off as soon as it crosses the limit, and decoding stops as soon
+ * as the output does, so neither an oversized page nor a compression bomb ends up in memory.
+ */
+public final class BoundedBodyHandlers {
+
+  /** Value of the {@code Accept-Encoding} request header, the encodings decoded here */
+  public static final String ACCEPT_ENCODING = "gzip, deflate, br";
+
+  private BoundedBodyHandlers() {}
+
+  /** Receives the size of every body read */
+  @FunctionalInterface
+  public interface SizeListener {
+
+    /**
+     * Called once a body has been read and decoded
+     *
+     * @param encoding The content encoding, "identity" if the body was not compressed
+     * @param wireBytes Bytes received
+     * @param decodedBytes Bytes after decoding
+     */
+    void onBody(String encoding, long wireBytes, long decodedBytes);
+  }
+
+  /**
+   * Read the body as a string in the charset of its {@code Content-Type}, UTF-8 by default
+   *
+   * @param maxBytes The maximum body size in bytes
+   * @return The body handler, failing with a {@link ResponseTooLargeException} over the limit
+   */
+  public static HttpResponse.BodyHandler<String> ofString(long maxBytes) {
+    return ofString(maxBytes, null);
+  }
+
+  /**
+   * Read the body as a string in the charset of its {@code Content-Type}, UTF-8 by default
+   *
+   * @param maxBytes The maximum body size in bytes
+   * @param listener Told the size of the body, or null
+   * @return The body handler, failing with a {@link ResponseTooLargeException} over the limit
+   */
+  public static HttpResponse.BodyHandler<String> ofString(long maxBytes, SizeListener listener) {
+    return responseInfo -> {
+      long announced = responseInfo.headers().firstValueAsLong("Content-Length").orElse(-1);
+      String encoding =
+          responseInfo
+              .headers()
+              .firstValue("Content-Encoding")
+              .map(value -> value.trim().toLowerCase(Locale.ROOT))
+              .filter(value -> !value.isEmpty())
+              .orElse("identity");
+      Charset charset = charset(responseInfo.headers().firstValue("Content-Type").orElse(null));
+      return new Decoding(encoding, charset, announced, maxBytes, listener);
+    };
+  }
+
+  /**
+   * Find out whether a request failed because its body was too large
+   *
+   * @param error The failure of the request
+   * @return The size error, or null if the request failed for another reason
+   */
+  public static ResponseTooLargeException tooLarge(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ResponseTooLargeException tooLarge) {
+        return tooLarge;
+      }
+    }
+    return null;
+  }
+
+  private static Charset charset(String contentType) {
+    if (contentType != null) {
+      for (String parameter : contentType.split(";")) {
+        String trimmed = parameter.trim();
+        if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+          try {
+            return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+          } catch (IllegalArgumentException e) {
+            // Unknown charset, fall back to UTF-8
+          }
+        }
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  /**
+   * Collects uncompressed bodies within the limit. Compressed bodies are decoded while they arrive,
+   * on a virtual thread reading the received buffers through a {@link Pipe}, so the download is
+   * cancelled as soon as the decoded body crosses the limit.
+   */
+  private static final class Decoding implements BodySubscriber<String> {
+
+    private final String encoding;
+    private final Charset charset;
+    private final long announced;
+    private final long maxBytes;
+    private final SizeListener listener;
+    private final CompletableFuture<String> body = new CompletableFuture<>();
+    private final List<ByteBuffer> received = new ArrayList<>();
+    private final AtomicBoolean failed = new AtomicBoolean();
+    private volatile Flow.Subscription subscription;
+    private Pipe pipe;
+    private long wireBytes;
+
+    private Decoding(
+        String encoding, Charset charset, long announced, long maxBytes, SizeListener listener) {
+      this.encoding = encoding;
+      this.charset = charset;
+      this.announced = announced;
+      this.maxBytes = maxBytes;
+      this.listener = listener;
+    }
+
+    @Override
+    public CompletionStage<String> getBody() {
+      return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (announced > maxBytes) {
+        // Do not even start downloading a body announced as too large
+        fail();
+        return;
+      }
+      // A compressed body is requested as the decoder takes it, so at most two lists are held
+      subscription.request(isIdentity() ? Long.MAX_VALUE : 1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+      if (failed.get()) {
+        // Stopped by the decoder, which leaves cancelling to this thread
+        subscription.cancel();
+        return;
+      }
+      for (ByteBuffer buffer : buffers) {
+        wireBytes += buffer.remaining();
+      }
+      if (wireBytes > maxBytes) {
+        fail();
+        return;
+      }
+      if (isIdentity()) {
+        received.addAll(buffers);
+        return;
+      }
+      if (pipe == null) {
+        pipe = new Pipe(() -> subscription.request(1));
+        Thread.ofVirtual().name("body-decoder").start(this::decode);
+      }
+      pipe.add(buffers);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      received.clear();
+      if (pipe != null) {
+        pipe.fail(throwable);
+      }
+      body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      if (failed.get()) {
+        return;
+      }
+      if (pipe != null) {
+        // The decoder completes the body once it has read the rest
+        pipe.end();
+        return;
+      }
+      // Uncompressed, or empty like the bodies of 204 and 304 even when they name an encoding
+      byte[] bytes = new byte[(int) wireBytes];
+      int offset = 0;
+      for (ByteBuffer buffer : received) {
+        int count = buffer.remaining();
+        buffer.get(bytes, offset, count);
+        offset += count;
+      }
+      received.clear();
+      if (listener != null) {
+        listener.onBody(encoding, wireBytes, bytes.length);
+      }
+      body.complete(new String(bytes, charset));
+    }
+
+    /** Decode the piped body, stopping as soon as the output crosses the limit */
+    private void decode() {
+      ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+      try (InputStream in = decoder(pipe)) {
+        byte[] chunk = new byte[8192];
+        int count;
+        while ((count = in.read(chunk)) != -1) {
+          if (decoded.size() + count > maxBytes) {
+            stopDecoding(tooLargeError());
+            return;
+          }
+          decoded.write(chunk, 0, count);
+        }
+        // Wait for the end of the response, which also counts any bytes after the encoded data
+        pipe.drain();
+        if (listener != null) {
+          listener.onBody(encoding, pipe.bytesRead(), decoded.size());
+        }
+        body.complete(decoded.toString(charset));
+      } catch (IOException | RuntimeException e) {
+        stopDecoding(e);
+      }
+    }
+
+    /**
+     * Fail the body from the decoder thread. The subscription is cancelled by the next onNext:
+     * cancelling from here closes the connection under the client's reader, whose read error could
+     * then reach the caller before the body's own error does.
+     */
+    private void stopDecoding(Throwable error) {
+      if (!failed.compareAndSet(false, true)) {
+        return;
+      }
+      body.completeExceptionally(error);
+      // Make sure another list arrives to cancel on, the decoder no longer takes any
+      subscription.request(1);
+    }
+
+    private boolean isIdentity() {
+      return encoding.equals("identity");
+    }
+
+    private InputStream decoder(InputStream wire) throws IOException {
+      return switch (encoding) {
+        case "gzip", "x-gzip" -> new GZIPInputStream(wire);
+        case "deflate" -> deflateDecoder(wire);
+        case "br" -> new BrotliInputStream(wire);
+        default -> throw new IOException("Unsupported content encoding: " + encoding);
+      };
+    }
+
+    private void fail() {
+      if (!failed.compareAndSet(false, true)) {
+        return;
+      }
+      // Completed first, cancelling may report an error of its own
+      ResponseTooLargeException error = tooLargeError();
+      body.completeExceptionally(error);
+      received.clear();
+      if (pipe != null) {
+        pipe.fail(error);
+      }
+      subscription.cancel();
+    }
+
+    private ResponseTooLargeException tooLargeError() {
+      return new ResponseTooLargeException("Response body exceeds " + maxBytes + " bytes");
+    }
+  }
+
+  /** Decoder for "deflate", which servers send both with and without the zlib wrapper */
+  private static InputStream deflateDecoder(InputStream wire) throws IOException {
+    PushbackInputStream in = new PushbackInputStream(wire, 2);
+    byte[] header = in.readNBytes(2);
+    in.unread(header);
+    boolean zlib =
+        header.length == 2
+            && (header[0] & 0x0F) == 8
+            && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+    return new InflaterInputStream(in, new Inflater(!zlib));
+  }
+
+  /**
+   * Hands received buffers to a decoder on another thread. The next buffers are requested as soon
+   * as the decoder takes a list, so downloading and decoding overlap without buffering the body.
+   */
+  private static final class Pipe extends InputStream {
+
+    // Compared by identity, so it must not be a list the client could hand over
+    private static final List<ByteBuffer> END = List.of(ByteBuffer.allocate(0));
+
+    private final BlockingQueue<List<ByteBuffer>> lists = new LinkedBlockingQueue<>();
+    private final Runnable requestMore;
+    private volatile Throwable error;
+    private Iterator<ByteBuffer> buffers = Collections.emptyIterator();
+    private ByteBuffer current;
+    private boolean ended;
+    private long bytesRead;
+
+    private Pipe(Runnable requestMore) {
+      this.requestMore = requestMore;
+    }
+
+    private void add(List<ByteBuffer> received) {
+      lists.add(received);
+    }
+
+    private void end() {
+      lists.add(END);
+    }
+
+    private void fail(Throwable throwable) {
+      error = throwable;
+      lists.add(END);
+    }
+
+    /** Bytes taken from the pipe so far */
+    private long bytesRead() {
+      return bytesRead;
+    }
+
+    /** Skip whatever the decoder left, up to the end of the body */
+    private void drain() throws IOException {
+      ByteBuffer buffer;
+      while ((buffer = nextBuffer()) != null) {
+        bytesRead += buffer.remaining();
+        buffer.position(buffer.limit());
+      }
+    }
+
+    @Override
+    public int available() {
+      return current != null ? current.remaining() : 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+      ByteBuffer buffer = nextBuffer();
+      if (buffer == null) {
+        return -1;
+      }
+      bytesRead++;
+      return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) throws IOException {
+      if (length == 0) {
+        return 0;
+      }
+      ByteBuffer buffer = nextBuffer();
+      if (buffer == null) {
+        return -1;
+      }
+      int count = Math.min(length, buffer.remaining());
+      buffer.get(target, offset, count);
+      bytesRead += count;
+      return count;
+    }
+
+    private ByteBuffer nextBuffer() throws IOException {
+      while (current == null || !current.hasRemaining()) {
+        if (buffers.hasNext()) {
+          current = buffers.next();
+          continue;
+        }
+        if (ended) {
+          return null;
+        }
+        List<ByteBuffer> next;
+        try {
+          next = lists.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the response body");
+        }
+        if (error != null) {
+          throw new IOException("Response body could not be read", error);
+        }
+        if (next == END) {
+          ended = true;
+          return null;
+        }
+        buffers = next.iterator();
+        requestMore.run();
+      }
+      return current;
+    }
+  }
+}
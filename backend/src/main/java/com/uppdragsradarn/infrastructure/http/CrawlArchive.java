@@ -0,0 +1,458 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.ProtocolException;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recording and replay of the HTTP exchanges of crawls, for benchmarks that must not depend on live
+ * sites.
+ *
+ * <p>In {@code record} mode every response received through {@link SharedHttpClients} is appended
+ * to an archive file in a WARC-like layout: one gzip member per exchange, holding a {@code
+ * WARC/1.0} record header followed by the HTTP response as received. An index file next to it maps
+ * each request, by method, URI and a digest of its body, to the offset of its record. In {@code
+ * replay} mode nothing goes out on the network: requests are answered from the archive after the
+ * configured latency, and requests that were not recorded fail. A request recorded several times is
+ * answered with its recordings in order, the last one repeating. Request headers are never stored,
+ * so credentials sent to APIs do not end up in the archive.
+ */
+@Component
+@Slf4j
+public class CrawlArchive {
+
+  /** What the archive does with the requests of the shared clients */
+  public enum Mode {
+    OFF,
+    RECORD,
+    REPLAY
+  }
+
+  private static final String INDEX_SUFFIX = ".idx";
+  private static final String NO_BODY = "-";
+
+  private final Mode mode;
+  private final Path file;
+  private final Duration latency;
+
+  private final Map<String, List<Location>> index = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> replayed = new ConcurrentHashMap<>();
+  private FileChannel channel;
+  private OutputStream indexOut;
+
+  @Autowired
+  public CrawlArchive(
+      @Value("${app.crawler.http.archive.mode:off}") String mode,
+      @Value("${app.crawler.http.archive.file:crawl-archive.warc.gz}") String file,
+      @Value("${app.crawler.http.archive.replay-latency:0ms}") String latency)
+      throws IOException {
+    this(
+        Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)),
+        Path.of(file),
+        DurationStyle.detectAndParse(latency));
+  }
+
+  CrawlArchive(Mode mode, Path file, Duration latency) throws IOException {
+    this.mode = mode;
+    this.file = file;
+    this.latency = latency;
+    switch (mode) {
+      case RECORD -> startRecording();
+      case REPLAY -> loadIndex();
+      case OFF -> {
+        // Nothing to open
+      }
+    }
+  }
+
+  /**
+   * Find out whether requests go through the archive
+   *
+   * @return true when recording or replaying
+   */
+  public boolean isActive() {
+    return mode != Mode.OFF;
+  }
+
+  /**
+   * Get what the archive does with requests
+   *
+   * @return The mode
+   */
+  public Mode mode() {
+    return mode;
+  }
+
+  /**
+   * Get the delay before a replayed response is delivered
+   *
+   * @return The replay latency
+   */
+  public Duration latency() {
+    return latency;
+  }
+
+  /**
+   * Append an exchange to the archive
+   *
+   * @param exchange The request and the response received for it
+   */
+  public void record(Exchange exchange) throws IOException {
+    byte[] record = gzip(warcRecord(exchange));
+    String key = key(exchange.method(), exchange.uri(), exchange.requestBody());
+    synchronized (this) {
+      long offset = channel.size();
+      ByteBuffer buffer = ByteBuffer.wrap(record);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      String line = key + '\t' + offset + '\t' + record.length + '\n';
+      indexOut.write(line.getBytes(StandardCharsets.UTF_8));
+      indexOut.flush();
+      index
+          .computeIfAbsent(key, ignored -> new ArrayList<>())
+          .add(new Location(offset, record.length));
+    }
+  }
+
+  /**
+   * Find the recorded response to a request
+   *
+   * @param method The request method
+   * @param uri The request URI
+   * @param requestBody The request body, empty if there is none
+   * @return The next recording of the request, or null if it was never recorded
+   */
+  public Exchange replay(String method, String uri, byte[] requestBody) throws IOException {
+    String key = key(method, uri, requestBody);
+    List<Location> locations = index.get(key);
+    if (locations == null || locations.isEmpty()) {
+      return null;
+    }
+    int next = replayed.computeIfAbsent(key, ignored -> new AtomicInteger()).getAndIncrement();
+    Location location = locations.get(Math.min(next, locations.size() - 1));
+    ByteBuffer buffer = ByteBuffer.allocate(location.length());
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, location.offset() + buffer.position()) < 0) {
+        throw new IOException("Crawl archive " + file + " is truncated");
+      }
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+      return parseRecord(in.readAllBytes(), requestBody);
+    }
+  }
+
+  /**
+   * Exchange handler for the pooled Apache client: records or replays every request
+   *
+   * @param request The request
+   * @param scope The execution scope
+   * @param chain The rest of the execution chain, which sends the request
+   * @return The response, received or replayed
+   */
+  public ClassicHttpResponse execute(
+      ClassicHttpRequest request, ExecChain.Scope scope, ExecChain chain)
+      throws IOException, HttpException {
+    byte[] requestBody = new byte[0];
+    HttpEntity entity = request.getEntity();
+    if (entity != null) {
+      // Read the body for its digest and put back a copy that can still be sent
+      requestBody = EntityUtils.toByteArray(entity);
+      request.setEntity(
+          new ByteArrayEntity(requestBody, ContentType.parseLenient(entity.getContentType())));
+    }
+    String uri;
+    try {
+      uri = request.getUri().toString();
+    } catch (URISyntaxException e) {
+      throw new ProtocolException("Invalid request URI", e);
+    }
+
+    if (mode == Mode.REPLAY) {
+      Exchange exchange = replay(request.getMethod(), uri, requestBody);
+      if (exchange == null) {
+        throw new IOException("Not in crawl archive: " + request.getMethod() + " " + uri);
+      }
+      sleepLatency();
+      BasicClassicHttpResponse response = new BasicClassicHttpResponse(exchange.status());
+      exchange
+          .headers()
+          .forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+      response.setEntity(
+          new ByteArrayEntity(
+              exchange.body(), ContentType.parseLenient(exchange.firstHeader("Content-Type"))));
+      return response;
+    }
+
+    ClassicHttpResponse response = chain.proceed(request, scope);
+    if (mode == Mode.RECORD) {
+      HttpEntity responseEntity = response.getEntity();
+      byte[] body = responseEntity != null ? EntityUtils.toByteArray(responseEntity) : new byte[0];
+      Map<String, List<String>> headers = new LinkedHashMap<>();
+      for (Header header : response.getHeaders()) {
+        headers
+            .computeIfAbsent(header.getName(), ignored -> new ArrayList<>())
+            .add(header.getValue());
+      }
+      record(
+          new Exchange(request.getMethod(), uri, requestBody, response.getCode(), headers, body));
+      if (responseEntity != null) {
+        response.setEntity(
+            new ByteArrayEntity(body, ContentType.parseLenient(responseEntity.getContentType())));
+      }
+    }
+    return response;
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    try {
+      if (indexOut != null) {
+        indexOut.close();
+      }
+      if (channel != null) {
+        channel.close();
+      }
+    } catch (IOException e) {
+      log.warn("Error closing crawl archive {}: {}", file, e.getMessage());
+    }
+  }
+
+  private void startRecording() throws IOException {
+    Path parent = file.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    indexOut =
+        Files.newOutputStream(
+            indexFile(),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    log.info("Recording crawl exchanges to {}", file);
+  }
+
+  private void loadIndex() throws IOException {
+    for (String line : Files.readAllLines(indexFile(), StandardCharsets.UTF_8)) {
+      String[] fields = line.split("\t");
+      if (fields.length == 3) {
+        index
+            .computeIfAbsent(fields[0], ignored -> new ArrayList<>())
+            .add(new Location(Long.parseLong(fields[1]), Integer.parseInt(fields[2])));
+      }
+    }
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    log.info("Replaying {} recorded requests from {} at {} latency", index.size(), file, latency);
+  }
+
+  private Path indexFile() {
+    return file.resolveSibling(file.getFileName() + INDEX_SUFFIX);
+  }
+
+  private void sleepLatency() throws InterruptedIOException {
+    if (latency.isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(latency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while replaying");
+    }
+  }
+
+  private static String key(String method, String uri, byte[] requestBody) {
+    return method.toUpperCase(Locale.ROOT) + ' ' + uri + ' ' + digest(requestBody);
+  }
+
+  private static String digest(byte[] body) {
+    if (body == null || body.length == 0) {
+      return NO_BODY;
+    }
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static byte[] warcRecord(Exchange exchange) {
+    StringBuilder http = new StringBuilder();
+    http.append("HTTP/1.1 ").append(exchange.status()).append("\r\n");
+    exchange
+        .headers()
+        .forEach(
+            (name, values) ->
+                values.forEach(
+                    value -> http.append(name).append(": ").append(value).append("\r\n")));
+    http.append("\r\n");
+    byte[] httpHead = http.toString().getBytes(StandardCharsets.UTF_8);
+
+    String warcHead =
+        "WARC/1.0\r\n"
+            + "WARC-Type: response\r\n"
+            + "WARC-Date: "
+            + Instant.now()
+            + "\r\n"
+            + "WARC-Target-URI: "
+            + exchange.uri()
+            + "\r\n"
+            + "WARC-Request-Method: "
+            + exchange.method()
+            + "\r\n"
+            + "WARC-Request-Digest: "
+            + digest(exchange.requestBody())
+            + "\r\n"
+            + "Content-Type: application/http; msgtype=response\r\n"
+            + "Content-Length: "
+            + (httpHead.length + exchange.body().length)
+            + "\r\n\r\n";
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.writeBytes(warcHead.getBytes(StandardCharsets.UTF_8));
+    out.writeBytes(httpHead);
+    out.writeBytes(exchange.body());
+    out.writeBytes("\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+    return out.toByteArray();
+  }
+
+  private static Exchange parseRecord(byte[] record, byte[] requestBody) throws IOException {
+    int warcEnd = headEnd(record, 0);
+    Map<String, String> warc = new LinkedHashMap<>();
+    List<String> warcLines = lines(record, 0, warcEnd);
+    for (String line : warcLines.subList(1, warcLines.size())) {
+      int colon = line.indexOf(':');
+      warc.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+    }
+    int httpStart = warcEnd + 4;
+    int httpEnd = httpStart + Integer.parseInt(warc.get("Content-Length"));
+    int httpHeadEnd = headEnd(record, httpStart);
+
+    List<String> httpLines = lines(record, httpStart, httpHeadEnd);
+    int status = Integer.parseInt(httpLines.get(0).split(" ")[1]);
+    Map<String, List<String>> headers = new LinkedHashMap<>();
+    for (String line : httpLines.subList(1, httpLines.size())) {
+      int colon = line.indexOf(':');
+      headers
+          .computeIfAbsent(line.substring(0, colon).trim(), ignored -> new ArrayList<>())
+          .add(line.substring(colon + 1).trim());
+    }
+    byte[] body = Arrays.copyOfRange(record, httpHeadEnd + 4, httpEnd);
+    return new Exchange(
+        warc.get("WARC-Request-Method"),
+        warc.get("WARC-Target-URI"),
+        requestBody,
+        status,
+        headers,
+        body);
+  }
+
+  private static int headEnd(byte[] record, int from) throws IOException {
+    for (int i = from; i + 3 < record.length; i++) {
+      if (record[i] == '\r'
+          && record[i + 1] == '\n'
+          && record[i + 2] == '\r'
+          && record[i + 3] == '\n') {
+        return i;
+      }
+    }
+    throw new IOException("Malformed crawl archive record");
+  }
+
+  private static List<String> lines(byte[] record, int from, int to) {
+    return List.of(new String(record, from, to - from, StandardCharsets.UTF_8).split("\r\n"));
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(data);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * A request and the response received for it
+   *
+   * @param method The request method
+   * @param uri The request URI
+   * @param requestBody The request body, empty if there is none
+   * @param status The response status code
+   * @param headers The response headers
+   * @param body The response body as received, still content encoded
+   */
+  public record Exchange(
+      String method,
+      String uri,
+      byte[] requestBody,
+      int status,
+      Map<String, List<String>> headers,
+      byte[] body) {
+
+    /**
+     * Get the first value of a response header, ignoring case
+     *
+     * @param name The header name
+     * @return The value, or null if the header is absent
+     */
+    public String firstHeader(String name) {
+      for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+        if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty()) {
+          return header.getValue().get(0);
+        }
+      }
+      return null;
+    }
+  }
+
+  private record Location(long offset, int length) {}
+}
@@ -0,0 +1,92 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.uppdragsradarn.infrastructure.http.BoundedBodyHandlers.SizeListener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bytes downloaded by the crawlers, per source and content encoding, under {@code
+ * crawler.http.response.bytes}. The {@code stage} tag tells bytes received on the wire from bytes
+ * after decoding, so the saving of compression shows per source.
+ */
+@Component
+public class CrawlTrafficMetrics {
+
+  private static final String BYTES = "crawler.http.response.bytes";
+
+  private final MeterRegistry meterRegistry;
+  // Providers fetching without a source at hand are attributed through the host of the URL
+  private final Map<String, String> sourcesByHost = new ConcurrentHashMap<>();
+
+  public CrawlTrafficMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Attribute requests to the host of a source's base URL to that source
+   *
+   * @param baseUrl The base URL of the source
+   * @param sourceName The name of the source
+   */
+  public void bindHost(String baseUrl, String sourceName) {
+    String host = host(baseUrl);
+    if (host != null && sourceName != null) {
+      sourcesByHost.put(host, sourceName);
+    }
+  }
+
+  /**
+   * Get a listener recording body sizes for a source
+   *
+   * @param sourceName The name of the source
+   * @return The listener
+   */
+  public SizeListener forSource(String sourceName) {
+    return (encoding, wireBytes, decodedBytes) -> {
+      counter(sourceName, encoding, "wire").increment(wireBytes);
+      counter(sourceName, encoding, "decoded").increment(decodedBytes);
+    };
+  }
+
+  /**
+   * Get a listener recording body sizes for the source bound to the host of a URL
+   *
+   * @param url The requested URL
+   * @return The listener, recording under the host itself if no source is bound to it
+   */
+  public SizeListener forUrl(String url) {
+    String host = host(url);
+    String source = host != null ? sourcesByHost.getOrDefault(host, host) : "unknown";
+    return forSource(source);
+  }
+
+  private Counter counter(String source, String encoding, String stage) {
+    return Counter.builder(BYTES)
+        .description("Response bytes downloaded by the crawlers")
+        .baseUnit("bytes")
+        .tag("source", source != null ? source : "unknown")
+        .tag("encoding", encoding)
+        .tag("stage", stage)
+        .register(meterRegistry);
+  }
+
+  private static String host(String url) {
+    if (url == null || url.isBlank()) {
+      return null;
+    }
+    try {
+      String host = URI.create(url.trim()).getHost();
+      return host != null ? host.toLowerCase(Locale.ROOT) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package com.uppdragsradarn.infrastructure.http;
+
+/**
+ * A fetched page body
+ *
+ * @param body The page body, served from the response cache when not modified
+ * @param notModified true if the server answered 304 and the page is unchanged since it was cached
+ */
+public record FetchedPage(String body, boolean notModified) {}
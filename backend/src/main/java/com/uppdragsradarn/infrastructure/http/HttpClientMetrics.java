@@ -0,0 +1,53 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/** Request latency of the shared HTTP clients, tagged by client, method, host and outcome */
+class HttpClientMetrics {
+
+  private static final String REQUESTS = "crawler.http.client.requests";
+
+  private final MeterRegistry meterRegistry;
+
+  HttpClientMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  void record(String client, String method, String host, int status, long startNanos) {
+    timer(client, method, host, outcome(status)).record(elapsed(startNanos), TimeUnit.NANOSECONDS);
+  }
+
+  void recordError(String client, String method, String host, long startNanos) {
+    timer(client, method, host, "ERROR").record(elapsed(startNanos), TimeUnit.NANOSECONDS);
+  }
+
+  private Timer timer(String client, String method, String host, String outcome) {
+    return Timer.builder(REQUESTS)
+        .description("Requests sent through the shared HTTP clients")
+        .tag("client", client)
+        .tag("method", method)
+        .tag("host", host != null ? host : "unknown")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private static long elapsed(long startNanos) {
+    return System.nanoTime() - startNanos;
+  }
+
+  private static String outcome(int status) {
+    if (status >= 500) {
+      return "SERVER_ERROR";
+    }
+    if (status >= 400) {
+      return "CLIENT_ERROR";
+    }
+    if (status >= 300) {
+      return "REDIRECTION";
+    }
+    return "SUCCESS";
+  }
+}
@@ -0,0 +1,279 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Disk cache of crawled pages for conditional GETs.
+ *
+ * <p>For every URL fetched with an {@code ETag} or {@code Last-Modified} header, the validators are
+ * kept in an index and the body in a file named after its SHA-256, so pages with the same content
+ * share one file. Later fetches send {@code If-None-Match} and {@code If-Modified-Since}, and a 304
+ * answer is served from the cached body. The least recently used entries are evicted once the
+ * bodies exceed the configured size. The index is written to disk periodically and on shutdown; a
+ * lost index only costs a full download of each page.
+ */
+@Component
+@Slf4j
+public class HttpResponseCache {
+
+  private static final String INDEX_FILE = "index.json";
+  private static final String BODY_SUFFIX = ".body";
+
+  private final boolean enabled;
+  private final Path directory;
+  private final long maxBytes;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  // Access ordered, the first entry is the least recently used
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+  private final Map<String, Integer> bodyReferences = new LinkedHashMap<>();
+  private long totalBytes;
+  private boolean dirty;
+
+  @Autowired
+  public HttpResponseCache(
+      @Value("${app.crawler.http.cache.enabled:true}") boolean enabled,
+      @Value("${app.crawler.http.cache.directory:${java.io.tmpdir}/uppdragsradarn/http-cache}")
+          String directory,
+      @Value("${app.crawler.http.cache.max-size:256MB}") String maxSize) {
+    this(enabled, Path.of(directory), DataSize.parse(maxSize).toBytes());
+  }
+
+  HttpResponseCache(boolean enabled, Path directory, long maxBytes) {
+    this.enabled = enabled;
+    this.directory = directory;
+    this.maxBytes = maxBytes;
+  }
+
+  @PostConstruct
+  public void load() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      Files.createDirectories(directory);
+      Path index = directory.resolve(INDEX_FILE);
+      if (!Files.exists(index)) {
+        return;
+      }
+      List<Entry> stored = objectMapper.readValue(index.toFile(), new TypeReference<>() {});
+      synchronized (this) {
+        for (Entry entry : stored) {
+          // Bodies may have been removed behind our back, those entries are useless
+          if (Files.exists(bodyPath(entry.hash()))) {
+            add(entry);
+          }
+        }
+        evict();
+      }
+      log.info("Loaded {} cached responses ({} bytes) from {}", entries.size(), totalBytes, index);
+    } catch (IOException e) {
+      log.warn("Could not load the HTTP response cache index, starting empty: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Get the conditional request headers for a URL
+   *
+   * @param url The URL about to be fetched
+   * @return {@code If-None-Match} and {@code If-Modified-Since} headers, empty if nothing is cached
+   */
+  public synchronized Map<String, String> validators(String url) {
+    Entry entry = enabled ? entries.get(url) : null;
+    if (entry == null) {
+      return Map.of();
+    }
+    Map<String, String> headers = new LinkedHashMap<>();
+    if (entry.etag() != null) {
+      headers.put("If-None-Match", entry.etag());
+    }
+    if (entry.lastModified() != null) {
+      headers.put("If-Modified-Since", entry.lastModified());
+    }
+    return headers;
+  }
+
+  /**
+   * Get the cached body of a URL, after the server answered 304
+   *
+   * @param url The fetched URL
+   * @return The cached body, empty if it is no longer cached
+   */
+  public Optional<String> cachedBody(String url) {
+    Entry entry;
+    synchronized (this) {
+      entry = enabled ? entries.get(url) : null;
+    }
+    if (entry == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Files.readString(bodyPath(entry.hash()), StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      log.debug("Cached body of {} could not be read: {}", url, e.getMessage());
+      remove(url);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Cache a freshly downloaded page. Pages without validators are not cached, there is no way to
+   * ask the server whether they changed.
+   *
+   * @param url The fetched URL
+   * @param etag The {@code ETag} response header, or null
+   * @param lastModified The {@code Last-Modified} response header, or null
+   * @param body The page body
+   */
+  public void store(String url, String etag, String lastModified, String body) {
+    if (!enabled || body == null || (etag == null && lastModified == null)) {
+      return;
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > maxBytes) {
+      return;
+    }
+    String hash = sha256(bytes);
+    try {
+      Path target = bodyPath(hash);
+      if (!Files.exists(target)) {
+        // Write aside and move, readers never see a partial body
+        Path temp = Files.createTempFile(directory, hash, ".tmp");
+        Files.write(temp, bytes);
+        Files.move(
+            temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+    } catch (IOException e) {
+      log.warn("Could not cache response of {}: {}", url, e.getMessage());
+      return;
+    }
+    synchronized (this) {
+      Entry previous = entries.remove(url);
+      if (previous != null) {
+        release(previous);
+      }
+      add(new Entry(url, etag, lastModified, hash, bytes.length));
+      evict();
+      dirty = true;
+    }
+  }
+
+  /**
+   * Forget a URL
+   *
+   * @param url The URL
+   */
+  public synchronized void remove(String url) {
+    Entry entry = entries.remove(url);
+    if (entry != null) {
+      release(entry);
+      dirty = true;
+    }
+  }
+
+  /**
+   * Get the total size of the cached bodies
+   *
+   * @return The size in bytes
+   */
+  public synchronized long getSize() {
+    return totalBytes;
+  }
+
+  @Scheduled(fixedDelayString = "${app.crawler.http.cache.index-write-interval-ms:60000}")
+  @PreDestroy
+  public void writeIndex() {
+    List<Entry> snapshot;
+    synchronized (this) {
+      if (!enabled || !dirty) {
+        return;
+      }
+      snapshot = new ArrayList<>(entries.values());
+      dirty = false;
+    }
+    try {
+      Path temp = Files.createTempFile(directory, "index", ".tmp");
+      objectMapper.writeValue(temp.toFile(), snapshot);
+      Files.move(
+          temp,
+          directory.resolve(INDEX_FILE),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Could not write the HTTP response cache index: {}", e.getMessage());
+      synchronized (this) {
+        dirty = true;
+      }
+    }
+  }
+
+  private void add(Entry entry) {
+    entries.put(entry.url(), entry);
+    if (bodyReferences.merge(entry.hash(), 1, Integer::sum) == 1) {
+      totalBytes += entry.size();
+    }
+  }
+
+  private void release(Entry entry) {
+    Integer remaining = bodyReferences.computeIfPresent(entry.hash(), (hash, refs) -> refs - 1);
+    if (remaining != null && remaining == 0) {
+      bodyReferences.remove(entry.hash());
+      totalBytes -= entry.size();
+      try {
+        Files.deleteIfExists(bodyPath(entry.hash()));
+      } catch (IOException e) {
+        log.debug("Could not delete cached body {}: {}", entry.hash(), e.getMessage());
+      }
+    }
+  }
+
+  private void evict() {
+    Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+    while (totalBytes > maxBytes && leastRecentlyUsed.hasNext()) {
+      Entry entry = leastRecentlyUsed.next();
+      leastRecentlyUsed.remove();
+      release(entry);
+    }
+  }
+
+  private Path bodyPath(String hash) {
+    return directory.resolve(hash + BODY_SUFFIX);
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /** Index entry of a cached URL */
+  record Entry(String url, String etag, String lastModified, String hash, long size) {}
+}
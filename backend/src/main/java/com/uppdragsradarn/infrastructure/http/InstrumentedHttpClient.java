@@ -0,0 +1,134 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * {@link HttpClient} that times every request of the client it wraps. Closing it is a no-op, the
+ * wrapped client is owned by {@link SharedHttpClients}.
+ */
+class InstrumentedHttpClient extends HttpClient {
+
+  private static final String CLIENT = "jdk";
+
+  private final HttpClient delegate;
+  private final HttpClientMetrics metrics;
+
+  InstrumentedHttpClient(HttpClient delegate, HttpClientMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public <T> HttpResponse<T> send(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    String host = request.uri().getHost();
+    try {
+      HttpResponse<T> response = delegate.send(request, responseBodyHandler);
+      metrics.record(CLIENT, request.method(), host, response.statusCode(), start);
+      return response;
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      metrics.recordError(CLIENT, request.method(), host, start);
+      throw e;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler) {
+    return sendAsync(request, responseBodyHandler, null);
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request,
+      HttpResponse.BodyHandler<T> responseBodyHandler,
+      HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+    long start = System.nanoTime();
+    String host = request.uri().getHost();
+    return delegate
+        .sendAsync(request, responseBodyHandler, pushPromiseHandler)
+        .whenComplete(
+            (response, error) -> {
+              if (error != null) {
+                metrics.recordError(CLIENT, request.method(), host, start);
+              } else {
+                metrics.record(CLIENT, request.method(), host, response.statusCode(), start);
+              }
+            });
+  }
+
+  @Override
+  public Optional<CookieHandler> cookieHandler() {
+    return delegate.cookieHandler();
+  }
+
+  @Override
+  public Optional<Duration> connectTimeout() {
+    return delegate.connectTimeout();
+  }
+
+  @Override
+  public Redirect followRedirects() {
+    return delegate.followRedirects();
+  }
+
+  @Override
+  public Optional<ProxySelector> proxy() {
+    return delegate.proxy();
+  }
+
+  @Override
+  public SSLContext sslContext() {
+    return delegate.sslContext();
+  }
+
+  @Override
+  public SSLParameters sslParameters() {
+    return delegate.sslParameters();
+  }
+
+  @Override
+  public Optional<Authenticator> authenticator() {
+    return delegate.authenticator();
+  }
+
+  @Override
+  public Version version() {
+    return delegate.version();
+  }
+
+  @Override
+  public Optional<Executor> executor() {
+    return delegate.executor();
+  }
+
+  @Override
+  public void shutdown() {
+    // Shared client, shut down by its owner
+  }
+
+  @Override
+  public void shutdownNow() {
+    // Shared client, shut down by its owner
+  }
+
+  @Override
+  public void close() {
+    // Shared client, closed by its owner
+  }
+}
@@ -0,0 +1,11 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.IOException;
+
+/** Thrown when a response body exceeds the configured maximum size */
+public class ResponseTooLargeException extends IOException {
+
+  public ResponseTooLargeException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,40 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/** Parses the {@code Retry-After} header of 429 and 503 responses */
+public final class RetryAfter {
+
+  private RetryAfter() {}
+
+  /**
+   * Get how long the server asked to wait before the next request
+   *
+   * @param value The header value, either a number of seconds or an HTTP date
+   * @param now The current time, to turn an HTTP date into a delay
+   * @return The delay, never negative, empty if the header is missing or malformed
+   */
+  public static Optional<Duration> parse(String value, Instant now) {
+    if (value == null || value.isBlank()) {
+      return Optional.empty();
+    }
+    String trimmed = value.trim();
+    try {
+      return Optional.of(Duration.ofSeconds(Math.max(Long.parseLong(trimmed), 0)));
+    } catch (NumberFormatException e) {
+      // Not delta-seconds, try an HTTP date
+    }
+    try {
+      ZonedDateTime until = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+      Duration delay = Duration.between(now, until.toInstant());
+      return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The HTTP clients every provider and LLM service goes through.
+ *
+ * <p>Two clients share one configuration: a {@link java.net.http.HttpClient} that negotiates HTTP/2
+ * where the server offers it and multiplexes requests over its connections, and a pooled Apache
+ * client for the providers built on it. Both keep connections and TLS sessions alive across crawls
+ * instead of setting up a new stack per job, use the same timeouts, and report request latency and
+ * connection usage to Micrometer under {@code crawler.http.client.*}. When a {@link CrawlArchive}
+ * is active, both record their exchanges to it or replay them from it. Callers must not close them,
+ * they are shut down with the application.
+ */
+@Component
+@Slf4j
+public class SharedHttpClients {
+
+  private final Duration timeout;
+  private final int maxRetries;
+  private final Duration retryDelay;
+
+  private final ExecutorService executor =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-client-", 0).factory());
+  // Only fires retry timers, the retried requests themselves run on the client executor
+  private final ScheduledExecutorService retryScheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("http-retry-scheduler").daemon().factory());
+  private final HttpClient jdkClient;
+  private final HttpClient instrumentedJdkClient;
+  private final PoolingHttpClientConnectionManager connectionManager;
+  private final CloseableHttpClient pooledClient;
+
+  public SharedHttpClients(
+      @Value("${app.crawler.timeout:30}") int timeoutSeconds,
+      @Value("${app.crawler.max-retries:3}") int maxRetries,
+      @Value("${app.crawler.retry-delay:1000}") int retryDelayMs,
+      @Value("${app.crawler.http.max-connections:100}") int maxConnections,
+      @Value("${app.crawler.http.max-connections-per-host:8}") int maxConnectionsPerHost,
+      @Value("${app.crawler.http.idle-timeout:60s}") String idleTimeout,
+      MeterRegistry meterRegistry,
+      CrawlArchive archive) {
+    this.timeout = Duration.ofSeconds(Math.max(timeoutSeconds, 1));
+    this.maxRetries = Math.max(maxRetries, 0);
+    this.retryDelay = Duration.ofMillis(Math.max(retryDelayMs, 0));
+    Duration idle = DurationStyle.detectAndParse(idleTimeout);
+
+    HttpClientMetrics metrics = new HttpClientMetrics(meterRegistry);
+
+    this.jdkClient =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(executor)
+            .build();
+    boolean archiving = archive != null && archive.isActive();
+    this.instrumentedJdkClient =
+        new InstrumentedHttpClient(
+            archiving ? new ArchiveHttpClient(jdkClient, archive, executor) : jdkClient, metrics);
+
+    this.connectionManager =
+        PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerHost)
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.of(timeout))
+                    .setSocketTimeout(Timeout.of(timeout))
+                    .build())
+            .build();
+    HttpClientBuilder pooledBuilder =
+        HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(
+                RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.of(timeout))
+                    .setResponseTimeout(Timeout.of(timeout))
+                    .build())
+            // Only idempotent requests are retried, on I/O errors and 429/503 responses
+            .setRetryStrategy(
+                new DefaultHttpRequestRetryStrategy(
+                    this.maxRetries, TimeValue.ofMilliseconds(retryDelay.toMillis())))
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(idle.toMillis()))
+            .addExecInterceptorFirst(
+                "metrics",
+                (request, scope, chain) -> {
+                  long start = System.nanoTime();
+                  String host = scope.route.getTargetHost().getHostName();
+                  try {
+                    ClassicHttpResponse response = chain.proceed(request, scope);
+                    metrics.record("apache", request.getMethod(), host, response.getCode(), start);
+                    return response;
+                  } catch (IOException | HttpException | RuntimeException e) {
+                    metrics.recordError("apache", request.getMethod(), host, start);
+                    throw e;
+                  }
+                });
+    if (archiving) {
+      // Inside the metrics interceptor, so replayed requests are timed as well
+      pooledBuilder.addExecInterceptorAfter("metrics", "archive", archive::execute);
+    }
+    this.pooledClient = pooledBuilder.build();
+
+    Gauge.builder(
+            "crawler.http.client.connections.leased",
+            connectionManager,
+            pool -> pool.getTotalStats().getLeased())
+        .description("Pooled connections currently in use")
+        .register(meterRegistry);
+    Gauge.builder(
+            "crawler.http.client.connections.available",
+            connectionManager,
+            pool -> pool.getTotalStats().getAvailable())
+        .description("Idle pooled connections kept alive for reuse")
+        .register(meterRegistry);
+    Gauge.builder(
+            "crawler.http.client.connections.pending",
+            connectionManager,
+            pool -> pool.getTotalStats().getPending())
+        .description("Requests waiting for a pooled connection")
+        .register(meterRegistry);
+
+    log.info(
+        "Initialized shared HTTP clients: timeout {}, {} connections ({} per host)",
+        timeout,
+        maxConnections,
+        maxConnectionsPerHost);
+  }
+
+  /**
+   * Get the shared {@link HttpClient}, preferring HTTP/2
+   *
+   * @return The instrumented client, not to be closed by callers
+   */
+  public HttpClient http() {
+    return instrumentedJdkClient;
+  }
+
+  /**
+   * Get the shared pooled Apache client
+   *
+   * @return The pooled client, not to be closed by callers
+   */
+  public CloseableHttpClient pooled() {
+    return pooledClient;
+  }
+
+  /**
+   * Get the timeout shared by connects and requests
+   *
+   * @return The timeout
+   */
+  public Duration timeout() {
+    return timeout;
+  }
+
+  /**
+   * Get the number of retries for failed requests
+   *
+   * @return The maximum number of retries
+   */
+  public int maxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Get the base delay between retries
+   *
+   * @return The retry delay
+   */
+  public Duration retryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * Get the executor the shared clients run their requests on, for blocking calls made in parallel
+   *
+   * @return The executor, not to be shut down by callers
+   */
+  public ExecutorService executor() {
+    return executor;
+  }
+
+  /**
+   * Get the scheduler delaying retries of asynchronous requests, so no thread sleeps while waiting
+   *
+   * @return The scheduler, not to be shut down by callers
+   */
+  public ScheduledExecutorService retryScheduler() {
+    return retryScheduler;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    try {
+      pooledClient.close();
+    } catch (IOException e) {
+      log.warn("Error closing pooled HTTP client: {}", e.getMessage());
+    }
+    retryScheduler.shutdownNow();
+    jdkClient.shutdownNow();
+    executor.shutdownNow();
+  }
+}
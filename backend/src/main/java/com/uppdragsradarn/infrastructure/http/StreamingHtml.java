@@ -0,0 +1,113 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+/**
+ * Selector-driven HTML parsing on top of Jsoup's {@link StreamParser}, so a page is only parsed as
+ * far as the selectors need and matched elements do not have to stay in the tree.
+ */
+public final class StreamingHtml {
+
+  private StreamingHtml() {}
+
+  /**
+   * Parse a page until every selector has matched. A selector counts as matched once its first
+   * match and any matching siblings right after it are complete, so a list is parsed in full.
+   * Selectors that never match make the whole page be parsed.
+   *
+   * @param html The page
+   * @param baseUri The URL of the page, to resolve relative links
+   * @param selectors CSS selectors, null entries are ignored
+   * @return The document up to the element that completed the selectors, holding the matches of
+   *     every selector
+   */
+  public static Document parseUntilFound(
+      String html, String baseUri, Collection<String> selectors) {
+    List<Evaluator> pending = new ArrayList<>();
+    for (String selector : selectors) {
+      if (selector != null && !selector.isBlank()) {
+        pending.add(QueryParser.parse(selector));
+      }
+    }
+
+    try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(html, baseUri)) {
+      if (pending.isEmpty()) {
+        return parser.complete();
+      }
+      // First match of each selector; elements complete in document order, children first
+      Map<Evaluator, Element> firstMatches = new HashMap<>();
+      Iterator<Element> elements = parser.iterator();
+      Element element = null;
+      while (!pending.isEmpty() && elements.hasNext()) {
+        element = elements.next();
+        for (Iterator<Evaluator> it = pending.iterator(); it.hasNext(); ) {
+          Evaluator evaluator = it.next();
+          Element first = firstMatches.get(evaluator);
+          if (first == null) {
+            if (element.is(evaluator)) {
+              firstMatches.put(evaluator, element);
+            }
+          } else if (element == first.parent()
+              || (element.parent() == first.parent() && !element.is(evaluator))) {
+            // The run of matching siblings has ended
+            it.remove();
+          }
+        }
+      }
+      Document document = parser.document();
+      parser.stop();
+      if (pending.isEmpty()) {
+        // The parser reads ahead of the last completed element, drop what it started after it
+        for (Node node = element; node != null; node = node.parent()) {
+          while (node.nextSibling() != null) {
+            node.nextSibling().remove();
+          }
+        }
+      }
+      return document;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Parse a page, handing every element matching the selector to the visitor as soon as it is
+   * complete. Visited elements are removed from the tree afterwards, so a long listing never has
+   * all its entries in memory at once.
+   *
+   * @param html The page
+   * @param baseUri The URL of the page, to resolve relative links
+   * @param selector CSS selector of the elements to visit
+   * @param visitor Receives each matching element
+   * @return The complete document without the visited elements, for the rest of the page
+   */
+  public static Document forEachMatch(
+      String html, String baseUri, String selector, Consumer<Element> visitor) {
+    try (StreamParser parser = new StreamParser(Parser.htmlParser()).parse(html, baseUri)) {
+      Element match;
+      while ((match = parser.selectNext(selector)) != null) {
+        visitor.accept(match);
+        match.remove();
+      }
+      return parser.complete();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the service behind it, additive increase and multiplicative
+ * decrease (AIMD) as in TCP congestion control.
+ *
+ * <p>Every successful call with a normal latency raises the limit by one over the current limit, so
+ * a full round of calls raises it by one. A rate limited call halves it, and a call taking much
+ * longer than the lowest latency seen shrinks it by a tenth, since queueing at the service shows up
+ * as latency before it shows up as errors. The lowest latency drifts slowly towards the recent
+ * ones, so a service that has become slower for good is not throttled forever.
+ *
+ * <p>Waiting callers park on a lock rather than a monitor, so virtual threads do not pin their
+ * carrier while waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double RATE_LIMITED_BACKOFF = 0.5;
+  private static final double LATENCY_BACKOFF = 0.9;
+  private static final double BASELINE_DRIFT = 0.01;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double latencyTolerance;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition available = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private double baselineNanos;
+
+  /**
+   * Create a limiter
+   *
+   * @param initialLimit The limit to start with
+   * @param minLimit The limit never goes below this
+   * @param maxLimit The limit never goes above this
+   * @param latencyTolerance Calls slower than this multiple of the lowest latency reduce the limit
+   */
+  public AdaptiveConcurrencyLimiter(
+      int initialLimit, int minLimit, int maxLimit, double latencyTolerance) {
+    this.minLimit = Math.max(minLimit, 1);
+    this.maxLimit = Math.max(maxLimit, this.minLimit);
+    this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+    this.latencyTolerance = Math.max(latencyTolerance, 1.0);
+  }
+
+  /**
+   * Wait until a call may start
+   *
+   * @return The permit of the call, to be told its outcome and closed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Permit acquire() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= (int) limit) {
+        available.await();
+      }
+      inFlight++;
+      return new Permit(System.nanoTime());
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Get the current limit
+   *
+   * @return The number of calls currently allowed at once
+   */
+  public int limit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void succeeded(long latencyNanos) {
+    lock.lock();
+    try {
+      if (baselineNanos == 0 || latencyNanos < baselineNanos) {
+        baselineNanos = latencyNanos;
+      } else {
+        baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+      }
+      if (latencyNanos > baselineNanos * latencyTolerance) {
+        limit = Math.max(minLimit, limit * LATENCY_BACKOFF);
+      } else {
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+      }
+      available.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void rateLimited() {
+    lock.lock();
+    try {
+      limit = Math.max(minLimit, limit * RATE_LIMITED_BACKOFF);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release() {
+    lock.lock();
+    try {
+      inFlight--;
+      available.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Right to make one call, released when closed */
+  public final class Permit implements AutoCloseable {
+
+    private final long startNanos;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private Permit(long startNanos) {
+      this.startNanos = startNanos;
+    }
+
+    /** Record that the call succeeded, its latency may raise or lower the limit */
+    public void success() {
+      succeeded(System.nanoTime() - startNanos);
+    }
+
+    /** Record that the service asked to slow down, which halves the limit */
+    public void rateLimited() {
+      AdaptiveConcurrencyLimiter.this.rateLimited();
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        release();
+      }
+    }
+  }
+}
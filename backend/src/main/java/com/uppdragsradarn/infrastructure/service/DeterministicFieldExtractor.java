@@ -0,0 +1,566 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractedAssignmentData;
+
+/**
+ * Finds the fields of a job page that need no LLM: the configured metadata selectors, the heading,
+ * and labelled values such as rates, dates, duration, scope and location, with regular expressions
+ * for Swedish and English pages. The description is the main content of the page, which the
+ * DescriptionParser turns into Markdown when the provider prepares the assignment, so the LLM never
+ * has to write it out.
+ *
+ * <p>Fields that are not found, or only guessed, such as a duration mentioned without a label, are
+ * left to the LLM. A guessed value is kept when the LLM does not find the field either.
+ */
+@Component
+public class DeterministicFieldExtractor {
+
+  private static final Logger logger = LoggerFactory.getLogger(DeterministicFieldExtractor.class);
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+
+  /** Fields the LLM is asked for when they are not found on the page */
+  static final List<String> LLM_FIELDS =
+      List.of(
+          "title",
+          "companyName",
+          "location",
+          "hourlyRateMin",
+          "hourlyRateMax",
+          "currency",
+          "durationMonths",
+          "hoursPerWeek",
+          "startDate",
+          "applicationDeadline",
+          "skills",
+          "workArrangement",
+          "requirementLevel");
+
+  // Metadata selectors named differently from the field they fill
+  private static final Map<String, String> SELECTOR_FIELDS = Map.of("company", "companyName");
+
+  private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+  // Three or four digits, "1 100" included, but not part of a longer number
+  private static final String AMOUNT =
+      "(?<!\\d)(?<!\\d[ \\u00a0])(\\d[ \\u00a0]?\\d{3}|\\d{3})(?!\\d)";
+  private static final String CURRENCY = "(kr|sek|eur|€|usd|\\$)?";
+  private static final String DATE =
+      "(\\d{4}-\\d{2}-\\d{2}|\\d{1,2}[./]\\d{1,2}[./]\\d{4}|\\d{1,2}\\s+\\p{L}+\\s+\\d{4})";
+
+  // Labels start a word, so "Restart" is not "start"; labels as loose as "rate" must start a line
+  private static final String LABEL = "(?<![\\p{L}\\p{N}])";
+  // An amount followed by a percent sign is a share, not money
+  private static final String NOT_PERCENT = "(?!\\s*%)";
+
+  private static final Pattern DATE_PATTERN = Pattern.compile(DATE, FLAGS);
+  private static final Pattern HOURLY_RATE =
+      Pattern.compile(
+          AMOUNT
+              + "(?:\\s*[-–]\\s*"
+              + AMOUNT
+              + ")?\\s*"
+              + CURRENCY
+              + "\\s*(?:/\\s*(?:timmen|timme|tim|hour|hr|h)\\b"
+              + "|per\\s+(?:timme|tim|hour)|i\\s+timmen)",
+          FLAGS);
+  private static final Pattern LABELLED_RATE =
+      Pattern.compile(
+          "(?:"
+              + LABEL
+              + "(?:timpris|timarvode|arvode|hourly rate)|^\\s*rate)\\s*:\\s*"
+              + AMOUNT
+              + NOT_PERCENT
+              + "(?:\\s*[-–]\\s*"
+              + AMOUNT
+              + NOT_PERCENT
+              + ")?\\s*"
+              + CURRENCY
+              + "(?!\\s*(?:/\\s*mån|per\\s+mån|/\\s*month|per\\s+month))",
+          FLAGS | Pattern.MULTILINE);
+  private static final Pattern PERIOD =
+      Pattern.compile(
+          LABEL
+              + "(?:uppdragsperiod|period|contract period)\\s*:\\s*"
+              + DATE
+              + "\\s*[-–]\\s*"
+              + DATE,
+          FLAGS);
+  private static final Pattern START_DATE =
+      Pattern.compile(
+          "(?:" + LABEL + "(?:startdatum|start date|tillträde)|^\\s*start)\\s*:\\s*" + DATE,
+          FLAGS | Pattern.MULTILINE);
+  private static final Pattern END_DATE =
+      Pattern.compile(
+          "(?:" + LABEL + "(?:slutdatum|end date)|^\\s*slut)\\s*:\\s*" + DATE,
+          FLAGS | Pattern.MULTILINE);
+  private static final Pattern DEADLINE =
+      Pattern.compile(
+          LABEL
+              + "(?:sista ansökningsdag(?:en)?|sista ansökningsdatum|ansök senast|deadline"
+              + "|last application date|apply by)\\s*:?\\s*"
+              + DATE,
+          FLAGS);
+  private static final Pattern LABELLED_DURATION =
+      Pattern.compile(
+          LABEL
+              + "(?:uppdragslängd|längd|varaktighet|duration|length)\\s*:\\s*"
+              + "(?:ca\\.?\\s*|cirka\\s*|approx\\.?\\s*)?(\\d{1,2})\\s*(?:månader|mån|months?)",
+          FLAGS);
+  private static final Pattern DURATION =
+      Pattern.compile("(?<!\\d)(\\d{1,2})\\s*(?:månader|months)\\b", FLAGS);
+  private static final Pattern SCOPE_PERCENT =
+      Pattern.compile(
+          LABEL + "(?:omfattning|beläggning|scope|workload|utilization)\\s*:\\s*(\\d{1,3})\\s*%",
+          FLAGS);
+  private static final Pattern HOURS_PER_WEEK =
+      Pattern.compile(
+          "(?<!\\d)(\\d{1,2})\\s*(?:timmar|tim|hours|h)"
+              + "\\s*(?:/|per|i)\\s*(?:veckan|vecka|week|v)\\b",
+          FLAGS);
+  private static final Pattern LOCATION =
+      Pattern.compile(
+          "^\\s*(?:arbetsort|ort|plats|placering|location|city)\\s*:\\s*(\\S.{1,60}?)\\s*$",
+          FLAGS | Pattern.MULTILINE);
+  private static final Pattern WORK_ARRANGEMENT =
+      Pattern.compile(
+          "^\\s*(?:arbetsform|arbetssätt|distansarbete|work arrangement|work mode|remote work)"
+              + "\\s*:\\s*(.{2,60}?)\\s*$",
+          FLAGS | Pattern.MULTILINE);
+
+  private static final List<DateTimeFormatter> DATE_FORMATS =
+      List.of(
+          DateTimeFormatter.ofPattern("d.M.uuuu"),
+          new DateTimeFormatterBuilder()
+              .parseCaseInsensitive()
+              .appendPattern("d MMMM uuuu")
+              .toFormatter(Locale.forLanguageTag("sv")),
+          new DateTimeFormatterBuilder()
+              .parseCaseInsensitive()
+              .appendPattern("d MMMM uuuu")
+              .toFormatter(Locale.ENGLISH));
+
+  private final HtmlContentFilterService contentFilterService;
+
+  public DeterministicFieldExtractor(HtmlContentFilterService contentFilterService) {
+    this.contentFilterService = contentFilterService;
+  }
+
+  /**
+   * Find the fields of a job page that need no LLM
+   *
+   * @param htmlContent Raw HTML of the job page
+   * @param config Extraction configuration of the provider
+   * @return The fields found, and those still to be asked of the LLM
+   */
+  public FieldExtraction extract(String htmlContent, ExtractionConfig config) {
+    ExtractedAssignmentData data = new ExtractedAssignmentData();
+    Set<String> found = new HashSet<>();
+    Document doc = Jsoup.parse(htmlContent);
+
+    applySelectors(doc, config.getMetadataSelectors(), data, found);
+    if (!found.contains("title")) {
+      findTitle(doc, data, found);
+    }
+
+    Element content =
+        config.getContentFilter() != null
+            ? contentFilterService.mainContent(doc, config.getContentFilter())
+            : doc.body();
+    if (content.hasText()) {
+      data.setDescription(content.html());
+    }
+
+    String text = lines(content);
+    findRate(text, data, found);
+    findDates(text, data, found);
+    findDuration(text, data, found);
+    findHoursPerWeek(text, data, found);
+    if (!found.contains("location")) {
+      matchFirst(LOCATION, text)
+          .ifPresent(location -> set(data, found, "location", location, data::setLocation));
+    }
+    findWorkArrangement(text, data, found);
+    findRequirementLevel(data, found);
+
+    Set<String> missing = new LinkedHashSet<>(LLM_FIELDS);
+    missing.removeAll(found);
+    logger.debug("Found {} on the page, leaving {} to the LLM", found, missing);
+    return new FieldExtraction(data, missing);
+  }
+
+  private void applySelectors(
+      Document doc,
+      Map<String, String> selectors,
+      ExtractedAssignmentData data,
+      Set<String> found) {
+    if (selectors == null) {
+      return;
+    }
+    for (Map.Entry<String, String> selector : selectors.entrySet()) {
+      String field = SELECTOR_FIELDS.getOrDefault(selector.getKey(), selector.getKey());
+      Elements elements;
+      try {
+        elements = doc.select(selector.getValue());
+      } catch (RuntimeException e) {
+        logger.warn("Invalid selector for {}: {}", field, selector.getValue());
+        continue;
+      }
+      if (elements.isEmpty()) {
+        continue;
+      }
+      if (field.equals("skills")) {
+        List<String> skills =
+            elements.stream().map(Element::text).filter(skill -> !skill.isBlank()).toList();
+        if (!skills.isEmpty()) {
+          data.setSkills(skills);
+          found.add(field);
+        }
+        continue;
+      }
+
+      String value = valueOf(elements.first());
+      if (value.isEmpty()) {
+        continue;
+      }
+      switch (field) {
+        case "title" -> set(data, found, field, value, data::setTitle);
+        case "companyName" -> set(data, found, field, value, data::setCompanyName);
+        case "location" -> set(data, found, field, value, data::setLocation);
+        case "workArrangement" ->
+            set(data, found, field, normalizeWorkArrangement(value), data::setWorkArrangement);
+        case "requirementLevel" -> set(data, found, field, value, data::setRequirementLevel);
+        case "startDate" -> set(data, found, field, parseDate(value), data::setStartDate);
+        case "applicationDeadline" ->
+            set(data, found, field, parseDate(value), data::setApplicationDeadline);
+        default -> {
+          // Selectors of listing pages, such as the category, are not assignment fields
+        }
+      }
+    }
+  }
+
+  /** The text of an element, or the value of an attribute selected by it such as a meta tag */
+  private static String valueOf(Element element) {
+    String text = element.text().trim();
+    if (!text.isEmpty()) {
+      return text;
+    }
+    for (String attribute : List.of("content", "value", "datetime")) {
+      if (element.hasAttr(attribute)) {
+        return element.attr(attribute).trim();
+      }
+    }
+    // An attribute selector such as [data-work-arrangement]
+    return element.attributes().asList().stream()
+        .filter(attribute -> attribute.getKey().startsWith("data-"))
+        .map(attribute -> attribute.getValue().trim())
+        .filter(value -> !value.isEmpty())
+        .findFirst()
+        .orElse("");
+  }
+
+  private static void findTitle(Document doc, ExtractedAssignmentData data, Set<String> found) {
+    Element heading = doc.selectFirst("h1");
+    if (heading != null && heading.hasText()) {
+      set(data, found, "title", heading.text().trim(), data::setTitle);
+      return;
+    }
+    // The page title usually carries the site name too, so the LLM gets to improve on it
+    Element ogTitle = doc.selectFirst("meta[property=og:title]");
+    String title = ogTitle != null ? ogTitle.attr("content").trim() : doc.title().trim();
+    if (!title.isEmpty()) {
+      data.setTitle(title);
+    }
+  }
+
+  private static void findRate(String text, ExtractedAssignmentData data, Set<String> found) {
+    Matcher matcher = LABELLED_RATE.matcher(text);
+    if (!matcher.find()) {
+      matcher = HOURLY_RATE.matcher(text);
+      if (!matcher.find()) {
+        return;
+      }
+    }
+    Integer min = parseAmount(matcher.group(1));
+    Integer max = matcher.group(2) != null ? parseAmount(matcher.group(2)) : min;
+    if (min == null || max == null || min < 100 || max > 5000 || min > max) {
+      return;
+    }
+    set(data, found, "hourlyRateMin", min, data::setHourlyRateMin);
+    set(data, found, "hourlyRateMax", max, data::setHourlyRateMax);
+    if (matcher.group(3) != null) {
+      String currency =
+          switch (matcher.group(3).toLowerCase(Locale.ROOT)) {
+            case "eur", "€" -> "EUR";
+            case "usd", "$" -> "USD";
+            default -> "SEK";
+          };
+      set(data, found, "currency", currency, data::setCurrency);
+    }
+  }
+
+  private static void findDates(String text, ExtractedAssignmentData data, Set<String> found) {
+    LocalDate start = null;
+    LocalDate end = null;
+    Matcher period = PERIOD.matcher(text);
+    if (period.find()) {
+      start = parseLocalDate(period.group(1));
+      end = parseLocalDate(period.group(2));
+    }
+    if (start == null) {
+      start =
+          matchFirst(START_DATE, text)
+              .map(DeterministicFieldExtractor::parseLocalDate)
+              .orElse(null);
+    }
+    if (end == null) {
+      end =
+          matchFirst(END_DATE, text).map(DeterministicFieldExtractor::parseLocalDate).orElse(null);
+    }
+    if (start != null && !found.contains("startDate")) {
+      set(data, found, "startDate", start.toString(), data::setStartDate);
+    }
+    if (start != null && end != null && end.isAfter(start)) {
+      // Round to whole months, an assignment of a few weeks counts as one
+      long months = Math.max(Math.round(ChronoUnit.DAYS.between(start, end) / 30.44), 1);
+      set(data, found, "durationMonths", (int) months, data::setDurationMonths);
+    }
+    if (!found.contains("applicationDeadline")) {
+      matchFirst(DEADLINE, text)
+          .map(DeterministicFieldExtractor::parseDate)
+          .ifPresent(
+              deadline ->
+                  set(data, found, "applicationDeadline", deadline, data::setApplicationDeadline));
+    }
+  }
+
+  private static void findDuration(String text, ExtractedAssignmentData data, Set<String> found) {
+    if (found.contains("durationMonths")) {
+      return;
+    }
+    Integer months = matchFirst(LABELLED_DURATION, text).map(Integer::valueOf).orElse(null);
+    if (months != null && months > 0) {
+      set(data, found, "durationMonths", months, data::setDurationMonths);
+      return;
+    }
+    // Without a label it may just as well be required experience
+    matchFirst(DURATION, text)
+        .map(Integer::valueOf)
+        .filter(guess -> guess > 0 && guess <= 36)
+        .ifPresent(data::setDurationMonths);
+  }
+
+  private static void findHoursPerWeek(
+      String text, ExtractedAssignmentData data, Set<String> found) {
+    Integer hours =
+        matchFirst(SCOPE_PERCENT, text)
+            .map(Integer::valueOf)
+            .filter(percent -> percent > 0 && percent <= 100)
+            .map(percent -> Math.round(40 * percent / 100f))
+            .orElse(null);
+    if (hours == null) {
+      hours =
+          matchFirst(HOURS_PER_WEEK, text)
+              .map(Integer::valueOf)
+              .filter(perWeek -> perWeek > 0 && perWeek <= 60)
+              .orElse(null);
+    }
+    if (hours != null) {
+      set(data, found, "hoursPerWeek", hours, data::setHoursPerWeek);
+    }
+  }
+
+  private static void findWorkArrangement(
+      String text, ExtractedAssignmentData data, Set<String> found) {
+    if (found.contains("workArrangement")) {
+      return;
+    }
+    String labelled =
+        matchFirst(WORK_ARRANGEMENT, text)
+            .map(DeterministicFieldExtractor::normalizeWorkArrangement)
+            .orElse(null);
+    if (labelled != null) {
+      set(data, found, "workArrangement", labelled, data::setWorkArrangement);
+    } else {
+      // A mention anywhere on the page is only a guess
+      data.setWorkArrangement(normalizeWorkArrangement(text));
+    }
+  }
+
+  private static void findRequirementLevel(ExtractedAssignmentData data, Set<String> found) {
+    if (found.contains("requirementLevel") || data.getTitle() == null) {
+      return;
+    }
+    String title = data.getTitle().toLowerCase(Locale.ROOT);
+    if (title.contains("senior")) {
+      set(data, found, "requirementLevel", "Senior", data::setRequirementLevel);
+    } else if (title.contains("junior")) {
+      set(data, found, "requirementLevel", "Junior", data::setRequirementLevel);
+    }
+  }
+
+  private static String normalizeWorkArrangement(String text) {
+    String lower = text.toLowerCase(Locale.ROOT);
+    if (lower.contains("hybrid")) {
+      return "Hybrid";
+    }
+    if (lower.contains("distans") || lower.contains("remote")) {
+      return "Remote";
+    }
+    if (lower.contains("på plats")
+        || lower.contains("on-site")
+        || lower.contains("onsite")
+        || lower.contains("på kontoret")) {
+      return "On-site";
+    }
+    return null;
+  }
+
+  private static Integer parseAmount(String amount) {
+    try {
+      return Integer.valueOf(amount.replaceAll("[ \\u00a0]", ""));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** A date in ISO format, or null if it cannot be read */
+  private static String parseDate(String text) {
+    Matcher matcher = DATE_PATTERN.matcher(text);
+    if (!matcher.find()) {
+      return null;
+    }
+    LocalDate date = parseLocalDate(matcher.group(1));
+    return date != null ? date.toString() : null;
+  }
+
+  private static LocalDate parseLocalDate(String text) {
+    String date = text.trim().replaceAll("\\s+", " ");
+    try {
+      return LocalDate.parse(date);
+    } catch (DateTimeParseException e) {
+      // Not ISO, try the day first formats
+    }
+    for (DateTimeFormatter format : DATE_FORMATS) {
+      try {
+        return LocalDate.parse(date.replace('/', '.'), format);
+      } catch (DateTimeParseException e) {
+        // Try the next format
+      }
+    }
+    return null;
+  }
+
+  private static Optional<String> matchFirst(Pattern pattern, String text) {
+    Matcher matcher = pattern.matcher(text);
+    return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+  }
+
+  private static <T> void set(
+      ExtractedAssignmentData data, Set<String> found, String field, T value, Consumer<T> setter) {
+    if (value != null) {
+      setter.accept(value);
+      found.add(field);
+    }
+  }
+
+  /**
+   * The text of an element with a line per block, so labelled values can be matched line by line.
+   * Terms of definition lists and the first cell of table rows become labels of what follows them.
+   */
+  private static String lines(Element content) {
+    StringBuilder text = new StringBuilder();
+    NodeTraversor.traverse(
+        new NodeVisitor() {
+          @Override
+          public void head(Node node, int depth) {
+            if (node instanceof TextNode textNode) {
+              text.append(textNode.text());
+            } else if (node instanceof Element element) {
+              String name = element.normalName();
+              if (name.equals("br")) {
+                text.append('\n');
+              } else if (name.equals("dd")
+                  || ((name.equals("td") || name.equals("th"))
+                      && element.previousElementSibling() != null)) {
+                text.append(": ");
+              } else if (element.isBlock()) {
+                text.append('\n');
+              }
+            }
+          }
+
+          @Override
+          public void tail(Node node, int depth) {
+            if (node instanceof Element element
+                && element.isBlock()
+                && !List.of("dt", "td", "th").contains(element.normalName())) {
+              text.append('\n');
+            }
+          }
+        },
+        content);
+    return text.toString()
+        .replace('\u00a0', ' ')
+        .replaceAll(":\\s*:", ":")
+        .replaceAll("[ \\t]+", " ")
+        .replaceAll(" ?\\n[\\s]*", "\n");
+  }
+
+  /**
+   * Fields found on a page, and the fields still to be asked of the LLM
+   *
+   * @param data The fields found, and guesses of fields that are missing
+   * @param missing Names of the fields to ask the LLM for, empty if the page had them all
+   */
+  public record FieldExtraction(ExtractedAssignmentData data, Set<String> missing) {
+
+    /**
+     * Fill the missing fields with what the LLM found, keeping guesses the LLM could not improve on
+     *
+     * @param answer The fields extracted by the LLM
+     * @return The complete extraction
+     */
+    public ExtractedAssignmentData merge(ExtractedAssignmentData answer) {
+      ObjectNode merged = objectMapper.valueToTree(data);
+      JsonNode fields = objectMapper.valueToTree(answer);
+      for (String field : missing) {
+        if (fields.hasNonNull(field)) {
+          merged.set(field, fields.get(field));
+        }
+      }
+      return objectMapper.convertValue(merged, ExtractedAssignmentData.class);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits on the LLM requests and tokens one crawl may spend. Requests reserve their worst case
+ * before they are sent and settle with the usage reported by the API, so concurrent requests cannot
+ * overshoot the budget together. Answers from the extraction cache cost nothing.
+ */
+public class ExtractionBudget {
+
+  private final long maxRequests;
+  private final long maxTokens;
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong tokens = new AtomicLong();
+  private final AtomicBoolean exhausted = new AtomicBoolean();
+
+  /**
+   * Create a budget
+   *
+   * @param maxRequests Maximum number of API requests, 0 or less for no limit
+   * @param maxTokens Maximum number of prompt and completion tokens, 0 or less for no limit
+   */
+  public ExtractionBudget(long maxRequests, long maxTokens) {
+    this.maxRequests = maxRequests > 0 ? maxRequests : Long.MAX_VALUE;
+    this.maxTokens = maxTokens > 0 ? maxTokens : Long.MAX_VALUE;
+  }
+
+  private ExtractionBudget() {
+    this.maxRequests = 0;
+    this.maxTokens = 0;
+  }
+
+  /**
+   * Get a budget without limits
+   *
+   * @return A new unlimited budget
+   */
+  public static ExtractionBudget unlimited() {
+    return new ExtractionBudget(0, 0);
+  }
+
+  /**
+   * Get a budget without room for any request, for sources that have used up their daily tokens
+   *
+   * @return A new empty budget
+   */
+  public static ExtractionBudget none() {
+    return new ExtractionBudget();
+  }
+
+  /**
+   * Reserve one request and its worst case token usage
+   *
+   * @param estimatedTokens Prompt tokens plus the maximum completion tokens
+   * @throws BudgetExceededException if the request would exceed the budget
+   */
+  public void reserve(long estimatedTokens) {
+    if (requests.incrementAndGet() > maxRequests) {
+      requests.decrementAndGet();
+      exhausted.set(true);
+      throw new BudgetExceededException("LLM request budget of " + maxRequests + " exhausted");
+    }
+    if (tokens.addAndGet(estimatedTokens) > maxTokens) {
+      tokens.addAndGet(-estimatedTokens);
+      requests.decrementAndGet();
+      exhausted.set(true);
+      throw new BudgetExceededException("LLM token budget of " + maxTokens + " exhausted");
+    }
+  }
+
+  /**
+   * Replace the reserved estimate of a request with its actual usage
+   *
+   * @param estimatedTokens The tokens reserved for the request
+   * @param usedTokens The tokens the API reports, or the estimate if it reported none
+   */
+  public void settle(long estimatedTokens, long usedTokens) {
+    tokens.addAndGet(usedTokens - estimatedTokens);
+  }
+
+  /**
+   * Give back the reservation of a request that was never answered, such as a request of a batch
+   * that failed
+   *
+   * @param estimatedTokens The tokens reserved for the request
+   */
+  public void release(long estimatedTokens) {
+    requests.decrementAndGet();
+    tokens.addAndGet(-estimatedTokens);
+  }
+
+  /**
+   * Find out whether a request has been refused for lack of budget
+   *
+   * @return true once the budget ran out
+   */
+  public boolean isExhausted() {
+    return exhausted.get();
+  }
+
+  /**
+   * Get the number of requests made
+   *
+   * @return The number of API requests
+   */
+  public long requests() {
+    return requests.get();
+  }
+
+  /**
+   * Get the number of tokens spent, including reservations of requests still running
+   *
+   * @return The number of tokens
+   */
+  public long tokens() {
+    return tokens.get();
+  }
+
+  /** Thrown instead of sending a request the budget has no room for */
+  public static class BudgetExceededException extends LLMService.LLMProcessingException {
+    public BudgetExceededException(String message) {
+      super(message);
+    }
+  }
+}
@@ -15,6 +15,7 @@ import org.yaml.snakeyaml.Yaml;
 
 import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig;
 import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig.ContentFilterConfig;
+import com.uppdragsradarn.infrastructure.http.StreamingHtml;
 
 /**
  * Service for filtering and optimizing HTML content before sending to LLM. Removes unnecessary
@@ -25,6 +26,12 @@ public class HtmlContentFilterService {
 
   private static final Logger logger = LoggerFactory.getLogger(HtmlContentFilterService.class);
 
+  private final TokenCounter tokenCounter;
+
+  public HtmlContentFilterService(TokenCounter tokenCounter) {
+    this.tokenCounter = tokenCounter;
+  }
+
   /**
    * Filters HTML content according to the provided configuration.
    *
@@ -40,24 +47,19 @@ public class HtmlContentFilterService {
     ContentFilterConfig filterConfig = config.getContentFilter();
     if (filterConfig == null) {
       logger.warn("No content filter config provided, returning raw content");
-      return truncateToTokenLimit(htmlContent, 2000);
+      return truncateToTokenLimit(htmlContent, 2000, modelOf(config));
     }
 
     try {
-      Document doc = Jsoup.parse(htmlContent);
-
-      // Step 1: Remove unwanted tags completely
-      removeUnwantedTags(doc, filterConfig.getRemoveTags());
-
-      // Step 2: Extract main content using selector
-      Element contentElement = extractMainContent(doc, filterConfig.getContentSelector());
-      if (contentElement == null) {
-        logger.warn("No content found with selector: {}", filterConfig.getContentSelector());
-        contentElement = doc.body(); // Fallback to body
-      }
+      // Only parse as far as the main content, the rest of the page is not needed
+      Document doc =
+          filterConfig.getContentSelector() != null
+              ? StreamingHtml.parseUntilFound(
+                  htmlContent, "", List.of(filterConfig.getContentSelector()))
+              : Jsoup.parse(htmlContent);
 
-      // Step 3: Remove excluded elements
-      removeExcludedElements(contentElement, filterConfig.getExcludeSelectors());
+      // Steps 1 to 3: Remove unwanted tags, extract main content and remove excluded elements
+      Element contentElement = mainContent(doc, filterConfig);
 
       // Step 4: Apply readability algorithm if enabled
       if (filterConfig.isUseReadability()) {
@@ -68,7 +70,8 @@ public class HtmlContentFilterService {
       String cleanContent = convertToCleanText(contentElement);
 
       // Step 6: Truncate to token limit
-      cleanContent = truncateToTokenLimit(cleanContent, filterConfig.getMaxTokens());
+      cleanContent =
+          truncateToTokenLimit(cleanContent, filterConfig.getMaxTokens(), modelOf(config));
 
       logger.debug(
           "Filtered content from {} to {} characters", htmlContent.length(), cleanContent.length());
@@ -78,8 +81,33 @@ public class HtmlContentFilterService {
     } catch (Exception e) {
       logger.error("Error filtering HTML content: {}", e.getMessage(), e);
       // Fallback: return truncated raw content
-      return truncateToTokenLimit(stripBasicHtml(htmlContent), filterConfig.getMaxTokens());
+      return truncateToTokenLimit(
+          stripBasicHtml(htmlContent), filterConfig.getMaxTokens(), modelOf(config));
+    }
+  }
+
+  /**
+   * Finds the main content of a page the way it is filtered for the LLM, before readability and
+   * truncation. Unwanted tags are removed from the document itself.
+   *
+   * @param doc The parsed page
+   * @param filterConfig Configuration specifying the content and what to leave out
+   * @return The main content, or the body if the content selector matches nothing
+   */
+  public Element mainContent(Document doc, ContentFilterConfig filterConfig) {
+    // Step 1: Remove unwanted tags completely
+    removeUnwantedTags(doc, filterConfig.getRemoveTags());
+
+    // Step 2: Extract main content using selector
+    Element contentElement = extractMainContent(doc, filterConfig.getContentSelector());
+    if (contentElement == null) {
+      logger.warn("No content found with selector: {}", filterConfig.getContentSelector());
+      contentElement = doc.body(); // Fallback to body
     }
+
+    // Step 3: Remove excluded elements
+    removeExcludedElements(contentElement, filterConfig.getExcludeSelectors());
+    return contentElement;
   }
 
   /** Loads extraction configuration from YAML resource file. */
@@ -109,11 +137,9 @@ public class HtmlContentFilterService {
     }
   }
 
-  /** Estimates token count for the given text (rough approximation). */
+  /** Counts the tokens of the given text with the tokenizer of the default model. */
   public int estimateTokenCount(String text) {
-    if (text == null) return 0;
-    // Rough estimate: 1 token ≈ 4 characters for English/Swedish text
-    return text.length() / 4;
+    return tokenCounter.count(text);
   }
 
   private void removeUnwantedTags(Document doc, List<String> tagsToRemove) {
@@ -220,29 +246,12 @@ public class HtmlContentFilterService {
     return Jsoup.clean(html, Safelist.basic()).replaceAll("\\s+", " ").trim();
   }
 
-  private String truncateToTokenLimit(String text, int maxTokens) {
-    int estimatedTokens = estimateTokenCount(text);
-
-    if (estimatedTokens <= maxTokens) {
-      return text;
-    }
-
-    // Truncate to approximately the right token count
-    int maxChars = maxTokens * 4; // Rough conversion
-
-    if (text.length() <= maxChars) {
-      return text;
-    }
-
-    // Try to truncate at a word boundary
-    String truncated = text.substring(0, maxChars);
-    int lastSpace = truncated.lastIndexOf(' ');
-
-    if (lastSpace > maxChars * 0.8) { // Only use word boundary if it's reasonably close
-      truncated = truncated.substring(0, lastSpace);
-    }
+  private String truncateToTokenLimit(String text, int maxTokens, String model) {
+    return tokenCounter.truncate(text, model, maxTokens);
+  }
 
-    return truncated + "...";
+  private static String modelOf(ExtractionConfig config) {
+    return config.getLlmConfig() != null ? config.getLlmConfig().getModel() : null;
   }
 
   private ExtractionConfig createDefaultConfig(String providerId) {
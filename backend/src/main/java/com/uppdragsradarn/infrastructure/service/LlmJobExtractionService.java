@@ -5,14 +5,27 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import com.uppdragsradarn.application.service.LocationService;
 import com.uppdragsradarn.domain.model.Assignment;
@@ -23,14 +36,32 @@ import com.uppdragsradarn.domain.model.StatusType;
 import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
 import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter.Permit;
+import com.uppdragsradarn.infrastructure.http.BoundedBodyHandlers;
+import com.uppdragsradarn.infrastructure.http.CrawlTrafficMetrics;
+import com.uppdragsradarn.infrastructure.http.FetchedPage;
+import com.uppdragsradarn.infrastructure.http.HttpResponseCache;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
+import com.uppdragsradarn.infrastructure.service.DeterministicFieldExtractor.FieldExtraction;
 import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractedAssignmentData;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractionRequest;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.PendingBatch;
+import com.uppdragsradarn.infrastructure.service.budget.ExtractionBudgets;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Main service for LLM-based job detail extraction. Orchestrates the process of fetching job pages,
- * filtering content, and extracting structured data.
+ * filtering content, and extracting structured data. Batches of pages are extracted in parallel on
+ * a dedicated executor, within a request and token budget per crawl.
+ *
+ * <p>Fields that can be found on the page without the LLM, including the description, are taken
+ * from the page by the {@link DeterministicFieldExtractor}, and the LLM is only asked for the rest.
+ * Pages where every field was found are not sent to the LLM at all.
  */
 @Service
 @Slf4j
@@ -45,6 +76,19 @@ public class LlmJobExtractionService {
   @Value("${app.crawler.timeout:30}")
   private int timeoutSeconds;
 
+  @Value("${app.crawler.http.max-body-size:5MB}")
+  private String maxBodySize = "5MB";
+
+  @Value("${app.openai.max-parallel-extractions:16}")
+  private int maxParallelExtractions = 16;
+
+  @Value("${app.openai.hybrid.enabled:true}")
+  private boolean hybridExtraction = true;
+
+  // Fetching and LLM calls mostly wait, the real limits are the host and LLM concurrency limits
+  private final ExecutorService extractionExecutor =
+      Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("llm-extraction-", 0).factory());
+
   private final OpenAiLlmService llmService;
   private final HtmlContentFilterService contentFilterService;
   private final LocationService locationService;
@@ -52,6 +96,11 @@ public class LlmJobExtractionService {
   private final CurrencyRepository currencyRepository;
   private final StatusTypeRepository statusTypeRepository;
   private final HttpClient httpClient;
+  private final HttpResponseCache responseCache;
+  private final HostRateLimiter rateLimiter;
+  private final CrawlTrafficMetrics trafficMetrics;
+  private final ExtractionBudgets extractionBudgets;
+  private final DeterministicFieldExtractor fieldExtractor;
 
   public LlmJobExtractionService(
       OpenAiLlmService llmService,
@@ -59,23 +108,30 @@ public class LlmJobExtractionService {
       LocationService locationService,
       SkillRepository skillRepository,
       CurrencyRepository currencyRepository,
-      StatusTypeRepository statusTypeRepository) {
+      StatusTypeRepository statusTypeRepository,
+      SharedHttpClients httpClients,
+      HttpResponseCache responseCache,
+      HostRateLimiter rateLimiter,
+      CrawlTrafficMetrics trafficMetrics,
+      ExtractionBudgets extractionBudgets,
+      DeterministicFieldExtractor fieldExtractor) {
     this.llmService = llmService;
     this.contentFilterService = contentFilterService;
     this.locationService = locationService;
     this.skillRepository = skillRepository;
     this.currencyRepository = currencyRepository;
     this.statusTypeRepository = statusTypeRepository;
-    this.httpClient =
-        HttpClient.newBuilder()
-            .connectTimeout(
-                Duration.ofSeconds(Math.max(timeoutSeconds, 5))) // Ensure minimum 5 seconds
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .build();
+    this.httpClient = httpClients.http();
+    this.responseCache = responseCache;
+    this.rateLimiter = rateLimiter;
+    this.trafficMetrics = trafficMetrics;
+    this.extractionBudgets = extractionBudgets;
+    this.fieldExtractor = fieldExtractor;
   }
 
   /**
-   * Extracts detailed assignment information from a job URL using LLM processing.
+   * Extracts detailed assignment information from a job URL using LLM processing. The extraction
+   * counts against the source's daily token budget like a crawl does.
    *
    * @param jobUrl The URL of the job detail page
    * @param source The source this job belongs to
@@ -83,42 +139,326 @@ public class LlmJobExtractionService {
    * @return Assignment with LLM-extracted details, or null if extraction fails
    */
   public Assignment extractAssignmentFromUrl(String jobUrl, Source source, String providerId) {
+    ExtractionBudget budget = extractionBudgets.open(source);
     try {
-      logger.debug("Extracting assignment from URL: {}", jobUrl);
-
-      // Step 1: Load extraction configuration for this provider
+      // Load extraction configuration for this provider
       ExtractionConfig config = contentFilterService.loadExtractionConfig(providerId);
+      PageExtraction extraction = fetchAndExtract(jobUrl, source, config, false, budget);
+      return complete(extraction, source, config, null, budget);
 
-      // Step 2: Fetch the HTML content
-      String htmlContent = fetchJobPageContent(jobUrl);
-      if (htmlContent == null || htmlContent.isEmpty()) {
-        logger.warn("No content fetched from URL: {}", jobUrl);
-        return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.debug("Interrupted while extracting assignment from URL: {}", jobUrl);
+      return null;
+    } catch (Exception e) {
+      logger.error("Failed to extract assignment from URL {}: {}", jobUrl, e.getMessage(), e);
+      return null;
+    } finally {
+      extractionBudgets.record(source, budget);
+    }
+  }
+
+  /**
+   * Extracts the assignments of several job URLs at once and hands them to the sink in the order of
+   * the URLs. Pages are fetched and sent to the LLM on the extraction executor, within the
+   * politeness limits of the source's host and the adaptive concurrency limit of the LLM, while
+   * assignments are built and handed to the sink on the calling thread. Pages unchanged since the
+   * last crawl are offered to the sink under the external ID derived from their URL, and are only
+   * extracted if the sink does not hold the assignment yet. Extraction stops once the crawl's
+   * request or token budget runs out, or the source's daily token budget.
+   *
+   * <p>When batch extraction is enabled and the sink belongs to a scheduled crawl, all pages are
+   * fetched first and submitted together to the OpenAI Batch API instead. Waiting for the batch is
+   * handed to the sink with {@link AssignmentSink#acceptLater}, so a crawl can wait outside the
+   * provider and without holding on to its crawl slot. If the batch cannot be run, the pages are
+   * extracted one by one after all.
+   *
+   * @param jobUrls The URLs of the job detail pages
+   * @param source The source the jobs belong to
+   * @param providerId Provider identifier for configuration lookup
+   * @param sink Sink receiving the assignments and told about unchanged pages
+   * @param maxAssignments Maximum number of assignments to extract
+   * @return The number of assignments handed to the sink, or of pages submitted for a batch
+   * @throws InterruptedException if interrupted while waiting for extractions
+   */
+  public int extractAssignments(
+      List<String> jobUrls,
+      Source source,
+      String providerId,
+      AssignmentSink sink,
+      int maxAssignments)
+      throws InterruptedException {
+    ExtractionConfig config = contentFilterService.loadExtractionConfig(providerId);
+    ExtractionBudget budget = extractionBudgets.open(source);
+    BatchExtraction batch = null;
+    try {
+      if (sink.isScheduled() && llmService.isBatchEnabled()) {
+        try {
+          batch = submitBatch(jobUrls, source, config, sink, maxAssignments, budget);
+        } catch (InterruptedException e) {
+          throw e;
+        } catch (Exception e) {
+          logger.warn(
+              "Batch extraction for {} failed, extracting one by one: {}",
+              source.getName(),
+              e.getMessage());
+        }
+      }
+      if (batch == null) {
+        return extractInOrder(jobUrls, source, config, sink, maxAssignments, budget);
+      }
+    } finally {
+      if (batch == null) {
+        extractionBudgets.record(source, budget);
       }
+    }
+    // The batch records the budget once it has been waited for
+    sink.acceptLater(batch);
+    return batch.size();
+  }
 
-      // Step 3: Filter and optimize content for LLM
-      String filteredContent = contentFilterService.filterContent(htmlContent, config);
+  private int extractInOrder(
+      List<String> jobUrls,
+      Source source,
+      ExtractionConfig config,
+      AssignmentSink sink,
+      int maxAssignments,
+      ExtractionBudget budget)
+      throws InterruptedException {
+    AtomicInteger extracted = new AtomicInteger();
+    processInOrder(
+        jobUrls,
+        jobUrl -> fetchAndExtract(jobUrl, source, config, true, budget),
+        () -> !budget.isExhausted(),
+        (jobUrl, extraction) -> {
+          Assignment assignment = null;
+          try {
+            assignment = complete(extraction, source, config, sink, budget);
+          } catch (InterruptedException e) {
+            throw e;
+          } catch (Exception e) {
+            logger.warn("Failed to extract assignment from {}: {}", jobUrl, e.getMessage());
+          }
+          if (assignment != null) {
+            sink.accept(assignment);
+            logger.debug("Extracted assignment: {} from {}", assignment.getTitle(), jobUrl);
+            return extracted.incrementAndGet() < maxAssignments;
+          }
+          return true;
+        });
+
+    finishExtraction(source, sink, extracted.get(), budget);
+    return extracted.get();
+  }
 
-      // Log token usage for monitoring costs
-      int tokenCount = contentFilterService.estimateTokenCount(filteredContent);
-      logger.debug("Filtered content token count: {} for URL: {}", tokenCount, jobUrl);
+  /**
+   * Fetch the pages first, then submit the ones the sink does not hold yet as one batch of LLM
+   * requests. Only as many pages as assignments are wanted are extracted, and pages where every
+   * field was found without the LLM are not part of the batch.
+   */
+  private BatchExtraction submitBatch(
+      List<String> jobUrls,
+      Source source,
+      ExtractionConfig config,
+      AssignmentSink sink,
+      int maxAssignments,
+      ExtractionBudget budget)
+      throws Exception {
+    List<String> pageUrls = new ArrayList<>();
+    List<FilteredPage> pages = new ArrayList<>();
+    processInOrder(
+        jobUrls,
+        jobUrl -> fetchAndFilter(jobUrl, source, config),
+        () -> true,
+        (jobUrl, filtered) -> {
+          if (filtered == null) {
+            return true;
+          }
+          if (filtered.notModified() && sink.acceptUnchanged(generateExternalId(jobUrl))) {
+            logger.debug("Page not modified since the last crawl, skipping extraction: {}", jobUrl);
+            return true;
+          }
+          pageUrls.add(jobUrl);
+          pages.add(filtered);
+          return pages.size() < maxAssignments;
+        });
+
+    List<ExtractionRequest> requests = new ArrayList<>();
+    for (FilteredPage page : pages) {
+      if (page.needsLlm()) {
+        requests.add(
+            new ExtractionRequest(
+                page.content(),
+                config.getLlmConfig().getModel(),
+                config.getLlmConfig().getCustomInstructions(),
+                page.fields() != null ? page.fields().missing() : null));
+      }
+    }
+    PendingBatch pending =
+        requests.isEmpty() ? null : llmService.submitAssignmentDataBatch(requests, budget);
+    return new BatchExtraction(source, config, maxAssignments, budget, pageUrls, pages, pending);
+  }
 
-      // Step 4: Extract structured data using LLM
-      ExtractedAssignmentData extractedData =
-          llmService.extractAssignmentData(
-              filteredContent,
-              config.getLlmConfig().getModel(),
-              config.getLlmConfig().getCustomInstructions());
+  /**
+   * Pages submitted as one batch of LLM requests. Delivering them waits for the batch, hands the
+   * assignments to the sink and records the budget. If the batch fails, the pages are extracted one
+   * by one after all.
+   */
+  private final class BatchExtraction implements AssignmentSink.Deferred {
+
+    private final Source source;
+    private final ExtractionConfig config;
+    private final int maxAssignments;
+    private final ExtractionBudget budget;
+    private final List<String> pageUrls;
+    private final List<FilteredPage> pages;
+    private final PendingBatch pending;
+
+    private BatchExtraction(
+        Source source,
+        ExtractionConfig config,
+        int maxAssignments,
+        ExtractionBudget budget,
+        List<String> pageUrls,
+        List<FilteredPage> pages,
+        PendingBatch pending) {
+      this.source = source;
+      this.config = config;
+      this.maxAssignments = maxAssignments;
+      this.budget = budget;
+      this.pageUrls = pageUrls;
+      this.pages = pages;
+      this.pending = pending;
+    }
 
-      // Step 5: Create and populate Assignment entity
-      Assignment assignment = createAssignmentFromExtractedData(extractedData, jobUrl, source);
+    private int size() {
+      return pages.size();
+    }
 
-      logger.info("Successfully extracted assignment: {} from {}", assignment.getTitle(), jobUrl);
-      return assignment;
+    @Override
+    public void deliver(AssignmentSink sink) throws InterruptedException {
+      try {
+        List<ExtractedAssignmentData> answers = pending != null ? pending.await() : List.of();
+        finishExtraction(source, sink, accept(answers, sink), budget);
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        logger.warn(
+            "Batch extraction for {} failed, extracting one by one: {}",
+            source.getName(),
+            e.getMessage());
+        extractInOrder(pageUrls, source, config, sink, maxAssignments, budget);
+      } finally {
+        extractionBudgets.record(source, budget);
+      }
+    }
 
-    } catch (Exception e) {
-      logger.error("Failed to extract assignment from URL {}: {}", jobUrl, e.getMessage(), e);
-      return null;
+    private int accept(List<ExtractedAssignmentData> answers, AssignmentSink sink) {
+      int extracted = 0;
+      int answer = 0;
+      for (int i = 0; i < pages.size(); i++) {
+        String jobUrl = pageUrls.get(i);
+        FilteredPage page = pages.get(i);
+        ExtractedAssignmentData data =
+            page.needsLlm() ? answers.get(answer++) : page.fields().data();
+        if (data == null) {
+          logger.warn("No batch extraction for {}", jobUrl);
+          continue;
+        }
+        if (page.needsLlm() && page.fields() != null) {
+          data = page.fields().merge(data);
+        }
+        try {
+          Assignment assignment = createAssignmentFromExtractedData(data, jobUrl, source);
+          sink.accept(assignment);
+          extracted++;
+          logger.debug("Extracted assignment: {} from {}", assignment.getTitle(), jobUrl);
+        } catch (Exception e) {
+          logger.warn("Failed to create assignment from {}: {}", jobUrl, e.getMessage());
+        }
+      }
+      return extracted;
+    }
+  }
+
+  /**
+   * Run a task per URL on the extraction executor, a window of URLs ahead, and hand the results to
+   * the handler in the order of the URLs on the calling thread. Failed tasks are logged and
+   * skipped.
+   *
+   * @param jobUrls The URLs to run the task for
+   * @param task The task, run on the extraction executor
+   * @param mayStart Whether further tasks may be started
+   * @param handler Handler of the results, returns false to stop
+   * @throws InterruptedException if interrupted while waiting for a task
+   */
+  private <T> void processInOrder(
+      List<String> jobUrls, PageTask<T> task, BooleanSupplier mayStart, PageHandler<T> handler)
+      throws InterruptedException {
+    int window = Math.max(maxParallelExtractions, 1);
+    Deque<CompletableFuture<T>> pending = new ArrayDeque<>();
+    int next = 0;
+    try {
+      for (int i = 0; i < jobUrls.size(); i++) {
+        while (next < jobUrls.size() && next < i + window && mayStart.getAsBoolean()) {
+          String jobUrl = jobUrls.get(next++);
+          pending.add(
+              CompletableFuture.supplyAsync(
+                  () -> {
+                    try {
+                      return task.apply(jobUrl);
+                    } catch (Exception e) {
+                      throw new CompletionException(e);
+                    }
+                  },
+                  extractionExecutor));
+        }
+        if (pending.isEmpty()) {
+          return;
+        }
+
+        String jobUrl = jobUrls.get(i);
+        T result;
+        try {
+          result = pending.removeFirst().get();
+        } catch (ExecutionException e) {
+          logger.warn(
+              "Failed to extract assignment from {}: {}", jobUrl, e.getCause().getMessage());
+          continue;
+        }
+        if (!handler.handle(jobUrl, result)) {
+          return;
+        }
+      }
+    } finally {
+      pending.forEach(extraction -> extraction.cancel(true));
+    }
+  }
+
+  /**
+   * Log the outcome of an extraction. When the budget ran out, some pages were not extracted, so
+   * the sink is told the crawl did not find everything the source lists.
+   */
+  private void finishExtraction(
+      Source source, AssignmentSink sink, int extracted, ExtractionBudget budget) {
+    if (budget.isExhausted()) {
+      logger.warn(
+          "LLM budget of {} exhausted after {} requests and {} tokens, {} assignments extracted",
+          source.getName(),
+          budget.requests(),
+          budget.tokens(),
+          extracted);
+      sink.reportIncomplete(
+          String.format(
+              "LLM budget exhausted after %d requests and %d tokens",
+              budget.requests(), budget.tokens()));
+    } else {
+      logger.info(
+          "Extracted {} assignments for {} with {} LLM requests and {} tokens",
+          extracted,
+          source.getName(),
+          budget.requests(),
+          budget.tokens());
     }
   }
 
@@ -127,7 +467,7 @@ public class LlmJobExtractionService {
       String jobUrl, Source source, String providerId) {
 
     return CompletableFuture.supplyAsync(
-        () -> extractAssignmentFromUrl(jobUrl, source, providerId));
+        () -> extractAssignmentFromUrl(jobUrl, source, providerId), extractionExecutor);
   }
 
   /** Processes a batch of job URLs concurrently. */
@@ -148,23 +488,180 @@ public class LlmJobExtractionService {
                     .toList());
   }
 
-  private String fetchJobPageContent(String url) throws Exception {
-    HttpRequest request =
+  @PreDestroy
+  public void shutdown() {
+    extractionExecutor.shutdownNow();
+  }
+
+  /**
+   * Fetch a job page, find the fields that need no LLM and filter its content for the LLM, the part
+   * of a batch extraction that runs off the crawl thread
+   *
+   * @return The filtered content, or null if the page is empty
+   */
+  private FilteredPage fetchAndFilter(String jobUrl, Source source, ExtractionConfig config)
+      throws Exception {
+    FetchedPage page;
+    try (Permit permit = rateLimiter.acquire(source, jobUrl)) {
+      page = fetchJobPage(jobUrl, source);
+    }
+    if (page.body() == null || page.body().isEmpty()) {
+      logger.warn("No content fetched from URL: {}", jobUrl);
+      return null;
+    }
+    FieldExtraction fields = hybridExtraction ? fieldExtractor.extract(page.body(), config) : null;
+    String content =
+        fields == null || !fields.missing().isEmpty()
+            ? contentFilterService.filterContent(page.body(), config)
+            : null;
+    return new FilteredPage(content, page.notModified(), fields);
+  }
+
+  /**
+   * Fetch a job page and extract its data with the LLM, the part of an extraction that may run off
+   * the crawl thread
+   *
+   * @return The extraction, without data if the page is unchanged and may be skipped, or null if
+   *     the page is empty
+   */
+  private PageExtraction fetchAndExtract(
+      String jobUrl,
+      Source source,
+      ExtractionConfig config,
+      boolean skipUnchanged,
+      ExtractionBudget budget)
+      throws Exception {
+    logger.debug("Extracting assignment from URL: {}", jobUrl);
+
+    // Fetch the HTML content, within the politeness limits of the source's host
+    FetchedPage page;
+    try (Permit permit = rateLimiter.acquire(source, jobUrl)) {
+      page = fetchJobPage(jobUrl, source);
+    }
+    String htmlContent = page.body();
+    if (htmlContent == null || htmlContent.isEmpty()) {
+      logger.warn("No content fetched from URL: {}", jobUrl);
+      return null;
+    }
+    if (page.notModified() && skipUnchanged) {
+      // The crawl thread decides whether the sink already holds it
+      return new PageExtraction(jobUrl, page, null);
+    }
+    return new PageExtraction(jobUrl, page, extractData(jobUrl, htmlContent, config, budget));
+  }
+
+  /**
+   * Turn an extraction into an assignment on the crawl thread, extracting unchanged pages the sink
+   * does not hold yet
+   */
+  private Assignment complete(
+      PageExtraction extraction,
+      Source source,
+      ExtractionConfig config,
+      AssignmentSink unchangedSink,
+      ExtractionBudget budget)
+      throws Exception {
+    if (extraction == null) {
+      return null;
+    }
+    ExtractedAssignmentData extractedData = extraction.data();
+    if (extractedData == null) {
+      if (unchangedSink.acceptUnchanged(generateExternalId(extraction.jobUrl()))) {
+        logger.debug(
+            "Page not modified since the last crawl, skipping extraction: {}", extraction.jobUrl());
+        return null;
+      }
+      extractedData = extractData(extraction.jobUrl(), extraction.page().body(), config, budget);
+    }
+
+    // Create and populate Assignment entity
+    Assignment assignment =
+        createAssignmentFromExtractedData(extractedData, extraction.jobUrl(), source);
+
+    logger.info(
+        "Successfully extracted assignment: {} from {}",
+        assignment.getTitle(),
+        extraction.jobUrl());
+    return assignment;
+  }
+
+  private ExtractedAssignmentData extractData(
+      String jobUrl, String htmlContent, ExtractionConfig config, ExtractionBudget budget)
+      throws Exception {
+    FieldExtraction fields = null;
+    if (hybridExtraction) {
+      fields = fieldExtractor.extract(htmlContent, config);
+      if (fields.missing().isEmpty()) {
+        logger.debug("All fields found without the LLM for URL: {}", jobUrl);
+        return fields.data();
+      }
+    }
+
+    // Filter and optimize content for LLM
+    String filteredContent = contentFilterService.filterContent(htmlContent, config);
+
+    // Log token usage for monitoring costs, counting is not free so only when it is logged
+    if (logger.isDebugEnabled()) {
+      int tokenCount = contentFilterService.estimateTokenCount(filteredContent);
+      logger.debug("Filtered content token count: {} for URL: {}", tokenCount, jobUrl);
+    }
+
+    // Extract structured data using LLM
+    if (fields == null) {
+      return llmService.extractAssignmentData(
+          filteredContent,
+          config.getLlmConfig().getModel(),
+          config.getLlmConfig().getCustomInstructions(),
+          true,
+          budget);
+    }
+    ExtractedAssignmentData answer =
+        llmService.extractFields(
+            filteredContent,
+            fields.missing(),
+            config.getLlmConfig().getModel(),
+            config.getLlmConfig().getCustomInstructions(),
+            budget);
+    return fields.merge(answer);
+  }
+
+  private FetchedPage fetchJobPage(String url, Source source) throws Exception {
+    HttpRequest.Builder requestBuilder =
         HttpRequest.newBuilder()
             .uri(URI.create(url))
             .header("User-Agent", userAgent)
             .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+            .header("Accept-Encoding", BoundedBodyHandlers.ACCEPT_ENCODING)
             .timeout(Duration.ofSeconds(timeoutSeconds))
-            .GET()
-            .build();
-
-    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-
+            .GET();
+    Map<String, String> validators = responseCache.validators(url);
+    validators.forEach(requestBuilder::header);
+
+    HttpResponse<String> response =
+        httpClient.send(
+            requestBuilder.build(),
+            BoundedBodyHandlers.ofString(
+                DataSize.parse(maxBodySize).toBytes(), trafficMetrics.forSource(source.getName())));
+
+    if (response.statusCode() == 304 && !validators.isEmpty()) {
+      Optional<String> cached = responseCache.cachedBody(url);
+      if (cached.isPresent()) {
+        return new FetchedPage(cached.get(), true);
+      }
+      // Evicted since the request was sent, fetch the full page
+      responseCache.remove(url);
+      return fetchJobPage(url, source);
+    }
     if (response.statusCode() != 200) {
       throw new RuntimeException("HTTP error: " + response.statusCode() + " for URL: " + url);
     }
 
-    return response.body();
+    responseCache.store(
+        url,
+        response.headers().firstValue("ETag").orElse(null),
+        response.headers().firstValue("Last-Modified").orElse(null),
+        response.body());
+    return new FetchedPage(response.body(), false);
   }
 
   private Assignment createAssignmentFromExtractedData(
@@ -217,6 +714,32 @@ public class LlmJobExtractionService {
     return assignment;
   }
 
+  /** A fetched job page and its extracted data, null when it is unchanged and not extracted */
+  private record PageExtraction(String jobUrl, FetchedPage page, ExtractedAssignmentData data) {}
+
+  /**
+   * Content of a job page filtered for the LLM, null if the fields found on the page are all that
+   * is needed, and those fields, null if every field is left to the LLM
+   */
+  private record FilteredPage(String content, boolean notModified, FieldExtraction fields) {
+
+    boolean needsLlm() {
+      return fields == null || !fields.missing().isEmpty();
+    }
+  }
+
+  /** Work done for one URL on the extraction executor */
+  @FunctionalInterface
+  private interface PageTask<T> {
+    T apply(String jobUrl) throws Exception;
+  }
+
+  /** Handles the result of a URL on the calling thread */
+  @FunctionalInterface
+  private interface PageHandler<T> {
+    boolean handle(String jobUrl, T result) throws InterruptedException;
+  }
+
   private String generateExternalId(String url) {
     // Extract last path segment or use hash of URL
     String[] pathParts = url.split("/");
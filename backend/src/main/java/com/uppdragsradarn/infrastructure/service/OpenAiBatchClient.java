@@ -0,0 +1,274 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Client of the OpenAI Batch API. A batch is written as JSONL, uploaded as a file, submitted as a
+ * batch job and polled until it is done, after which its output file is downloaded. Batches are
+ * answered within the completion window instead of right away, at half the price and outside the
+ * rate limits of synchronous requests.
+ */
+public class OpenAiBatchClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(OpenAiBatchClient.class);
+  private static final Set<String> FINAL_STATUSES =
+      Set.of("completed", "failed", "expired", "cancelled");
+
+  private final HttpClient httpClient;
+  private final ObjectMapper objectMapper;
+  private final String baseUrl;
+  private final String apiKey;
+  private final Duration requestTimeout;
+  private final Duration pollInterval;
+  private final Duration maxWait;
+
+  /**
+   * Create a client
+   *
+   * @param httpClient The client to send requests with
+   * @param objectMapper The mapper to read and write JSON with
+   * @param baseUrl Base URL of the API, such as https://api.openai.com/v1
+   * @param apiKey The API key
+   * @param requestTimeout Timeout of each HTTP request
+   * @param pollInterval Time between two status checks of a batch
+   * @param maxWait Time after which a batch that is not done is cancelled
+   * @throws IllegalArgumentException if a duration is not positive
+   */
+  public OpenAiBatchClient(
+      HttpClient httpClient,
+      ObjectMapper objectMapper,
+      String baseUrl,
+      String apiKey,
+      Duration requestTimeout,
+      Duration pollInterval,
+      Duration maxWait) {
+    requirePositive("Request timeout", requestTimeout);
+    requirePositive("Poll interval", pollInterval);
+    requirePositive("Maximum wait", maxWait);
+    this.httpClient = httpClient;
+    this.objectMapper = objectMapper;
+    this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    this.apiKey = apiKey;
+    this.requestTimeout = requestTimeout;
+    this.pollInterval = pollInterval;
+    this.maxWait = maxWait;
+  }
+
+  /**
+   * Run chat completions as one batch and wait for their answers
+   *
+   * @param requests Bodies of the chat completion requests by their custom ID
+   * @return Bodies of the successful answers by custom ID, requests that failed are missing
+   * @throws IOException if the batch could not be submitted, failed, or was not done in time
+   * @throws InterruptedException if interrupted while waiting, the batch is cancelled
+   */
+  public Map<String, JsonNode> complete(Map<String, Object> requests)
+      throws IOException, InterruptedException {
+    return await(submit(requests));
+  }
+
+  /**
+   * Submit chat completions as one batch without waiting for it
+   *
+   * @param requests Bodies of the chat completion requests by their custom ID
+   * @return ID of the batch, to wait for with {@link #await(String)}
+   * @throws IOException if the batch could not be submitted
+   * @throws InterruptedException if interrupted while submitting
+   */
+  public String submit(Map<String, Object> requests) throws IOException, InterruptedException {
+    String inputFileId = upload(toJsonl(requests));
+
+    ObjectNode create = objectMapper.createObjectNode();
+    create.put("input_file_id", inputFileId);
+    create.put("endpoint", "/v1/chat/completions");
+    create.put("completion_window", "24h");
+    String batchId = post("/batches", create).path("id").asText();
+    logger.info("Submitted OpenAI batch {} with {} requests", batchId, requests.size());
+    return batchId;
+  }
+
+  /**
+   * Wait for a submitted batch and download its answers
+   *
+   * @param batchId ID of the batch, as returned by {@link #submit(Map)}
+   * @return Bodies of the successful answers by custom ID, requests that failed are missing
+   * @throws IOException if the batch failed or was not done in time
+   * @throws InterruptedException if interrupted while waiting, the batch is cancelled
+   */
+  public Map<String, JsonNode> await(String batchId) throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + maxWait.toNanos();
+    JsonNode batch;
+    try {
+      batch = get("/batches/" + batchId);
+      while (!FINAL_STATUSES.contains(batch.path("status").asText())) {
+        if (System.nanoTime() - deadline > 0) {
+          cancel(batchId);
+          throw new IOException("OpenAI batch " + batchId + " not done after " + maxWait);
+        }
+        Thread.sleep(pollInterval);
+        batch = get("/batches/" + batchId);
+        logger.debug(
+            "OpenAI batch {} is {}, {} of {} requests done",
+            batchId,
+            batch.path("status").asText(),
+            batch.path("request_counts").path("completed").asInt(),
+            batch.path("request_counts").path("total").asInt());
+      }
+    } catch (InterruptedException e) {
+      // The crawl was cancelled, nobody is going to collect the answers
+      cancelQuietly(batchId);
+      throw e;
+    }
+
+    String status = batch.path("status").asText();
+    String outputFileId = batch.path("output_file_id").asText(null);
+    // An expired or cancelled batch still returns the requests it got done
+    if ("failed".equals(status) || outputFileId == null) {
+      throw new IOException(
+          "OpenAI batch " + batchId + " " + status + " without output: " + batch.path("errors"));
+    }
+
+    Map<String, JsonNode> answers = parseOutput(download(outputFileId));
+    logger.info(
+        "OpenAI batch {} {} with {} of {} requests answered",
+        batchId,
+        status,
+        answers.size(),
+        batch.path("request_counts").path("total").asInt());
+    return answers;
+  }
+
+  private static void requirePositive(String name, Duration duration) {
+    if (duration == null || duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException(name + " must be positive, was " + duration);
+    }
+  }
+
+  private String toJsonl(Map<String, Object> requests) throws IOException {
+    StringBuilder jsonl = new StringBuilder();
+    for (Map.Entry<String, Object> request : requests.entrySet()) {
+      ObjectNode line = objectMapper.createObjectNode();
+      line.put("custom_id", request.getKey());
+      line.put("method", "POST");
+      line.put("url", "/v1/chat/completions");
+      line.set("body", objectMapper.valueToTree(request.getValue()));
+      jsonl.append(objectMapper.writeValueAsString(line)).append('\n');
+    }
+    return jsonl.toString();
+  }
+
+  private Map<String, JsonNode> parseOutput(String jsonl) throws IOException {
+    Map<String, JsonNode> answers = new HashMap<>();
+    for (String line : jsonl.split("\n")) {
+      if (line.isBlank()) {
+        continue;
+      }
+      JsonNode result = objectMapper.readTree(line);
+      JsonNode response = result.path("response");
+      if (response.path("status_code").asInt() == 200) {
+        answers.put(result.path("custom_id").asText(), response.path("body"));
+      } else {
+        logger.warn(
+            "OpenAI batch request {} failed: {}",
+            result.path("custom_id").asText(),
+            result.hasNonNull("error") ? result.get("error") : response.path("body"));
+      }
+    }
+    return answers;
+  }
+
+  /** Upload JSONL as a file for batch processing and return its ID */
+  private String upload(String jsonl) throws IOException, InterruptedException {
+    String boundary = "----batch" + UUID.randomUUID().toString().replace("-", "");
+    String body =
+        "--"
+            + boundary
+            + "\r\nContent-Disposition: form-data; name=\"purpose\"\r\n\r\nbatch\r\n"
+            + "--"
+            + boundary
+            + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"batch.jsonl\"\r\n"
+            + "Content-Type: application/jsonl\r\n\r\n"
+            + jsonl
+            + "\r\n--"
+            + boundary
+            + "--\r\n";
+    HttpRequest request =
+        request("/files")
+            .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+            .build();
+    return send(request).path("id").asText();
+  }
+
+  private String download(String fileId) throws IOException, InterruptedException {
+    HttpRequest request = request("/files/" + fileId + "/content").GET().build();
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IOException("OpenAI API error: " + response.statusCode() + " - " + response.body());
+    }
+    return response.body();
+  }
+
+  private void cancel(String batchId) throws IOException, InterruptedException {
+    post("/batches/" + batchId + "/cancel", objectMapper.createObjectNode());
+    logger.info("Cancelled OpenAI batch {}", batchId);
+  }
+
+  /** Cancel a batch while interrupted, clearing the interrupt for the duration of the call */
+  private void cancelQuietly(String batchId) {
+    boolean interrupted = Thread.interrupted();
+    try {
+      cancel(batchId);
+    } catch (Exception e) {
+      logger.warn("Could not cancel OpenAI batch {}: {}", batchId, e.getMessage());
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private JsonNode get(String path) throws IOException, InterruptedException {
+    return send(request(path).GET().build());
+  }
+
+  private JsonNode post(String path, JsonNode body) throws IOException, InterruptedException {
+    return send(
+        request(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build());
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder()
+        .uri(URI.create(baseUrl + path))
+        .header("Authorization", "Bearer " + apiKey)
+        .timeout(requestTimeout);
+  }
+
+  private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IOException("OpenAI API error: " + response.statusCode() + " - " + response.body());
+    }
+    return objectMapper.readTree(response.body());
+  }
+}
@@ -4,31 +4,88 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
+import com.uppdragsradarn.infrastructure.service.cache.ExtractionCache;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Data;
 
 /**
  * Service for integrating with OpenAI's GPT-4o-mini model for job detail extraction. Provides async
  * and sync methods for processing HTML content into structured assignment data.
+ *
+ * <p>Extractions are cached under a hash of the content, model, system prompt and instructions, so
+ * unchanged pages are answered without calling the API. Concurrent requests for the same key share
+ * a single API call. Calls to the API go through an {@link AdaptiveConcurrencyLimiter}, which backs
+ * off when OpenAI answers 429 or slows down, and rate limited calls are retried after the delay
+ * OpenAI asks for.
+ *
+ * <p>Scheduled crawls may instead extract their pages together through the OpenAI Batch API, see
+ * {@link #submitAssignmentDataBatch(List, ExtractionBudget)}, which is cheaper and not subject to
+ * the rate limits of synchronous requests.
+ *
+ * <p>Pages where most fields were found without the LLM ask for the rest only, see {@link
+ * #extractFields(String, Set, String, String, ExtractionBudget)}.
  */
 @Service
 public class OpenAiLlmService {
 
   private static final Logger logger = LoggerFactory.getLogger(OpenAiLlmService.class);
-  private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+  private static final int MAX_COMPLETION_TOKENS = 800;
+  // Without the description an answer is a few short values and the skills
+  private static final int MAX_FIELD_COMPLETION_TOKENS = 400;
+  // Chat formatting adds tokens around each message's role and content, and before the answer
+  private static final int TOKENS_PER_MESSAGE = 4;
+  private static final int TOKENS_PER_REPLY = 3;
+
+  // Fields that can be asked for on their own with an example value, in the order of the full
+  // schema so the same fields always make the same prompt
+  private static final List<Map.Entry<String, String>> FIELD_EXAMPLES =
+      List.of(
+          Map.entry("title", "\"Job title\""),
+          Map.entry("companyName", "\"Company name\""),
+          Map.entry("location", "\"Location (city, country)\""),
+          Map.entry("hourlyRateMin", "750"),
+          Map.entry("hourlyRateMax", "950"),
+          Map.entry("currency", "\"SEK\""),
+          Map.entry("durationMonths", "6"),
+          Map.entry("hoursPerWeek", "40"),
+          Map.entry("startDate", "\"2024-02-01\""),
+          Map.entry("applicationDeadline", "\"2024-01-15\""),
+          Map.entry("skills", "[\"Java\", \"Spring Boot\", \"React\"]"),
+          Map.entry("workArrangement", "\"Remote/Hybrid/On-site\""),
+          Map.entry("requirementLevel", "\"Senior/Mid/Junior\""));
 
   @Value("${app.openai.api-key:}")
   private String apiKey;
@@ -39,11 +96,67 @@ public class OpenAiLlmService {
   @Value("${app.openai.timeout-seconds:30}")
   private int timeoutSeconds;
 
+  @Value("${app.openai.base-url:https://api.openai.com/v1}")
+  private String baseUrl = "https://api.openai.com/v1";
+
+  @Value("${app.openai.cache.enabled:true}")
+  private boolean cacheEnabled = true;
+
+  @Value("${app.openai.batch.enabled:false}")
+  private boolean batchEnabled;
+
+  @Value("${app.openai.batch.poll-interval:30s}")
+  private String batchPollInterval = "30s";
+
+  // Batches not done by then are cancelled, OpenAI completes them within 24 hours
+  @Value("${app.openai.batch.max-wait:24h}")
+  private String batchMaxWait = "24h";
+
   private final ObjectMapper objectMapper = new ObjectMapper();
   private final HttpClient httpClient;
-
-  public OpenAiLlmService() {
-    this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+  private final ExtractionCache extractionCache;
+  private final TokenCounter tokenCounter;
+  private final MeterRegistry meterRegistry;
+  private final Counter cacheHits;
+  private final Counter cacheMisses;
+  private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private final int maxRateLimitRetries;
+
+  // Extractions being requested from the API, joined by concurrent requests for the same key
+  private final ConcurrentHashMap<String, CompletableFuture<ExtractedAssignmentData>> inFlight =
+      new ConcurrentHashMap<>();
+
+  public OpenAiLlmService(
+      SharedHttpClients httpClients,
+      ExtractionCache extractionCache,
+      TokenCounter tokenCounter,
+      MeterRegistry meterRegistry,
+      @Value("${app.openai.concurrency.initial:4}") int initialConcurrency,
+      @Value("${app.openai.concurrency.min:1}") int minConcurrency,
+      @Value("${app.openai.concurrency.max:16}") int maxConcurrency,
+      @Value("${app.openai.concurrency.latency-tolerance:3.0}") double latencyTolerance,
+      @Value("${app.openai.rate-limit-retries:3}") int maxRateLimitRetries) {
+    this.httpClient = httpClients.http();
+    this.extractionCache = extractionCache;
+    this.tokenCounter = tokenCounter;
+    this.meterRegistry = meterRegistry;
+    this.concurrencyLimiter =
+        new AdaptiveConcurrencyLimiter(
+            initialConcurrency, minConcurrency, maxConcurrency, latencyTolerance);
+    this.maxRateLimitRetries = Math.max(maxRateLimitRetries, 0);
+    Gauge.builder("llm.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::limit)
+        .description("Concurrent OpenAI requests currently allowed")
+        .register(meterRegistry);
+    this.cacheHits =
+        Counter.builder("llm.extraction.cache")
+            .description("LLM extractions answered from the cache or requested from the API")
+            .tag("result", "hit")
+            .register(meterRegistry);
+    this.cacheMisses =
+        Counter.builder("llm.extraction.cache")
+            .description("LLM extractions answered from the cache or requested from the API")
+            .tag("result", "miss")
+            .register(meterRegistry);
   }
 
   /**
@@ -54,59 +167,386 @@ public class OpenAiLlmService {
    * @param customInstructions Additional provider-specific instructions
    * @return ExtractedAssignmentData containing structured job information
    */
-  public CompletableFuture<ExtractedAssignmentData> extractAssignmentDataAsync(
-      String htmlContent, String model, String customInstructions) {
-
-    return CompletableFuture.supplyAsync(
-        () -> {
-          try {
-            return extractAssignmentData(htmlContent, model, customInstructions);
-          } catch (Exception e) {
-            logger.error("Error in async LLM extraction: {}", e.getMessage(), e);
-            return new ExtractedAssignmentData(); // Return empty data on error
-          }
-        });
+  public ExtractedAssignmentData extractAssignmentData(
+      String htmlContent, String model, String customInstructions) throws Exception {
+    return extractAssignmentData(
+        htmlContent, model, customInstructions, true, ExtractionBudget.unlimited());
   }
 
-  /** Synchronous version of extractAssignmentDataAsync. */
+  /**
+   * Extracts structured assignment data, optionally bypassing the extraction cache.
+   *
+   * @param htmlContent The filtered HTML content to process
+   * @param model The OpenAI model to use, null for the default model
+   * @param customInstructions Additional provider-specific instructions
+   * @param cacheResult Whether the result may come from and be stored in the cache, like {@link
+   *     LLMService.LLMOptions#isCacheResult()}
+   * @param budget Budget of the crawl, charged for API requests but not for cached answers
+   * @return ExtractedAssignmentData containing structured job information
+   * @throws ExtractionBudget.BudgetExceededException if the budget has no room for the request
+   */
   public ExtractedAssignmentData extractAssignmentData(
-      String htmlContent, String model, String customInstructions) throws Exception {
+      String htmlContent,
+      String model,
+      String customInstructions,
+      boolean cacheResult,
+      ExtractionBudget budget)
+      throws Exception {
+    return extract(htmlContent, schemaFor(null), model, customInstructions, cacheResult, budget);
+  }
+
+  /**
+   * Extracts only some fields of an assignment, for pages where the others were found without the
+   * LLM. The model gets a schema of just these fields and is never asked for the description, which
+   * keeps both the prompt and the answer short.
+   *
+   * @param content The filtered content of the page
+   * @param fields Names of the fields to extract, as in {@link ExtractedAssignmentData}
+   * @param model The OpenAI model to use, null for the default model
+   * @param customInstructions Additional provider-specific instructions
+   * @param budget Budget of the crawl, charged for API requests but not for cached answers
+   * @return The extracted data, only the asked fields are meant to be used
+   * @throws IllegalArgumentException if a field cannot be asked for on its own
+   * @throws ExtractionBudget.BudgetExceededException if the budget has no room for the request
+   */
+  public ExtractedAssignmentData extractFields(
+      String content,
+      Set<String> fields,
+      String model,
+      String customInstructions,
+      ExtractionBudget budget)
+      throws Exception {
+    return extract(content, schemaFor(fields), model, customInstructions, true, budget);
+  }
+
+  private ExtractedAssignmentData extract(
+      String htmlContent,
+      ExtractionSchema schema,
+      String model,
+      String customInstructions,
+      boolean cacheResult,
+      ExtractionBudget budget)
+      throws Exception {
 
     if (apiKey == null || apiKey.isEmpty()) {
       throw new IllegalStateException("OpenAI API key not configured");
     }
 
-    String effectiveModel = model != null ? model : defaultModel;
-    String prompt = buildExtractionPrompt(htmlContent, customInstructions);
+    String effectiveModel = effectiveModel(model);
+    if (!cacheEnabled || !cacheResult) {
+      return requestExtraction(htmlContent, effectiveModel, customInstructions, schema, budget)
+          .data();
+    }
 
-    OpenAiRequest request = new OpenAiRequest();
-    request.setModel(effectiveModel);
-    request.setTemperature(0.1);
-    request.setMaxTokens(800);
-    request.getMessages().add(new OpenAiMessage("system", getSystemPrompt()));
-    request.getMessages().add(new OpenAiMessage("user", prompt));
+    String key = cacheKey(htmlContent, effectiveModel, customInstructions, schema);
+    Optional<ExtractedAssignmentData> cached = readCache(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
 
-    String requestBody = objectMapper.writeValueAsString(request);
+    CompletableFuture<ExtractedAssignmentData> extraction = new CompletableFuture<>();
+    CompletableFuture<ExtractedAssignmentData> running = inFlight.putIfAbsent(key, extraction);
+    if (running != null) {
+      logger.debug("Joining running extraction {}", key);
+      cacheHits.increment();
+      return await(running);
+    }
+    try {
+      // Stored by a request that finished after the lookup above
+      cached = readCache(key);
+      if (cached.isPresent()) {
+        extraction.complete(cached.get());
+        return cached.get();
+      }
+      cacheMisses.increment();
+      Extraction result =
+          requestExtraction(htmlContent, effectiveModel, customInstructions, schema, budget);
+      if (result.complete()) {
+        writeCache(key, result.data());
+      }
+      extraction.complete(result.data());
+      return result.data();
+    } catch (Exception e) {
+      extraction.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, extraction);
+    }
+  }
+
+  /**
+   * Extracts structured assignment data of several pages through the OpenAI Batch API and waits for
+   * the answers, which can take up to the batch completion window.
+   *
+   * @param requests The pages to extract
+   * @param budget Budget of the crawl, charged for submitted requests
+   * @return The extracted data in the order of the requests, null where the extraction failed or
+   *     did not fit the budget
+   * @throws java.io.IOException if the batch could not be run
+   * @throws InterruptedException if interrupted while waiting for the batch, which is cancelled
+   * @see #submitAssignmentDataBatch(List, ExtractionBudget)
+   */
+  public List<ExtractedAssignmentData> extractAssignmentDataBatch(
+      List<ExtractionRequest> requests, ExtractionBudget budget) throws Exception {
+    return submitAssignmentDataBatch(requests, budget).await();
+  }
+
+  /**
+   * Submits the extraction of several pages to the OpenAI Batch API without waiting for it, so the
+   * caller can wait elsewhere, for instance outside a transaction. Cached extractions are answered
+   * right away, the others are submitted as one batch. Requests the budget has no room for are not
+   * submitted.
+   *
+   * @param requests The pages to extract
+   * @param budget Budget of the crawl, charged for submitted requests
+   * @return The submitted batch
+   * @throws java.io.IOException if the batch could not be submitted
+   * @throws InterruptedException if interrupted while submitting
+   */
+  public PendingBatch submitAssignmentDataBatch(
+      List<ExtractionRequest> requests, ExtractionBudget budget) throws Exception {
+
+    if (apiKey == null || apiKey.isEmpty()) {
+      throw new IllegalStateException("OpenAI API key not configured");
+    }
+
+    PendingBatch pending = new PendingBatch(requests.size(), budget);
+    Map<String, Object> batch = new LinkedHashMap<>();
+    for (int i = 0; i < requests.size(); i++) {
+      ExtractionRequest request = requests.get(i);
+      String effectiveModel = effectiveModel(request.model());
+      pending.models[i] = effectiveModel;
+      pending.schemas[i] = schemaFor(request.fields());
+      if (cacheEnabled) {
+        pending.keys[i] =
+            cacheKey(
+                request.content(),
+                effectiveModel,
+                request.customInstructions(),
+                pending.schemas[i]);
+        Optional<ExtractedAssignmentData> cached = readCache(pending.keys[i]);
+        if (cached.isPresent()) {
+          pending.results[i] = cached.get();
+          continue;
+        }
+        cacheMisses.increment();
+      }
+
+      String prompt = buildExtractionPrompt(request.content(), request.customInstructions());
+      pending.reservedTokens[i] =
+          promptTokens(pending.schemas[i], prompt, effectiveModel)
+              + pending.schemas[i].maxCompletionTokens();
+      try {
+        budget.reserve(pending.reservedTokens[i]);
+      } catch (ExtractionBudget.BudgetExceededException e) {
+        logger.warn(
+            "{}, submitting {} of {} extractions", e.getMessage(), batch.size(), requests.size());
+        break;
+      }
+      batch.put(String.valueOf(i), chatRequest(effectiveModel, pending.schemas[i], prompt));
+    }
+    if (batch.isEmpty()) {
+      return pending;
+    }
+
+    pending.client =
+        new OpenAiBatchClient(
+            httpClient,
+            objectMapper,
+            baseUrl,
+            apiKey,
+            Duration.ofSeconds(timeoutSeconds),
+            DurationStyle.detectAndParse(batchPollInterval),
+            DurationStyle.detectAndParse(batchMaxWait));
+    pending.submitted = batch.keySet();
+    try {
+      pending.batchId = pending.client.submit(batch);
+    } catch (Exception e) {
+      pending.releaseAll();
+      throw e;
+    }
+    return pending;
+  }
+
+  /**
+   * Extractions submitted to the OpenAI Batch API. The crawl's budget holds a reservation for each
+   * submitted request until the batch has been waited for.
+   */
+  public final class PendingBatch {
+
+    private final ExtractedAssignmentData[] results;
+    private final String[] keys;
+    private final String[] models;
+    private final ExtractionSchema[] schemas;
+    private final long[] reservedTokens;
+    private final ExtractionBudget budget;
+    private Set<String> submitted = Set.of();
+    private OpenAiBatchClient client;
+    private String batchId;
+
+    private PendingBatch(int size, ExtractionBudget budget) {
+      this.results = new ExtractedAssignmentData[size];
+      this.keys = new String[size];
+      this.models = new String[size];
+      this.schemas = new ExtractionSchema[size];
+      this.reservedTokens = new long[size];
+      this.budget = budget;
+    }
+
+    /**
+     * Wait for the batch, which can take up to the batch completion window, and charge the budget
+     * for what was answered
+     *
+     * @return The extracted data in the order of the requests, null where the extraction failed or
+     *     did not fit the budget
+     * @throws java.io.IOException if the batch failed or was not done in time
+     * @throws InterruptedException if interrupted while waiting, the batch is cancelled
+     */
+    public List<ExtractedAssignmentData> await() throws Exception {
+      if (batchId == null) {
+        return Arrays.asList(results);
+      }
+
+      Map<String, JsonNode> answers;
+      try {
+        answers = client.await(batchId);
+      } catch (Exception e) {
+        releaseAll();
+        throw e;
+      }
+
+      for (String id : submitted) {
+        int i = Integer.parseInt(id);
+        JsonNode answer = answers.get(id);
+        if (answer == null) {
+          budget.release(reservedTokens[i]);
+          continue;
+        }
+        OpenAiResponse response = objectMapper.treeToValue(answer, OpenAiResponse.class);
+        long promptTokens = reservedTokens[i] - schemas[i].maxCompletionTokens();
+        budget.settle(
+            reservedTokens[i], recordUsage(response, models[i], schemas[i], promptTokens));
+        try {
+          Extraction extraction = parseExtraction(response);
+          if (extraction.complete() && keys[i] != null) {
+            writeCache(keys[i], extraction.data());
+          }
+          results[i] = extraction.data();
+        } catch (RuntimeException e) {
+          logger.warn("Unusable answer to batch extraction {}: {}", id, e.getMessage());
+        }
+      }
+      return Arrays.asList(results);
+    }
+
+    /** Nothing was answered, so nothing is billed */
+    private void releaseAll() {
+      submitted.forEach(id -> budget.release(reservedTokens[Integer.parseInt(id)]));
+    }
+  }
+
+  /**
+   * Whether scheduled crawls extract through the Batch API
+   *
+   * @return true if batch extraction is enabled
+   */
+  public boolean isBatchEnabled() {
+    return batchEnabled;
+  }
+
+  /** Calls the API, the result is only complete when the answer was valid JSON */
+  private Extraction requestExtraction(
+      String htmlContent,
+      String effectiveModel,
+      String customInstructions,
+      ExtractionSchema schema,
+      ExtractionBudget budget)
+      throws Exception {
+    String prompt = buildExtractionPrompt(htmlContent, customInstructions);
+    String requestBody =
+        objectMapper.writeValueAsString(chatRequest(effectiveModel, schema, prompt));
 
     HttpRequest httpRequest =
         HttpRequest.newBuilder()
-            .uri(URI.create(OPENAI_API_URL))
+            .uri(URI.create(baseUrl + "/chat/completions"))
             .header("Content-Type", "application/json")
             .header("Authorization", "Bearer " + apiKey)
             .timeout(Duration.ofSeconds(timeoutSeconds))
             .POST(HttpRequest.BodyPublishers.ofString(requestBody))
             .build();
 
-    HttpResponse<String> response =
-        httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+    long promptTokens = promptTokens(schema, prompt, effectiveModel);
+    long reservedTokens = promptTokens + schema.maxCompletionTokens();
+    budget.reserve(reservedTokens);
+    long usedTokens = 0;
+    try {
+      HttpResponse<String> response = send(httpRequest);
+
+      if (response.statusCode() != 200) {
+        throw new RuntimeException(
+            "OpenAI API error: " + response.statusCode() + " - " + response.body());
+      }
 
-    if (response.statusCode() != 200) {
-      throw new RuntimeException(
-          "OpenAI API error: " + response.statusCode() + " - " + response.body());
+      OpenAiResponse openAiResponse = objectMapper.readValue(response.body(), OpenAiResponse.class);
+      usedTokens = recordUsage(openAiResponse, effectiveModel, schema, promptTokens);
+      return parseExtraction(openAiResponse);
+    } finally {
+      budget.settle(reservedTokens, usedTokens);
     }
+  }
 
-    OpenAiResponse openAiResponse = objectMapper.readValue(response.body(), OpenAiResponse.class);
+  /** Exact prompt tokens of a request, reserved with the completion cap before it is sent */
+  private long promptTokens(ExtractionSchema schema, String prompt, String effectiveModel) {
+    return tokenCounter.count(schema.systemPrompt(), effectiveModel)
+        + tokenCounter.count(prompt, effectiveModel)
+        + 2L * TOKENS_PER_MESSAGE
+        + TOKENS_PER_REPLY;
+  }
 
+  /**
+   * Record the tokens OpenAI reports for an extraction
+   *
+   * @return The total tokens of the request, the counted prompt tokens plus the completion cap if
+   *     OpenAI did not report them
+   */
+  private long recordUsage(
+      OpenAiResponse response, String effectiveModel, ExtractionSchema schema, long promptTokens) {
+    OpenAiResponse.Usage usage = response.getUsage();
+    if (usage == null) {
+      return promptTokens + schema.maxCompletionTokens();
+    }
+    DistributionSummary.builder("llm.extraction.prompt.tokens")
+        .description("Prompt tokens of LLM extractions as reported by OpenAI")
+        .baseUnit("tokens")
+        .tag("model", effectiveModel)
+        .register(meterRegistry)
+        .record(usage.getPromptTokens());
+    DistributionSummary.builder("llm.extraction.completion.tokens")
+        .description("Completion tokens of LLM extractions as reported by OpenAI")
+        .baseUnit("tokens")
+        .tag("model", effectiveModel)
+        .register(meterRegistry)
+        .record(usage.getCompletionTokens());
+    logger.debug(
+        "Extraction used {} prompt tokens ({} counted) and {} completion tokens",
+        usage.getPromptTokens(),
+        promptTokens,
+        usage.getCompletionTokens());
+    return usage.getTotalTokens();
+  }
+
+  private OpenAiRequest chatRequest(String effectiveModel, ExtractionSchema schema, String prompt) {
+    OpenAiRequest request = new OpenAiRequest();
+    request.setModel(effectiveModel);
+    request.setTemperature(0.1);
+    request.setMaxTokens(schema.maxCompletionTokens());
+    request.getMessages().add(new OpenAiMessage("system", schema.systemPrompt()));
+    request.getMessages().add(new OpenAiMessage("user", prompt));
+    return request;
+  }
+
+  /** Parse the answer of a chat completion, complete only when the answer was valid JSON */
+  private Extraction parseExtraction(OpenAiResponse openAiResponse) {
     if (openAiResponse.getChoices() == null || openAiResponse.getChoices().isEmpty()) {
       throw new RuntimeException("No response from OpenAI API");
     }
@@ -115,21 +555,167 @@ public class OpenAiLlmService {
 
     // Parse the JSON response into our data structure
     try {
-      return objectMapper.readValue(content, ExtractedAssignmentData.class);
+      return new Extraction(objectMapper.readValue(content, ExtractedAssignmentData.class), true);
     } catch (JsonProcessingException e) {
       logger.warn("Failed to parse LLM JSON response, returning partial data: {}", e.getMessage());
       // Return basic data if JSON parsing fails
       ExtractedAssignmentData fallback = new ExtractedAssignmentData();
       fallback.setDescription(content); // At least return the raw content
-      return fallback;
+      return new Extraction(fallback, false);
+    }
+  }
+
+  /** Send a request within the concurrency limit, retrying when rate limited */
+  private HttpResponse<String> send(HttpRequest httpRequest) throws Exception {
+    for (int attempt = 0; ; attempt++) {
+      HttpResponse<String> response;
+      try (AdaptiveConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire()) {
+        response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 429) {
+          permit.rateLimited();
+        } else if (response.statusCode() == 200) {
+          permit.success();
+        }
+      }
+      if (response.statusCode() != 429 || attempt >= maxRateLimitRetries) {
+        return response;
+      }
+      Duration delay = retryAfter(response, attempt);
+      logger.info(
+          "Rate limited by OpenAI, retrying in {} ms (limit now {})",
+          delay.toMillis(),
+          concurrencyLimiter.limit());
+      Thread.sleep(delay);
+    }
+  }
+
+  /** The delay OpenAI asks for, or an exponential backoff if it does not say */
+  private static Duration retryAfter(HttpResponse<?> response, int attempt) {
+    Optional<String> header = response.headers().firstValue("Retry-After");
+    if (header.isPresent()) {
+      try {
+        return Duration.ofMillis((long) (Double.parseDouble(header.get()) * 1000));
+      } catch (NumberFormatException e) {
+        // An HTTP date, fall back to the backoff
+      }
+    }
+    return Duration.ofSeconds(1L << Math.min(attempt, 5));
+  }
+
+  private Optional<ExtractedAssignmentData> readCache(String key) {
+    try {
+      Optional<String> json = extractionCache.get(key);
+      if (json.isPresent()) {
+        cacheHits.increment();
+        logger.debug("Extraction {} answered from the cache", key);
+        return Optional.of(objectMapper.readValue(json.get(), ExtractedAssignmentData.class));
+      }
+    } catch (Exception e) {
+      // A broken cache only costs an API call
+      logger.warn("Could not read cached extraction {}: {}", key, e.getMessage());
+    }
+    return Optional.empty();
+  }
+
+  private void writeCache(String key, ExtractedAssignmentData data) {
+    try {
+      extractionCache.put(key, objectMapper.writeValueAsString(data));
+    } catch (Exception e) {
+      logger.warn("Could not cache extraction {}: {}", key, e.getMessage());
+    }
+  }
+
+  private static <T> T await(CompletableFuture<T> running) throws Exception {
+    try {
+      return running.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw e;
     }
   }
 
-  /** Estimates the token count for the given text (rough approximation). */
-  public int estimateTokenCount(String text) {
-    if (text == null) return 0;
-    // Rough estimate: 1 token ≈ 4 characters for English text
-    return text.length() / 4;
+  /** The model to extract with, the configured default unless one is given */
+  private String effectiveModel(String model) {
+    String effectiveModel = model != null && !model.isBlank() ? model : defaultModel;
+    if (effectiveModel == null || effectiveModel.isBlank()) {
+      throw new IllegalStateException("OpenAI model not configured");
+    }
+    return effectiveModel;
+  }
+
+  /**
+   * Hash everything that decides the answer of the model, so any change to the content, the model,
+   * the system prompt or the instructions is a different key
+   */
+  private String cacheKey(
+      String htmlContent,
+      String effectiveModel,
+      String customInstructions,
+      ExtractionSchema schema) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String part :
+          new String[] {
+            effectiveModel,
+            schema.systemPrompt(),
+            customInstructions != null ? customInstructions : "",
+            htmlContent
+          }) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private record Extraction(ExtractedAssignmentData data, boolean complete) {}
+
+  /** What the model is asked to extract and how long its answer may be */
+  private record ExtractionSchema(String systemPrompt, int maxCompletionTokens) {}
+
+  /**
+   * A page to extract in a batch
+   *
+   * @param content The filtered HTML content to process
+   * @param model The OpenAI model to use, null for the default model
+   * @param customInstructions Additional provider-specific instructions
+   * @param fields Names of the fields to extract as in {@link #extractFields(String, Set, String,
+   *     String, ExtractionBudget)}, null for all fields
+   */
+  public record ExtractionRequest(
+      String content, String model, String customInstructions, Set<String> fields) {
+
+    public ExtractionRequest(String content, String model, String customInstructions) {
+      this(content, model, customInstructions, null);
+    }
+  }
+
+  /** The schema of all fields, or of just the given fields without the description */
+  private ExtractionSchema schemaFor(Set<String> fields) {
+    if (fields == null) {
+      return new ExtractionSchema(getSystemPrompt(), MAX_COMPLETION_TOKENS);
+    }
+    if (fields.isEmpty()) {
+      throw new IllegalArgumentException("No fields to extract");
+    }
+    for (String field : fields) {
+      if (FIELD_EXAMPLES.stream().noneMatch(example -> example.getKey().equals(field))) {
+        throw new IllegalArgumentException("Field cannot be extracted on its own: " + field);
+      }
+    }
+
+    StringJoiner structure = new StringJoiner(",\n", "{\n", "\n}");
+    for (Map.Entry<String, String> example : FIELD_EXAMPLES) {
+      if (fields.contains(example.getKey())) {
+        structure.add("  \"" + example.getKey() + "\": " + example.getValue());
+      }
+    }
+    return new ExtractionSchema(
+        getFieldSystemPrompt(structure.toString()), MAX_FIELD_COMPLETION_TOKENS);
   }
 
   private String getSystemPrompt() {
@@ -169,6 +755,26 @@ public class OpenAiLlmService {
             """;
   }
 
+  private String getFieldSystemPrompt(String structure) {
+    return """
+            You are an expert at extracting structured job assignment information from HTML content.
+
+            Your task is to analyze the provided content and extract only the job assignment details listed below into a JSON format.
+
+            Return ONLY valid JSON with the following structure:
+            %s
+
+            Rules:
+            - Extract numeric values for rates, duration, hours
+            - Parse dates in ISO format (YYYY-MM-DD)
+            - Skills should be an array of individual technologies/skills
+            - Use null for missing information
+            - Currency codes: SEK, EUR, USD, etc.
+            - Location should be normalized (e.g., "Stockholm, Sweden")
+            """
+        .formatted(structure);
+  }
+
   private String buildExtractionPrompt(String htmlContent, String customInstructions) {
     StringBuilder prompt = new StringBuilder();
 
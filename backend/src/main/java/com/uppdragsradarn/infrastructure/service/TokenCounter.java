@@ -0,0 +1,112 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+
+/**
+ * Counts and truncates text in the tokens of an OpenAI model, with the same byte pair encoding the
+ * model uses. Swedish text takes noticeably more tokens per character than English, so a
+ * characters-per-token estimate either wastes the prompt budget or overshoots it.
+ *
+ * <p>The vocabularies are loaded from the tokenizer's bundled resources the first time a model
+ * needs them. Counting does not build the token list, so it allocates little even for long pages.
+ * Models the tokenizer does not know, such as dated snapshots, use the o200k vocabulary of the
+ * current OpenAI models.
+ */
+@Component
+public class TokenCounter {
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenCounter.class);
+  private static final String ELLIPSIS = "...";
+
+  private final EncodingRegistry registry = Encodings.newLazyEncodingRegistry();
+  private final Map<String, Encoding> encodings = new ConcurrentHashMap<>();
+  private final String defaultModel;
+
+  public TokenCounter(@Value("${app.openai.model:gpt-4o-mini}") String defaultModel) {
+    this.defaultModel = defaultModel;
+  }
+
+  /**
+   * Count the tokens of a text for the default model
+   *
+   * @param text The text, may be null
+   * @return The number of tokens
+   */
+  public int count(String text) {
+    return count(text, null);
+  }
+
+  /**
+   * Count the tokens of a text
+   *
+   * @param text The text, may be null
+   * @param model The model, null for the default model
+   * @return The number of tokens
+   */
+  public int count(String text, String model) {
+    if (text == null || text.isEmpty()) {
+      return 0;
+    }
+    return encodingFor(model).countTokens(text);
+  }
+
+  /**
+   * Shorten a text to a number of tokens, at a word boundary where one is close and marked with an
+   * ellipsis
+   *
+   * @param text The text
+   * @param model The model, null for the default model
+   * @param maxTokens The maximum number of tokens, ellipsis included
+   * @return The text itself if it fits, otherwise its truncated start
+   */
+  public String truncate(String text, String model, int maxTokens) {
+    if (text == null || text.isEmpty()) {
+      return text;
+    }
+    Encoding encoding = encodingFor(model);
+    if (encoding.countTokens(text) <= maxTokens) {
+      return text;
+    }
+
+    // Leave a token for the ellipsis
+    EncodingResult result = encoding.encode(text, Math.max(maxTokens - 1, 0));
+
+    String truncated = encoding.decode(result.getTokens());
+    // The last token may end inside a multi-byte character, which decodes as a replacement
+    while (truncated.endsWith("\uFFFD")) {
+      truncated = truncated.substring(0, truncated.length() - 1);
+    }
+    // Only use a word boundary if it's reasonably close
+    int lastSpace = truncated.lastIndexOf(' ');
+    if (lastSpace > truncated.length() * 0.8) {
+      truncated = truncated.substring(0, lastSpace);
+    }
+    return truncated + ELLIPSIS;
+  }
+
+  private Encoding encodingFor(String model) {
+    String effectiveModel = model != null ? model : defaultModel;
+    return encodings.computeIfAbsent(
+        effectiveModel,
+        name ->
+            registry
+                .getEncodingForModel(name)
+                .orElseGet(
+                    () -> {
+                      logger.debug("No tokenizer known for model {}, using o200k", name);
+                      return registry.getEncoding(EncodingType.O200K_BASE);
+                    }));
+  }
+}
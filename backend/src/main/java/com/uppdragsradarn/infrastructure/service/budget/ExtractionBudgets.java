@@ -0,0 +1,109 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+import com.uppdragsradarn.infrastructure.service.ExtractionBudget;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hands out the LLM budget of a crawl. A crawl may spend up to the per-crawl limits, and no more
+ * tokens than its source has left of its daily budget. What a crawl spent is recorded in the {@link
+ * TokenUsageLedger} once it is done.
+ *
+ * <p>Days are counted in one configured time zone, so replicas in different zones share the same
+ * daily budget.
+ */
+@Component
+@Slf4j
+public class ExtractionBudgets {
+
+  private final TokenUsageLedger ledger;
+  private final CrawlerConfigurationService configurationService;
+  private final long maxRequestsPerCrawl;
+  private final long maxTokensPerCrawl;
+  private final long dailyTokensPerSource;
+  private final Clock clock;
+
+  @Autowired
+  public ExtractionBudgets(
+      TokenUsageLedger ledger,
+      CrawlerConfigurationService configurationService,
+      @Value("${app.openai.budget.max-requests-per-crawl:500}") long maxRequestsPerCrawl,
+      @Value("${app.openai.budget.max-tokens-per-crawl:2000000}") long maxTokensPerCrawl,
+      @Value("${app.openai.budget.daily-tokens-per-source:0}") long dailyTokensPerSource,
+      @Value("${app.openai.budget.zone:UTC}") String zone) {
+    this(
+        ledger,
+        configurationService,
+        maxRequestsPerCrawl,
+        maxTokensPerCrawl,
+        dailyTokensPerSource,
+        Clock.system(ZoneId.of(zone)));
+  }
+
+  ExtractionBudgets(
+      TokenUsageLedger ledger,
+      CrawlerConfigurationService configurationService,
+      long maxRequestsPerCrawl,
+      long maxTokensPerCrawl,
+      long dailyTokensPerSource,
+      Clock clock) {
+    this.ledger = ledger;
+    this.configurationService = configurationService;
+    this.maxRequestsPerCrawl = maxRequestsPerCrawl;
+    this.maxTokensPerCrawl = maxTokensPerCrawl;
+    this.dailyTokensPerSource = dailyTokensPerSource;
+    this.clock = clock;
+  }
+
+  /**
+   * Open the budget of a crawl of a source
+   *
+   * @param source The source to be crawled
+   * @return The budget, empty if the source has spent its daily tokens
+   */
+  public ExtractionBudget open(Source source) {
+    CrawlerConfiguration config = configurationService.getConfiguration(source);
+    long daily =
+        config.getDailyTokenBudget() != null ? config.getDailyTokenBudget() : dailyTokensPerSource;
+    if (daily <= 0) {
+      return new ExtractionBudget(maxRequestsPerCrawl, maxTokensPerCrawl);
+    }
+
+    long remaining = daily - ledger.usedOn(source.getId(), LocalDate.now(clock));
+    if (remaining <= 0) {
+      log.warn("{} has spent its daily budget of {} LLM tokens", source.getName(), daily);
+      return ExtractionBudget.none();
+    }
+    long maxTokens = maxTokensPerCrawl > 0 ? Math.min(maxTokensPerCrawl, remaining) : remaining;
+    return new ExtractionBudget(maxRequestsPerCrawl, maxTokens);
+  }
+
+  /**
+   * Record what a crawl spent against the daily budget of its source
+   *
+   * @param source The crawled source
+   * @param budget The budget of the crawl
+   */
+  public void record(Source source, ExtractionBudget budget) {
+    if (budget.tokens() <= 0) {
+      return;
+    }
+    try {
+      ledger.add(source.getId(), LocalDate.now(clock), budget.tokens());
+    } catch (Exception e) {
+      // Only the daily budget is affected, the extractions themselves are done
+      log.warn("Could not record LLM token usage of {}: {}", source.getName(), e.getMessage());
+    }
+  }
+}
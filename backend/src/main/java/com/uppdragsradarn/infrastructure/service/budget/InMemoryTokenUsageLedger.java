@@ -0,0 +1,37 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token usage kept in the memory of a single instance and lost on restart. Suitable for development
+ * and tests, or for a single replica.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.openai.budget.ledger.type",
+    havingValue = "memory",
+    matchIfMissing = true)
+public class InMemoryTokenUsageLedger implements TokenUsageLedger {
+
+  private final Map<Usage, Long> usage = new ConcurrentHashMap<>();
+
+  @Override
+  public long usedOn(UUID sourceId, LocalDate day) {
+    return usage.getOrDefault(new Usage(sourceId, day), 0L);
+  }
+
+  @Override
+  public void add(UUID sourceId, LocalDate day, long tokens) {
+    // Only today's budget is ever checked, earlier days can go
+    usage.keySet().removeIf(key -> key.day().isBefore(day.minusDays(1)));
+    usage.merge(new Usage(sourceId, day), tokens, Long::sum);
+  }
+
+  private record Usage(UUID sourceId, LocalDate day) {}
+}
@@ -0,0 +1,67 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Token usage stored in the {@code llm_token_usage} table, so the daily budget of a source holds
+ * across replicas and restarts. Every statement commits on its own, so the tokens of a crawl count
+ * even if the crawl fails afterwards, and a replica losing the race to create the row of a day can
+ * still add to it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.openai.budget.ledger.type", havingValue = "jdbc")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class JdbcTokenUsageLedger implements TokenUsageLedger {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public JdbcTokenUsageLedger(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public long usedOn(UUID sourceId, LocalDate day) {
+    Long tokens =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(tokens), 0) FROM llm_token_usage"
+                + " WHERE source_id = ? AND usage_date = ?",
+            Long.class,
+            sourceId,
+            Date.valueOf(day));
+    return tokens != null ? tokens : 0;
+  }
+
+  @Override
+  public void add(UUID sourceId, LocalDate day, long tokens) {
+    if (increment(sourceId, day, tokens) > 0) {
+      return;
+    }
+    try {
+      jdbcTemplate.update(
+          "INSERT INTO llm_token_usage (source_id, usage_date, tokens) VALUES (?, ?, ?)",
+          sourceId,
+          Date.valueOf(day),
+          tokens);
+    } catch (DuplicateKeyException e) {
+      // Created by another replica in the meantime
+      increment(sourceId, day, tokens);
+    }
+  }
+
+  private int increment(UUID sourceId, LocalDate day, long tokens) {
+    return jdbcTemplate.update(
+        "UPDATE llm_token_usage SET tokens = tokens + ? WHERE source_id = ? AND usage_date = ?",
+        tokens,
+        sourceId,
+        Date.valueOf(day));
+  }
+}
@@ -0,0 +1,28 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * LLM tokens spent per source and day, which the daily token budget of a source is checked against.
+ */
+public interface TokenUsageLedger {
+
+  /**
+   * Get the tokens a source has spent on a day
+   *
+   * @param sourceId The source
+   * @param day The day
+   * @return The number of tokens, 0 if nothing was recorded
+   */
+  long usedOn(UUID sourceId, LocalDate day);
+
+  /**
+   * Add tokens a source has spent
+   *
+   * @param sourceId The source
+   * @param day The day the tokens were spent
+   * @param tokens The number of tokens
+   */
+  void add(UUID sourceId, LocalDate day, long tokens);
+}
@@ -0,0 +1,32 @@
+package com.uppdragsradarn.infrastructure.service.cache;
+
+import java.util.Optional;
+
+/**
+ * Results of LLM extractions, keyed by a hash of everything that went into the request, so a page
+ * whose content has not changed is never sent to the model twice.
+ *
+ * <p>Entries expire after a fixed time to live and the least recently used ones are evicted once
+ * the cache holds more than its maximum number of entries.
+ */
+public interface ExtractionCache {
+
+  /**
+   * Look up an extraction
+   *
+   * @param key The hash of the extraction request
+   * @return The extracted data as JSON, or empty if not cached or expired
+   */
+  Optional<String> get(String key);
+
+  /**
+   * Store an extraction, replacing any previous one under the same key
+   *
+   * @param key The hash of the extraction request
+   * @param json The extracted data as JSON
+   */
+  void put(String key, String json);
+
+  /** Remove expired entries and the least recently used ones above the maximum size */
+  void evict();
+}
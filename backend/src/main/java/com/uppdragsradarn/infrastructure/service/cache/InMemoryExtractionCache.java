@@ -0,0 +1,84 @@
+package com.uppdragsradarn.infrastructure.service.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extraction cache kept in the memory of a single instance and lost on restart. Suitable for
+ * development and tests, or for a single replica that is rarely restarted.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.openai.cache.type",
+    havingValue = "memory",
+    matchIfMissing = true)
+public class InMemoryExtractionCache implements ExtractionCache {
+
+  private final Duration ttl;
+  private final int maxEntries;
+  private final Clock clock;
+
+  // Access ordered, the first entry is the least recently used
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+  @Autowired
+  public InMemoryExtractionCache(
+      @Value("${app.openai.cache.ttl:30d}") String ttl,
+      @Value("${app.openai.cache.max-entries:50000}") int maxEntries) {
+    this(DurationStyle.detectAndParse(ttl), maxEntries, Clock.systemUTC());
+  }
+
+  InMemoryExtractionCache(Duration ttl, int maxEntries, Clock clock) {
+    this.ttl = ttl;
+    this.maxEntries = Math.max(maxEntries, 1);
+    this.clock = clock;
+  }
+
+  @Override
+  public synchronized Optional<String> get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (isExpired(entry, clock.instant())) {
+      entries.remove(key);
+      return Optional.empty();
+    }
+    return Optional.of(entry.json());
+  }
+
+  @Override
+  public synchronized void put(String key, String json) {
+    entries.put(key, new Entry(json, clock.instant()));
+    Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries && eldest.hasNext()) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${app.openai.cache.eviction-interval-ms:3600000}")
+  public synchronized void evict() {
+    Instant now = clock.instant();
+    entries.values().removeIf(entry -> isExpired(entry, now));
+  }
+
+  private boolean isExpired(Entry entry, Instant now) {
+    return entry.storedAt().plus(ttl).isBefore(now);
+  }
+
+  private record Entry(String json, Instant storedAt) {}
+}
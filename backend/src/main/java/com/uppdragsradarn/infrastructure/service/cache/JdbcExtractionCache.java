@@ -0,0 +1,125 @@
+package com.uppdragsradarn.infrastructure.service.cache;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extraction cache stored in the {@code llm_extraction_cache} table, shared by all replicas using
+ * the same database and kept across restarts.
+ *
+ * <p>Reads touch {@code last_used_at}, which decides what goes first when the table grows past its
+ * maximum size. Every call commits on its own, so an extraction stays cached even if the crawl that
+ * paid for it fails afterwards.
+ */
+@Component
+@ConditionalOnProperty(name = "app.openai.cache.type", havingValue = "jdbc")
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+@Slf4j
+public class JdbcExtractionCache implements ExtractionCache {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Duration ttl;
+  private final int maxEntries;
+  private final Clock clock;
+
+  @Autowired
+  public JdbcExtractionCache(
+      JdbcTemplate jdbcTemplate,
+      @Value("${app.openai.cache.ttl:30d}") String ttl,
+      @Value("${app.openai.cache.max-entries:50000}") int maxEntries) {
+    this(jdbcTemplate, DurationStyle.detectAndParse(ttl), maxEntries, Clock.systemUTC());
+  }
+
+  JdbcExtractionCache(JdbcTemplate jdbcTemplate, Duration ttl, int maxEntries, Clock clock) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttl = ttl;
+    this.maxEntries = Math.max(maxEntries, 1);
+    this.clock = clock;
+  }
+
+  @Override
+  public Optional<String> get(String key) {
+    Instant now = clock.instant();
+    List<String> data =
+        jdbcTemplate.queryForList(
+            "SELECT data FROM llm_extraction_cache WHERE cache_key = ? AND created_at >= ?",
+            String.class,
+            key,
+            Timestamp.from(now.minus(ttl)));
+    if (data.isEmpty()) {
+      return Optional.empty();
+    }
+    jdbcTemplate.update(
+        "UPDATE llm_extraction_cache SET last_used_at = ? WHERE cache_key = ?",
+        Timestamp.from(now),
+        key);
+    return Optional.of(data.get(0));
+  }
+
+  @Override
+  public void put(String key, String json) {
+    Timestamp now = Timestamp.from(clock.instant());
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE llm_extraction_cache SET data = ?, created_at = ?, last_used_at = ?"
+                + " WHERE cache_key = ?",
+            json,
+            now,
+            now,
+            key);
+    if (updated == 0) {
+      try {
+        jdbcTemplate.update(
+            "INSERT INTO llm_extraction_cache (cache_key, data, created_at, last_used_at)"
+                + " VALUES (?, ?, ?, ?)",
+            key,
+            json,
+            now,
+            now);
+      } catch (DuplicateKeyException e) {
+        // Stored by another replica in the meantime, for the same request
+        log.debug("Extraction {} was cached concurrently", key);
+      }
+    }
+  }
+
+  @Override
+  @Scheduled(fixedDelayString = "${app.openai.cache.eviction-interval-ms:3600000}")
+  public void evict() {
+    int expired =
+        jdbcTemplate.update(
+            "DELETE FROM llm_extraction_cache WHERE created_at < ?",
+            Timestamp.from(clock.instant().minus(ttl)));
+    Integer count =
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM llm_extraction_cache", Integer.class);
+    int excess = count != null ? count - maxEntries : 0;
+    int evicted = 0;
+    if (excess > 0) {
+      evicted =
+          jdbcTemplate.update(
+              "DELETE FROM llm_extraction_cache WHERE cache_key IN (SELECT cache_key FROM"
+                  + " llm_extraction_cache ORDER BY last_used_at ASC LIMIT ?)",
+              excess);
+    }
+    if (expired > 0 || evicted > 0) {
+      log.info("Evicted {} expired and {} least recently used extractions", expired, evicted);
+    }
+  }
+}
@@ -1,16 +1,25 @@
 package com.uppdragsradarn.infrastructure.web.admin;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.uppdragsradarn.application.service.CrawlerService;
+import com.uppdragsradarn.domain.exception.CrawlInProgressException;
+import com.uppdragsradarn.domain.exception.SourceCircuitOpenException;
 import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+import com.uppdragsradarn.infrastructure.crawler.CrawlExecutor;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgressRegistry;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.schedule.AdaptiveCrawlScheduler;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -32,6 +41,10 @@ import lombok.extern.slf4j.Slf4j;
 public class AdminCrawlerController {
 
   private final CrawlerService crawlerService;
+  private final CrawlExecutor crawlExecutor;
+  private final CrawlProgressRegistry progressRegistry;
+  private final AdaptiveCrawlScheduler crawlScheduler;
+  private final SourceCircuitBreakerRegistry circuitBreakers;
 
   /**
    * Start a crawler job for a specific source
@@ -48,6 +61,10 @@ public class AdminCrawlerController {
     @ApiResponse(responseCode = "200", description = "Crawler job started successfully"),
     @ApiResponse(responseCode = "401", description = "Unauthorized - invalid credentials"),
     @ApiResponse(responseCode = "403", description = "Forbidden - missing required role"),
+    @ApiResponse(responseCode = "409", description = "Source is already being crawled"),
+    @ApiResponse(
+        responseCode = "503",
+        description = "Source is skipped after repeated failures, see the circuit breakers"),
     @ApiResponse(responseCode = "500", description = "Internal server error starting job")
   })
   @PostMapping("/jobs/source/{sourceId}")
@@ -67,6 +84,26 @@ public class AdminCrawlerController {
               "Crawler job started for source ID: " + sourceId,
               "timestamp",
               LocalDateTime.now().toString()));
+    } catch (CrawlInProgressException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(
+              Map.of(
+                  "success",
+                  false,
+                  "message",
+                  e.getMessage(),
+                  "timestamp",
+                  LocalDateTime.now().toString()));
+    } catch (SourceCircuitOpenException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .body(
+              Map.of(
+                  "success",
+                  false,
+                  "message",
+                  e.getMessage(),
+                  "timestamp",
+                  LocalDateTime.now().toString()));
     } catch (Exception e) {
       log.error("Error starting crawler job for source ID: {}", sourceId, e);
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -109,6 +146,133 @@ public class AdminCrawlerController {
         .orElse(ResponseEntity.notFound().build());
   }
 
+  /**
+   * Stream the live progress of a crawler job
+   *
+   * @param jobId The job ID to stream progress for
+   * @return An event stream with "progress" events and a final "complete" event
+   */
+  @Operation(
+      summary = "Stream live progress of a crawler job",
+      description =
+          "Server-Sent Events stream with the counters and recent events of a running job. A job"
+              + " that already finished yields a single \"complete\" event with its stored result.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Progress stream opened"),
+    @ApiResponse(responseCode = "404", description = "Job not found")
+  })
+  @GetMapping(value = "/jobs/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<SseEmitter> streamCrawlerJobProgress(
+      @Parameter(description = "Job ID to stream progress for", required = true) @PathVariable
+          String jobId) {
+    return progressRegistry
+        .subscribe(jobId)
+        .or(() -> crawlerService.getCrawlerJobStatus(jobId).map(progressRegistry::replay))
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Get the external IDs of the assignments processed by a crawler job
+   *
+   * @param jobId The job ID
+   * @return External IDs in processing order
+   */
+  @Operation(
+      summary = "Get assignments processed by a crawler job",
+      description = "Returns the external IDs of the assignments the job has processed so far.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @GetMapping("/jobs/{jobId}/processed")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<List<String>> getProcessedAssignmentIds(@PathVariable String jobId) {
+    return ResponseEntity.ok(crawlerService.getProcessedAssignmentIds(jobId));
+  }
+
+  /**
+   * Get the current load of the crawl executor
+   *
+   * @return Queue depth, active jobs and configured concurrency limits
+   */
+  @Operation(
+      summary = "Get crawl executor load",
+      description =
+          "Returns the number of queued and running crawl jobs together with the configured"
+              + " concurrency limits.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @GetMapping("/executor")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<CrawlExecutor.CrawlExecutorStats> getExecutorStats() {
+    return ResponseEntity.ok(crawlExecutor.getStats());
+  }
+
+  /**
+   * Get the crawl schedule of all active sources
+   *
+   * @return Interval, observed change ratio and next crawl time per source
+   */
+  @Operation(
+      summary = "Get per-source crawl schedule",
+      description =
+          "Returns the crawl interval each active source currently gets from its change history,"
+              + " together with its last and next crawl time.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @GetMapping("/schedule")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<List<AdaptiveCrawlScheduler.SourceSchedule>> getCrawlSchedule() {
+    return ResponseEntity.ok(crawlScheduler.getSchedules());
+  }
+
+  /**
+   * Get the circuit breaker state of every crawled source
+   *
+   * @return State, recent failure and slow crawl ratios and open period per source
+   */
+  @Operation(
+      summary = "Get per-source circuit breakers",
+      description =
+          "Returns the circuit breaker of every source crawled since startup. Open breakers skip"
+              + " the source until their open period is over, half-open ones let one probe crawl"
+              + " through.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @GetMapping("/circuit-breakers")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<List<SourceCircuitBreakerRegistry.BreakerSnapshot>> getCircuitBreakers() {
+    return ResponseEntity.ok(circuitBreakers.getSnapshots());
+  }
+
+  /**
+   * Close the circuit breaker of a source so it is crawled again right away
+   *
+   * @param sourceId The source ID
+   * @return Response with status
+   */
+  @Operation(
+      summary = "Reset a source's circuit breaker",
+      description = "Closes the circuit breaker of a source and forgets its recent crawls.",
+      security = {@SecurityRequirement(name = "bearerAuth")})
+  @ApiResponses({
+    @ApiResponse(responseCode = "200", description = "Circuit breaker reset"),
+    @ApiResponse(responseCode = "404", description = "Source has no circuit breaker")
+  })
+  @PostMapping("/circuit-breakers/{sourceId}/reset")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<Map<String, Object>> resetCircuitBreaker(
+      @Parameter(description = "Source ID", required = true) @PathVariable UUID sourceId) {
+    if (!circuitBreakers.reset(sourceId)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(
+        Map.of(
+            "success",
+            true,
+            "message",
+            "Circuit breaker reset for source ID: " + sourceId,
+            "timestamp",
+            LocalDateTime.now().toString()));
+  }
+
   /**
    * Start all scheduled crawler jobs
    *
@@ -0,0 +1,294 @@
+package com.uppdragsradarn.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.uppdragsradarn.application.service.AssignmentIngestionService.IngestionResult;
+import com.uppdragsradarn.application.service.AssignmentIngestionService.SweepResult;
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.AssignmentFingerprint;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.AssignmentRepository;
+import com.uppdragsradarn.domain.repository.ExistingAssignment;
+
+@ExtendWith(MockitoExtension.class)
+class AssignmentIngestionServiceImplTest {
+
+  @Mock private AssignmentRepository assignmentRepository;
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  @InjectMocks private AssignmentIngestionServiceImpl ingestionService;
+
+  private Source source;
+
+  @BeforeEach
+  void setUp() {
+    source = new Source();
+    source.setId(UUID.randomUUID());
+    source.setName("Test Source");
+    ReflectionTestUtils.setField(ingestionService, "deactivationEnabled", true);
+    ReflectionTestUtils.setField(ingestionService, "deactivationGracePeriod", "48h");
+    ReflectionTestUtils.setField(ingestionService, "deactivationMinCoverage", 0.7);
+  }
+
+  @Test
+  void loadExistingIndexesByExternalId() {
+    // Given
+    UUID id = UUID.randomUUID();
+    when(assignmentRepository.findExistingBySource(source))
+        .thenReturn(List.of(new ExistingAssignment("job-1", id, "hash", true)));
+
+    // When
+    Map<String, ExistingAssignment> existing = ingestionService.loadExisting(source);
+
+    // Then
+    assertThat(existing).containsOnlyKeys("job-1");
+    assertThat(existing.get("job-1").id()).isEqualTo(id);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void splitsBatchIntoInsertsAndUpdates() {
+    // Given
+    UUID storedId = UUID.randomUUID();
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    existing.put("job-1", new ExistingAssignment("job-1", storedId, "outdated-hash", true));
+
+    Assignment stored = assignment("job-1", "Old title");
+    stored.setId(storedId);
+    when(assignmentRepository.findAllById(Set.of(storedId))).thenReturn(List.of(stored));
+
+    Assignment updatedJob = assignment("job-1", "New title");
+    Assignment newJob = assignment("job-2", "Brand new");
+    when(assignmentRepository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<Assignment> saved = invocation.getArgument(0);
+              saved.stream()
+                  .filter(a -> a.getId() == null)
+                  .forEach(a -> a.setId(UUID.randomUUID()));
+              return saved;
+            });
+
+    // When
+    IngestionResult result = ingestionService.ingest(source, List.of(updatedJob, newJob), existing);
+
+    // Then
+    assertThat(result.created()).isEqualTo(1);
+    assertThat(result.updated()).isEqualTo(1);
+    assertThat(stored.getTitle()).isEqualTo("New title");
+    assertThat(stored.getContentHash()).isEqualTo(AssignmentFingerprint.compute(updatedJob));
+    assertThat(result.indexed()).containsOnlyKeys("job-1", "job-2");
+    assertThat(existing).containsOnlyKeys("job-1");
+
+    ArgumentCaptor<List<Assignment>> saved = ArgumentCaptor.forClass(List.class);
+    verify(assignmentRepository, times(2)).saveAll(saved.capture());
+    assertThat(saved.getAllValues().get(0)).containsExactly(stored);
+    assertThat(saved.getAllValues().get(1)).containsExactly(newJob);
+    assertThat(newJob.getSource()).isEqualTo(source);
+    assertThat(newJob.getCreatedAt()).isNotNull();
+    verify(assignmentRepository, never()).findBySourceAndExternalId(eq(source), eq("job-2"));
+  }
+
+  @Test
+  void unchangedAssignmentsAreNotWritten() {
+    // Given
+    Assignment crawled = assignment("job-1", "Same title");
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    existing.put(
+        "job-1",
+        new ExistingAssignment(
+            "job-1", UUID.randomUUID(), AssignmentFingerprint.compute(crawled), true));
+
+    // When
+    IngestionResult result = ingestionService.ingest(source, List.of(crawled), existing);
+
+    // Then
+    assertThat(result.unchanged()).isEqualTo(1);
+    assertThat(result.created()).isZero();
+    assertThat(result.updated()).isZero();
+    verify(assignmentRepository, never()).findAllById(anyCollection());
+    verify(assignmentRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void duplicateExternalIdsInBatchAreInsertedOnce() {
+    // Given
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    when(assignmentRepository.saveAll(anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    // When
+    IngestionResult result =
+        ingestionService.ingest(
+            source, List.of(assignment("job-1", "First"), assignment("job-1", "Second")), existing);
+
+    // Then
+    assertThat(result.created()).isEqualTo(1);
+    assertThat(result.updated()).isZero();
+  }
+
+  @Test
+  void inactiveAssignmentWithSameContentIsReactivated() {
+    // Given
+    UUID storedId = UUID.randomUUID();
+    Assignment crawled = assignment("job-1", "Same title");
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    existing.put(
+        "job-1",
+        new ExistingAssignment("job-1", storedId, AssignmentFingerprint.compute(crawled), false));
+
+    Assignment stored = assignment("job-1", "Same title");
+    stored.setId(storedId);
+    stored.setActive(false);
+    when(assignmentRepository.findAllById(Set.of(storedId))).thenReturn(List.of(stored));
+
+    // When
+    IngestionResult result = ingestionService.ingest(source, List.of(crawled), existing);
+
+    // Then
+    assertThat(result.updated()).isEqualTo(1);
+    assertThat(result.unchanged()).isZero();
+    assertThat(stored.isActive()).isTrue();
+    assertThat(result.indexed().get("job-1").active()).isTrue();
+  }
+
+  @Test
+  void batchFailingAtFlushLeavesTheIndexUntouched() {
+    // Given
+    UUID storedId = UUID.randomUUID();
+    ExistingAssignment indexed = new ExistingAssignment("job-1", storedId, "outdated-hash", true);
+    Map<String, ExistingAssignment> existing = new HashMap<>();
+    existing.put("job-1", indexed);
+
+    Assignment stored = assignment("job-1", "Old title");
+    stored.setId(storedId);
+    when(assignmentRepository.findAllById(Set.of(storedId))).thenReturn(List.of(stored));
+    when(assignmentRepository.saveAll(anyList()))
+        .thenAnswer(invocation -> invocation.getArgument(0))
+        .thenThrow(new DataIntegrityViolationException("could not execute batch"));
+
+    // When
+    assertThatThrownBy(
+            () ->
+                ingestionService.ingest(
+                    source,
+                    List.of(assignment("job-1", "New title"), assignment("job-2", "Brand new")),
+                    existing))
+        .isInstanceOf(DataIntegrityViolationException.class);
+
+    // Then
+    assertThat(existing).containsOnlyKeys("job-1");
+    assertThat(existing.get("job-1")).isSameAs(indexed);
+  }
+
+  @Test
+  void deactivateMissingSkipsCrawlsBelowMinimumCoverage() {
+    // Given
+    when(assignmentRepository.countBySourceAndActiveTrue(source)).thenReturn(10L);
+    givenActiveAmongSeen(3L);
+
+    // When
+    SweepResult result = ingestionService.deactivateMissing(source, Set.of("a", "b", "c"));
+
+    // Then
+    assertThat(result.isSkipped()).isTrue();
+    assertThat(result.deactivated()).isZero();
+    verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  void newAssignmentsDoNotCountTowardsCoverage() {
+    // Given
+    when(assignmentRepository.countBySourceAndActiveTrue(source)).thenReturn(10L);
+    // Ten IDs found, but eight of them are new listings and only two are among the active ones
+    givenActiveAmongSeen(2L);
+    Set<String> seen = Set.of("a", "b", "n1", "n2", "n3", "n4", "n5", "n6", "n7", "n8");
+
+    // When
+    SweepResult result = ingestionService.deactivateMissing(source, seen);
+
+    // Then
+    assertThat(result.isSkipped()).isTrue();
+    assertThat(result.skippedReason()).contains("found 2 of 10");
+    verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+  }
+
+  @Test
+  void deactivateMissingRunsOneSetBasedUpdate() {
+    // Given
+    when(assignmentRepository.countBySourceAndActiveTrue(source)).thenReturn(4L);
+    givenActiveAmongSeen(3L);
+    when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(1);
+
+    // When
+    SweepResult result = ingestionService.deactivateMissing(source, Set.of("a", "b", "c"));
+
+    // Then
+    assertThat(result.isSkipped()).isFalse();
+    assertThat(result.deactivated()).isEqualTo(1);
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    verify(jdbcTemplate).update(sql.capture(), any(PreparedStatementSetter.class));
+    assertThat(sql.getValue()).contains("external_id <> ALL(?)").contains("last_seen_at");
+  }
+
+  @Test
+  void deactivateMissingDoesNothingWhenDisabled() {
+    // Given
+    ReflectionTestUtils.setField(ingestionService, "deactivationEnabled", false);
+
+    // When
+    SweepResult result = ingestionService.deactivateMissing(source, Set.of("a"));
+
+    // Then
+    assertThat(result.isSkipped()).isTrue();
+    verifyNoInteractions(jdbcTemplate);
+    verify(assignmentRepository, never()).countBySourceAndActiveTrue(source);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenActiveAmongSeen(long count) {
+    when(jdbcTemplate.query(
+            anyString(), any(PreparedStatementSetter.class), any(ResultSetExtractor.class)))
+        .thenReturn(count);
+  }
+
+  private Assignment assignment(String externalId, String title) {
+    Assignment assignment = new Assignment();
+    assignment.setExternalId(externalId);
+    assignment.setTitle(title);
+    assignment.setActive(true);
+    // As the crawler does before handing it over
+    assignment.setContentHash(AssignmentFingerprint.compute(assignment));
+    return assignment;
+  }
+}
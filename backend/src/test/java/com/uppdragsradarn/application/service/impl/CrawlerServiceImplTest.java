@@ -0,0 +1,196 @@
+package com.uppdragsradarn.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.uppdragsradarn.application.service.AssignmentIngestionService;
+import com.uppdragsradarn.application.service.AssignmentIngestionService.IngestionResult;
+import com.uppdragsradarn.application.service.AssignmentIngestionService.SweepResult;
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.model.StatusType;
+import com.uppdragsradarn.domain.repository.CrawlerJobProcessedAssignmentRepository;
+import com.uppdragsradarn.domain.repository.CrawlerJobRepository;
+import com.uppdragsradarn.domain.repository.SourceRepository;
+import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentCrawler;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.crawler.CrawlExecutor;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgressRegistry;
+import com.uppdragsradarn.infrastructure.crawler.SimpleCrawlerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.lease.CrawlLease;
+import com.uppdragsradarn.infrastructure.crawler.lease.InMemoryCrawlLeaseManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class CrawlerServiceImplTest {
+
+  @Mock private SourceRepository sourceRepository;
+  @Mock private AssignmentIngestionService ingestionService;
+  @Mock private CrawlerJobRepository crawlerJobRepository;
+  @Mock private CrawlerJobProcessedAssignmentRepository processedAssignmentRepository;
+  @Mock private SimpleCrawlerRegistry crawlerRegistry;
+  @Mock private StatusTypeRepository statusTypeRepository;
+
+  private final InMemoryCrawlLeaseManager leaseManager = new InMemoryCrawlLeaseManager(60);
+  // One job at a time, so a job holding its permits keeps every other crawl waiting
+  private final CrawlExecutor crawlExecutor = new CrawlExecutor(1, 1, 1, new SimpleMeterRegistry());
+
+  private CrawlerServiceImpl crawlerService;
+
+  @BeforeEach
+  void setUp() {
+    crawlerService =
+        new CrawlerServiceImpl(
+            sourceRepository,
+            ingestionService,
+            crawlExecutor,
+            new CrawlProgressRegistry(
+                crawlerJobRepository, processedAssignmentRepository, 50, 1000),
+            leaseManager,
+            new SourceCircuitBreakerRegistry(true, 10, 3, 0.5, "30m", 0.8, "30m", "24h"),
+            crawlerJobRepository,
+            processedAssignmentRepository,
+            crawlerRegistry,
+            statusTypeRepository);
+    ReflectionTestUtils.setField(crawlerService, "pipelineBufferSize", 16);
+    ReflectionTestUtils.setField(crawlerService, "ingestBatchSize", 50);
+    ReflectionTestUtils.setField(crawlerService, "incrementalEnabled", false);
+
+    StatusType status = new StatusType();
+    when(statusTypeRepository.findByNameAndEntityType(anyString(), eq("CRAWLER_JOB")))
+        .thenReturn(Optional.of(status));
+    when(ingestionService.ingest(any(), anyList(), any()))
+        .thenAnswer(
+            invocation -> {
+              List<Assignment> batch = invocation.getArgument(1);
+              return new IngestionResult(batch.size(), 0, 0, Map.of());
+            });
+    when(ingestionService.deactivateMissing(any(), any()))
+        .thenReturn(SweepResult.skipped("Not enough coverage"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    crawlExecutor.shutdown();
+  }
+
+  @Test
+  void anotherCrawlOfTheSameHostStartsWhileABatchIsPending() throws Exception {
+    // Given
+    Source batched = source("Batched", "https://jobs.example.com/batched");
+    Source other = source("Other", "https://jobs.example.com/other");
+    CountDownLatch batchDone = new CountDownLatch(1);
+    givenCrawler(
+        batched,
+        sink ->
+            sink.acceptLater(
+                target -> {
+                  batchDone.await();
+                  target.accept(assignment("from-batch"));
+                }));
+    CountDownLatch otherCrawled = new CountDownLatch(1);
+    givenCrawler(
+        other,
+        sink -> {
+          sink.accept(assignment("listed"));
+          otherCrawled.countDown();
+        });
+
+    // When
+    crawlerService.startCrawlerJob(batched.getId());
+    crawlerService.startCrawlerJob(other.getId());
+
+    // Then
+    assertThat(otherCrawled.await(5, TimeUnit.SECONDS)).isTrue();
+    Optional<CrawlLease> lease = leaseManager.tryAcquire(batched.getId(), "probe");
+    assertThat(lease).isPresent();
+    leaseManager.release(lease.get());
+    verify(ingestionService, never()).deactivateMissing(eq(batched), any());
+
+    // Once the batch is done its assignments are ingested and the job finishes
+    batchDone.countDown();
+    verify(ingestionService, timeout(5000))
+        .deactivateMissing(eq(batched), argThat(seen -> seen.contains("from-batch")));
+  }
+
+  private Source source(String name, String baseUrl) {
+    Source source = new Source();
+    source.setId(UUID.randomUUID());
+    source.setName(name);
+    source.setBaseUrl(baseUrl);
+    when(sourceRepository.findById(source.getId())).thenReturn(Optional.of(source));
+    return source;
+  }
+
+  private void givenCrawler(Source source, Crawl crawl) {
+    when(crawlerRegistry.findCrawler(source))
+        .thenReturn(
+            new AssignmentCrawler() {
+              @Override
+              public boolean supports(Source candidate) {
+                return candidate == source;
+              }
+
+              @Override
+              public List<Assignment> fetchAssignments(Source candidate) {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public void fetchAssignments(Source candidate, AssignmentSink sink) {
+                try {
+                  crawl.run(sink);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  throw new CrawlerException("Interrupted", e);
+                }
+              }
+
+              @Override
+              public String getName() {
+                return "Test Crawler";
+              }
+            });
+  }
+
+  private static Assignment assignment(String externalId) {
+    Assignment assignment = new Assignment();
+    assignment.setExternalId(externalId);
+    assignment.setTitle("Assignment " + externalId);
+    assignment.setActive(true);
+    return assignment;
+  }
+
+  /** What a test crawler does with its sink */
+  @FunctionalInterface
+  private interface Crawl {
+    void run(AssignmentSink sink) throws InterruptedException;
+  }
+}
@@ -0,0 +1,87 @@
+package com.uppdragsradarn.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class AssignmentFingerprintTest {
+
+  @Test
+  void sameContentProducesSameHash() {
+    // Given
+    Assignment first = assignment();
+    first.addSkill(skill("Java"));
+    first.addSkill(skill("Kotlin"));
+    first.setHourlyRateMax(new BigDecimal("900"));
+
+    Assignment second = assignment();
+    second.addSkill(skill("kotlin"));
+    second.addSkill(skill("Java"));
+    second.setHourlyRateMax(new BigDecimal("900.00"));
+
+    // When / Then
+    assertThat(AssignmentFingerprint.compute(first))
+        .hasSize(64)
+        .isEqualTo(AssignmentFingerprint.compute(second));
+  }
+
+  @Test
+  void changedDescriptionChangesHash() {
+    // Given
+    Assignment original = assignment();
+    Assignment changed = assignment();
+    changed.setDescription("Updated description");
+
+    // When / Then
+    assertThat(AssignmentFingerprint.compute(changed))
+        .isNotEqualTo(AssignmentFingerprint.compute(original));
+  }
+
+  @Test
+  void changedLocationChangesHash() {
+    // Given
+    Assignment original = assignment();
+    original.setOriginalLocationText("Stockholm");
+    Assignment moved = assignment();
+    moved.setOriginalLocationText("Göteborg");
+
+    // When / Then
+    assertThat(AssignmentFingerprint.compute(moved))
+        .isNotEqualTo(AssignmentFingerprint.compute(original));
+  }
+
+  @Test
+  void nullFieldsAreDistinctFromEmptyStrings() {
+    // Given
+    Assignment withNull = assignment();
+    withNull.setCompanyName(null);
+    Assignment withEmpty = assignment();
+    withEmpty.setCompanyName("");
+
+    // When / Then
+    assertThat(AssignmentFingerprint.compute(withNull))
+        .isNotEqualTo(AssignmentFingerprint.compute(withEmpty));
+  }
+
+  private Assignment assignment() {
+    Assignment assignment = new Assignment();
+    assignment.setTitle("Java Developer");
+    assignment.setDescription("Backend development");
+    assignment.setCompanyName("Acme");
+    assignment.setStartDate(LocalDate.of(2025, 1, 1));
+    assignment.setHourlyRateMin(new BigDecimal("800"));
+    assignment.setActive(true);
+    return assignment;
+  }
+
+  private Skill skill(String name) {
+    Skill skill = new Skill();
+    skill.setId(UUID.nameUUIDFromBytes(name.toLowerCase().getBytes()));
+    skill.setName(name);
+    return skill;
+  }
+}
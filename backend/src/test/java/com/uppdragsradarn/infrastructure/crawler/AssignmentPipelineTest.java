@@ -0,0 +1,112 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
+
+class AssignmentPipelineTest {
+
+  @Test
+  void deliversAssignmentsInOrderBeforeCompleteReturns() throws Exception {
+    // Given
+    List<String> received = new CopyOnWriteArrayList<>();
+
+    // When
+    try (AssignmentPipeline pipeline =
+        new AssignmentPipeline(2, a -> received.add(a.getExternalId()), "test-consumer")) {
+      for (int i = 0; i < 10; i++) {
+        pipeline.accept(assignment("job-" + i));
+      }
+      pipeline.complete();
+    }
+
+    // Then
+    assertThat(received)
+        .containsExactly(
+            "job-0", "job-1", "job-2", "job-3", "job-4", "job-5", "job-6", "job-7", "job-8",
+            "job-9");
+  }
+
+  @Test
+  void blocksProducerWhenConsumerFallsBehind() throws Exception {
+    // Given
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger produced = new AtomicInteger();
+    AssignmentPipeline pipeline =
+        new AssignmentPipeline(
+            2,
+            a -> {
+              try {
+                release.await(5, TimeUnit.SECONDS);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            },
+            "test-consumer");
+
+    // When
+    Thread producer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  for (int i = 0; i < 10; i++) {
+                    pipeline.accept(assignment("job-" + i));
+                    produced.incrementAndGet();
+                  }
+                });
+
+    // Then - one item in the consumer plus a full buffer of two
+    await().atMost(Duration.ofSeconds(5)).until(() -> produced.get() == 3);
+    Thread.sleep(100);
+    assertThat(produced.get()).isEqualTo(3);
+
+    release.countDown();
+    producer.join(5000);
+    pipeline.complete();
+    assertThat(produced.get()).isEqualTo(10);
+  }
+
+  @Test
+  void failsProducerWhenConsumerFails() throws Exception {
+    // Given
+    CountDownLatch failed = new CountDownLatch(1);
+    AssignmentPipeline pipeline =
+        new AssignmentPipeline(
+            4,
+            a -> {
+              failed.countDown();
+              throw new IllegalStateException("database down");
+            },
+            "test-consumer");
+    pipeline.accept(assignment("job-1"));
+    failed.await(5, TimeUnit.SECONDS);
+
+    // When / Then
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () ->
+                assertThatThrownBy(() -> pipeline.accept(assignment("job-2")))
+                    .isInstanceOf(CrawlerException.class)
+                    .hasMessageContaining("database down"));
+    pipeline.close();
+  }
+
+  private Assignment assignment(String externalId) {
+    Assignment assignment = new Assignment();
+    assignment.setExternalId(externalId);
+    return assignment;
+  }
+}
@@ -0,0 +1,139 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.domain.model.Source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CrawlExecutorTest {
+
+  private CrawlExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new CrawlExecutor(4, 1, 2, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void jobsForSameSourceRunOneAtATime() throws Exception {
+    // Given
+    Source source = source("https://www.example.se");
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger maxRunning = new AtomicInteger();
+    AtomicInteger running = new AtomicInteger();
+    Runnable job =
+        () -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          running.decrementAndGet();
+        };
+
+    // When
+    Future<?> first = executor.submit(source, job);
+    Future<?> second = executor.submit(source, job);
+
+    // Then
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(executor.getStats().activeJobs()).isEqualTo(1);
+              assertThat(executor.getStats().queuedJobs()).isEqualTo(1);
+            });
+
+    release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    assertThat(maxRunning.get()).isEqualTo(1);
+    assertThat(executor.getStats().activeJobs()).isZero();
+    assertThat(executor.getStats().queuedJobs()).isZero();
+  }
+
+  @Test
+  void jobsForDifferentSourcesOnSameHostShareHostLimit() throws Exception {
+    // Given
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable job =
+        () -> {
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        };
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      executor.submit(source("https://jobs.example.se/list/" + i), job);
+    }
+
+    // Then
+    await()
+        .atMost(Duration.ofSeconds(5))
+        .untilAsserted(
+            () -> {
+              assertThat(executor.getStats().activeJobs()).isEqualTo(2);
+              assertThat(executor.getStats().queuedJobs()).isEqualTo(1);
+            });
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.getStats().activeJobs() == 0);
+  }
+
+  @Test
+  void cancellingQueuedJobRemovesItFromQueue() throws Exception {
+    // Given
+    Source source = source("https://www.example.se");
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executed = new AtomicInteger();
+    executor.submit(
+        source,
+        () -> {
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    Future<?> queued = executor.submit(source, executed::incrementAndGet);
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.getStats().queuedJobs() == 1);
+
+    // When
+    queued.cancel(true);
+
+    // Then
+    assertThat(executor.getStats().queuedJobs()).isZero();
+    release.countDown();
+    await().atMost(Duration.ofSeconds(5)).until(() -> executor.getStats().activeJobs() == 0);
+    assertThat(executed.get()).isZero();
+  }
+
+  private Source source(String baseUrl) {
+    Source source = new Source();
+    source.setId(UUID.randomUUID());
+    source.setName("Source " + baseUrl);
+    source.setBaseUrl(baseUrl);
+    return source;
+  }
+}
@@ -0,0 +1,167 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.uppdragsradarn.domain.model.CrawlerJobProcessedAssignment;
+import com.uppdragsradarn.domain.repository.CrawlerJobProcessedAssignmentRepository;
+import com.uppdragsradarn.domain.repository.CrawlerJobRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CrawlProgressRegistryTest {
+
+  @Mock private CrawlerJobRepository crawlerJobRepository;
+
+  @Mock private CrawlerJobProcessedAssignmentRepository processedAssignmentRepository;
+
+  private CrawlProgressRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    registry =
+        new CrawlProgressRegistry(crawlerJobRepository, processedAssignmentRepository, 3, 60_000);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void flushAppendsOnlyNewProcessedIds() {
+    // Given
+    CrawlProgress progress = registry.start("job-1", "Test Source");
+    progress.assignmentFound();
+    progress.assignmentFound();
+    progress.batchIngested(1, 1, 0, List.of("a", "b"));
+
+    // When
+    registry.flushAll();
+    progress.assignmentFound();
+    progress.batchIngested(0, 0, 1, List.of("c"));
+    registry.flushAll();
+
+    // Then
+    ArgumentCaptor<List<CrawlerJobProcessedAssignment>> appended =
+        ArgumentCaptor.forClass(List.class);
+    verify(processedAssignmentRepository, times(2)).saveAll(appended.capture());
+    assertThat(appended.getAllValues().get(0))
+        .extracting(CrawlerJobProcessedAssignment::getExternalId)
+        .containsExactly("a", "b");
+    assertThat(appended.getAllValues().get(1))
+        .extracting(CrawlerJobProcessedAssignment::getExternalId)
+        .containsExactly("c");
+    verify(crawlerJobRepository).updateProgress("job-1", 2, 1, 1, 0);
+    verify(crawlerJobRepository).updateProgress("job-1", 3, 1, 1, 1);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void failedFlushKeepsProcessedIdsAndCountersForTheNextOne() {
+    // Given
+    CrawlProgress progress = registry.start("job-1", "Test Source");
+    progress.assignmentFound();
+    progress.batchIngested(1, 0, 0, List.of("a"));
+    when(processedAssignmentRepository.saveAll(anyList()))
+        .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+        .thenReturn(List.of());
+    registry.flushAll();
+
+    // When
+    progress.assignmentFound();
+    progress.batchIngested(0, 1, 0, List.of("b"));
+    registry.flushAll();
+
+    // Then
+    ArgumentCaptor<List<CrawlerJobProcessedAssignment>> appended =
+        ArgumentCaptor.forClass(List.class);
+    verify(processedAssignmentRepository, times(2)).saveAll(appended.capture());
+    assertThat(appended.getAllValues().get(1))
+        .extracting(CrawlerJobProcessedAssignment::getExternalId)
+        .containsExactly("a", "b");
+    verify(crawlerJobRepository).updateProgress("job-1", 2, 1, 1, 0);
+  }
+
+  @Test
+  void failedCounterUpdateIsRetriedOnTheNextFlush() {
+    // Given
+    CrawlProgress progress = registry.start("job-1", "Test Source");
+    progress.assignmentFound();
+    doThrow(new DataAccessResourceFailureException("Connection lost"))
+        .doReturn(1)
+        .when(crawlerJobRepository)
+        .updateProgress("job-1", 1, 0, 0, 0);
+    registry.flushAll();
+
+    // When
+    registry.flushAll();
+
+    // Then
+    verify(crawlerJobRepository, times(2)).updateProgress("job-1", 1, 0, 0, 0);
+  }
+
+  @Test
+  void flushSkipsJobsWithoutChanges() {
+    // Given
+    registry.start("job-1", "Test Source");
+    registry.flushAll();
+
+    // When
+    registry.flushAll();
+
+    // Then
+    verify(crawlerJobRepository, times(1))
+        .updateProgress(anyString(), anyInt(), anyInt(), anyInt(), anyInt());
+    verify(processedAssignmentRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void completeWritesFinalProgressAndStopsTracking() {
+    // Given
+    CrawlProgress progress = registry.start("job-1", "Test Source");
+    progress.assignmentFound();
+    progress.batchIngested(1, 0, 0, List.of("a"));
+
+    // When
+    registry.complete("job-1", "SUCCESS");
+
+    // Then
+    verify(crawlerJobRepository).updateProgress("job-1", 1, 1, 0, 0);
+    verify(processedAssignmentRepository).saveAll(anyList());
+    assertThat(registry.get("job-1")).isEmpty();
+    assertThat(registry.subscribe("job-1")).isEmpty();
+    assertThat(progress.snapshot().status()).isEqualTo("SUCCESS");
+  }
+
+  @Test
+  void recentEventsAreBounded() {
+    // Given
+    CrawlProgress progress = registry.start("job-1", "Test Source");
+
+    // When
+    for (int i = 0; i < 5; i++) {
+      progress.batchIngested(i, 0, 0, List.of());
+    }
+
+    // Then
+    assertThat(progress.snapshot().recentEvents())
+        .extracting(CrawlProgress.ProgressEvent::message)
+        .containsExactly(
+            "2 created, 0 updated, 0 unchanged",
+            "3 created, 0 updated, 0 unchanged",
+            "4 created, 0 updated, 0 unchanged");
+  }
+}
@@ -0,0 +1,70 @@
+package com.uppdragsradarn.infrastructure.crawler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.service.AssignmentCrawler;
+import com.uppdragsradarn.domain.service.ContentProvider;
+
+@ExtendWith(MockitoExtension.class)
+class SimpleCrawlerRegistryTest {
+
+  @Mock private ContentProvider provider;
+
+  private SimpleCrawlerRegistry registry;
+  private Source source;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleCrawlerRegistry(List.of(provider));
+    source = new Source();
+    source.setId(UUID.randomUUID());
+    source.setName("Test Source");
+    source.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 10, 0));
+  }
+
+  @Test
+  void bindingIsReusedUntilTheSourceChanges() {
+    // Given
+    when(provider.supports(source)).thenReturn(true);
+    AssignmentCrawler first = registry.findCrawler(source);
+
+    // When
+    AssignmentCrawler second = registry.findCrawler(source);
+    source.setUpdatedAt(source.getUpdatedAt().plusMinutes(1));
+    AssignmentCrawler afterUpdate = registry.findCrawler(source);
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(afterUpdate).isSameAs(first);
+    verify(provider, times(2)).supports(source);
+  }
+
+  @Test
+  void fetchFailuresPropagate() {
+    // Given
+    when(provider.supports(source)).thenReturn(true);
+    when(provider.getAssignments(source)).thenThrow(new CrawlerException("site is down"));
+    AssignmentCrawler crawler = registry.findCrawler(source);
+
+    // When / Then
+    assertThatThrownBy(() -> crawler.fetchAssignments(source))
+        .isInstanceOf(CrawlerException.class)
+        .hasMessage("site is down");
+  }
+}
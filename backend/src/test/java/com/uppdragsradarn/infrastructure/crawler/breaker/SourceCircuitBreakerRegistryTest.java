@@ -0,0 +1,157 @@
+package com.uppdragsradarn.infrastructure.crawler.breaker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry.BreakerSnapshot;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry.Settings;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry.State;
+
+@ExtendWith(MockitoExtension.class)
+class SourceCircuitBreakerRegistryTest {
+
+  private static final Duration FAST = Duration.ofSeconds(5);
+
+  @Mock private Clock clock;
+
+  private SourceCircuitBreakerRegistry breakers;
+  private Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+  private final UUID sourceId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    when(clock.instant()).thenAnswer(invocation -> now);
+    breakers =
+        new SourceCircuitBreakerRegistry(
+            new Settings(
+                true,
+                10,
+                3,
+                0.5,
+                Duration.ofMinutes(10),
+                0.8,
+                Duration.ofMinutes(30),
+                Duration.ofHours(2)),
+            clock);
+  }
+
+  @Test
+  void opensOnceEnoughRecentCrawlsFailed() {
+    // Given
+    crawl(false);
+    crawl(true);
+
+    // When
+    crawl(true);
+
+    // Then
+    assertThat(breakers.tryAcquire(sourceId)).isFalse();
+    BreakerSnapshot snapshot = breakers.getSnapshots().get(0);
+    assertThat(snapshot.state()).isEqualTo(State.OPEN);
+    assertThat(snapshot.openUntil()).isEqualTo(now.plus(Duration.ofMinutes(30)));
+  }
+
+  @Test
+  void slowCrawlsOpenTheBreaker() {
+    // Given
+    for (int i = 0; i < 3; i++) {
+      assertThat(breakers.tryAcquire(sourceId)).isTrue();
+      breakers.recordSuccess(sourceId, Duration.ofMinutes(15));
+    }
+
+    // When
+    boolean allowed = breakers.tryAcquire(sourceId);
+
+    // Then
+    assertThat(allowed).isFalse();
+  }
+
+  @Test
+  void halfOpenBreakerLetsOneProbeThroughAndClosesOnSuccess() {
+    // Given
+    openBreaker();
+    now = now.plus(Duration.ofMinutes(31));
+
+    // When
+    boolean probe = breakers.tryAcquire(sourceId);
+    boolean second = breakers.tryAcquire(sourceId);
+    breakers.recordSuccess(sourceId, FAST);
+
+    // Then
+    assertThat(probe).isTrue();
+    assertThat(second).isFalse();
+    assertThat(breakers.tryAcquire(sourceId)).isTrue();
+    assertThat(breakers.getSnapshots().get(0).state()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void failedProbeReopensForLonger() {
+    // Given
+    openBreaker();
+    now = now.plus(Duration.ofMinutes(31));
+    breakers.tryAcquire(sourceId);
+
+    // When
+    breakers.recordFailure(sourceId, FAST);
+
+    // Then
+    BreakerSnapshot snapshot = breakers.getSnapshots().get(0);
+    assertThat(snapshot.state()).isEqualTo(State.OPEN);
+    assertThat(snapshot.openUntil()).isEqualTo(now.plus(Duration.ofHours(1)));
+  }
+
+  @Test
+  void releasedProbeCanBeRetried() {
+    // Given
+    openBreaker();
+    now = now.plus(Duration.ofMinutes(31));
+    breakers.tryAcquire(sourceId);
+
+    // When
+    breakers.release(sourceId);
+
+    // Then
+    assertThat(breakers.tryAcquire(sourceId)).isTrue();
+  }
+
+  @Test
+  void resetClosesTheBreaker() {
+    // Given
+    openBreaker();
+
+    // When
+    boolean reset = breakers.reset(sourceId);
+
+    // Then
+    assertThat(reset).isTrue();
+    assertThat(breakers.tryAcquire(sourceId)).isTrue();
+  }
+
+  private void openBreaker() {
+    for (int i = 0; i < 3; i++) {
+      crawl(true);
+    }
+    assertThat(breakers.tryAcquire(sourceId)).isFalse();
+  }
+
+  private void crawl(boolean failed) {
+    assertThat(breakers.tryAcquire(sourceId)).isTrue();
+    if (failed) {
+      breakers.recordFailure(sourceId, FAST);
+    } else {
+      breakers.recordSuccess(sourceId, FAST);
+    }
+  }
+}
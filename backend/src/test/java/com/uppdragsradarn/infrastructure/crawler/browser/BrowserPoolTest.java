@@ -0,0 +1,49 @@
+package com.uppdragsradarn.infrastructure.crawler.browser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BrowserPoolTest {
+
+  private BrowserPool pool;
+
+  @BeforeEach
+  void setUp() {
+    // Browsers are only launched for the first task, none of these tests starts one
+    pool =
+        new BrowserPool(
+            1, 50, true, List.of("google-analytics.com", " hotjar.com "), "Test", "sv-SE");
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void heavyResourcesAreBlocked() {
+    assertThat(pool.shouldBlock("image", "https://example.com/logo.png")).isTrue();
+    assertThat(pool.shouldBlock("font", "https://example.com/font.woff2")).isTrue();
+    assertThat(pool.shouldBlock("media", "https://example.com/intro.mp4")).isTrue();
+  }
+
+  @Test
+  void analyticsHostsAndTheirSubdomainsAreBlocked() {
+    assertThat(pool.shouldBlock("script", "https://www.google-analytics.com/analytics.js"))
+        .isTrue();
+    assertThat(pool.shouldBlock("xhr", "https://hotjar.com/track")).isTrue();
+  }
+
+  @Test
+  void documentsScriptsAndApiCallsOfTheSiteAreLoaded() {
+    assertThat(pool.shouldBlock("document", "https://www.asocietygroup.com/en/uppdrag")).isFalse();
+    assertThat(pool.shouldBlock("script", "https://www.asocietygroup.com/app.js")).isFalse();
+    assertThat(pool.shouldBlock("fetch", "https://api.asocietygroup.com/jobs")).isFalse();
+    assertThat(pool.shouldBlock("script", "https://notgoogle-analytics.com/x.js")).isFalse();
+  }
+}
@@ -0,0 +1,90 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.uppdragsradarn.infrastructure.crawler.lease.CrawlLeaseManager.LeaseState;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryCrawlLeaseManagerTest {
+
+  private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+  @Mock private Clock clock;
+
+  private InMemoryCrawlLeaseManager leaseManager;
+
+  private final UUID sourceId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    leaseManager = new InMemoryCrawlLeaseManager(Duration.ofSeconds(60), clock);
+  }
+
+  @Test
+  void onlyOneJobHoldsTheLeaseOfASource() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+
+    // When
+    boolean first = leaseManager.tryAcquire(sourceId, "job-1").isPresent();
+    boolean second = leaseManager.tryAcquire(sourceId, "job-2").isPresent();
+
+    // Then
+    assertThat(first).isTrue();
+    assertThat(second).isFalse();
+  }
+
+  @Test
+  void expiredLeaseCanBeTakenOver() {
+    // Given
+    when(clock.instant()).thenReturn(START, START.plusSeconds(61));
+    CrawlLease stale = leaseManager.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    boolean takenOver = leaseManager.tryAcquire(sourceId, "job-2").isPresent();
+
+    // Then
+    assertThat(takenOver).isTrue();
+    assertThat(leaseManager.renew(stale)).isEqualTo(LeaseState.LOST);
+  }
+
+  @Test
+  void cancelRequestIsSeenOnRenewal() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    CrawlLease lease = leaseManager.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    boolean requested = leaseManager.requestCancel("job-1");
+
+    // Then
+    assertThat(requested).isTrue();
+    assertThat(leaseManager.renew(lease)).isEqualTo(LeaseState.CANCEL_REQUESTED);
+    assertThat(leaseManager.requestCancel("unknown-job")).isFalse();
+  }
+
+  @Test
+  void releasedLeaseCanBeAcquiredAgain() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    CrawlLease lease = leaseManager.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    leaseManager.release(lease);
+
+    // Then
+    assertThat(leaseManager.tryAcquire(sourceId, "job-2")).isPresent();
+  }
+}
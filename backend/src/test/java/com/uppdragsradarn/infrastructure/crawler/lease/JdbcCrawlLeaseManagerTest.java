@@ -0,0 +1,124 @@
+package com.uppdragsradarn.infrastructure.crawler.lease;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.uppdragsradarn.infrastructure.crawler.lease.CrawlLeaseManager.LeaseState;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcCrawlLeaseManagerTest {
+
+  private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+
+  @Mock private Clock clock;
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+
+  private final UUID sourceId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    database =
+        new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute(
+        "CREATE TABLE crawl_leases (source_id UUID PRIMARY KEY, job_id VARCHAR(50) NOT NULL,"
+            + " owner VARCHAR(255), acquired_at TIMESTAMP NOT NULL, expires_at TIMESTAMP NOT NULL,"
+            + " cancel_requested BOOLEAN DEFAULT FALSE NOT NULL)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  void secondInstanceCannotAcquireHeldLease() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    JdbcCrawlLeaseManager podA = leaseManager("pod-a");
+    JdbcCrawlLeaseManager podB = leaseManager("pod-b");
+
+    // When
+    boolean acquiredByA = podA.tryAcquire(sourceId, "job-1").isPresent();
+    boolean acquiredByB = podB.tryAcquire(sourceId, "job-2").isPresent();
+
+    // Then
+    assertThat(acquiredByA).isTrue();
+    assertThat(acquiredByB).isFalse();
+  }
+
+  @Test
+  void expiredLeaseIsTakenOverByAnotherInstance() {
+    // Given
+    when(clock.instant()).thenReturn(START, START.plusSeconds(61));
+    JdbcCrawlLeaseManager podA = leaseManager("pod-a");
+    JdbcCrawlLeaseManager podB = leaseManager("pod-b");
+    CrawlLease stale = podA.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    CrawlLease takenOver = podB.tryAcquire(sourceId, "job-2").orElseThrow();
+
+    // Then
+    assertThat(takenOver.owner()).isEqualTo("pod-b");
+    assertThat(podA.renew(stale)).isEqualTo(LeaseState.LOST);
+  }
+
+  @Test
+  void cancelRequestedOnOneInstanceReachesTheHolder() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    JdbcCrawlLeaseManager podA = leaseManager("pod-a");
+    JdbcCrawlLeaseManager podB = leaseManager("pod-b");
+    CrawlLease lease = podA.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    boolean requested = podB.requestCancel("job-1");
+
+    // Then
+    assertThat(requested).isTrue();
+    assertThat(podA.renew(lease)).isEqualTo(LeaseState.CANCEL_REQUESTED);
+  }
+
+  @Test
+  void releaseOnlyRemovesOwnLease() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    JdbcCrawlLeaseManager podA = leaseManager("pod-a");
+    CrawlLease lease = podA.tryAcquire(sourceId, "job-1").orElseThrow();
+
+    // When
+    podA.release(new CrawlLease(sourceId, "other-job", "pod-a"));
+    boolean stillHeld = podA.renew(lease) == LeaseState.HELD;
+    podA.release(lease);
+
+    // Then
+    assertThat(stillHeld).isTrue();
+    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM crawl_leases", Integer.class))
+        .isZero();
+  }
+
+  private JdbcCrawlLeaseManager leaseManager(String owner) {
+    return new JdbcCrawlLeaseManager(jdbcTemplate, Duration.ofSeconds(60), owner, clock);
+  }
+}
@@ -0,0 +1,119 @@
+package com.uppdragsradarn.infrastructure.crawler.politeness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter.Limits;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter.Permit;
+
+@ExtendWith(MockitoExtension.class)
+class HostRateLimiterTest {
+
+  @Mock private CrawlerConfigurationService configurationService;
+
+  private HostRateLimiter limiter;
+
+  @AfterEach
+  void tearDown() {
+    if (limiter != null) {
+      limiter.shutdown();
+    }
+  }
+
+  @Test
+  void burstIsGrantedAtOnceAndLaterRequestsWaitForTokens() throws Exception {
+    limiter = new HostRateLimiter(true, new Limits(2, 2, 10), configurationService);
+
+    limiter.acquireAsync("https://example.com/1").get(1, TimeUnit.SECONDS);
+    limiter.acquireAsync("https://example.com/2").get(1, TimeUnit.SECONDS);
+    CompletableFuture<Permit> third = limiter.acquireAsync("https://example.com/3");
+
+    assertThat(third).isNotDone();
+    third.get(2, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void concurrentRequestsWaitForAFreeSlot() throws Exception {
+    limiter = new HostRateLimiter(true, new Limits(1000, 10, 1), configurationService);
+
+    Permit first = limiter.acquireAsync("https://example.com/1").get(1, TimeUnit.SECONDS);
+    CompletableFuture<Permit> second = limiter.acquireAsync("https://example.com/2");
+
+    assertThat(second).isNotDone();
+    first.close();
+    second.get(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void hostsAreLimitedIndependently() throws Exception {
+    limiter = new HostRateLimiter(true, new Limits(1000, 10, 1), configurationService);
+
+    limiter.acquireAsync("https://one.example.com/jobs").get(1, TimeUnit.SECONDS);
+
+    limiter.acquireAsync("https://two.example.com/jobs").get(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void sourceConfigurationOverridesDefaults() {
+    limiter = new HostRateLimiter(true, new Limits(2, 4, 2), configurationService);
+    when(configurationService.getConfiguration(any()))
+        .thenReturn(
+            CrawlerConfiguration.builder().requestsPerMinute(30).maxConcurrentRequests(5).build());
+
+    Limits limits = limiter.limitsFor(Source.builder().id(UUID.randomUUID()).build());
+
+    assertThat(limits).isEqualTo(new Limits(0.5, 4, 5));
+  }
+
+  @Test
+  void sourcesWithOtherLimitsShareTheHostsSlotsAndTokens() throws Exception {
+    limiter = new HostRateLimiter(true, new Limits(2, 4, 2), configurationService);
+    Source strict = Source.builder().id(UUID.randomUUID()).build();
+    Source relaxed = Source.builder().id(UUID.randomUUID()).build();
+    when(configurationService.getConfiguration(strict))
+        .thenReturn(
+            CrawlerConfiguration.builder()
+                .requestsPerSecond(1000.0)
+                .burstLimit(1)
+                .maxConcurrentRequests(1)
+                .build());
+    when(configurationService.getConfiguration(relaxed))
+        .thenReturn(
+            CrawlerConfiguration.builder()
+                .requestsPerSecond(1.0)
+                .burstLimit(1)
+                .maxConcurrentRequests(1)
+                .build());
+
+    Permit first = limiter.acquireAsync(strict, "https://example.com/1").get(1, TimeUnit.SECONDS);
+    CompletableFuture<Permit> second = limiter.acquireAsync(relaxed, "https://example.com/2");
+
+    // Neither a fresh slot nor a fresh token for the other source
+    assertThat(second).isNotDone();
+    first.close();
+    second.get(2, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void disabledLimiterGrantsEverything() {
+    limiter = new HostRateLimiter(false, new Limits(1, 1, 1), configurationService);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.acquireAsync("https://example.com/" + i)).isDone();
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.uppdragsradarn.infrastructure.crawler.providers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.util.UUID;
@@ -12,11 +13,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.uppdragsradarn.application.service.LocationService;
 import com.uppdragsradarn.crawler.CrawlerTestUtils;
+import com.uppdragsradarn.domain.model.CrawlerException;
 import com.uppdragsradarn.domain.model.Source;
 import com.uppdragsradarn.domain.model.SourceType;
 import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.crawler.browser.BrowserPool;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 @ExtendWith(MockitoExtension.class)
 class ASocietyProviderTest {
@@ -37,7 +41,12 @@ class ASocietyProviderTest {
     aSocietyProvider =
         spy(
             new ASocietyProvider(
-                locationService, skillRepository, currencyRepository, statusTypeRepository));
+                mock(SharedHttpClients.class),
+                mock(BrowserPool.class),
+                locationService,
+                skillRepository,
+                currencyRepository,
+                statusTypeRepository));
 
     SourceType aSocietySourceType = CrawlerTestUtils.createTestSourceType("ASOCIETYGROUP");
     SourceType webScraperSourceType = CrawlerTestUtils.createTestSourceType("WEB_SCRAPER");
@@ -93,9 +102,10 @@ class ASocietyProviderTest {
   }
 
   @Test
-  void getAssignments_shouldReturnEmptyList_whenExceptionIsThrown() {
+  void getAssignments_shouldThrowCrawlerException_whenExceptionIsThrown() {
     doThrow(new RuntimeException("Test exception")).when(aSocietyProvider).fetchAndParse(any());
-    var assignments = aSocietyProvider.getAssignments(aSocietySource);
-    assertThat(assignments).isEmpty();
+    assertThatThrownBy(() -> aSocietyProvider.getAssignments(aSocietySource))
+        .isInstanceOf(CrawlerException.class)
+        .hasMessageContaining("Test exception");
   }
 }
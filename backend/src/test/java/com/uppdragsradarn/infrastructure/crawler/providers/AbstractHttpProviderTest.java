@@ -0,0 +1,208 @@
+package com.uppdragsradarn.infrastructure.crawler.providers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.http.FetchedPage;
+
+class AbstractHttpProviderTest {
+
+  @Test
+  void resultsAreHandledInListingOrderWhenLaterPagesArriveFirst() throws Exception {
+    // Given
+    List<CompletableFuture<FetchedPage>> fetches = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch allStarted = new CountDownLatch(4);
+    DetailPageProvider provider =
+        new DetailPageProvider(
+            url -> {
+              CompletableFuture<FetchedPage> page = new CompletableFuture<>();
+              fetches.add(page);
+              allStarted.countDown();
+              return page;
+            });
+    provider.detailConcurrency = 4;
+    List<Integer> arrived = Collections.synchronizedList(new ArrayList<>());
+    Thread server =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    allStarted.await();
+                    for (int i = 3; i >= 0; i--) {
+                      arrived.add(i + 1);
+                      fetches.get(i).complete(new FetchedPage("page " + (i + 1), false));
+                      Thread.sleep(10);
+                    }
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                });
+
+    // When
+    List<String> results =
+        provider.processDetailPages(
+            List.of(1, 2, 3, 4),
+            item -> "https://example.com/jobs/" + item,
+            (item, detail) -> item + ": " + detail.body());
+    server.join();
+
+    // Then
+    assertThat(arrived).containsExactly(4, 3, 2, 1);
+    assertThat(results).containsExactly("1: page 1", "2: page 2", "3: page 3", "4: page 4");
+  }
+
+  @Test
+  void failedDetailPageOnlyAffectsItsOwnItem() throws Exception {
+    // Given
+    DetailPageProvider provider =
+        new DetailPageProvider(
+            url ->
+                url.endsWith("/2")
+                    ? CompletableFuture.failedFuture(new CrawlerException("HTTP error: 500"))
+                    : CompletableFuture.completedFuture(
+                        new FetchedPage("page " + url.substring(url.lastIndexOf('/') + 1), false)));
+
+    // When
+    List<String> results =
+        provider.processDetailPages(
+            List.of(1, 2, 3, 4, 5),
+            item -> item == 5 ? null : "https://example.com/jobs/" + item,
+            (item, detail) -> {
+              if (item == 3) {
+                throw new IllegalStateException("Unexpected page layout");
+              }
+              return item + ": " + (detail != null ? detail.body() : "no page");
+            });
+
+    // Then
+    assertThat(results).containsExactly("1: page 1", "2: no page", "4: page 4", "5: no page");
+  }
+
+  @Test
+  void noMoreThanTheWindowOfPagesIsFetchedAhead() throws Exception {
+    // Given
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger handled = new AtomicInteger();
+    AtomicInteger maxAhead = new AtomicInteger();
+    DetailPageProvider provider =
+        new DetailPageProvider(
+            url -> {
+              maxAhead.accumulateAndGet(started.incrementAndGet() - handled.get(), Math::max);
+              return CompletableFuture.supplyAsync(
+                  () -> new FetchedPage(url, false),
+                  CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS));
+            });
+    provider.detailConcurrency = 2;
+    List<Integer> items = List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+
+    // When
+    List<Integer> results =
+        provider.processDetailPages(
+            items,
+            item -> "https://example.com/jobs/" + item,
+            (item, detail) -> {
+              handled.incrementAndGet();
+              return item;
+            });
+
+    // Then
+    assertThat(results).isEqualTo(items);
+    assertThat(started).hasValue(10);
+    assertThat(maxAhead).hasValue(2);
+  }
+
+  @Test
+  void deferredAssignmentsArePreparedForTheSinkThatRunsTheDelivery() throws Exception {
+    // Given
+    Source source = new Source();
+    source.setName("Deferring Source");
+    DetailPageProvider provider =
+        new DetailPageProvider(url -> CompletableFuture.failedFuture(new AssertionError(url))) {
+          @Override
+          protected void fetchAndStream(Source crawled, AssignmentSink sink) {
+            try {
+              sink.acceptLater(
+                  target -> {
+                    Assignment assignment = new Assignment();
+                    assignment.setExternalId("deferred");
+                    target.accept(assignment);
+                  });
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        };
+    List<AssignmentSink.Deferred> deferred = new ArrayList<>();
+    List<Assignment> crawled = new ArrayList<>();
+    provider.streamAssignments(
+        source,
+        new AssignmentSink() {
+          @Override
+          public void accept(Assignment assignment) {
+            crawled.add(assignment);
+          }
+
+          @Override
+          public void acceptLater(Deferred later) {
+            deferred.add(later);
+          }
+        });
+
+    // When
+    List<Assignment> delivered = new ArrayList<>();
+    for (AssignmentSink.Deferred later : deferred) {
+      later.deliver(delivered::add);
+    }
+
+    // Then
+    assertThat(crawled).isEmpty();
+    assertThat(delivered).singleElement().extracting(Assignment::getSource).isSameAs(source);
+  }
+
+  /** Provider whose fetches are answered by the test */
+  private static class DetailPageProvider extends AbstractHttpProvider {
+
+    private final Function<String, CompletableFuture<FetchedPage>> pages;
+
+    DetailPageProvider(Function<String, CompletableFuture<FetchedPage>> pages) {
+      this.pages = pages;
+    }
+
+    @Override
+    protected CompletableFuture<FetchedPage> fetchPageAsync(
+        String url, Map<String, String> headers, Duration deadline) {
+      return pages.apply(url);
+    }
+
+    @Override
+    protected List<Assignment> fetchAndParse(Source source) {
+      return List.of();
+    }
+
+    @Override
+    public String getName() {
+      return "Detail Page Provider";
+    }
+
+    @Override
+    public boolean supports(Source source) {
+      return true;
+    }
+  }
+}
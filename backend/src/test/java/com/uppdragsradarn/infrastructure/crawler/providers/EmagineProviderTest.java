@@ -16,6 +16,7 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 /**
  * Tests for EmagineProvider. Note: Complex extraction tests have been moved to
@@ -37,10 +38,10 @@ class EmagineProviderTest {
 
     emagineProvider =
         new EmagineProvider(
-            5,
             "TestUserAgent",
             10,
             "https://emagine-consulting.se",
+            mock(SharedHttpClients.class),
             locationService,
             skillRepository,
             currencyRepository,
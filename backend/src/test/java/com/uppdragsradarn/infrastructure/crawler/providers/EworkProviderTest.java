@@ -3,13 +3,19 @@ package com.uppdragsradarn.infrastructure.crawler.providers;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
 import com.uppdragsradarn.application.service.LocationService;
 import com.uppdragsradarn.crawler.CrawlerTestUtils;
 import com.uppdragsradarn.domain.model.Assignment;
@@ -19,6 +25,10 @@ import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class EworkProviderTest {
 
@@ -39,11 +49,11 @@ class EworkProviderTest {
 
     eworkProvider =
         new EworkProvider(
-            5,
             "TestUserAgent",
             10,
             "https://test-ework.com",
             20,
+            mock(SharedHttpClients.class),
             locationService,
             skillRepository,
             currencyRepository,
@@ -207,4 +217,112 @@ class EworkProviderTest {
     assertThat(assignment.getDescription()).contains("Docker");
     assertThat(assignment.getDescription()).contains("Kubernetes");
   }
+
+  @Test
+  void fetchAndStream_shouldStopPagingWhenSinkAsksTo() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    byte[] page =
+        """
+        {"content": [{"id": 1, "title": "Known Job", "locations": [], "skills": []}]}
+        """
+            .getBytes(StandardCharsets.UTF_8);
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/api/public/job-requests",
+        exchange -> {
+          requests.incrementAndGet();
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, page.length);
+          exchange.getResponseBody().write(page);
+          exchange.close();
+        });
+    server.start();
+    SharedHttpClients httpClients =
+        new SharedHttpClients(5, 0, 1000, 10, 2, "60s", new SimpleMeterRegistry(), null);
+    try {
+      EworkProvider provider =
+          new EworkProvider(
+              "TestUserAgent",
+              10,
+              "http://localhost:" + server.getAddress().getPort(),
+              1,
+              httpClients,
+              mock(LocationService.class),
+              mock(SkillRepository.class),
+              mock(CurrencyRepository.class),
+              mock(SourceTypeRepository.class),
+              mock(StatusTypeRepository.class));
+
+      // A sink that treats every page as already known
+      List<Assignment> received = new ArrayList<>();
+      AssignmentSink sink =
+          new AssignmentSink() {
+            @Override
+            public void accept(Assignment assignment) {
+              received.add(assignment);
+            }
+
+            @Override
+            public boolean shouldStopPaging(List<Assignment> pageAssignments) {
+              return true;
+            }
+          };
+
+      provider.fetchAndStream(eworkSource, sink);
+
+      // Only the first page was fetched even though maxAssignments allows ten
+      assertThat(received).hasSize(1);
+      assertThat(requests.get()).isEqualTo(1);
+    } finally {
+      httpClients.shutdown();
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void fetchAndStream_shouldStreamPrefetchedPagesInOrder() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/api/public/job-requests",
+        exchange -> {
+          String query = exchange.getRequestURI().getQuery();
+          int page = Integer.parseInt(query.replaceAll("page=(\\d+).*", "$1"));
+          String content =
+              page < 3
+                  ? "{\"id\": " + page + ", \"title\": \"Job\", \"locations\": [], \"skills\": []}"
+                  : "";
+          byte[] body = ("{\"content\": [" + content + "]}").getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+    SharedHttpClients httpClients =
+        new SharedHttpClients(5, 0, 1000, 10, 2, "60s", new SimpleMeterRegistry(), null);
+    try {
+      EworkProvider provider =
+          new EworkProvider(
+              "TestUserAgent",
+              10,
+              "http://localhost:" + server.getAddress().getPort(),
+              1,
+              httpClients,
+              mock(LocationService.class),
+              mock(SkillRepository.class),
+              mock(CurrencyRepository.class),
+              mock(SourceTypeRepository.class),
+              mock(StatusTypeRepository.class));
+      ReflectionTestUtils.setField(provider, "prefetchPages", 2);
+
+      List<Assignment> received = new ArrayList<>();
+      provider.fetchAndStream(eworkSource, received::add);
+
+      // Pages downloaded ahead arrive in listing order, the empty page ends the crawl
+      assertThat(received).extracting(Assignment::getExternalId).containsExactly("0", "1", "2");
+    } finally {
+      httpClients.shutdown();
+      server.stop(0);
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package com.uppdragsradarn.infrastructure.crawler.providers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import java.util.*;
@@ -12,13 +13,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.uppdragsradarn.application.service.LocationService;
 import com.uppdragsradarn.crawler.CrawlerTestUtils;
-import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
 import com.uppdragsradarn.domain.model.Source;
 import com.uppdragsradarn.domain.model.SourceType;
 import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.SourceTypeRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 
 @ExtendWith(MockitoExtension.class)
 class ExperisProviderTest {
@@ -38,11 +40,11 @@ class ExperisProviderTest {
 
     experisProvider =
         new ExperisProvider(
-            5,
             "TestUserAgent",
             10,
             "https://www.experis.se",
             20,
+            mock(SharedHttpClients.class),
             locationService,
             skillRepository,
             currencyRepository,
@@ -103,10 +105,11 @@ class ExperisProviderTest {
   }
 
   @Test
-  void getAssignments_shouldReturnEmptyList_whenExceptionIsThrown() {
+  void getAssignments_shouldThrowCrawlerException_whenExceptionIsThrown() {
     ExperisProvider spyProvider = spy(experisProvider);
     doThrow(new RuntimeException("Test exception")).when(spyProvider).fetchAndParse(any());
-    List<Assignment> assignments = spyProvider.getAssignments(experisSource);
-    assertThat(assignments).isEmpty();
+    assertThatThrownBy(() -> spyProvider.getAssignments(experisSource))
+        .isInstanceOf(CrawlerException.class)
+        .hasMessageContaining("Test exception");
   }
 }
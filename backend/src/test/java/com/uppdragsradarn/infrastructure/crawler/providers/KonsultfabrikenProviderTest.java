@@ -0,0 +1,111 @@
+package com.uppdragsradarn.infrastructure.crawler.providers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.application.service.LocationService;
+import com.uppdragsradarn.domain.model.Assignment;
+import com.uppdragsradarn.domain.model.CrawlerException;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.CurrencyRepository;
+import com.uppdragsradarn.domain.repository.SkillRepository;
+import com.uppdragsradarn.domain.repository.SourceTypeRepository;
+import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.infrastructure.http.FetchedPage;
+
+class KonsultfabrikenProviderTest {
+
+  private static final String LISTINGS_URL = "https://www.konsultfabriken.se/all-assignments.php";
+  private static final String DETAIL_URL = "https://www.konsultfabriken.se/job.php?id=";
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  private Source source;
+
+  @BeforeEach
+  void setUp() {
+    source =
+        Source.builder()
+            .id(UUID.randomUUID())
+            .name("Konsultfabriken")
+            .baseUrl("https://www.konsultfabriken.se")
+            .active(true)
+            .build();
+  }
+
+  @Test
+  void detailPagesAreFetchedConcurrentlyAndAppliedInListingOrder() throws Exception {
+    // Given
+    KonsultfabrikenProvider provider = provider();
+    provider.detailConcurrency = 2;
+
+    // When
+    List<Assignment> assignments = provider.getAssignments(source);
+
+    // Then
+    assertThat(assignments)
+        .extracting(Assignment::getExternalId)
+        .containsExactly("101", "102", "103", "104");
+    assertThat(assignments.get(0).getDescription()).contains("Uppdrag 101");
+    // The failed detail page keeps its listing data
+    assertThat(assignments.get(1).getTitle()).isEqualTo("Testare Göteborg");
+    assertThat(assignments.get(1).getDescription()).isNull();
+    assertThat(assignments.get(2).getDescription()).contains("Uppdrag 103");
+    assertThat(assignments.get(3).getDescription()).contains("Uppdrag 104");
+    assertThat(maxInFlight).hasValue(2);
+  }
+
+  /** The provider, with pages served by the test: later detail pages answer sooner */
+  private KonsultfabrikenProvider provider() {
+    return new KonsultfabrikenProvider(
+        mock(LocationService.class),
+        mock(SkillRepository.class),
+        mock(CurrencyRepository.class),
+        mock(SourceTypeRepository.class),
+        mock(StatusTypeRepository.class)) {
+      @Override
+      protected CompletableFuture<FetchedPage> fetchPageAsync(
+          String url, Map<String, String> headers, Duration deadline) {
+        if (url.equals(LISTINGS_URL)) {
+          return CompletableFuture.completedFuture(new FetchedPage(listing(), false));
+        }
+        int id = Integer.parseInt(url.substring(DETAIL_URL.length()));
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        CompletableFuture<FetchedPage> page =
+            CompletableFuture.supplyAsync(
+                () -> {
+                  if (id == 102) {
+                    throw new CrawlerException("HTTP error: 500");
+                  }
+                  return new FetchedPage(
+                      "<html><body><main>Uppdrag " + id + " med Java</main></body></html>", false);
+                },
+                CompletableFuture.delayedExecutor((105 - id) * 10L, TimeUnit.MILLISECONDS));
+        return page.whenComplete((result, error) -> inFlight.decrementAndGet());
+      }
+    };
+  }
+
+  private static String listing() {
+    return """
+        <html><body>
+          <p>05/03 <a href="job.php?id=101">Javautvecklare Stockholm</a></p>
+          <p>04/03 <a href="job.php?id=102">Testare Göteborg</a></p>
+          <p>03/03 <a href="job.php?id=103">Arkitekt Malmö</a></p>
+          <p>02/03 <a href="job.php?id=104">Projektledare Uppsala</a></p>
+        </body></html>
+        """;
+  }
+}
@@ -0,0 +1,120 @@
+package com.uppdragsradarn.infrastructure.crawler.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+import com.uppdragsradarn.domain.model.StatusType;
+import com.uppdragsradarn.infrastructure.crawler.schedule.CrawlIntervalCalculator.CrawlSchedule;
+import com.uppdragsradarn.infrastructure.crawler.schedule.CrawlIntervalCalculator.ScheduleBounds;
+
+class CrawlIntervalCalculatorTest {
+
+  private static final Duration MIN = Duration.ofMinutes(30);
+  private static final Duration MAX = Duration.ofHours(24);
+  private static final ScheduleBounds BOUNDS =
+      new ScheduleBounds(MIN, MAX, Duration.ofHours(6), true);
+  private static final LocalDateTime LAST_RUN = LocalDateTime.of(2025, 3, 10, 8, 0);
+
+  private final CrawlIntervalCalculator calculator = new CrawlIntervalCalculator(0.2, 8);
+
+  @Test
+  void neverCrawledSourceIsDueImmediately() {
+    // When
+    CrawlSchedule schedule = calculator.calculate(List.of(), BOUNDS);
+
+    // Then
+    assertThat(schedule.nextCrawl()).isNull();
+    assertThat(schedule.isDue(LocalDateTime.now())).isTrue();
+    assertThat(schedule.interval()).isEqualTo(Duration.ofHours(6));
+  }
+
+  @Test
+  void frequentlyChangingSourceUsesMinimumInterval() {
+    // Given
+    List<CrawlerJobExecution> history =
+        List.of(job(LAST_RUN, 100, 30, 10), job(LAST_RUN.minusHours(1), 100, 25, 5));
+
+    // When
+    CrawlSchedule schedule = calculator.calculate(history, BOUNDS);
+
+    // Then
+    assertThat(schedule.interval()).isEqualTo(MIN);
+    assertThat(schedule.nextCrawl()).isEqualTo(LAST_RUN.plus(MIN));
+  }
+
+  @Test
+  void staticSourceUsesMaximumInterval() {
+    // Given
+    List<CrawlerJobExecution> history =
+        List.of(job(LAST_RUN, 40, 0, 0), job(LAST_RUN.minusDays(1), 40, 0, 0));
+
+    // When
+    CrawlSchedule schedule = calculator.calculate(history, BOUNDS);
+
+    // Then
+    assertThat(schedule.interval()).isEqualTo(MAX);
+    assertThat(schedule.changeRatio()).isZero();
+  }
+
+  @Test
+  void moderateChangeRateFallsBetweenLimits() {
+    // Given
+    List<CrawlerJobExecution> history = List.of(job(LAST_RUN, 100, 5, 0));
+
+    // When
+    CrawlSchedule schedule = calculator.calculate(history, BOUNDS);
+
+    // Then
+    assertThat(schedule.interval()).isGreaterThan(MIN).isLessThan(MAX);
+  }
+
+  @Test
+  void quietHoursStretchTheInterval() {
+    // Given: changes always appear in runs starting at 08:00, never in runs at 23:00
+    List<CrawlerJobExecution> history = new ArrayList<>();
+    for (int day = 0; day < 5; day++) {
+      history.add(job(LAST_RUN.minusDays(day), 100, 4, 0));
+      history.add(job(LAST_RUN.minusDays(day).minusHours(9), 100, 0, 0));
+    }
+    CrawlSchedule withoutPattern =
+        new CrawlIntervalCalculator(0.2, Integer.MAX_VALUE).calculate(history, BOUNDS);
+
+    // When
+    CrawlSchedule withPattern = calculator.calculate(history, BOUNDS);
+
+    // Then
+    assertThat(withPattern.interval()).isGreaterThan(withoutPattern.interval());
+  }
+
+  @Test
+  void nonAdaptiveSourceUsesFixedInterval() {
+    // Given
+    ScheduleBounds fixed = new ScheduleBounds(MIN, MAX, Duration.ofHours(2), false);
+
+    // When
+    CrawlSchedule schedule = calculator.calculate(List.of(job(LAST_RUN, 100, 50, 0)), fixed);
+
+    // Then
+    assertThat(schedule.interval()).isEqualTo(Duration.ofHours(2));
+    assertThat(schedule.nextCrawl()).isEqualTo(LAST_RUN.plusHours(2));
+  }
+
+  private CrawlerJobExecution job(LocalDateTime start, int found, int created, int updated) {
+    StatusType success = new StatusType();
+    success.setName("SUCCESS");
+    return CrawlerJobExecution.builder()
+        .startTime(start)
+        .status(success)
+        .assignmentsFound(found)
+        .assignmentsCreated(created)
+        .assignmentsUpdated(updated)
+        .build();
+  }
+}
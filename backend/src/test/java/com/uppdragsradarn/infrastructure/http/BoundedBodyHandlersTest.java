@@ -0,0 +1,213 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class BoundedBodyHandlersTest {
+
+  private static final String PAGE =
+      "<html><body>" + "Java developer ".repeat(50) + "</body></html>";
+
+  private final CountDownLatch restOfBody = new CountDownLatch(1);
+  private final AtomicBoolean bodySent = new AtomicBoolean();
+
+  private HttpServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/small", exchange -> respond(exchange, "x".repeat(100), false));
+    server.createContext("/large", exchange -> respond(exchange, "x".repeat(10_000), false));
+    server.createContext("/chunked", exchange -> respond(exchange, "x".repeat(10_000), true));
+    server.createContext("/gzip", exchange -> respondCompressed(exchange, "gzip", gzip(PAGE)));
+    server.createContext(
+        "/deflate", exchange -> respondCompressed(exchange, "deflate", deflate(PAGE, true)));
+    server.createContext(
+        "/bomb", exchange -> respondCompressed(exchange, "gzip", gzip("x".repeat(100_000))));
+    server.createContext("/slow-bomb", this::respondSlowBomb);
+    server.createContext("/not-modified", exchange -> respondEmpty(exchange, "gzip", 304));
+    server.createContext("/no-content", exchange -> respondEmpty(exchange, "br", 204));
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    restOfBody.countDown();
+    client.close();
+    server.stop(0);
+  }
+
+  @Test
+  void bodyWithinTheLimitIsRead() throws Exception {
+    String body = client.send(request("/small"), BoundedBodyHandlers.ofString(1024)).body();
+
+    assertThat(body).hasSize(100);
+  }
+
+  @Test
+  void bodyAnnouncedAsTooLargeIsRefused() {
+    assertThatThrownBy(() -> client.send(request("/large"), BoundedBodyHandlers.ofString(1024)))
+        .satisfies(error -> assertThat(BoundedBodyHandlers.tooLarge(error)).isNotNull());
+  }
+
+  @Test
+  void bodyWithoutLengthIsCutOffOverTheLimit() {
+    assertThatThrownBy(() -> client.send(request("/chunked"), BoundedBodyHandlers.ofString(1024)))
+        .satisfies(error -> assertThat(BoundedBodyHandlers.tooLarge(error)).isNotNull());
+  }
+
+  @Test
+  void gzipBodyIsDecodedAndItsSizesReported() throws Exception {
+    AtomicLong wire = new AtomicLong();
+    AtomicLong decoded = new AtomicLong();
+    String body =
+        client
+            .send(
+                request("/gzip"),
+                BoundedBodyHandlers.ofString(
+                    10_000,
+                    (encoding, wireBytes, decodedBytes) -> {
+                      assertThat(encoding).isEqualTo("gzip");
+                      wire.set(wireBytes);
+                      decoded.set(decodedBytes);
+                    }))
+            .body();
+
+    assertThat(body).isEqualTo(PAGE);
+    assertThat(decoded.get()).isEqualTo(PAGE.length());
+    assertThat(wire.get()).isLessThan(decoded.get());
+  }
+
+  @Test
+  void rawDeflateBodyIsDecoded() throws Exception {
+    String body = client.send(request("/deflate"), BoundedBodyHandlers.ofString(10_000)).body();
+
+    assertThat(body).isEqualTo(PAGE);
+  }
+
+  @Test
+  void emptyCompressedBodyIsEmpty() throws Exception {
+    HttpResponse<String> notModified =
+        client.send(request("/not-modified"), BoundedBodyHandlers.ofString(10_000));
+    HttpResponse<String> noContent =
+        client.send(request("/no-content"), BoundedBodyHandlers.ofString(10_000));
+
+    assertThat(notModified.statusCode()).isEqualTo(304);
+    assertThat(notModified.body()).isEmpty();
+    assertThat(noContent.statusCode()).isEqualTo(204);
+    assertThat(noContent.body()).isEmpty();
+  }
+
+  @Test
+  void decodedBodyOverTheLimitIsRefused() {
+    assertThatThrownBy(() -> client.send(request("/bomb"), BoundedBodyHandlers.ofString(10_000)))
+        .satisfies(error -> assertThat(BoundedBodyHandlers.tooLarge(error)).isNotNull());
+  }
+
+  @Test
+  void compressedBodyIsCutOffAsSoonAsItDecodesOverTheLimit() {
+    assertThatThrownBy(
+            () -> client.send(request("/slow-bomb"), BoundedBodyHandlers.ofString(10_000)))
+        .satisfies(error -> assertThat(BoundedBodyHandlers.tooLarge(error)).isNotNull());
+
+    // Refused on the first part, while the server was still holding back the rest
+    assertThat(bodySent).isFalse();
+  }
+
+  private HttpRequest request(String path) {
+    return HttpRequest.newBuilder(
+            URI.create("http://localhost:" + server.getAddress().getPort() + path))
+        .build();
+  }
+
+  private static void respond(HttpExchange exchange, String body, boolean chunked)
+      throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, chunked ? 0 : bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    } catch (IOException e) {
+      // The client hung up on an oversized body
+    }
+    exchange.close();
+  }
+
+  private static void respondCompressed(HttpExchange exchange, String encoding, byte[] body)
+      throws IOException {
+    exchange.getResponseHeaders().add("Content-Encoding", encoding);
+    exchange.sendResponseHeaders(200, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+    exchange.close();
+  }
+
+  /** Send a gzip body that crosses 10 000 decoded bytes in its first part, the rest on demand */
+  private void respondSlowBomb(HttpExchange exchange) throws IOException {
+    exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+    exchange.sendResponseHeaders(200, 0);
+    try (GZIPOutputStream out = new GZIPOutputStream(exchange.getResponseBody(), true)) {
+      out.write("x".repeat(50_000).getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      if (restOfBody.await(10, TimeUnit.SECONDS)) {
+        return;
+      }
+      out.write("x".repeat(50_000).getBytes(StandardCharsets.UTF_8));
+      bodySent.set(true);
+    } catch (IOException | InterruptedException e) {
+      // The client hung up on an oversized body
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static void respondEmpty(HttpExchange exchange, String encoding, int status)
+      throws IOException {
+    exchange.getResponseHeaders().add("Content-Encoding", encoding);
+    exchange.sendResponseHeaders(status, -1);
+    exchange.close();
+  }
+
+  private static byte[] gzip(String text) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] deflate(String text, boolean raw) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DeflaterOutputStream out =
+        new DeflaterOutputStream(bytes, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+    return bytes.toByteArray();
+  }
+}
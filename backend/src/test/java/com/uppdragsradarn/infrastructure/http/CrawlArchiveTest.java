@@ -0,0 +1,135 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpServer;
+
+class CrawlArchiveTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void recordedExchangesAreReplayedWithoutTheServer() throws Exception {
+    Path file = directory.resolve("crawl.warc.gz");
+    AtomicInteger hits = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/jobs",
+        exchange -> {
+          byte[] body =
+              ("<html>page " + hits.incrementAndGet() + "</html>").getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "text/html; charset=UTF-8");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/jobs");
+
+    CrawlArchive recorder = new CrawlArchive(CrawlArchive.Mode.RECORD, file, Duration.ZERO);
+    try (HttpClient jdk = HttpClient.newHttpClient()) {
+      HttpClient client =
+          new ArchiveHttpClient(jdk, recorder, Executors.newVirtualThreadPerTaskExecutor());
+      assertThat(send(client, uri)).isEqualTo("<html>page 1</html>");
+      assertThat(send(client, uri)).isEqualTo("<html>page 2</html>");
+    } finally {
+      recorder.close();
+      server.stop(0);
+    }
+
+    CrawlArchive replayer = new CrawlArchive(CrawlArchive.Mode.REPLAY, file, Duration.ZERO);
+    try (HttpClient jdk = HttpClient.newHttpClient()) {
+      HttpClient client =
+          new ArchiveHttpClient(jdk, replayer, Executors.newVirtualThreadPerTaskExecutor());
+      HttpResponse<String> first =
+          client.send(HttpRequest.newBuilder(uri).build(), BoundedBodyHandlers.ofString(1024));
+      assertThat(first.statusCode()).isEqualTo(200);
+      assertThat(first.headers().firstValue("Content-Type")).contains("text/html; charset=UTF-8");
+      assertThat(first.body()).isEqualTo("<html>page 1</html>");
+      assertThat(send(client, uri)).isEqualTo("<html>page 2</html>");
+      // Later requests repeat the last recording
+      assertThat(send(client, uri)).isEqualTo("<html>page 2</html>");
+    } finally {
+      replayer.close();
+    }
+    assertThat(hits).hasValue(2);
+  }
+
+  @Test
+  void requestsAreToldApartByTheirBody() throws Exception {
+    Path file = directory.resolve("api.warc.gz");
+    CrawlArchive recorder = new CrawlArchive(CrawlArchive.Mode.RECORD, file, Duration.ZERO);
+    recorder.record(exchange("{\"page\":1}", "first"));
+    recorder.record(exchange("{\"page\":2}", "second"));
+    recorder.close();
+
+    CrawlArchive replayer = new CrawlArchive(CrawlArchive.Mode.REPLAY, file, Duration.ZERO);
+    try {
+      assertThat(replay(replayer, "{\"page\":2}")).isEqualTo("second");
+      assertThat(replay(replayer, "{\"page\":1}")).isEqualTo("first");
+      assertThat(replayer.replay("POST", "https://example.com/api", new byte[0])).isNull();
+    } finally {
+      replayer.close();
+    }
+  }
+
+  @Test
+  void unrecordedRequestFailsOnReplay() throws Exception {
+    Path file = directory.resolve("empty.warc.gz");
+    new CrawlArchive(CrawlArchive.Mode.RECORD, file, Duration.ZERO).close();
+
+    CrawlArchive replayer = new CrawlArchive(CrawlArchive.Mode.REPLAY, file, Duration.ZERO);
+    try (HttpClient jdk = HttpClient.newHttpClient()) {
+      HttpClient client =
+          new ArchiveHttpClient(jdk, replayer, Executors.newVirtualThreadPerTaskExecutor());
+      assertThatThrownBy(() -> send(client, URI.create("https://example.com/missing")))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("Not in crawl archive");
+    } finally {
+      replayer.close();
+    }
+  }
+
+  private static String send(HttpClient client, URI uri) throws Exception {
+    return client
+        .send(HttpRequest.newBuilder(uri).build(), BoundedBodyHandlers.ofString(1024))
+        .body();
+  }
+
+  private static CrawlArchive.Exchange exchange(String requestBody, String responseBody) {
+    return new CrawlArchive.Exchange(
+        "POST",
+        "https://example.com/api",
+        requestBody.getBytes(StandardCharsets.UTF_8),
+        200,
+        Map.of("Content-Type", List.of("application/json")),
+        responseBody.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String replay(CrawlArchive archive, String requestBody) throws IOException {
+    CrawlArchive.Exchange exchange =
+        archive.replay(
+            "POST", "https://example.com/api", requestBody.getBytes(StandardCharsets.UTF_8));
+    return new String(exchange.body(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,86 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HttpResponseCacheTest {
+
+  private static final String URL = "https://example.com/jobs";
+
+  @TempDir Path directory;
+
+  private HttpResponseCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new HttpResponseCache(true, directory, 1024);
+    cache.load();
+  }
+
+  @Test
+  void storedPageIsRevalidatedWithItsValidators() {
+    cache.store(URL, "\"abc\"", "Wed, 01 Jan 2025 10:00:00 GMT", "<html>jobs</html>");
+
+    assertThat(cache.validators(URL))
+        .containsEntry("If-None-Match", "\"abc\"")
+        .containsEntry("If-Modified-Since", "Wed, 01 Jan 2025 10:00:00 GMT");
+    assertThat(cache.cachedBody(URL)).contains("<html>jobs</html>");
+  }
+
+  @Test
+  void pageWithoutValidatorsIsNotCached() {
+    cache.store(URL, null, null, "<html>jobs</html>");
+
+    assertThat(cache.validators(URL)).isEmpty();
+    assertThat(cache.cachedBody(URL)).isEmpty();
+  }
+
+  @Test
+  void identicalBodiesAreStoredOnce() {
+    cache.store(URL, "\"a\"", null, "same");
+    cache.store(URL + "?page=2", "\"b\"", null, "same");
+
+    assertThat(cache.getSize()).isEqualTo(4);
+    cache.remove(URL);
+    assertThat(cache.cachedBody(URL + "?page=2")).contains("same");
+  }
+
+  @Test
+  void leastRecentlyUsedPagesAreEvictedOverTheSizeLimit() {
+    String body = "x".repeat(400);
+    cache.store("https://example.com/1", "\"1\"", null, body + "1");
+    cache.store("https://example.com/2", "\"2\"", null, body + "2");
+    cache.validators("https://example.com/1");
+    cache.store("https://example.com/3", "\"3\"", null, body + "3");
+
+    assertThat(cache.validators("https://example.com/2")).isEmpty();
+    assertThat(cache.validators("https://example.com/1")).isNotEmpty();
+    assertThat(cache.validators("https://example.com/3")).isNotEmpty();
+    assertThat(cache.getSize()).isLessThanOrEqualTo(1024);
+  }
+
+  @Test
+  void indexSurvivesRestart() {
+    cache.store(URL, "\"abc\"", null, "<html>jobs</html>");
+    cache.writeIndex();
+
+    HttpResponseCache reloaded = new HttpResponseCache(true, directory, 1024);
+    reloaded.load();
+
+    assertThat(reloaded.validators(URL)).containsEntry("If-None-Match", "\"abc\"");
+    assertThat(reloaded.cachedBody(URL)).contains("<html>jobs</html>");
+  }
+
+  @Test
+  void disabledCacheKeepsNothing() {
+    HttpResponseCache disabled = new HttpResponseCache(false, directory, 1024);
+    disabled.store(URL, "\"abc\"", null, "<html>jobs</html>");
+
+    assertThat(disabled.validators(URL)).isEmpty();
+  }
+}
@@ -0,0 +1,35 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class RetryAfterTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+  @Test
+  void parsesDelaySeconds() {
+    assertThat(RetryAfter.parse("120", NOW)).contains(Duration.ofSeconds(120));
+  }
+
+  @Test
+  void parsesHttpDate() {
+    assertThat(RetryAfter.parse("Wed, 01 Jan 2025 10:00:30 GMT", NOW))
+        .contains(Duration.ofSeconds(30));
+  }
+
+  @Test
+  void dateInThePastMeansRetryNow() {
+    assertThat(RetryAfter.parse("Wed, 01 Jan 2025 09:00:00 GMT", NOW)).contains(Duration.ZERO);
+  }
+
+  @Test
+  void missingOrMalformedHeaderIsIgnored() {
+    assertThat(RetryAfter.parse(null, NOW)).isEmpty();
+    assertThat(RetryAfter.parse("soon", NOW)).isEmpty();
+  }
+}
@@ -0,0 +1,67 @@
+package com.uppdragsradarn.infrastructure.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+class StreamingHtmlTest {
+
+  private static final String LISTING =
+      """
+      <html><body>
+        <ul class="jobs">
+          <li class="job"><a href="/jobs/1">Java developer</a></li>
+          <li class="job"><a href="/jobs/2">Tester</a></li>
+        </ul>
+        <a class="next" href="?page=2">Next</a>
+      </body></html>
+      """;
+
+  private static final String DETAIL =
+      """
+      <html><body>
+        <div class="description">Build things</div>
+        <ul class="skills"><li>Java</li><li>Kotlin</li></ul>
+        <footer id="footer">Contact</footer>
+      </body></html>
+      """;
+
+  @Test
+  void forEachMatchVisitsJobsAndKeepsTheRestOfThePage() {
+    List<String> titles = new ArrayList<>();
+
+    Document rest =
+        StreamingHtml.forEachMatch(
+            LISTING, "https://example.com/", "li.job", job -> titles.add(job.text()));
+
+    assertThat(titles).containsExactly("Java developer", "Tester");
+    assertThat(rest.select("li.job")).isEmpty();
+    assertThat(rest.selectFirst("a.next")).isNotNull();
+  }
+
+  @Test
+  void parseUntilFoundStopsOnceSelectorsAreComplete() {
+    Document document =
+        StreamingHtml.parseUntilFound(
+            DETAIL,
+            "https://example.com/jobs/1",
+            Arrays.asList(".description", ".skills li", null));
+
+    assertThat(document.selectFirst(".description").text()).isEqualTo("Build things");
+    assertThat(document.select(".skills li")).hasSize(2);
+    assertThat(document.selectFirst("#footer")).isNull();
+  }
+
+  @Test
+  void parseUntilFoundParsesEverythingWhenASelectorNeverMatches() {
+    Document document =
+        StreamingHtml.parseUntilFound(DETAIL, "https://example.com/jobs/1", List.of(".missing"));
+
+    assertThat(document.selectFirst("#footer")).isNotNull();
+  }
+}
@@ -0,0 +1,74 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.infrastructure.service.AdaptiveConcurrencyLimiter.Permit;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  @Test
+  void limitGrowsByOneForEveryRoundOfSuccessfulCalls() throws Exception {
+    // A huge tolerance keeps scheduling noise from counting as a slow call
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1_000_000);
+
+    for (int i = 0; i < 2; i++) {
+      try (Permit permit = limiter.acquire()) {
+        permit.success();
+      }
+    }
+    assertThat(limiter.limit()).isEqualTo(2);
+
+    try (Permit permit = limiter.acquire()) {
+      permit.success();
+    }
+    assertThat(limiter.limit()).isEqualTo(3);
+  }
+
+  @Test
+  void rateLimitedCallsHalveTheLimitDownToTheMinimum() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 3, 10, 3.0);
+
+    try (Permit permit = limiter.acquire()) {
+      permit.rateLimited();
+    }
+    assertThat(limiter.limit()).isEqualTo(4);
+
+    try (Permit permit = limiter.acquire()) {
+      permit.rateLimited();
+    }
+    assertThat(limiter.limit()).isEqualTo(3);
+  }
+
+  @Test
+  void callsBeyondTheLimitWaitForAPermit() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 3.0);
+    Permit first = limiter.acquire();
+
+    CompletableFuture<Permit> second =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return limiter.acquire();
+              } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    try {
+      second.get(100, TimeUnit.MILLISECONDS);
+      throw new AssertionError("Second call started while the first was running");
+    } catch (TimeoutException expected) {
+      // Still waiting
+    }
+
+    first.close();
+    // Closing twice must not free a second slot
+    first.close();
+    second.get(5, TimeUnit.SECONDS).close();
+  }
+}
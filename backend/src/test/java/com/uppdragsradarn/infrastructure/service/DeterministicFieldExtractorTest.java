@@ -0,0 +1,127 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig;
+import com.uppdragsradarn.infrastructure.crawler.config.ExtractionConfig.ContentFilterConfig;
+import com.uppdragsradarn.infrastructure.service.DeterministicFieldExtractor.FieldExtraction;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractedAssignmentData;
+
+class DeterministicFieldExtractorTest {
+
+  private final DeterministicFieldExtractor extractor =
+      new DeterministicFieldExtractor(
+          new HtmlContentFilterService(new TokenCounter("gpt-4o-mini")));
+
+  @Test
+  void labelledFieldsAreFoundOnThePage() {
+    // Given
+    String html =
+        """
+        <html><body>
+          <nav>Hem | Uppdrag</nav>
+          <div class="content">
+            <h1>Senior Javautvecklare</h1>
+            <p>Vi söker en erfaren utvecklare till ett uppdrag inom betalningar.</p>
+            <ul>
+              <li><strong>Ort:</strong> Göteborg</li>
+              <li>Timpris: 1 050 - 1 200 kr/h</li>
+              <li>Omfattning: 50%</li>
+            </ul>
+            <dl>
+              <dt>Period</dt><dd>2025-03-01 – 2025-08-31</dd>
+              <dt>Sista ansökningsdag</dt><dd>14 februari 2025</dd>
+            </dl>
+          </div>
+        </body></html>
+        """;
+
+    // When
+    FieldExtraction result = extractor.extract(html, config(Map.of("company", ".company")));
+
+    // Then
+    ExtractedAssignmentData data = result.data();
+    assertThat(data.getTitle()).isEqualTo("Senior Javautvecklare");
+    assertThat(data.getRequirementLevel()).isEqualTo("Senior");
+    assertThat(data.getLocation()).isEqualTo("Göteborg");
+    assertThat(data.getHourlyRateMin()).isEqualTo(1050);
+    assertThat(data.getHourlyRateMax()).isEqualTo(1200);
+    assertThat(data.getCurrency()).isEqualTo("SEK");
+    assertThat(data.getHoursPerWeek()).isEqualTo(20);
+    assertThat(data.getStartDate()).isEqualTo("2025-03-01");
+    assertThat(data.getDurationMonths()).isEqualTo(6);
+    assertThat(data.getApplicationDeadline()).isEqualTo("2025-02-14");
+    assertThat(data.getDescription()).contains("betalningar").doesNotContain("Hem | Uppdrag");
+    assertThat(result.missing()).containsExactly("companyName", "skills", "workArrangement");
+  }
+
+  @Test
+  void guessesAreAskedForAndKeptWhenTheLlmFindsNothing() {
+    // Given
+    String html =
+        """
+        <html><head><title>Uppdrag | Konsultbolaget</title></head><body>
+          <div class="content">
+            <p>Ett uppdrag på 6 månader, helt på distans.</p>
+          </div>
+        </body></html>
+        """;
+    FieldExtraction result = extractor.extract(html, config(null));
+    ExtractedAssignmentData answer = new ExtractedAssignmentData();
+    answer.setTitle("Backend Developer");
+    answer.setSkills(List.of("Kotlin"));
+    answer.setDescription("Not to be used");
+
+    // When
+    ExtractedAssignmentData merged = result.merge(answer);
+
+    // Then
+    assertThat(result.missing()).contains("title", "durationMonths", "workArrangement");
+    assertThat(merged.getTitle()).isEqualTo("Backend Developer");
+    assertThat(merged.getSkills()).containsExactly("Kotlin");
+    assertThat(merged.getDurationMonths()).isEqualTo(6);
+    assertThat(merged.getWorkArrangement()).isEqualTo("Remote");
+    assertThat(merged.getDescription()).contains("6 månader");
+  }
+
+  @Test
+  void labelsInsideOtherWordsAndPercentagesAreNotTakenAsFields() {
+    // Given
+    String html =
+        """
+        <html><body>
+          <div class="content">
+            <h1>Senior Javautvecklare</h1>
+            <p>Success rate: 100%</p>
+            <p>Timpris: 100 % SEK-avtal</p>
+            <p>Restart: 2025-01-01</p>
+          </div>
+        </body></html>
+        """;
+
+    // When
+    FieldExtraction result = extractor.extract(html, config(null));
+
+    // Then
+    ExtractedAssignmentData data = result.data();
+    assertThat(data.getHourlyRateMin()).isNull();
+    assertThat(data.getHourlyRateMax()).isNull();
+    assertThat(data.getStartDate()).isNull();
+    assertThat(data.getDurationMonths()).isNull();
+    assertThat(result.missing()).contains("hourlyRateMin", "startDate");
+  }
+
+  private static ExtractionConfig config(Map<String, String> metadataSelectors) {
+    ContentFilterConfig filterConfig = new ContentFilterConfig();
+    filterConfig.setContentSelector(".content");
+    ExtractionConfig config = new ExtractionConfig();
+    config.setContentFilter(filterConfig);
+    config.setMetadataSelectors(metadataSelectors);
+    return config;
+  }
+}
@@ -5,8 +5,12 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -25,7 +29,13 @@ import com.uppdragsradarn.domain.model.StatusType;
 import com.uppdragsradarn.domain.repository.CurrencyRepository;
 import com.uppdragsradarn.domain.repository.SkillRepository;
 import com.uppdragsradarn.domain.repository.StatusTypeRepository;
+import com.uppdragsradarn.domain.service.AssignmentSink;
+import com.uppdragsradarn.infrastructure.crawler.politeness.HostRateLimiter;
+import com.uppdragsradarn.infrastructure.http.CrawlTrafficMetrics;
+import com.uppdragsradarn.infrastructure.http.HttpResponseCache;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
 import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractedAssignmentData;
+import com.uppdragsradarn.infrastructure.service.budget.ExtractionBudgets;
 
 /**
  * Test class for LlmJobExtractionService. Demonstrates the LLM-based extraction functionality with
@@ -46,18 +56,23 @@ class LlmJobExtractionServiceTest {
 
   @Mock private StatusTypeRepository statusTypeRepository;
 
+  @Mock private SharedHttpClients httpClients;
+
+  @Mock private HttpResponseCache responseCache;
+
+  @Mock private HostRateLimiter rateLimiter;
+
+  @Mock private CrawlTrafficMetrics trafficMetrics;
+
+  @Mock private ExtractionBudgets extractionBudgets;
+
+  @Mock private DeterministicFieldExtractor fieldExtractor;
+
   private LlmJobExtractionService extractionService;
 
   @BeforeEach
   void setUp() {
-    extractionService =
-        new LlmJobExtractionService(
-            llmService,
-            contentFilterService,
-            locationService,
-            skillRepository,
-            currencyRepository,
-            statusTypeRepository);
+    extractionService = newExtractionService();
 
     // Set test configuration
     ReflectionTestUtils.setField(extractionService, "userAgent", "Test-Agent/1.0");
@@ -106,6 +121,51 @@ class LlmJobExtractionServiceTest {
     verify(skillRepository).findByNameIgnoreCase("Spring Boot");
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void exhaustedBudgetReportsTheCrawlAsIncomplete() throws Exception {
+    // Given
+    Source source = createTestSource();
+    HttpClient httpClient = mock(HttpClient.class);
+    HttpResponse<String> response = mock(HttpResponse.class);
+    when(response.statusCode()).thenReturn(200);
+    when(response.body()).thenReturn(createMockHtmlContent());
+    when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+    doReturn(response).when(httpClient).send(any(), any());
+    when(httpClients.http()).thenReturn(httpClient);
+    extractionService = newExtractionService();
+    ReflectionTestUtils.setField(extractionService, "userAgent", "Test-Agent/1.0");
+    ReflectionTestUtils.setField(extractionService, "timeoutSeconds", 10);
+    ReflectionTestUtils.setField(extractionService, "hybridExtraction", false);
+
+    when(contentFilterService.loadExtractionConfig("emagine"))
+        .thenReturn(createMockExtractionConfig());
+    ExtractionBudget budget = ExtractionBudget.none();
+    when(extractionBudgets.open(source)).thenReturn(budget);
+    when(llmService.extractAssignmentData(any(), any(), any(), anyBoolean(), same(budget)))
+        .thenAnswer(
+            invocation -> {
+              invocation.getArgument(4, ExtractionBudget.class).reserve(500);
+              return createMockExtractedData();
+            });
+    AssignmentSink sink = mock(AssignmentSink.class);
+
+    // When
+    int extracted =
+        extractionService.extractAssignments(
+            List.of("https://example.com/job/1", "https://example.com/job/2"),
+            source,
+            "emagine",
+            sink,
+            10);
+
+    // Then
+    assertEquals(0, extracted);
+    verify(sink, never()).accept(any());
+    verify(sink).reportIncomplete(contains("LLM budget exhausted"));
+    verify(extractionBudgets).record(source, budget);
+  }
+
   @Test
   void testExtractAssignmentFromUrlWithMockData() throws Exception {
     // This test demonstrates how the extraction would work with real data
@@ -148,6 +208,22 @@ class LlmJobExtractionServiceTest {
     System.out.println("Mock extracted data: " + mockExtractedData.getTitle());
   }
 
+  private LlmJobExtractionService newExtractionService() {
+    return new LlmJobExtractionService(
+        llmService,
+        contentFilterService,
+        locationService,
+        skillRepository,
+        currencyRepository,
+        statusTypeRepository,
+        httpClients,
+        responseCache,
+        rateLimiter,
+        trafficMetrics,
+        extractionBudgets,
+        fieldExtractor);
+  }
+
   private Source createTestSource() {
     Source source = new Source();
     source.setName("Test Source");
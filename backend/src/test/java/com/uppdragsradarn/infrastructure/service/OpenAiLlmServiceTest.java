@@ -0,0 +1,230 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uppdragsradarn.infrastructure.http.SharedHttpClients;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractedAssignmentData;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.ExtractionRequest;
+import com.uppdragsradarn.infrastructure.service.OpenAiLlmService.PendingBatch;
+import com.uppdragsradarn.infrastructure.service.cache.InMemoryExtractionCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OpenAiLlmServiceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final AtomicReference<String> uploaded = new AtomicReference<>();
+  private final AtomicReference<String> chatRequest = new AtomicReference<>();
+  private final AtomicInteger batchesCreated = new AtomicInteger();
+  private final AtomicInteger statusChecks = new AtomicInteger();
+
+  @Mock private SharedHttpClients httpClients;
+
+  private HttpServer server;
+  private HttpClient httpClient;
+  private OpenAiLlmService llmService;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/v1/files", this::handleFiles);
+    server.createContext("/v1/batches", this::handleBatches);
+    server.createContext("/v1/chat/completions", this::handleChat);
+    server.start();
+
+    httpClient = HttpClient.newHttpClient();
+    when(httpClients.http()).thenReturn(httpClient);
+    llmService =
+        new OpenAiLlmService(
+            httpClients,
+            new InMemoryExtractionCache("30d", 100),
+            new TokenCounter("gpt-4o-mini"),
+            new SimpleMeterRegistry(),
+            4,
+            1,
+            16,
+            3.0,
+            0);
+    ReflectionTestUtils.setField(llmService, "apiKey", "test-key");
+    ReflectionTestUtils.setField(llmService, "defaultModel", "gpt-4o-mini");
+    ReflectionTestUtils.setField(
+        llmService, "baseUrl", "http://localhost:" + server.getAddress().getPort() + "/v1");
+    ReflectionTestUtils.setField(llmService, "timeoutSeconds", 5);
+    ReflectionTestUtils.setField(llmService, "batchPollInterval", "10ms");
+    ReflectionTestUtils.setField(llmService, "batchMaxWait", "5s");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    httpClient.close();
+  }
+
+  @Test
+  void batchAnswersAreReturnedInRequestOrderAndCached() throws Exception {
+    // Given
+    List<ExtractionRequest> requests =
+        List.of(
+            new ExtractionRequest("Java developer wanted", "gpt-4o-mini", null),
+            new ExtractionRequest("Tester wanted", "gpt-4o-mini", null));
+    ExtractionBudget budget = ExtractionBudget.unlimited();
+
+    // When
+    List<ExtractedAssignmentData> results = llmService.extractAssignmentDataBatch(requests, budget);
+
+    // Then
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).getTitle()).isEqualTo("Java Developer");
+    assertThat(results.get(1)).isNull();
+    assertThat(uploaded.get().lines().toList())
+        .hasSize(2)
+        .allSatisfy(line -> assertThat(line).contains("\"url\":\"/v1/chat/completions\""));
+    assertThat(statusChecks).hasValueGreaterThanOrEqualTo(2);
+    // The failed request is not charged
+    assertThat(budget.requests()).isEqualTo(1);
+    assertThat(budget.tokens()).isEqualTo(1234);
+
+    // When the same pages are extracted again
+    List<ExtractedAssignmentData> again =
+        llmService.extractAssignmentDataBatch(requests.subList(0, 1), budget);
+
+    // Then the answer comes from the cache
+    assertThat(again.get(0).getTitle()).isEqualTo("Java Developer");
+    assertThat(batchesCreated).hasValue(1);
+  }
+
+  @Test
+  void submittedBatchIsOnlyWaitedForWhenAwaited() throws Exception {
+    // When
+    PendingBatch pending =
+        llmService.submitAssignmentDataBatch(
+            List.of(new ExtractionRequest("Java developer wanted", "gpt-4o-mini", null)),
+            ExtractionBudget.unlimited());
+
+    // Then
+    assertThat(batchesCreated).hasValue(1);
+    assertThat(statusChecks).hasValue(0);
+    assertThat(pending.await().get(0).getTitle()).isEqualTo("Java Developer");
+  }
+
+  @Test
+  void onlyTheMissingFieldsAreAskedFor() throws Exception {
+    // When
+    ExtractedAssignmentData result =
+        llmService.extractFields(
+            "Java developer wanted, 850 kr/h",
+            Set.of("skills", "title"),
+            null,
+            null,
+            ExtractionBudget.unlimited());
+
+    // Then
+    assertThat(result.getTitle()).isEqualTo("Java Developer");
+    JsonNode request = objectMapper.readTree(chatRequest.get());
+    String systemPrompt = request.path("messages").get(0).path("content").asText();
+    assertThat(systemPrompt)
+        .contains("\"title\"", "\"skills\"")
+        .doesNotContain("\"description\"", "\"hourlyRateMin\"", "markdown");
+    assertThat(request.path("max_tokens").asInt()).isLessThan(800);
+  }
+
+  private void handleChat(HttpExchange exchange) throws IOException {
+    chatRequest.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    respond(
+        exchange,
+        objectMapper.writeValueAsString(
+            Map.of(
+                "choices",
+                List.of(
+                    Map.of(
+                        "message",
+                        Map.of(
+                            "role", "assistant",
+                            "content", "{\"title\":\"Java Developer\",\"skills\":[\"Java\"]}"))),
+                "usage",
+                Map.of("prompt_tokens", 200, "completion_tokens", 20, "total_tokens", 220))));
+  }
+
+  private void handleFiles(HttpExchange exchange) throws IOException {
+    String path = exchange.getRequestURI().getPath();
+    if ("POST".equals(exchange.getRequestMethod()) && path.equals("/v1/files")) {
+      uploaded.set(jsonlPart(new String(exchange.getRequestBody().readAllBytes())));
+      respond(exchange, "{\"id\":\"file-in\",\"purpose\":\"batch\"}");
+    } else if (path.equals("/v1/files/file-out/content")) {
+      String answer =
+          objectMapper.writeValueAsString(
+              Map.of(
+                  "choices",
+                  List.of(
+                      Map.of(
+                          "message",
+                          Map.of(
+                              "role", "assistant",
+                              "content", "{\"title\":\"Java Developer\"}"))),
+                  "usage",
+                  Map.of("total_tokens", 1234)));
+      respond(
+          exchange,
+          "{\"custom_id\":\"0\",\"response\":{\"status_code\":200,\"body\":"
+              + answer
+              + "}}\n"
+              + "{\"custom_id\":\"1\",\"response\":{\"status_code\":500,\"body\":{}}}\n");
+    } else {
+      exchange.sendResponseHeaders(404, -1);
+    }
+  }
+
+  private void handleBatches(HttpExchange exchange) throws IOException {
+    if ("POST".equals(exchange.getRequestMethod())) {
+      batchesCreated.incrementAndGet();
+      respond(exchange, "{\"id\":\"batch-1\",\"status\":\"validating\"}");
+    } else if (statusChecks.incrementAndGet() < 2) {
+      respond(exchange, "{\"id\":\"batch-1\",\"status\":\"in_progress\"}");
+    } else {
+      respond(
+          exchange,
+          "{\"id\":\"batch-1\",\"status\":\"completed\",\"output_file_id\":\"file-out\"}");
+    }
+  }
+
+  /** The content of the file part of a multipart upload */
+  private static String jsonlPart(String multipart) {
+    int start = multipart.indexOf("\r\n\r\n", multipart.indexOf("filename=")) + 4;
+    int end = multipart.lastIndexOf("\r\n--");
+    return multipart.substring(start, end);
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.uppdragsradarn.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TokenCounterTest {
+
+  private final TokenCounter tokenCounter = new TokenCounter("gpt-4o-mini");
+
+  @Test
+  void countsTokensOfTheModel() {
+    assertThat(tokenCounter.count(null)).isZero();
+    assertThat(tokenCounter.count("hello world")).isEqualTo(2);
+  }
+
+  @Test
+  void textThatFitsIsNotTruncated() {
+    String text = "Java developer wanted for an assignment in Stockholm";
+
+    assertThat(tokenCounter.truncate(text, null, tokenCounter.count(text))).isSameAs(text);
+  }
+
+  @Test
+  void truncatedTextStaysWithinTheLimit() {
+    String text =
+        "Vi söker en erfaren systemutvecklare med kunskaper i Java och Kotlin. ".repeat(50);
+
+    String truncated = tokenCounter.truncate(text, "gpt-4o", 100);
+
+    assertThat(truncated).endsWith("...").doesNotContain("\uFFFD");
+    assertThat(tokenCounter.count(truncated, "gpt-4o")).isLessThanOrEqualTo(100);
+    assertThat(text).startsWith(truncated.substring(0, truncated.length() - 3));
+  }
+
+  @Test
+  void unknownModelsUseTheCurrentVocabulary() {
+    String text = "Senior backend developer";
+
+    assertThat(tokenCounter.count(text, "gpt-4o-mini-2099-01-01"))
+        .isEqualTo(tokenCounter.count(text, "gpt-4o"));
+  }
+}
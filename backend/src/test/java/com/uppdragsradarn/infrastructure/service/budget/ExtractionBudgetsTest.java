@@ -0,0 +1,74 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfiguration;
+import com.uppdragsradarn.infrastructure.crawler.config.CrawlerConfigurationService;
+import com.uppdragsradarn.infrastructure.service.ExtractionBudget;
+import com.uppdragsradarn.infrastructure.service.ExtractionBudget.BudgetExceededException;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractionBudgetsTest {
+
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.parse("2025-01-01T10:00:00Z"), ZoneOffset.UTC);
+
+  @Mock private CrawlerConfigurationService configurationService;
+
+  private final InMemoryTokenUsageLedger ledger = new InMemoryTokenUsageLedger();
+  private final Source source = Source.builder().id(UUID.randomUUID()).name("Test").build();
+
+  private ExtractionBudgets budgets;
+
+  @BeforeEach
+  void setUp() {
+    budgets = new ExtractionBudgets(ledger, configurationService, 0, 8000, 10000, CLOCK);
+  }
+
+  @Test
+  void crawlMaySpendNoMoreThanWhatIsLeftOfTheDay() {
+    // Given
+    when(configurationService.getConfiguration(source))
+        .thenReturn(CrawlerConfiguration.builder().build());
+    ExtractionBudget first = budgets.open(source);
+    first.reserve(4000);
+    first.reserve(3000);
+    budgets.record(source, first);
+
+    // When
+    ExtractionBudget second = budgets.open(source);
+
+    // Then
+    second.reserve(3000);
+    assertThatThrownBy(() -> second.reserve(1)).isInstanceOf(BudgetExceededException.class);
+  }
+
+  @Test
+  void sourceThatSpentItsDailyBudgetGetsNoRequests() {
+    // Given
+    when(configurationService.getConfiguration(source))
+        .thenReturn(CrawlerConfiguration.builder().dailyTokenBudget(1000).build());
+    ledger.add(source.getId(), CLOCK.instant().atZone(ZoneOffset.UTC).toLocalDate(), 1000);
+
+    // When
+    ExtractionBudget budget = budgets.open(source);
+
+    // Then
+    assertThatThrownBy(() -> budget.reserve(1)).isInstanceOf(BudgetExceededException.class);
+    assertThat(budget.isExhausted()).isTrue();
+  }
+}
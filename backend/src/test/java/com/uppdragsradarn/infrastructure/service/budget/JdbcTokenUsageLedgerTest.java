@@ -0,0 +1,86 @@
+package com.uppdragsradarn.infrastructure.service.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class JdbcTokenUsageLedgerTest {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 1, 1);
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    database =
+        new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute(
+        "CREATE TABLE llm_token_usage (source_id UUID NOT NULL, usage_date DATE NOT NULL,"
+            + " tokens BIGINT NOT NULL, PRIMARY KEY (source_id, usage_date))");
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  void usageIsAddedUpPerSourceAndDay() {
+    // Given
+    UUID sourceId = UUID.randomUUID();
+    UUID otherSourceId = UUID.randomUUID();
+    JdbcTokenUsageLedger ledger = new JdbcTokenUsageLedger(jdbcTemplate);
+
+    // When
+    ledger.add(sourceId, DAY, 1000);
+    new JdbcTokenUsageLedger(jdbcTemplate).add(sourceId, DAY, 500);
+    ledger.add(sourceId, DAY.plusDays(1), 200);
+    ledger.add(otherSourceId, DAY, 300);
+
+    // Then
+    assertThat(ledger.usedOn(sourceId, DAY)).isEqualTo(1500);
+    assertThat(ledger.usedOn(sourceId, DAY.plusDays(1))).isEqualTo(200);
+    assertThat(ledger.usedOn(otherSourceId, DAY)).isEqualTo(300);
+    assertThat(ledger.usedOn(otherSourceId, DAY.minusDays(1))).isZero();
+  }
+
+  @Test
+  void usageIsAddedWhenAnotherReplicaCreatedTheDayFirst() {
+    // Given
+    UUID sourceId = UUID.randomUUID();
+    JdbcTemplate racingTemplate =
+        new JdbcTemplate(database) {
+          private boolean raced;
+
+          @Override
+          public int update(String sql, Object... args) {
+            if (!raced && sql.startsWith("INSERT")) {
+              // Another replica stores its usage between our update and insert
+              raced = true;
+              new JdbcTokenUsageLedger(jdbcTemplate).add(sourceId, DAY, 700);
+            }
+            return super.update(sql, args);
+          }
+        };
+
+    // When
+    new JdbcTokenUsageLedger(racingTemplate).add(sourceId, DAY, 1000);
+
+    // Then
+    assertThat(new JdbcTokenUsageLedger(jdbcTemplate).usedOn(sourceId, DAY)).isEqualTo(1700);
+  }
+}
@@ -0,0 +1,57 @@
+package com.uppdragsradarn.infrastructure.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryExtractionCacheTest {
+
+  private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+  private static final Duration TTL = Duration.ofDays(30);
+
+  @Mock private Clock clock;
+
+  @Test
+  void storedExtractionIsReturnedUntilItExpires() {
+    // Given
+    when(clock.instant())
+        .thenReturn(START, START.plus(Duration.ofDays(1)), START.plus(TTL).plusSeconds(1));
+    InMemoryExtractionCache cache = new InMemoryExtractionCache(TTL, 10, clock);
+    cache.put("key", "{\"title\":\"Java\"}");
+
+    // When
+    boolean foundBeforeExpiry = cache.get("key").isPresent();
+    boolean foundAfterExpiry = cache.get("key").isPresent();
+
+    // Then
+    assertThat(foundBeforeExpiry).isTrue();
+    assertThat(foundAfterExpiry).isFalse();
+  }
+
+  @Test
+  void leastRecentlyUsedExtractionIsEvictedAboveMaximumSize() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    InMemoryExtractionCache cache = new InMemoryExtractionCache(TTL, 2, clock);
+    cache.put("a", "{}");
+    cache.put("b", "{}");
+    cache.get("a");
+
+    // When
+    cache.put("c", "{}");
+
+    // Then
+    assertThat(cache.get("a")).isPresent();
+    assertThat(cache.get("b")).isEmpty();
+    assertThat(cache.get("c")).isPresent();
+  }
+}
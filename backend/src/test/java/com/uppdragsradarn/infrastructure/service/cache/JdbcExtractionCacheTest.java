@@ -0,0 +1,116 @@
+package com.uppdragsradarn.infrastructure.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+@ExtendWith(MockitoExtension.class)
+class JdbcExtractionCacheTest {
+
+  private static final Instant START = Instant.parse("2025-01-01T10:00:00Z");
+  private static final Duration TTL = Duration.ofDays(30);
+
+  @Mock private Clock clock;
+
+  private EmbeddedDatabase database;
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    database =
+        new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+    jdbcTemplate = new JdbcTemplate(database);
+    jdbcTemplate.execute(
+        "CREATE TABLE llm_extraction_cache (cache_key VARCHAR(64) PRIMARY KEY, data TEXT NOT NULL,"
+            + " created_at TIMESTAMP NOT NULL, last_used_at TIMESTAMP NOT NULL)");
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.shutdown();
+  }
+
+  @Test
+  void extractionIsSharedBetweenInstances() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    new JdbcExtractionCache(jdbcTemplate, TTL, 10, clock).put("key", "{\"title\":\"Java\"}");
+
+    // When
+    JdbcExtractionCache otherInstance = new JdbcExtractionCache(jdbcTemplate, TTL, 10, clock);
+
+    // Then
+    assertThat(otherInstance.get("key")).contains("{\"title\":\"Java\"}");
+  }
+
+  @Test
+  void storingAgainReplacesTheExtraction() {
+    // Given
+    when(clock.instant()).thenReturn(START);
+    JdbcExtractionCache cache = new JdbcExtractionCache(jdbcTemplate, TTL, 10, clock);
+    cache.put("key", "{\"title\":\"Old\"}");
+
+    // When
+    cache.put("key", "{\"title\":\"New\"}");
+
+    // Then
+    assertThat(cache.get("key")).contains("{\"title\":\"New\"}");
+  }
+
+  @Test
+  void expiredExtractionIsNotReturnedAndEvicted() {
+    // Given
+    when(clock.instant()).thenReturn(START, START.plus(TTL).plusSeconds(1));
+    JdbcExtractionCache cache = new JdbcExtractionCache(jdbcTemplate, TTL, 10, clock);
+    cache.put("key", "{}");
+
+    // When
+    boolean found = cache.get("key").isPresent();
+    cache.evict();
+
+    // Then
+    assertThat(found).isFalse();
+    assertThat(rows()).isZero();
+  }
+
+  @Test
+  void leastRecentlyUsedExtractionsAreEvictedAboveMaximumSize() {
+    // Given
+    when(clock.instant())
+        .thenReturn(START, START.plusSeconds(1), START.plusSeconds(2), START.plusSeconds(3));
+    JdbcExtractionCache cache = new JdbcExtractionCache(jdbcTemplate, TTL, 2, clock);
+    cache.put("a", "{}");
+    cache.put("b", "{}");
+    cache.put("c", "{}");
+    cache.get("a");
+
+    // When
+    cache.evict();
+
+    // Then
+    assertThat(rows()).isEqualTo(2);
+    assertThat(cache.get("a")).isPresent();
+    assertThat(cache.get("b")).isEmpty();
+  }
+
+  private int rows() {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM llm_extraction_cache", Integer.class);
+  }
+}
@@ -17,16 +17,31 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.uppdragsradarn.application.service.CrawlerService;
+import com.uppdragsradarn.domain.exception.CrawlInProgressException;
+import com.uppdragsradarn.domain.exception.SourceCircuitOpenException;
 import com.uppdragsradarn.domain.model.CrawlerJobExecution;
 import com.uppdragsradarn.domain.model.StatusType;
+import com.uppdragsradarn.infrastructure.crawler.CrawlExecutor;
+import com.uppdragsradarn.infrastructure.crawler.CrawlProgressRegistry;
+import com.uppdragsradarn.infrastructure.crawler.breaker.SourceCircuitBreakerRegistry;
+import com.uppdragsradarn.infrastructure.crawler.schedule.AdaptiveCrawlScheduler;
 
 @ExtendWith(MockitoExtension.class)
 public class AdminCrawlerControllerTest {
 
   @Mock private CrawlerService crawlerService;
 
+  @Mock private CrawlExecutor crawlExecutor;
+
+  @Mock private CrawlProgressRegistry progressRegistry;
+
+  @Mock private AdaptiveCrawlScheduler crawlScheduler;
+
+  @Mock private SourceCircuitBreakerRegistry circuitBreakers;
+
   @InjectMocks private AdminCrawlerController controller;
 
   @Test
@@ -60,6 +75,40 @@ public class AdminCrawlerControllerTest {
     assertEquals(jobId, body.get("jobId"));
   }
 
+  @Test
+  void startCrawlerJob_SourceAlreadyCrawling_Returns409() {
+    // Setup test data
+    UUID sourceId = UUID.randomUUID();
+
+    // Mock the service to report a crawl in progress
+    when(crawlerService.startCrawlerJob(eq(sourceId)))
+        .thenThrow(new CrawlInProgressException("Source is already being crawled: Test"));
+
+    // Call the controller
+    ResponseEntity<Map<String, Object>> response = controller.startCrawlerJob(sourceId);
+
+    // Verify response
+    assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    assertFalse((Boolean) response.getBody().get("success"));
+  }
+
+  @Test
+  void startCrawlerJob_SourceCircuitOpen_Returns503() {
+    // Setup test data
+    UUID sourceId = UUID.randomUUID();
+
+    // Mock the service to report a source skipped by its circuit breaker
+    when(crawlerService.startCrawlerJob(eq(sourceId)))
+        .thenThrow(new SourceCircuitOpenException("Source is skipped after repeated failures"));
+
+    // Call the controller
+    ResponseEntity<Map<String, Object>> response = controller.startCrawlerJob(sourceId);
+
+    // Verify response
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertFalse((Boolean) response.getBody().get("success"));
+  }
+
   @Test
   void startCrawlerJob_ServiceError_Returns500() {
     // Setup test data
@@ -215,4 +264,47 @@ public class AdminCrawlerControllerTest {
     assertNotNull(body);
     assertFalse((Boolean) body.get("success"));
   }
+
+  @Test
+  void getExecutorStats_Returns200() {
+    // Mock the executor
+    when(crawlExecutor.getStats())
+        .thenReturn(new CrawlExecutor.CrawlExecutorStats(3, 16, 16, 1, 2));
+
+    // Call the controller
+    ResponseEntity<CrawlExecutor.CrawlExecutorStats> response = controller.getExecutorStats();
+
+    // Verify response
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertNotNull(response.getBody());
+    assertEquals(3, response.getBody().queuedJobs());
+    assertEquals(16, response.getBody().activeJobs());
+  }
+
+  @Test
+  void streamCrawlerJobProgress_RunningJob_ReturnsLiveStream() {
+    // Mock a job that is running on this instance
+    SseEmitter emitter = new SseEmitter();
+    when(progressRegistry.subscribe("job-1")).thenReturn(Optional.of(emitter));
+
+    // Call the controller
+    ResponseEntity<SseEmitter> response = controller.streamCrawlerJobProgress("job-1");
+
+    // Verify response
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertSame(emitter, response.getBody());
+  }
+
+  @Test
+  void streamCrawlerJobProgress_UnknownJob_Returns404() {
+    // Mock a job that neither runs nor exists
+    when(progressRegistry.subscribe("missing")).thenReturn(Optional.empty());
+    when(crawlerService.getCrawlerJobStatus("missing")).thenReturn(Optional.empty());
+
+    // Call the controller
+    ResponseEntity<SseEmitter> response = controller.streamCrawlerJobProgress("missing");
+
+    // Verify response
+    assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+  }
 }
@@ -0,0 +1,107 @@
+package com.uppdragsradarn.integration;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.uppdragsradarn.application.service.CrawlerService;
+import com.uppdragsradarn.domain.model.CrawlerJobExecution;
+import com.uppdragsradarn.domain.model.Source;
+import com.uppdragsradarn.domain.repository.SourceRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * End-to-end crawl benchmark against a recorded corpus instead of the live sites.
+ *
+ * <p>Record a corpus with {@code app.crawler.http.archive.mode=record}, then run this class with
+ * {@code -Dcrawl.archive=<archive file>} and a profile whose database holds the recorded sources,
+ * for example {@code -Dspring.profiles.active=dev}. Every active source is crawled once from the
+ * archive, and the time, assignments found, heap allocated and database writes are printed per
+ * source. {@code -Dcrawl.archive.latency=50ms} replays the responses with a fixed latency.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "crawl.archive", matches = ".+")
+public class CrawlReplayBenchmark {
+
+  @Autowired private CrawlerService crawlerService;
+  @Autowired private SourceRepository sourceRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  @DynamicPropertySource
+  static void replayProperties(DynamicPropertyRegistry registry) {
+    registry.add("app.crawler.http.archive.mode", () -> "replay");
+    registry.add("app.crawler.http.archive.file", () -> System.getProperty("crawl.archive"));
+    registry.add(
+        "app.crawler.http.archive.replay-latency",
+        () -> System.getProperty("crawl.archive.latency", "0ms"));
+    // Every run has to go through the same requests as the recording
+    registry.add("app.crawler.http.cache.enabled", () -> "false");
+    registry.add("app.crawler.incremental.enabled", () -> "false");
+    registry.add("app.crawler.politeness.enabled", () -> "false");
+    registry.add("app.crawler.scheduling.enabled", () -> "false");
+    registry.add("app.crawler.init-on-startup", () -> "false");
+    registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+  }
+
+  @Test
+  public void crawlRecordedCorpus() throws Exception {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    List<Source> sources = sourceRepository.findByActiveTrue();
+
+    System.out.printf(
+        "%-30s %10s %8s %12s %8s %8s%n",
+        "Source", "Time (ms)", "Found", "Alloc (MB)", "Inserts", "Updates");
+    long totalNanos = 0;
+    int totalFound = 0;
+    for (Source source : sources) {
+      statistics.clear();
+      long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+      long start = System.nanoTime();
+
+      CrawlerJobExecution job = crawlerService.startCrawlerJob(source.getId());
+      CrawlerJobExecution finished = awaitCompletion(job.getId());
+
+      long nanos = System.nanoTime() - start;
+      long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+      int found = finished.getAssignmentsFound() != null ? finished.getAssignmentsFound() : 0;
+      totalNanos += nanos;
+      totalFound += found;
+      System.out.printf(
+          "%-30s %10d %8d %12.1f %8d %8d %s%n",
+          source.getName(),
+          Duration.ofNanos(nanos).toMillis(),
+          found,
+          allocated / (1024.0 * 1024.0),
+          statistics.getEntityInsertCount(),
+          statistics.getEntityUpdateCount(),
+          finished.getStatus().getName());
+    }
+    double seconds = totalNanos / 1_000_000_000.0;
+    System.out.printf(
+        "%d sources, %d assignments in %.2f s (%.1f assignments/s)%n",
+        sources.size(), totalFound, seconds, seconds > 0 ? totalFound / seconds : 0);
+  }
+
+  private CrawlerJobExecution awaitCompletion(String jobId) throws InterruptedException {
+    while (true) {
+      CrawlerJobExecution job = crawlerService.getCrawlerJobStatus(jobId).orElseThrow();
+      String status = job.getStatus().getName();
+      if (!"RUNNING".equals(status) && !"SCHEDULED".equals(status)) {
+        return job;
+      }
+      Thread.sleep(50);
+    }
+  }
+}